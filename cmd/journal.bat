@@ -0,0 +1 @@
+java %JAVA_OPTIONS% -cp "%CLASSPATH%;target/sparql-query-bm-cli.jar" net.sf.sparql.benchmarking.commands.JournalCommand %*
\ No newline at end of file
@@ -74,8 +74,13 @@ import net.sf.sparql.benchmarking.loader.OperationMixLoaderRegistry;
 import net.sf.sparql.benchmarking.loader.query.InMemorySummarizedFixedQueryOperationLoader;
 import net.sf.sparql.benchmarking.loader.query.SummarizedFixedQueryOperationLoader;
 import net.sf.sparql.benchmarking.monitoring.ConsoleProgressListener;
+import net.sf.sparql.benchmarking.monitoring.JournalProgressListener;
+import net.sf.sparql.benchmarking.monitoring.TimeSeriesProgressListener;
 import net.sf.sparql.benchmarking.options.HaltBehaviour;
+import net.sf.sparql.benchmarking.options.ListenerBackpressure;
 import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.options.ThreadingMode;
 import net.sf.sparql.benchmarking.runners.mix.SamplingOperationMixRunner;
 import net.sf.sparql.benchmarking.util.AuthUtils;
 import net.sf.sparql.benchmarking.util.FileUtils;
@@ -119,7 +124,7 @@ public abstract class AbstractCommand {
      * Timeout option
      */
     @Option(name = { "-t",
-            "--timeout" }, arity = 1, title = "Seconds", description = "Sets the operation timeout in seconds, a zero/negative value is used to indicate no timeout.")
+            "--timeout" }, arity = 1, title = "Seconds", description = "Sets the operation timeout in seconds, a zero/negative value is used to indicate no timeout.  Timed out operations are cancelled and have the timeout recorded as their runtime, however an operation blocked in a way that cannot be aborted, e.g. a request made without the HTTP connection pool, continues to occupy its thread until it returns.")
     public int timeout = Options.DEFAULT_TIMEOUT;
 
     /**
@@ -129,6 +134,12 @@ public abstract class AbstractCommand {
             "--parallel" }, arity = 1, title = "Threads", description = "Sets the number of parallel threads to use for testing.")
     public int parallelThreads = 1;
 
+    /**
+     * Virtual threads option
+     */
+    @Option(name = { "--virtual-threads" }, description = "Runs parallel clients and their operations on virtual threads which allows very large numbers of parallel clients (-p/--parallel) to be simulated, requires Java 21 or higher and platform threads are used on older JVMs.")
+    public boolean virtualThreads = false;
+
     /**
      * Maximum delay between operations option
      */
@@ -157,6 +168,27 @@ public abstract class AbstractCommand {
             "--gsp-endpoint" }, arity = 1, title = "Graph Store Endpoint URI", description = "Sets the SPARQL graph store protocol endpoint URI.")
     public String gspEndpoint;
 
+    /**
+     * Graph store format option
+     */
+    @Option(name = {
+            "--gsp-format" }, arity = 1, title = "MIME Type", description = "Sets the RDF format in which graph store protocol PUT and POST operations send their data e.g. application/n-triples, text/turtle or application/rdf+thrift.  Data is serialized once before running starts so serialization is not included in measured runtimes.  GET operations request this format in preference to others.  Defaults to N-Triples.")
+    public String gspFormat = Options.DEFAULT_GRAPH_STORE_FORMAT;
+
+    /**
+     * Graph store compression option
+     */
+    @Option(name = {
+            "--gsp-gzip" }, description = "Sends the data for graph store protocol PUT and POST operations GZip compressed, the server must support compressed request bodies.")
+    public boolean gspCompression = false;
+
+    /**
+     * Graph store protocol data file validation
+     */
+    @Option(name = {
+            "--gsp-validate" }, description = "Validates the data files used by graph store protocol put-file and post-file operations by parsing them once before running starts, otherwise files are streamed to the server without being parsed.")
+    public boolean gspValidation = false;
+
     /**
      * Enable compression option
      */
@@ -164,6 +196,42 @@ public abstract class AbstractCommand {
             "--allow-compression" }, description = "Enables the use of GZip/Deflate compression when communicating with the server assuming the server supports it.")
     public boolean enableCompression = false;
 
+    /**
+     * Disable HTTP connection pooling option
+     */
+    @Option(name = { "--no-http-pool" }, description = "Disables the shared pool of keep-alive HTTP connections so that a new connection is made for every request, this means connection setup costs will be included in measured runtimes.")
+    public boolean noHttpPool = false;
+
+    /**
+     * HTTP max connections per route option
+     */
+    @Option(name = { "--http-max-connections" }, arity = 1, title = "Connections", description = "Sets the maximum number of pooled HTTP connections per endpoint host, this should be at least the number of parallel threads.")
+    public int httpMaxConnections = Options.DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE;
+
+    /**
+     * HTTP keep alive option
+     */
+    @Option(name = { "--http-keep-alive" }, arity = 1, title = "Milliseconds", description = "Sets how long in milliseconds pooled HTTP connections are kept alive when the server does not specify, values <= 0 disable connection reuse.")
+    public long httpKeepAlive = Options.DEFAULT_HTTP_KEEP_ALIVE;
+
+    /**
+     * HTTP idle timeout option
+     */
+    @Option(name = { "--http-idle-timeout" }, arity = 1, title = "Milliseconds", description = "Sets the time in milliseconds after which idle pooled HTTP connections are evicted, values <= 0 disable eviction.")
+    public long httpIdleTimeout = Options.DEFAULT_HTTP_IDLE_TIMEOUT;
+
+    /**
+     * Disable TCP_NODELAY option
+     */
+    @Option(name = { "--no-tcp-nodelay" }, description = "Disables setting TCP_NODELAY on pooled HTTP connections i.e. leaves Nagle's algorithm enabled.")
+    public boolean noTcpNoDelay = false;
+
+    /**
+     * HTTP phase timings option
+     */
+    @Option(name = { "--http-timings" }, description = "Enables recording a per-phase breakdown of HTTP timings (DNS lookup, TCP connect, TLS handshake, time to first byte, download and parse) for remote operations, requires HTTP connection pooling.")
+    public boolean httpTimings = false;
+
     /**
      * ASK Format option
      */
@@ -296,6 +364,20 @@ public abstract class AbstractCommand {
             "--quiet" }, description = "Enables quiet mode, in this mode general progress information is not printed to standard out.")
     public boolean quiet = false;
 
+    /**
+     * Journal option
+     */
+    @Option(name = {
+            "--journal" }, arity = 1, title = "Journal File", description = "Records every operation run to a compact binary run journal for later analysis, journals are exported with the journal command.  The file must not already exist, very large journals are split into segments which append the segment number to the file name.")
+    public String journalFile;
+
+    /**
+     * Time series option
+     */
+    @Option(name = {
+            "--time-series" }, arity = 1, title = "Time Series File", description = "Writes a live CSV time series of throughput, error rate and latency percentiles while the tests run.  Every second one row is written for each rolling window (1, 10 and 60 seconds) for each operation and for the operation mix as a whole, the Scope column gives the operation name or Operation Mix.  The file must not already exist.")
+    public String timeSeriesFile;
+
     /**
      * Setup mix option
      */
@@ -328,6 +410,40 @@ public abstract class AbstractCommand {
             "--no-count" }, description = "Disables result counting for SELECT queries, allows measuring just the time to respond to queries rather than the time to complete the entire query which may be useful when benchmarking against very large datasets or when the IO path between the benchmarker and the system being benchmarked is known to be a bottleneck.")
     public boolean noCount = false;
 
+    /**
+     * Raw count option
+     */
+    @Option(name = { "--raw-count" }, description = "Counts the results of remote queries directly from the raw bytes of the response using lightweight streaming scanners rather than parsing them, this avoids the benchmarker becoming the bottleneck for very large results and also records the bytes received.  Supports SPARQL XML, JSON, CSV and TSV results plus N-Triples, N-Quads and Turtle, other formats fall back to requesting SPARQL XML results or N-Triples as appropriate.")
+    public boolean rawCount = false;
+
+    /**
+     * Streaming statistics option
+     */
+    @Option(name = {
+            "--streaming-stats" }, description = "Enables streaming statistics which records statistics in constant memory by keeping running totals and histograms rather than retaining every run.  Recommended for long running soak tests where retaining every run may exhaust the heap, however individual runs cannot be inspected afterwards and outliers cannot be trimmed.")
+    public boolean streamingStats = false;
+
+    /**
+     * Progress verbosity option
+     */
+    @Option(name = {
+            "--verbosity" }, arity = 1, title = "Level", description = "Sets the level of detail at which progress is reported.  SUMMARY reports only progress for the run as a whole, OPERATION_MIX also reports each run of the operation mix and OPERATION also reports each run of an operation.  Lower levels avoid the overhead of formatting progress for every operation on high throughput runs.  Defaults to OPERATION.")
+    public ProgressVerbosity verbosity = Options.DEFAULT_PROGRESS_VERBOSITY;
+
+    /**
+     * Listener buffer size option
+     */
+    @Option(name = {
+            "--listener-buffer" }, arity = 1, title = "Events", description = "Sets the number of events that may be buffered for each progress listener.  When set listeners are invoked asynchronously on their own threads so that slow listeners such as those writing results files do not stall the threads performing operations.  Defaults to 0 which invokes listeners synchronously.")
+    public int listenerBufferSize = Options.DEFAULT_LISTENER_BUFFER_SIZE;
+
+    /**
+     * Listener backpressure option
+     */
+    @Option(name = {
+            "--listener-backpressure" }, arity = 1, title = "Policy", description = "Sets the behaviour when the buffer of an asynchronous progress listener (--listener-buffer) is full.  BLOCK waits for space in the buffer, DROP discards the event and SAMPLE delivers only a sample of events while the buffer is full.  Summary progress messages are never discarded.  Defaults to BLOCK.")
+    public ListenerBackpressure listenerBackpressure = Options.DEFAULT_LISTENER_BACKPRESSURE;
+
     /**
      * Dataset assembler file option
      */
@@ -422,6 +538,12 @@ public abstract class AbstractCommand {
             System.out.println(
                     "Running with logging to console enabled, quiet mode is enabled but will have limited effect especially if you've set --debug or --trace as well");
         }
+        if (this.journalFile != null) {
+            options.addListener(new JournalProgressListener(this.journalFile));
+        }
+        if (this.timeSeriesFile != null) {
+            options.addListener(new TimeSeriesProgressListener(this.timeSeriesFile));
+        }
 
         // Load the operation mix
         // Try to get a loader for the given mix file
@@ -435,6 +557,9 @@ public abstract class AbstractCommand {
         options.setQueryEndpoint(this.queryEndpoint);
         options.setUpdateEndpoint(this.updateEndpoint);
         options.setGraphStoreEndpoint(this.gspEndpoint);
+        options.setGraphStoreFormat(this.gspFormat);
+        options.setGraphStoreCompression(this.gspCompression);
+        options.setGraphStoreValidation(this.gspValidation);
 
         // In-Memory operation support
         if (this.dsAssemblerFile != null) {
@@ -482,13 +607,25 @@ public abstract class AbstractCommand {
         options.setHaltBehaviour(HaltBehaviour.EXIT);
         options.setHaltOnError(this.haltOnError);
         options.setHaltOnTimeout(this.haltOnTimeout);
+        options.setHttpConnectionPooling(!this.noHttpPool);
+        options.setHttpIdleTimeout(this.httpIdleTimeout);
+        options.setHttpKeepAlive(this.httpKeepAlive);
+        options.setHttpMaxConnectionsPerRoute(this.httpMaxConnections);
+        options.setHttpTcpNoDelay(!this.noTcpNoDelay);
+        options.setHttpPhaseTimings(this.httpTimings);
         options.setLimit(this.limit);
+        options.setListenerBackpressure(this.listenerBackpressure);
+        options.setListenerBufferSize(this.listenerBufferSize);
         options.setLocalLimit(this.localLimit);
         options.setMaxDelay(this.maxDelay);
         options.setNoCount(this.noCount);
         options.setParallelThreads(this.parallelThreads);
+        options.setProgressVerbosity(this.verbosity);
         options.setRandomizeOrder(!this.noRandom);
+        options.setRawResultCounting(this.rawCount);
         options.setSanityCheckLevel(this.sanityCheckLevel);
+        options.setStreamingStatistics(this.streamingStats);
+        options.setThreadingMode(this.virtualThreads ? ThreadingMode.VIRTUAL : ThreadingMode.PLATFORM);
         options.setTimeout(this.timeout);
 
         // Mix Runner
@@ -99,6 +99,13 @@ public class BenchmarkCommand extends AbstractCommand {
             "--csv" }, arity = 1, title = "CSV Filename", description = "Sets the name of the CSV results file to be used, if not set then no CSV results will be produced")
     public String csvResultsFile;
 
+    /**
+     * CSV raw result file option
+     */
+    @Option(name = {
+            "--csv-raw" }, arity = 1, title = "CSV Filename", description = "Sets the name of the CSV raw results file to be used, this receives a row for every operation run giving its completion timestamp, operation, thread, runtime, response time, result count and error category.  Only used if CSV results are also enabled via the --csv option.")
+    public String csvRawResultsFile;
+
     /**
      * XML result file option
      */
@@ -199,6 +206,7 @@ public class BenchmarkCommand extends AbstractCommand {
     protected <T extends BenchmarkOptions> void applyBenchmarkOptions(T options) {
         // Results options
         options.setAllowOverwrite(this.allowOverwrite);
+        options.setCsvRawResultsFile(this.csvRawResultsFile);
         options.setCsvResultsFile(this.csvResultsFile);
         options.setXmlResultsFile(this.xmlResultsFile);
 
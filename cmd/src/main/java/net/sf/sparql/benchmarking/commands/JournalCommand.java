@@ -0,0 +1,173 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.commands;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import javax.inject.Inject;
+
+import net.sf.sparql.benchmarking.monitoring.journal.JournalExporter;
+import net.sf.sparql.benchmarking.monitoring.journal.JournalReader;
+
+import org.apache.commons.lang.ArrayUtils;
+
+import com.github.rvesse.airline.HelpOption;
+import com.github.rvesse.airline.SingleCommand;
+import com.github.rvesse.airline.annotations.Arguments;
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.restrictions.Required;
+import com.github.rvesse.airline.parser.errors.ParseArgumentsMissingException;
+import com.github.rvesse.airline.parser.errors.ParseArgumentsUnexpectedException;
+import com.github.rvesse.airline.parser.errors.ParseOptionMissingException;
+import com.github.rvesse.airline.parser.errors.ParseOptionMissingValueException;
+
+/**
+ * A command which exports binary run journals
+ * 
+ * @author rvesse
+ * 
+ */
+@Command(name = "journal", description = "Exports a binary run journal recorded with the --journal option as CSV")
+public class JournalCommand {
+
+    /**
+     * Help option
+     */
+    @Inject
+    public HelpOption<JournalCommand> helpOption;
+
+    /**
+     * Format option
+     */
+    @Option(name = { "-f",
+            "--format" }, arity = 1, title = "Format", description = "Sets the export format, records exports every run, histogram exports latency percentiles per operation and time-series exports throughput and latency per interval.  Defaults to records.")
+    public String format = "records";
+
+    /**
+     * Interval option
+     */
+    @Option(name = { "-i",
+            "--interval" }, arity = 1, title = "Milliseconds", description = "Sets the interval used for time-series exports, defaults to 1000 milliseconds.")
+    public long interval = 1000;
+
+    /**
+     * Output option
+     */
+    @Option(name = { "-o",
+            "--output" }, arity = 1, title = "File", description = "Sets the file to export to, if not set the export is written to standard out.")
+    public String output;
+
+    /**
+     * Journal argument
+     */
+    @Arguments(title = "Journal File", description = "Sets the journal file to export")
+    @Required
+    public String journalFile;
+
+    /**
+     * Entry point for the journal command
+     * 
+     * @param args
+     *            Arguments
+     */
+    public static void main(String[] args) {
+        int exitCode = ExitCodes.SUCCESS;
+        try {
+            // Parse options
+            JournalCommand cmd = SingleCommand.singleCommand(JournalCommand.class).parse(args);
+
+            // Show help if requested
+            if (cmd.helpOption.showHelpIfRequested()) {
+                return;
+            }
+
+            // Run command
+            cmd.run();
+
+            // Successful exit
+            exitCode = ExitCodes.SUCCESS;
+        } catch (ParseOptionMissingException e) {
+            if (!ArrayUtils.contains(args, "--help")) {
+                System.err.println(AbstractCommand.ANSI_RED + e.getMessage());
+                System.err.println();
+            }
+            AbstractCommand.showUsage(JournalCommand.class);
+            exitCode = ExitCodes.REQUIRED_OPTION_MISSING;
+        } catch (ParseOptionMissingValueException e) {
+            AbstractCommand.showUsage(JournalCommand.class);
+            exitCode = ExitCodes.REQUIRED_OPTION_VALUE_MISSING;
+        } catch (ParseArgumentsMissingException e) {
+            System.err.println(AbstractCommand.ANSI_RED + e.getMessage());
+            System.err.println();
+            exitCode = ExitCodes.REQUIRED_ARGUMENTS_MISSING;
+        } catch (ParseArgumentsUnexpectedException e) {
+            System.err.println(AbstractCommand.ANSI_RED + e.getMessage());
+            System.err.println();
+            exitCode = ExitCodes.UNEXPECTED_ARGUMENT;
+        } catch (Throwable e) {
+            System.err.println(AbstractCommand.ANSI_RED + e.getMessage());
+            e.printStackTrace(System.err);
+            exitCode = ExitCodes.UNEXPECTED_ERROR;
+        } finally {
+            System.err.println(AbstractCommand.ANSI_RESET);
+            System.exit(exitCode);
+        }
+    }
+
+    private void run() throws IOException {
+        JournalReader journal = new JournalReader(new File(this.journalFile));
+        Writer writer = new OutputStreamWriter(
+                this.output != null ? new FileOutputStream(this.output) : System.out, StandardCharsets.UTF_8);
+        try {
+            if ("records".equals(this.format)) {
+                JournalExporter.exportRecords(journal, writer);
+            } else if ("histogram".equals(this.format)) {
+                JournalExporter.exportHistogram(journal, writer);
+            } else if ("time-series".equals(this.format)) {
+                JournalExporter.exportTimeSeries(journal, writer, this.interval);
+            } else {
+                throw new IllegalArgumentException(
+                        "Unknown export format " + this.format + ", expected records, histogram or time-series");
+            }
+        } finally {
+            writer.flush();
+            if (this.output != null)
+                writer.close();
+        }
+    }
+}
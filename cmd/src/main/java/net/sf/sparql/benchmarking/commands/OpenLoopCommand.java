@@ -0,0 +1,182 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+ * Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+ * Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+ * Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+ */
+
+package net.sf.sparql.benchmarking.commands;
+
+import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.parser.errors.ParseArgumentsMissingException;
+import com.github.rvesse.airline.parser.errors.ParseArgumentsUnexpectedException;
+import com.github.rvesse.airline.parser.errors.ParseOptionMissingException;
+import com.github.rvesse.airline.parser.errors.ParseOptionMissingValueException;
+import com.github.rvesse.airline.SingleCommand;
+
+import java.io.IOException;
+
+import org.apache.commons.lang.ArrayUtils;
+
+import net.sf.sparql.benchmarking.options.OpenLoopOptions;
+import net.sf.sparql.benchmarking.parallel.arrivals.FixedRateArrivalProcess;
+import net.sf.sparql.benchmarking.parallel.arrivals.PoissonArrivalProcess;
+import net.sf.sparql.benchmarking.parallel.arrivals.ScheduledArrivalProcess;
+import net.sf.sparql.benchmarking.runners.AbstractRunner;
+import net.sf.sparql.benchmarking.runners.OpenLoopRunner;
+
+/**
+ * Runs the open loop tester from the Command Line
+ * 
+ * @author rvesse
+ * 
+ */
+@Command(name = "open-loop", description = "Runs an open loop test which consists of starting runs of the configured operation mix at a target arrival rate regardless of how quickly the system responds, reported response times include any time runs spent queued waiting for a free client.")
+public class OpenLoopCommand extends SoakCommand {
+
+    /**
+     * Arrival rate option
+     */
+    @Option(name = { "--rate" }, arity = 1, title = "Arrivals per Second", description = "Sets the target arrival rate in operation mix runs per second, the -t/--threads option determines the maximum number of runs that may be in progress concurrently.")
+    public double rate = OpenLoopOptions.DEFAULT_ARRIVAL_RATE;
+
+    /**
+     * Poisson arrivals option
+     */
+    @Option(name = { "--poisson" }, description = "When set arrivals follow a Poisson process i.e. the interval between arrivals is exponentially distributed around the target rate, otherwise arrivals occur at fixed intervals.")
+    public boolean poisson = false;
+
+    /**
+     * Arrival schedule option
+     */
+    @Option(name = { "--schedule" }, arity = 1, title = "Schedule", description = "Sets an arrival rate schedule as a comma separated list of seconds:rate steps e.g. 60:10,60:20 runs at 10 arrivals per second for a minute and then at 20 arrivals per second thereafter.  When set the --rate option is ignored.")
+    public String schedule;
+
+    /**
+     * Random seed option
+     */
+    @Option(name = { "--seed" }, arity = 1, title = "Seed", description = "Sets the random seed used for Poisson arrivals allowing the arrival schedule to be reproduced.")
+    public Long seed;
+
+    /**
+     * Maximum backlog option
+     */
+    @Option(name = { "--max-backlog" }, arity = 1, title = "Max Backlog", description = "Sets the maximum number of arrivals that may be queued waiting for a free client, if the system falls further behind than this then arrivals are dropped and the number dropped is reported.")
+    public int maxBacklog = OpenLoopOptions.DEFAULT_MAX_BACKLOG;
+
+    /**
+     * Runs the command line open loop testing process
+     * 
+     * @param args
+     *            Arguments
+     */
+    public static void main(String[] args) {
+        int exitCode = ExitCodes.SUCCESS;
+        try {
+            // Parse options
+            OpenLoopCommand cmd = SingleCommand.singleCommand(OpenLoopCommand.class).parse(args);
+
+            // Show help if requested
+            if (cmd.helpOption.showHelpIfRequested()) {
+                return;
+            }
+
+            // Run testing
+            exitCode = cmd.run();
+        } catch (ParseOptionMissingException e) {
+            if (!ArrayUtils.contains(args, "--help")) {
+                System.err.println(ANSI_RED + e.getMessage());
+                System.err.println();
+            }
+            showUsage(OpenLoopCommand.class);
+            exitCode = ExitCodes.REQUIRED_OPTION_MISSING;
+        } catch (ParseOptionMissingValueException e) {
+            if (!ArrayUtils.contains(args, "--help")) {
+                System.err.println(ANSI_RED + e.getMessage());
+                System.err.println();
+            }
+            showUsage(OpenLoopCommand.class);
+            exitCode = ExitCodes.REQUIRED_OPTION_VALUE_MISSING;
+        } catch (ParseArgumentsMissingException e) {
+            System.err.println(ANSI_RED + e.getMessage());
+            System.err.println();
+            exitCode = ExitCodes.REQUIRED_ARGUMENTS_MISSING;
+        } catch (ParseArgumentsUnexpectedException e) {
+            System.err.println(ANSI_RED + e.getMessage());
+            System.err.println();
+            exitCode = ExitCodes.UNEXPECTED_ARGUMENT;
+        } catch (IOException e) {
+            System.err.println(ANSI_RED + e.getMessage());
+            System.err.println();
+            exitCode = ExitCodes.IO_ERROR;
+        } catch (Throwable e) {
+            System.err.println(ANSI_RED + e.getMessage());
+            e.printStackTrace(System.err);
+            exitCode = ExitCodes.UNEXPECTED_ERROR;
+        } finally {
+            System.err.println(ANSI_RESET);
+            System.exit(exitCode);
+        }
+    }
+
+    @Override
+    protected int run() throws IOException {
+        // Prepare options
+        OpenLoopOptions options = new OpenLoopOptions();
+        this.applyStandardOptions(options);
+        this.applySoakOptions(options);
+        this.applyOpenLoopOptions(options);
+
+        // Run open loop tests
+        AbstractRunner<OpenLoopOptions> runner = new OpenLoopRunner();
+        runner.run(options);
+
+        // Open loop tests always return SUCCESS
+        return ExitCodes.SUCCESS;
+    }
+
+    /**
+     * Applies open loop testing options provided by this command
+     * 
+     * @param options
+     *            Open loop options to populate
+     */
+    protected void applyOpenLoopOptions(OpenLoopOptions options) {
+        long seed = this.seed != null ? this.seed : System.nanoTime();
+        if (this.schedule != null) {
+            options.setArrivalProcess(ScheduledArrivalProcess.parse(this.schedule, this.poisson, seed));
+        } else if (this.poisson) {
+            options.setArrivalProcess(new PoissonArrivalProcess(this.rate, seed));
+        } else {
+            options.setArrivalProcess(new FixedRateArrivalProcess(this.rate));
+        }
+        options.setMaxBacklog(this.maxBacklog);
+    }
+
+}
@@ -73,6 +73,30 @@ public class StressCommand extends AbstractCommand {
     @Option(name = { "--ramp-up" }, arity = 1, title = "Ramp Up Factor", description = "Sets the ramp up factor for stress tests, this controls how quickly the amount of load placed upon the system will increase during the testing process")
     public int rampUpFactor = StressOptions.DEFAULT_RAMP_UP_FACTOR;
 
+    /**
+     * Saturation search option
+     */
+    @Option(name = { "--saturation-search" }, description = "When set rather than simply ramping up load the stress test searches for the saturation point of the system i.e. the load at which throughput stops increasing or the latency SLO is broken, reporting throughput and latency at each load level along with the maximum sustainable throughput")
+    public boolean saturationSearch = false;
+
+    /**
+     * Step duration option
+     */
+    @Option(name = { "--step-duration" }, arity = 1, title = "Seconds", description = "Sets how long each load level is run for in seconds when searching for the saturation point")
+    public long stepDuration = StressOptions.DEFAULT_STEP_DURATION;
+
+    /**
+     * Latency SLO option
+     */
+    @Option(name = { "--latency-slo" }, arity = 1, title = "Milliseconds", description = "Sets the 99th percentile operation mix latency SLO in milliseconds when searching for the saturation point, load levels which exceed this are considered unsustainable")
+    public long latencySlo = StressOptions.DEFAULT_LATENCY_SLO;
+
+    /**
+     * Minimum throughput gain option
+     */
+    @Option(name = { "--min-throughput-gain" }, arity = 1, title = "Fraction", description = "Sets the minimum fractional increase in throughput e.g. 0.05 for 5% that doubling the load must produce for the system to be considered not yet saturated when searching for the saturation point")
+    public double minThroughputGain = StressOptions.DEFAULT_MIN_THROUGHPUT_GAIN;
+
     /**
      * Runs the command line soak testing process
      * 
@@ -153,6 +177,10 @@ public class StressCommand extends AbstractCommand {
         options.setMaxThreads(this.maxThreads);
         options.setMaxRuntime(this.runtime);
         options.setRampUpFactor(this.rampUpFactor);
+        options.setSaturationSearch(this.saturationSearch);
+        options.setStepDuration(this.stepDuration);
+        options.setLatencySlo(this.latencySlo);
+        options.setMinThroughputGain(this.minThroughputGain);
     }
 
 }
@@ -44,6 +44,11 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.jena.util.FileUtils;
 
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSamplers;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSources;
+
 /**
  * Abstract operation loader that provides useful protected methods for loader
  * implementations
@@ -143,4 +148,55 @@ public abstract class AbstractOperationLoader implements OperationLoader {
                 OperationLoaderArgument.TYPE_STRING, optional);
     }
 
+    /**
+     * Gets the argument used to specify how parameters are sampled by
+     * parameterized operations
+     * 
+     * @return Sampling argument
+     */
+    public static OperationLoaderArgument getSamplingArgument() {
+        return new OperationLoaderArgument(
+                "Sampling",
+                "Provides the distribution used to choose the parameters for each run, one of uniform (the default), zipfian:exponent, hotspot:traffic:keys, sequential or shuffled optionally followed by @seed e.g. zipfian:1.1@12345",
+                OperationLoaderArgument.TYPE_STRING, true);
+    }
+
+    /**
+     * Loads parameters from a file in SPARQL TSV results format
+     * <p>
+     * Parameters files are memory mapped and only decoded as needed, sources
+     * are shared between all operations that use the same parameters file.
+     * </p>
+     * 
+     * @param baseDir
+     *            Base directory
+     * @param filename
+     *            Parameters file name
+     * @return Parameter source
+     * @throws IOException
+     *             Thrown if the parameters cannot be loaded
+     */
+    protected ParameterSource loadParameters(File baseDir, String filename) throws IOException {
+        return ParameterSources.getTsvSource(resolveFile(baseDir, filename));
+    }
+
+    /**
+     * Parses a parameter sampling specification
+     * 
+     * @param spec
+     *            Specification, may be {@code null} for uniform sampling
+     * @param size
+     *            Number of parameter sets
+     * @return Parameter sampler
+     * @throws IOException
+     *             Thrown if the specification is not valid
+     */
+    protected ParameterSampler parseSampler(String spec, int size) throws IOException {
+        try {
+            return ParameterSamplers.parse(spec, size);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
 }
\ No newline at end of file
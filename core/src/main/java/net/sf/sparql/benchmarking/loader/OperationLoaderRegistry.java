@@ -39,7 +39,9 @@ import java.util.Map;
 import net.sf.sparql.benchmarking.loader.gsp.GSPDeleteOperationLoader;
 import net.sf.sparql.benchmarking.loader.gsp.GSPGetOperationLoader;
 import net.sf.sparql.benchmarking.loader.gsp.GSPHeadOperationLoader;
+import net.sf.sparql.benchmarking.loader.gsp.GSPPostFileOperationLoader;
 import net.sf.sparql.benchmarking.loader.gsp.GSPPostOperationLoader;
+import net.sf.sparql.benchmarking.loader.gsp.GSPPutFileOperationLoader;
 import net.sf.sparql.benchmarking.loader.gsp.GSPPutOperationLoader;
 import net.sf.sparql.benchmarking.loader.query.DatasetSizeOperationLoader;
 import net.sf.sparql.benchmarking.loader.query.FixedNvpQueryOperationLoader;
@@ -50,6 +52,8 @@ import net.sf.sparql.benchmarking.loader.query.ParameterizedNvpQueryOperationLoa
 import net.sf.sparql.benchmarking.loader.query.ParameterizedQueryOperationLoader;
 import net.sf.sparql.benchmarking.loader.query.SummarizedFixedQueryOperationLoader;
 import net.sf.sparql.benchmarking.loader.query.FixedQueryOperationLoader;
+import net.sf.sparql.benchmarking.loader.update.BatchedParameterizedUpdateOperationLoader;
+import net.sf.sparql.benchmarking.loader.update.ChangeFileUpdateOperationLoader;
 import net.sf.sparql.benchmarking.loader.update.FixedNvpUpdateOperationLoader;
 import net.sf.sparql.benchmarking.loader.update.InMemoryFixedUpdateOperationLoader;
 import net.sf.sparql.benchmarking.loader.update.InMemoryParameterizedUpdateOperationLoader;
@@ -98,6 +102,8 @@ public class OperationLoaderRegistry {
         addLoader(new ParameterizedUpdateOperationLoader());
         addLoader(new InMemoryParameterizedUpdateOperationLoader());
         addLoader(new ParameterizedNvpUpdateOperationLoader());
+        addLoader(new BatchedParameterizedUpdateOperationLoader());
+        addLoader(new ChangeFileUpdateOperationLoader());
 
         // GSP operations
         addLoader(new GSPGetOperationLoader());
@@ -105,6 +111,8 @@ public class OperationLoaderRegistry {
         addLoader(new GSPDeleteOperationLoader());
         addLoader(new GSPPostOperationLoader());
         addLoader(new GSPPutOperationLoader());
+        addLoader(new GSPPostFileOperationLoader());
+        addLoader(new GSPPutFileOperationLoader());
 
         // Utility operations
         addLoader(new SleepOperationLoader());
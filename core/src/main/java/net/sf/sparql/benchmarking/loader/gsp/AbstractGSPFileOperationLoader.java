@@ -0,0 +1,107 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.loader.gsp;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
+import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.gsp.GSPPayload;
+
+/**
+ * Abstract operation loader for GSP operations which stream their data
+ * directly from a file
+ * <p>
+ * Unlike {@link AbstractGSPDataOperationLoader} the data file is never loaded
+ * into memory so this is suitable for very large data files.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class AbstractGSPFileOperationLoader extends AbstractOperationLoader {
+
+    @Override
+    public Operation load(File baseDir, String[] args) throws IOException {
+        switch (args.length) {
+        case 2:
+            return createOperation(args[0], this.loadPayload(baseDir, args[1]), null);
+        case 3:
+            return createOperation(args[0], this.loadPayload(baseDir, args[1]), args[2]);
+        default:
+            throw new IOException("Insufficient arguments to load a GSP operation");
+        }
+    }
+
+    /**
+     * Prepares the payload for the data file
+     * 
+     * @param baseDir
+     *            Base Directory
+     * @param file
+     *            Filename
+     * @return Payload
+     * @throws IOException
+     */
+    protected GSPPayload loadPayload(File baseDir, String file) throws IOException {
+        return GSPPayload.create(this.resolveFile(baseDir, file));
+    }
+
+    /**
+     * Creates a GSP operation
+     * 
+     * @param name
+     *            Name
+     * @param payload
+     *            Payload to be sent
+     * @param graphUri
+     *            Graph URI, null for the default graph
+     * @return GSP operation
+     */
+    protected abstract Operation createOperation(String name, GSPPayload payload, String graphUri);
+
+    @Override
+    public OperationLoaderArgument[] getArguments() {
+        OperationLoaderArgument[] args = new OperationLoaderArgument[3];
+        args[0] = AbstractOperationLoader.getNameArgument(false);
+        args[1] = new OperationLoaderArgument(
+                "Data File",
+                "Provides a file containing a RDF graph to be streamed to the remote store without being parsed.  This must be in a triples format that Jena recognizes from the file extension and may be GZipped.",
+                OperationLoaderArgument.TYPE_FILE, false);
+        args[2] = new OperationLoaderArgument("Graph URI", "Provides a Graph URI for the operation to operate over",
+                OperationLoaderArgument.TYPE_STRING, true);
+        return args;
+    }
+}
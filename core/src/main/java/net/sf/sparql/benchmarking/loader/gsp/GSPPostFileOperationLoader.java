@@ -0,0 +1,62 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.loader.gsp;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.gsp.GSPPostOperation;
+import net.sf.sparql.benchmarking.operations.gsp.GSPPayload;
+
+/**
+ * An operation loader for GSP Post operations which stream their data from a
+ * file
+ * 
+ * @author rvesse
+ * 
+ */
+public class GSPPostFileOperationLoader extends AbstractGSPFileOperationLoader {
+
+    @Override
+    public String getPreferredName() {
+        return "post-file";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Adds new data to a store by streaming a data file using a SPARQL Graph Store protocol POST request";
+    }
+
+    @Override
+    protected Operation createOperation(String name, GSPPayload payload, String graphUri) {
+        return new GSPPostOperation(name, payload, graphUri);
+    }
+}
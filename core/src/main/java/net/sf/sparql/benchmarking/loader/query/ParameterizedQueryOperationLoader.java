@@ -34,20 +34,15 @@ package net.sf.sparql.benchmarking.loader.query;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.apache.jena.query.ResultSet;
-import org.apache.jena.query.ResultSetFactory;
-import org.apache.jena.sparql.engine.binding.Binding;
-
 import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
 import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.parameterized.ParameterizedQueryOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 
 /**
  * Parameterized query operation loader
@@ -66,19 +61,19 @@ public class ParameterizedQueryOperationLoader extends AbstractOperationLoader {
 
         String queryFile = args[0];
         String name = queryFile;
+        String sampling = null;
         String paramsFile = args[1];
 
         if (args.length > 2) {
             name = args[2];
         }
+        if (args.length > 3) {
+            sampling = args[3];
+        }
 
         String query = readFile(baseDir, queryFile);
-        ResultSet rs = ResultSetFactory.fromTSV(getInputStream(baseDir, paramsFile));
-        List<Binding> params = new ArrayList<Binding>();
-        while (rs.hasNext()) {
-            params.add(rs.nextBinding());
-        }
-        return new ParameterizedQueryOperation(query, params, name);
+        ParameterSource params = this.loadParameters(baseDir, paramsFile);
+        return new ParameterizedQueryOperation(query, params, name, this.parseSampler(sampling, params.size()));
     }
 
     @Override
@@ -93,7 +88,7 @@ public class ParameterizedQueryOperationLoader extends AbstractOperationLoader {
 
     @Override
     public OperationLoaderArgument[] getArguments() {
-        OperationLoaderArgument[] args = new OperationLoaderArgument[3];
+        OperationLoaderArgument[] args = new OperationLoaderArgument[4];
         args[0] = new OperationLoaderArgument("Query File", "Provides a file that contains the SPARQL query to be run.",
                 OperationLoaderArgument.TYPE_FILE);
         args[1] = new OperationLoaderArgument(
@@ -101,6 +96,7 @@ public class ParameterizedQueryOperationLoader extends AbstractOperationLoader {
                 "Provides a file that contains the parameters to be used.  Parameters files are expected to be in SPARQL TSV results format where each result row represents a set of parameters.",
                 OperationLoaderArgument.TYPE_FILE);
         args[2] = AbstractOperationLoader.getNameArgument(true);
+        args[3] = AbstractOperationLoader.getSamplingArgument();
         return args;
     }
 }
@@ -0,0 +1,136 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.loader.update;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
+import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.parameterized.BatchedParameterizedUpdateOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
+
+/**
+ * Batched parameterized update operation loader
+ * 
+ * @author rvesse
+ * 
+ */
+public class BatchedParameterizedUpdateOperationLoader extends AbstractOperationLoader {
+
+    @Override
+    public Operation load(File baseDir, String[] args) throws IOException {
+        if (args.length < 3)
+            throw new IOException("Insufficient arguments to load a batched parameterized update operation");
+
+        String updateFile = args[0];
+        String paramsFile = args[1];
+        String name = updateFile;
+        String sampling = null;
+        long maxBatchLength = 0;
+        int batchSize;
+        try {
+            batchSize = Integer.parseInt(args[2]);
+            if (args.length > 3) {
+                name = args[3];
+            }
+            if (args.length > 4) {
+                sampling = args[4];
+            }
+            if (args.length > 5) {
+                maxBatchLength = Long.parseLong(args[5]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid numeric argument for batched parameterized update operation", e);
+        }
+
+        String update = readFile(baseDir, updateFile);
+        ParameterSource params = this.loadParameters(baseDir, paramsFile);
+        try {
+            return new BatchedParameterizedUpdateOperation(update, params, name, this.parseSampler(sampling,
+                    params.size()), batchSize, maxBatchLength);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getPreferredName() {
+        return "batch-param-update";
+    }
+
+    @Override
+    public String getDescription() {
+        return "The batch-param-update operation draws many sets of parameters for a SPARQL update and sends the resulting updates as a single batched request against a remote SPARQL service via HTTP.";
+    }
+
+    @Override
+    public OperationLoaderArgument[] getArguments() {
+        OperationLoaderArgument[] args = new OperationLoaderArgument[6];
+        args[0] = new OperationLoaderArgument("Update File", "Provides a file that contains the SPARQL updates to be run.",
+                OperationLoaderArgument.TYPE_FILE);
+        args[1] = new OperationLoaderArgument(
+                "Parameters File",
+                "Provides a file that contains the parameters to be used.  Parameters files are expected to be in SPARQL TSV results format where each result row represents a set of parameters.",
+                OperationLoaderArgument.TYPE_FILE);
+        args[2] = getBatchSizeArgument();
+        args[3] = AbstractOperationLoader.getNameArgument(true);
+        args[4] = AbstractOperationLoader.getSamplingArgument();
+        args[5] = getMaxBatchLengthArgument();
+        return args;
+    }
+
+    /**
+     * Gets the argument used to specify the maximum number of statements in a
+     * batch
+     * 
+     * @return Batch size argument
+     */
+    static OperationLoaderArgument getBatchSizeArgument() {
+        return new OperationLoaderArgument("Batch Size", "Provides the maximum number of statements in each batch.",
+                OperationLoaderArgument.TYPE_LONG);
+    }
+
+    /**
+     * Gets the argument used to specify the maximum length of a batch
+     * 
+     * @return Maximum batch length argument
+     */
+    static OperationLoaderArgument getMaxBatchLengthArgument() {
+        return new OperationLoaderArgument(
+                "Maximum Batch Length",
+                "Provides the size of the SPARQL text in characters at which a batch is closed regardless of how many statements it contains, 0 (the default) means there is no limit.",
+                OperationLoaderArgument.TYPE_LONG, true);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.loader.update;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
+import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.update.ChangeFileUpdateOperation;
+
+/**
+ * Change file update operation loader
+ * 
+ * @author rvesse
+ * 
+ */
+public class ChangeFileUpdateOperationLoader extends AbstractOperationLoader {
+
+    @Override
+    public Operation load(File baseDir, String[] args) throws IOException {
+        if (args.length < 2)
+            throw new IOException("Insufficient arguments to load a batched update operation");
+
+        String changeFile = args[0];
+        String name = changeFile;
+        long maxBatchLength = 0;
+        int batchSize;
+        try {
+            batchSize = Integer.parseInt(args[1]);
+            if (args.length > 2) {
+                name = args[2];
+            }
+            if (args.length > 3) {
+                maxBatchLength = Long.parseLong(args[3]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid numeric argument for batched update operation", e);
+        }
+
+        try {
+            return new ChangeFileUpdateOperation(name, resolveFile(baseDir, changeFile), batchSize, maxBatchLength);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getPreferredName() {
+        return "batch-update";
+    }
+
+    @Override
+    public String getDescription() {
+        return "The batch-update operation replays a change file containing one SPARQL update per line against a remote SPARQL service via HTTP, sending consecutive lines as a single batched request.";
+    }
+
+    @Override
+    public OperationLoaderArgument[] getArguments() {
+        OperationLoaderArgument[] args = new OperationLoaderArgument[4];
+        args[0] = new OperationLoaderArgument(
+                "Change File",
+                "Provides a file that contains one SPARQL update per line e.g. INSERT DATA statements, blank lines and lines starting with # are ignored.  When the end of the file is reached it is replayed from the beginning.",
+                OperationLoaderArgument.TYPE_FILE);
+        args[1] = BatchedParameterizedUpdateOperationLoader.getBatchSizeArgument();
+        args[2] = AbstractOperationLoader.getNameArgument(true);
+        args[3] = BatchedParameterizedUpdateOperationLoader.getMaxBatchLengthArgument();
+        return args;
+    }
+}
@@ -34,20 +34,15 @@ package net.sf.sparql.benchmarking.loader.update;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.apache.jena.query.ResultSet;
-import org.apache.jena.query.ResultSetFactory;
-import org.apache.jena.sparql.engine.binding.Binding;
-
 import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
 import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.parameterized.ParameterizedUpdateOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 
 /**
  * Parameterized update operation loader
@@ -66,19 +61,19 @@ public class InMemoryParameterizedUpdateOperationLoader extends AbstractOperatio
 
         String queryFile = args[0];
         String name = queryFile;
+        String sampling = null;
         String paramsFile = args[1];
 
         if (args.length > 2) {
             name = args[2];
         }
+        if (args.length > 3) {
+            sampling = args[3];
+        }
 
         String update = readFile(baseDir, queryFile);
-        ResultSet rs = ResultSetFactory.fromTSV(getInputStream(baseDir, paramsFile));
-        List<Binding> params = new ArrayList<Binding>();
-        while (rs.hasNext()) {
-            params.add(rs.nextBinding());
-        }
-        return new ParameterizedUpdateOperation(update, params, name);
+        ParameterSource params = this.loadParameters(baseDir, paramsFile);
+        return new ParameterizedUpdateOperation(update, params, name, this.parseSampler(sampling, params.size()));
     }
 
     @Override
@@ -93,7 +88,7 @@ public class InMemoryParameterizedUpdateOperationLoader extends AbstractOperatio
 
     @Override
     public OperationLoaderArgument[] getArguments() {
-        OperationLoaderArgument[] args = new OperationLoaderArgument[3];
+        OperationLoaderArgument[] args = new OperationLoaderArgument[4];
         args[0] = new OperationLoaderArgument("Update File", "Provides a file that contains the SPARQL updates to be run.",
                 OperationLoaderArgument.TYPE_FILE);
         args[1] = new OperationLoaderArgument(
@@ -101,6 +96,7 @@ public class InMemoryParameterizedUpdateOperationLoader extends AbstractOperatio
                 "Provides a file that contains the parameters to be used.  Parameters files are expected to be in SPARQL TSV results format where each result row represents a set of parameters.",
                 OperationLoaderArgument.TYPE_FILE);
         args[2] = AbstractOperationLoader.getNameArgument(true);
+        args[3] = AbstractOperationLoader.getSamplingArgument();
         return args;
     }
 }
@@ -34,22 +34,18 @@ package net.sf.sparql.benchmarking.loader.update;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.apache.jena.query.ResultSet;
-import org.apache.jena.query.ResultSetFactory;
-import org.apache.jena.sparql.engine.binding.Binding;
-
 import net.sf.sparql.benchmarking.loader.AbstractNvpOperationLoader;
 import net.sf.sparql.benchmarking.loader.AbstractOperationLoader;
 import net.sf.sparql.benchmarking.loader.OperationLoaderArgument;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.parameterized.nvp.ParameterizedNvpUpdateOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 
 /**
  * Parameterized update operation loader
@@ -68,21 +64,21 @@ public class ParameterizedNvpUpdateOperationLoader extends AbstractNvpOperationL
 
         String queryFile = args[0];
         String name = queryFile;
+        String sampling = null;
         String paramsFile = args[1];
         String nvpsFile = args[2];
 
         if (args.length > 3) {
             name = args[3];
         }
+        if (args.length > 4) {
+            sampling = args[4];
+        }
 
         String update = readFile(baseDir, queryFile);
-        ResultSet rs = ResultSetFactory.fromTSV(getInputStream(baseDir, paramsFile));
-        List<Binding> params = new ArrayList<Binding>();
-        while (rs.hasNext()) {
-            params.add(rs.nextBinding());
-        }
+        ParameterSource params = this.loadParameters(baseDir, paramsFile);
         Map<String, List<String>> nvps = this.parseNvps(baseDir, nvpsFile);
-        return new ParameterizedNvpUpdateOperation(update, params, name, nvps);
+        return new ParameterizedNvpUpdateOperation(update, params, name, nvps, this.parseSampler(sampling, params.size()));
     }
 
     @Override
@@ -97,7 +93,7 @@ public class ParameterizedNvpUpdateOperationLoader extends AbstractNvpOperationL
 
     @Override
     public OperationLoaderArgument[] getArguments() {
-        OperationLoaderArgument[] args = new OperationLoaderArgument[4];
+        OperationLoaderArgument[] args = new OperationLoaderArgument[5];
         args[0] = new OperationLoaderArgument("Update File", "Provides a file that contains the SPARQL updates to be run.",
                 OperationLoaderArgument.TYPE_FILE);
         args[1] = new OperationLoaderArgument(
@@ -106,6 +102,7 @@ public class ParameterizedNvpUpdateOperationLoader extends AbstractNvpOperationL
                 OperationLoaderArgument.TYPE_FILE);
         args[2] = AbstractNvpOperationLoader.getNvpsArgument();
         args[3] = AbstractOperationLoader.getNameArgument(true);
+        args[4] = AbstractOperationLoader.getSamplingArgument();
         return args;
     }
 }
@@ -0,0 +1,425 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.ListenerBackpressure;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+
+/**
+ * A progress listener that dispatches events to another listener
+ * asynchronously
+ * <p>
+ * Events are placed into a bounded buffer and delivered to the wrapped
+ * listener in order by a dedicated consumer thread, so slow listeners (e.g.
+ * those doing I/O) are kept off the measurement path. What happens when the
+ * buffer is full is controlled by the {@link ListenerBackpressure} policy,
+ * events that are not delivered are counted and available via
+ * {@link #getDroppedEvents()}. Progress messages and progress events at the
+ * {@link ProgressVerbosity#SUMMARY} level are never dropped regardless of the
+ * policy since they carry the summary output of a run. Progress events are
+ * buffered as-is so their messages are formatted on the consumer thread.
+ * </p>
+ * <p>
+ * {@link #start(Runner, Options)} and
+ * {@link #finish(Runner, Options, boolean)} are invoked on the wrapped listener
+ * synchronously, finishing waits for all buffered events to be delivered
+ * first. Errors thrown by the wrapped listener when handling other events are
+ * reported on the consumer thread and halt the runner if the halting options
+ * require it.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class AsyncProgressListener implements ProgressEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncProgressListener.class);
+
+    /**
+     * Default sample rate used with {@link ListenerBackpressure#SAMPLE}
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private final ProgressListener listener;
+    private final BlockingQueue<Event> buffer;
+    private final ListenerBackpressure backpressure;
+    private final int sampleRate;
+    private final AtomicLong delivered = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong overflows = new AtomicLong(0);
+    private volatile Thread consumer;
+    /**
+     * Submitting events holds the read lock while finishing takes the write
+     * lock to stop buffering, so no event can be buffered after the final
+     * drain
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Event delivered to the wrapped listener
+     */
+    private static abstract class Event {
+        private final boolean droppable;
+
+        Event(boolean droppable) {
+            this.droppable = droppable;
+        }
+
+        abstract void dispatch();
+    }
+
+    /**
+     * Special event that tells the consumer thread to stop
+     */
+    private static final Event STOP = new Event(false) {
+        @Override
+        void dispatch() {
+        }
+    };
+
+    /**
+     * Creates a new asynchronous listener
+     * 
+     * @param listener
+     *            Listener to dispatch events to
+     * @param bufferSize
+     *            Maximum number of events that may be buffered
+     * @param backpressure
+     *            Behaviour when the buffer is full
+     */
+    public AsyncProgressListener(ProgressListener listener, int bufferSize, ListenerBackpressure backpressure) {
+        this(listener, bufferSize, backpressure, DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Creates a new asynchronous listener
+     * 
+     * @param listener
+     *            Listener to dispatch events to
+     * @param bufferSize
+     *            Maximum number of events that may be buffered
+     * @param backpressure
+     *            Behaviour when the buffer is full
+     * @param sampleRate
+     *            When using {@link ListenerBackpressure#SAMPLE} one in every
+     *            this many events that arrive while the buffer is full is
+     *            delivered
+     */
+    public AsyncProgressListener(ProgressListener listener, int bufferSize, ListenerBackpressure backpressure,
+            int sampleRate) {
+        if (listener == null)
+            throw new NullPointerException("Listener cannot be null");
+        if (backpressure == null)
+            throw new NullPointerException("Backpressure cannot be null");
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("Buffer size must be greater than zero");
+        if (sampleRate <= 0)
+            throw new IllegalArgumentException("Sample rate must be greater than zero");
+        this.listener = listener;
+        this.buffer = new ArrayBlockingQueue<Event>(bufferSize);
+        this.backpressure = backpressure;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Gets the listener that events are dispatched to
+     * 
+     * @return Listener
+     */
+    public ProgressListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Gets the number of events delivered to the wrapped listener
+     * 
+     * @return Delivered events
+     */
+    public long getDeliveredEvents() {
+        return this.delivered.get();
+    }
+
+    /**
+     * Gets the number of events that were dropped because the buffer was full
+     * 
+     * @return Dropped events
+     */
+    public long getDroppedEvents() {
+        return this.dropped.get();
+    }
+
+    @Override
+    public <T extends Options> void start(Runner<T> runner, T options) {
+        this.listener.start(runner, options);
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "ProgressListener-" + this.listener.getClass().getSimpleName());
+        t.setDaemon(true);
+        this.consumer = t;
+        t.start();
+    }
+
+    @Override
+    public <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+        Thread t = this.consumer;
+        if (t != null && t != Thread.currentThread()) {
+            // Any further events are delivered synchronously, once the write
+            // lock is held no submission is in progress so the buffer can only
+            // shrink from here on
+            this.lock.writeLock().lock();
+            try {
+                this.consumer = null;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            // Wait for buffered events to be delivered
+            try {
+                while (t.isAlive() && !this.buffer.offer(STOP, 100, TimeUnit.MILLISECONDS)) {
+                    // Keep trying while the consumer is still draining
+                }
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Deliver anything left if the consumer stopped early
+            Event e;
+            while ((e = this.buffer.poll()) != null) {
+                deliver(e);
+            }
+        }
+
+        this.listener.finish(runner, options, ok);
+    }
+
+    @Override
+    public <T extends Options> void progress(final Runner<T> runner, final T options, final String message) {
+        submit(new Event(false) {
+            @Override
+            void dispatch() {
+                try {
+                    listener.progress(runner, options, message);
+                } catch (Exception e) {
+                    handleError(runner, options, "handleProgress()", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T extends Options> void progress(final Runner<T> runner, final T options, final ProgressEvent event) {
+        submit(new Event(event.getVerbosity() != ProgressVerbosity.SUMMARY) {
+            @Override
+            void dispatch() {
+                try {
+                    if (listener instanceof ProgressEventListener) {
+                        ((ProgressEventListener) listener).progress(runner, options, event);
+                    } else {
+                        listener.progress(runner, options, event.getMessage());
+                    }
+                } catch (Exception e) {
+                    handleError(runner, options, "handleProgress()", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T extends Options> void beforeOperation(final Runner<T> runner, final T options,
+            final Operation operation) {
+        submit(new Event(true) {
+            @Override
+            void dispatch() {
+                try {
+                    listener.beforeOperation(runner, options, operation);
+                } catch (Exception e) {
+                    handleError(runner, options, "beforeOperation()", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T extends Options> void afterOperation(final Runner<T> runner, final T options,
+            final Operation operation, final OperationRun run) {
+        submit(new Event(true) {
+            @Override
+            void dispatch() {
+                try {
+                    listener.afterOperation(runner, options, operation, run);
+                } catch (Exception e) {
+                    handleError(runner, options, "afterOperation()", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T extends Options> void beforeOperationMix(final Runner<T> runner, final T options,
+            final OperationMix mix) {
+        submit(new Event(true) {
+            @Override
+            void dispatch() {
+                try {
+                    listener.beforeOperationMix(runner, options, mix);
+                } catch (Exception e) {
+                    handleError(runner, options, "beforeOperationMix()", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T extends Options> void afterOperationMix(final Runner<T> runner, final T options,
+            final OperationMix mix, final OperationMixRun run) {
+        submit(new Event(true) {
+            @Override
+            void dispatch() {
+                try {
+                    listener.afterOperationMix(runner, options, mix, run);
+                } catch (Exception e) {
+                    handleError(runner, options, "afterOperationMix()", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Submits an event to the buffer applying the backpressure policy
+     * 
+     * @param e
+     *            Event
+     */
+    private void submit(Event e) {
+        Thread t = this.consumer;
+        if (t == null || t == Thread.currentThread()) {
+            // Not started or already finished so deliver synchronously,
+            // likewise for events raised by the wrapped listener itself since
+            // the consumer cannot wait on its own buffer
+            deliver(e);
+            return;
+        }
+
+        this.lock.readLock().lock();
+        try {
+            if (this.consumer == null) {
+                // Finished since we last checked
+                deliver(e);
+                return;
+            }
+
+            if (e.droppable && this.backpressure != ListenerBackpressure.BLOCK) {
+                if (this.buffer.offer(e))
+                    return;
+                if (this.backpressure == ListenerBackpressure.DROP
+                        || this.overflows.incrementAndGet() % this.sampleRate != 0) {
+                    this.dropped.incrementAndGet();
+                    return;
+                }
+            }
+
+            // Finishing cannot proceed while we hold the read lock so only
+            // give up waiting if the consumer has died
+            while (!this.buffer.offer(e, 100, TimeUnit.MILLISECONDS)) {
+                if (!t.isAlive()) {
+                    deliver(e);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.dropped.incrementAndGet();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delivers events from the buffer until told to stop
+     */
+    private void consume() {
+        try {
+            while (true) {
+                Event e = this.buffer.take();
+                if (e == STOP)
+                    return;
+                deliver(e);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Progress listener {} was interrupted with {} events undelivered",
+                    this.listener.getClass().getName(), this.buffer.size());
+        }
+    }
+
+    private void deliver(Event e) {
+        try {
+            e.dispatch();
+        } catch (Throwable t) {
+            // Halting may throw depending on the configured halting behaviour
+            logger.error("Error delivering event to progress listener {} - {}", this.listener.getClass().getName(),
+                    t.getMessage());
+        }
+        this.delivered.incrementAndGet();
+    }
+
+    private <T extends Options> void handleError(Runner<T> runner, T options, String method, Exception e) {
+        String name = this.listener.getClass().getName();
+        System.err.println(name + " encountered an error during " + method + " - " + e.getMessage());
+        logger.error("{} encountered an error during {} - {}", name, method, e.getMessage());
+        if (options.getHaltAny() || options.getHaltOnError()) {
+            runner.halt(options, name + " encountering an error in progress reporting");
+        }
+    }
+}
@@ -32,20 +32,26 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.monitoring;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.BenchmarkOptions;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.HttpPhase;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
 import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
@@ -54,16 +60,41 @@ import net.sf.sparql.benchmarking.util.FormatUtils;
 
 /**
  * A Progress Listener that generates a CSV output file
+ * <p>
+ * The options summary is written when running starts and a row is written for
+ * each operation mix run as it completes, the operation and operation mix
+ * summaries are written when running finishes. Rows are written through a
+ * buffer and the file is periodically synced to disk (see
+ * {@link #setSyncInterval(long)}) so the results of a long running test are
+ * not lost if the JVM dies part way through.
+ * </p>
+ * <p>
+ * Optionally a raw runs file may also be written via
+ * {@link #setRawResultsFile(String)}, this contains a row for every operation
+ * run giving the timestamp at which it completed, operation ID, thread,
+ * runtime, response time, result count and error category.
+ * </p>
  * 
  * @author rvesse
  * 
  */
-public class CsvProgressListener implements ProgressListener {
+public class CsvProgressListener implements ProgressEventListener {
     private static final Logger logger = LoggerFactory.getLogger(CsvProgressListener.class);
 
+    /**
+     * Default interval in milliseconds between syncs of the output to disk
+     */
+    public static final long DEFAULT_SYNC_INTERVAL = 5000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private File f;
+    private File rawFile;
     private boolean allowOverwrite = false;
-    private StringBuffer buffer;
+    private long syncInterval = DEFAULT_SYNC_INTERVAL;
+    private FileChannel channel, rawChannel;
+    private Writer writer, rawWriter;
+    private long lastSync;
     private int run = 1;
     private boolean ready = false;
 
@@ -93,8 +124,99 @@ public class CsvProgressListener implements ProgressListener {
     }
 
     /**
-     * Handles the started event by preparing a record of the run configuration
-     * which will eventually be printed to the CSV file
+     * Sets the file to which a row for every operation run is written
+     * 
+     * @param file
+     *            File, null disables raw results
+     */
+    public void setRawResultsFile(String file) {
+        this.rawFile = file != null ? new File(file) : null;
+    }
+
+    /**
+     * Sets the interval between syncs of the output to disk
+     * 
+     * @param interval
+     *            Interval in milliseconds, zero or negative values disable
+     *            periodic syncing so output is only guaranteed to be on disk
+     *            once running finishes
+     */
+    public void setSyncInterval(long interval) {
+        this.syncInterval = interval;
+    }
+
+    /**
+     * Opens a channel for writing to the given file, truncating any existing
+     * content
+     * 
+     * @param file
+     *            File
+     * @return Channel
+     * @throws IOException
+     */
+    private FileChannel open(File file) throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private Writer writer(FileChannel channel) {
+        return new BufferedWriter(Channels.newWriter(channel, "UTF-8"), BUFFER_SIZE);
+    }
+
+    /**
+     * Flushes buffered output and forces it to disk
+     * 
+     * @throws IOException
+     */
+    private void sync() throws IOException {
+        this.writer.flush();
+        this.channel.force(false);
+        if (this.rawWriter != null) {
+            this.rawWriter.flush();
+            this.rawChannel.force(false);
+        }
+        this.lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Syncs output to disk if the sync interval has elapsed
+     * 
+     * @throws IOException
+     */
+    private void syncIfDue() throws IOException {
+        if (this.syncInterval > 0 && System.currentTimeMillis() - this.lastSync >= this.syncInterval)
+            this.sync();
+    }
+
+    /**
+     * Closes the output files ignoring any errors
+     */
+    private void close() {
+        for (Writer w : new Writer[] { this.writer, this.rawWriter }) {
+            if (w == null)
+                continue;
+            try {
+                w.close();
+            } catch (IOException e) {
+                logger.warn("Error closing CSV results file - {}", e.getMessage());
+            }
+        }
+        this.writer = null;
+        this.rawWriter = null;
+        this.channel = null;
+        this.rawChannel = null;
+    }
+
+    private <T extends Options> void handleError(Runner<T> runner, T options, File file, IOException e) {
+        System.err.println("Error writing CSV results file " + file.getAbsolutePath());
+        logger.error("Error writing CSV results file " + file.getAbsolutePath() + " - " + e.getMessage());
+        if (options.getHaltOnError() || options.getHaltAny())
+            runner.halt(options, e);
+    }
+
+    /**
+     * Handles the started event by opening the CSV file and writing a record
+     * of the run configuration to it
      * 
      * @param runner
      *            Runner
@@ -102,12 +224,14 @@ public class CsvProgressListener implements ProgressListener {
      *            Options
      */
     @Override
-    public <T extends Options> void start(Runner<T> runner, T options) {
+    public synchronized <T extends Options> void start(Runner<T> runner, T options) {
         if (!FileUtils.checkFile(this.f, this.allowOverwrite)) {
             throw new RuntimeException("CSV Output File is not a file, already exists or is not writable");
         }
+        if (this.rawFile != null && !FileUtils.checkFile(this.rawFile, this.allowOverwrite)) {
+            throw new RuntimeException("CSV Raw Results File is not a file, already exists or is not writable");
+        }
 
-        this.buffer = new StringBuffer();
         this.run = 1;
 
         BenchmarkOptions bOps = null;
@@ -115,73 +239,92 @@ public class CsvProgressListener implements ProgressListener {
             bOps = (BenchmarkOptions) options;
         }
 
+        StringBuilder buffer = new StringBuilder();
+
         // Information on Benchmark Options
-        this.buffer.append("Options Summary,\n");
-        this.buffer.append("Query Endpoint," + options.getQueryEndpoint() + "\n");
-        this.buffer.append("Update Endpoint," + options.getUpdateEndpoint() + "\n");
-        this.buffer.append("Graph Store Endpoint," + options.getGraphStoreEndpoint() + "\n");
+        buffer.append("Options Summary,\n");
+        buffer.append("Query Endpoint," + options.getQueryEndpoint() + "\n");
+        buffer.append("Update Endpoint," + options.getUpdateEndpoint() + "\n");
+        buffer.append("Graph Store Endpoint," + options.getGraphStoreEndpoint() + "\n");
         Map<String, String> customEndpoints = options.getCustomEndpoints();
         if (customEndpoints.size() > 0) {
             for (String key : customEndpoints.keySet()) {
-                this.buffer.append("Custom Endpoint (" + key + ")," + customEndpoints.get(key) + "\n");
+                buffer.append("Custom Endpoint (" + key + ")," + customEndpoints.get(key) + "\n");
             }
         }
-        this.buffer.append("Sanity Checking Level," + bOps.getSanityCheckLevel() + "\n");
+        buffer.append("Sanity Checking Level," + options.getSanityCheckLevel() + "\n");
         if (bOps != null) {
-            this.buffer.append("Warmups," + bOps.getWarmups() + "\n");
-            this.buffer.append("Runs," + bOps.getRuns() + "\n");
+            buffer.append("Warmups," + bOps.getWarmups() + "\n");
+            buffer.append("Runs," + bOps.getRuns() + "\n");
         }
-        this.buffer.append("Random Operation Order," + options.getRandomizeOrder() + "\n");
-        this.buffer.append("Outliers," + bOps.getOutliers() + "\n");
-        this.buffer.append(
+        buffer.append("Random Operation Order," + options.getRandomizeOrder() + "\n");
+        if (bOps != null) {
+            buffer.append("Outliers," + bOps.getOutliers() + "\n");
+        }
+        buffer.append(
                 "Timeout," + (options.getTimeout() > 0 ? Integer.toString(options.getTimeout()) : "disabled") + "s\n");
-        this.buffer.append("Max Delay between Operations," + options.getMaxDelay() + "s\n");
-        this.buffer.append("Result Limit," + (options.getLimit() <= 0 ? "Query Specified" : options.getLimit()) + "\n");
-        this.buffer.append("Result Counting Limit,"
-                + (options.getLocalLimit() <= 0 ? "Disabled" : options.getLocalLimit()) + "\n");
-        this.buffer.append("ASK Results Format," + options.getResultsAskFormat() + "\n");
-        this.buffer.append("Graph Results Format," + options.getResultsGraphFormat() + "\n");
-        this.buffer.append("SELECT Results Format," + options.getResultsSelectFormat() + "\n");
-        this.buffer.append("Parallel Threads," + options.getParallelThreads() + "\n");
-        this.buffer.append("Result Counting," + options.getNoCount() + "\n");
-        this.buffer.append(",\n");
+        buffer.append("Max Delay between Operations," + options.getMaxDelay() + "s\n");
+        buffer.append("Result Limit," + (options.getLimit() <= 0 ? "Query Specified" : options.getLimit()) + "\n");
+        buffer.append("Result Counting Limit," + (options.getLocalLimit() <= 0 ? "Disabled" : options.getLocalLimit())
+                + "\n");
+        buffer.append("ASK Results Format," + options.getResultsAskFormat() + "\n");
+        buffer.append("Graph Results Format," + options.getResultsGraphFormat() + "\n");
+        buffer.append("SELECT Results Format," + options.getResultsSelectFormat() + "\n");
+        buffer.append("Parallel Threads," + options.getParallelThreads() + "\n");
+        buffer.append("Result Counting," + options.getNoCount() + "\n");
+        buffer.append(",\n");
 
         // Header for Run Summary
-        this.buffer.append("Run Summary,\n");
-        this.buffer.append("Run,Total Response Time,Total Runtime,Min Query Runtime,Max Query Runtime\n");
+        buffer.append("Run Summary,\n");
+        buffer.append("Run,Total Response Time,Total Runtime,Min Query Runtime,Max Query Runtime\n");
 
-        // Actual run summaries are printed by handleProgess(QuerySetRun run)
-        // during benchmarking
+        // Actual run summaries are written by afterOperationMix() during
+        // running
+        try {
+            this.channel = open(this.f);
+            this.writer = writer(this.channel);
+            this.writer.append(buffer);
+            if (this.rawFile != null) {
+                this.rawChannel = open(this.rawFile);
+                this.rawWriter = writer(this.rawChannel);
+                this.rawWriter.append(
+                        "Completed Timestamp,Operation ID,Thread,Runtime,Response Time,Result Count,Error Category\n");
+            }
+            this.sync();
+        } catch (IOException e) {
+            this.close();
+            throw new RuntimeException("Error creating CSV results file " + this.f.getAbsolutePath(), e);
+        }
         this.ready = true;
     }
 
     /**
-     * Handles the finished event by printing relevant statistics to the CSV
-     * file
+     * Handles the finished event by writing relevant statistics to the CSV
+     * file and closing it
      * 
      * @param ok
      *            Whether benchmarking finished OK
      */
     @Override
-    public <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+    public synchronized <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
         if (!this.ready)
             throw new RuntimeException(
                     "handleFinished() was called on CsvProgressListener but it appears handleStarted() was not called or encountered an error, another listener may be the cause of this issue");
 
-        if (!FileUtils.checkFile(this.f, this.allowOverwrite)) {
-            throw new RuntimeException("CSV Output File is not a file, already exists or is not writable");
-        }
-
         boolean wasMultithreaded = options.getParallelThreads() > 1;
+        boolean hadPhaseTimings = options.getHttpPhaseTimings();
+        StringBuilder buffer = new StringBuilder();
 
         // Operation Summary Header
-        this.buffer.append(",\nOperation Summary,\n");
+        buffer.append(",\nOperation Summary,\n");
         if (wasMultithreaded) {
-            this.buffer.append(
-                    "Operation,Type,Total Response Time,Average Response Time (Arithmetic),Total Runtime,Actual Runtime,Average Runtime (Arithmetic),Actual Average Runtime (Arithmetic),Average Runtime (Geometric),Min Runtime,Max Runtime,Variance,Standard Deviation,Operations per Second,Actual Operations per Second,Operations per Hour,Actual Operations per Hour\n");
+            buffer.append(
+                    "Operation,Type,Total Response Time,Average Response Time (Arithmetic),Total Runtime,Actual Runtime,Average Runtime (Arithmetic),Actual Average Runtime (Arithmetic),Average Runtime (Geometric),Min Runtime,Max Runtime,Variance,Standard Deviation,Operations per Second,Actual Operations per Second,Operations per Hour,Actual Operations per Hour"
+                            + getPercentileHeaders() + (hadPhaseTimings ? getPhaseHeaders() : "") + "\n");
         } else {
-            this.buffer.append(
-                    "Operation,Type,Total Response Time,Average Response Time (Arithmetic),Total Runtime,Average Runtime (Arithmetic),Average Runtime (Geometric),Min Runtime,Max Runtime,Variance,Standard Deviation,Queries per Second,Queries per Hour\n");
+            buffer.append(
+                    "Operation,Type,Total Response Time,Average Response Time (Arithmetic),Total Runtime,Average Runtime (Arithmetic),Average Runtime (Geometric),Min Runtime,Max Runtime,Variance,Standard Deviation,Queries per Second,Queries per Hour"
+                            + getPercentileHeaders() + (hadPhaseTimings ? getPhaseHeaders() : "") + "\n");
         }
 
         OperationMix operationMix = options.getOperationMix();
@@ -189,68 +332,121 @@ public class CsvProgressListener implements ProgressListener {
         while (ops.hasNext()) {
             Operation op = ops.next();
             // Operation Summary
-            this.buffer.append(FormatUtils.toCsv(op.getName()) + ",");
-            this.buffer.append(FormatUtils.toCsv(op.getType()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getTotalResponseTime()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getAverageResponseTime()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getTotalRuntime()) + ",");
+            buffer.append(FormatUtils.toCsv(op.getName()) + ",");
+            buffer.append(FormatUtils.toCsv(op.getType()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getTotalResponseTime()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getAverageResponseTime()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getTotalRuntime()) + ",");
             if (wasMultithreaded)
-                this.buffer.append(ConvertUtils.toSeconds(op.getStats().getActualRuntime()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getAverageRuntime()) + ",");
+                buffer.append(ConvertUtils.toSeconds(op.getStats().getActualRuntime()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getAverageRuntime()) + ",");
             if (wasMultithreaded)
-                this.buffer.append(ConvertUtils.toSeconds(op.getStats().getActualAverageRuntime()) + ",");
-            this.buffer.append(op.getStats().getGeometricAverageRuntime() + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getMinimumRuntime()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getMaximumRuntime()) + ",");
-            this.buffer.append(ConvertUtils.toSecondsSquared(op.getStats().getVariance()) + ",");
-            this.buffer.append(ConvertUtils.toSeconds(op.getStats().getStandardDeviation()) + ",");
-            this.buffer.append(op.getStats().getOperationsPerSecond() + ",");
+                buffer.append(ConvertUtils.toSeconds(op.getStats().getActualAverageRuntime()) + ",");
+            buffer.append(op.getStats().getGeometricAverageRuntime() + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getMinimumRuntime()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getMaximumRuntime()) + ",");
+            buffer.append(ConvertUtils.toSecondsSquared(op.getStats().getVariance()) + ",");
+            buffer.append(ConvertUtils.toSeconds(op.getStats().getStandardDeviation()) + ",");
+            buffer.append(op.getStats().getOperationsPerSecond() + ",");
             if (wasMultithreaded)
-                this.buffer.append(op.getStats().getActualOperationsPerSecond() + ",");
-            this.buffer.append(op.getStats().getOperationsPerHour());
+                buffer.append(op.getStats().getActualOperationsPerSecond() + ",");
+            buffer.append(op.getStats().getOperationsPerHour());
             if (wasMultithreaded)
-                this.buffer.append("," + op.getStats().getActualOperationsPerHour());
-            this.buffer.append("\n");
+                buffer.append("," + op.getStats().getActualOperationsPerHour());
+            for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+                buffer.append("," + ConvertUtils.toSeconds(op.getStats().getPercentileRuntime(percentile)));
+            }
+            for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+                buffer.append("," + ConvertUtils.toSeconds(op.getStats().getPercentileResponseTime(percentile)));
+            }
+            buffer.append("," + ConvertUtils.toSeconds(op.getStats().getPercentileResponseTime(100)));
+            if (hadPhaseTimings) {
+                for (HttpPhase phase : HttpPhase.values()) {
+                    buffer.append("," + ConvertUtils.toSeconds(op.getStats().getAveragePhaseTime(phase)));
+                }
+            }
+            buffer.append("\n");
+        }
+
+        // Operation Mix Summary
+        buffer.append(",\nOperation Mix Summary,\n");
+        if (wasMultithreaded) {
+            buffer.append(
+                    "Total Response Time,Average Response Time (Arithmetic),Total Runtime,Actual Runtime,Average Runtime (Arithmetic),Actual Average Runtime (Arithmetic),Average Runtime (Geometric),Minimum Mix Runtime,Maximum Mix Runtime,Variance,Standard Deviation,Operation Mixes per Hour,Actual Operation Mixes per Hour"
+                            + getPercentileHeaders() + "\n");
+        } else {
+            buffer.append(
+                    "Total Response Time,Average Response Time (Arithmetic),Total Runtime,Average Runtime (Arithmetic),Average Runtime (Geometric),Minimum Mix Runtime,Maximum Mix Runtime,Variance,Standard Deviation,Operation Mixes per Hour"
+                            + getPercentileHeaders() + "\n");
         }
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getTotalResponseTime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getAverageResponseTime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getTotalRuntime()) + ",");
+        if (wasMultithreaded)
+            buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getActualRuntime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getAverageRuntime()) + ",");
+        if (wasMultithreaded)
+            buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getActualAverageRuntime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getGeometricAverageRuntime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getMinimumRuntime()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getMaximumRuntime()) + ",");
+        buffer.append(ConvertUtils.toSecondsSquared(operationMix.getStats().getVariance()) + ",");
+        buffer.append(ConvertUtils.toSeconds(operationMix.getStats().getStandardDeviation()) + ",");
+        buffer.append(Double.toString(operationMix.getStats().getOperationMixesPerHour()));
+        if (wasMultithreaded)
+            buffer.append("," + operationMix.getStats().getActualOperationMixesPerHour());
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            buffer.append("," + ConvertUtils.toSeconds(operationMix.getStats().getPercentileRuntime(percentile)));
+        }
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            buffer.append("," + ConvertUtils.toSeconds(operationMix.getStats().getPercentileResponseTime(percentile)));
+        }
+        buffer.append("," + ConvertUtils.toSeconds(operationMix.getStats().getPercentileResponseTime(100)));
+        buffer.append("\n");
 
         try {
-            // Benchmark Summary
-            FileWriter results = new FileWriter(this.f);
-
-            if (wasMultithreaded) {
-                results.append(
-                        "Total Response Time,Average Response Time (Arithmetic),Total Runtime,Actual Runtime,Average Runtime (Arithmetic),Actual Average Runtime (Arithmetic),Average Runtime (Geometric),Minimum Mix Runtime,Maximum Mix Runtime,Variance,Standard Deviation,Operation Mixes per Hour,Actual Operation Mixes per Hour\n");
-            } else {
-                results.append(
-                        "Total Response Time,Average Response Time (Arithmetic),Total Runtime,Average Runtime (Arithmetic),Average Runtime (Geometric),Minimum Mix Runtime,Maximum Mix Runtime,Variance,Standard Deviation,Operation Mixes per Hour\n");
-            }
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getTotalResponseTime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getAverageResponseTime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getTotalRuntime()) + ",");
-            if (wasMultithreaded)
-                results.append(ConvertUtils.toSeconds(operationMix.getStats().getActualRuntime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getAverageRuntime()) + ",");
-            if (wasMultithreaded)
-                results.append(ConvertUtils.toSeconds(operationMix.getStats().getActualAverageRuntime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getGeometricAverageRuntime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getMinimumRuntime()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getMaximumRuntime()) + ",");
-            results.append(ConvertUtils.toSecondsSquared(operationMix.getStats().getVariance()) + ",");
-            results.append(ConvertUtils.toSeconds(operationMix.getStats().getStandardDeviation()) + ",");
-            results.append(Double.toString(operationMix.getStats().getOperationMixesPerHour()));
-            if (wasMultithreaded)
-                results.append("," + operationMix.getStats().getActualOperationMixesPerHour());
-            results.append("\n");
-            results.append(buffer.toString());
-            results.close();
+            if (this.writer == null)
+                throw new IOException("CSV results file was already closed");
+            this.writer.append(buffer);
+            this.sync();
         } catch (IOException e) {
-            System.err.println("Error created CSV results file " + this.f.getAbsolutePath());
-            logger.error("Error creating CSV results file" + this.f.getAbsolutePath());
-            if (options.getHaltOnError() || options.getHaltAny())
-                runner.halt(options, e);
+            handleError(runner, options, this.f, e);
+        } finally {
+            this.close();
+            this.ready = false;
         }
     }
 
+    /**
+     * Gets the column headers for the percentile columns
+     * 
+     * @return Percentile column headers
+     */
+    private String getPercentileHeaders() {
+        StringBuilder builder = new StringBuilder();
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            builder.append("," + FormatUtils.formatPercentile(percentile) + " Percentile Runtime");
+        }
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            builder.append("," + FormatUtils.formatPercentile(percentile) + " Percentile Response Time");
+        }
+        builder.append(",Max Response Time");
+        return builder.toString();
+    }
+
+    /**
+     * Gets the column headers for the HTTP phase timing columns
+     * 
+     * @return Phase timing column headers
+     */
+    private String getPhaseHeaders() {
+        StringBuilder builder = new StringBuilder();
+        for (HttpPhase phase : HttpPhase.values()) {
+            builder.append(",Average HTTP " + phase.getLabel());
+        }
+        return builder.toString();
+    }
+
     /**
      * Does nothing as this listener discards informational messages
      * 
@@ -262,6 +458,11 @@ public class CsvProgressListener implements ProgressListener {
         // We don't handle informational messages
     }
 
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event) {
+        // We don't handle informational messages
+    }
+
     /**
      * Does nothing as this listener discards individual operation run
      * statistics
@@ -275,8 +476,8 @@ public class CsvProgressListener implements ProgressListener {
     }
 
     /**
-     * Does nothing as this listener discards individual operation run
-     * statistics
+     * Handles the operation run event by writing a row to the raw results file
+     * if enabled
      * 
      * @param operation
      *            Benchmark Operation
@@ -285,8 +486,28 @@ public class CsvProgressListener implements ProgressListener {
      */
     @Override
     public <T extends Options> void afterOperation(Runner<T> runner, T options, Operation operation, OperationRun run) {
-        // We don't handle query run stats as they are produced, we're only
-        // interested in aggregate stats at the end
+        if (this.rawFile == null)
+            return;
+
+        StringBuilder row = new StringBuilder();
+        row.append(run.getTimestamp()).append(',');
+        row.append(run.getId()).append(',');
+        row.append(run.getThreadId()).append(',');
+        row.append(ConvertUtils.toSeconds(run.getRuntime())).append(',');
+        row.append(ConvertUtils.toSeconds(run.getResponseTime())).append(',');
+        row.append(run.getResultCount()).append(',');
+        row.append(run.getErrorCategory()).append('\n');
+
+        synchronized (this) {
+            if (this.rawWriter == null)
+                return;
+            try {
+                this.rawWriter.append(row);
+                this.syncIfDue();
+            } catch (IOException e) {
+                handleError(runner, options, this.rawFile, e);
+            }
+        }
     }
 
     @Override
@@ -295,17 +516,25 @@ public class CsvProgressListener implements ProgressListener {
     }
 
     /**
-     * Handles the Mix progress event by recording the run statistics for later
-     * printing to the CSV file
+     * Handles the Mix progress event by writing the run statistics to the CSV
+     * file
      */
     @Override
     public synchronized <T extends Options> void afterOperationMix(Runner<T> runner, T options, OperationMix mix,
             OperationMixRun run) {
-        this.buffer.append(this.run + ",");
-        this.buffer.append(ConvertUtils.toSeconds(run.getTotalResponseTime()) + ",");
-        this.buffer.append(ConvertUtils.toSeconds(run.getTotalRuntime()) + ",");
-        this.buffer.append(ConvertUtils.toSeconds(run.getMinimumRuntime()) + ",");
-        this.buffer.append(ConvertUtils.toSeconds(run.getMaximumRuntime()) + "\n");
+        if (this.writer == null)
+            return;
+
+        try {
+            this.writer.append(this.run + ",");
+            this.writer.append(ConvertUtils.toSeconds(run.getTotalResponseTime()) + ",");
+            this.writer.append(ConvertUtils.toSeconds(run.getTotalRuntime()) + ",");
+            this.writer.append(ConvertUtils.toSeconds(run.getMinimumRuntime()) + ",");
+            this.writer.append(ConvertUtils.toSeconds(run.getMaximumRuntime()) + "\n");
+            this.syncIfDue();
+        } catch (IOException e) {
+            handleError(runner, options, this.f, e);
+        }
         this.run++;
     }
 
@@ -0,0 +1,192 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
+import net.sf.sparql.benchmarking.monitoring.journal.JournalExporter;
+import net.sf.sparql.benchmarking.monitoring.journal.JournalReader;
+import net.sf.sparql.benchmarking.monitoring.journal.JournalWriter;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.util.FileUtils;
+
+/**
+ * A Progress Listener that records every operation run to a binary run
+ * journal
+ * <p>
+ * Runs are appended as fixed width records to a memory mapped, segmented
+ * journal file (see {@link JournalWriter}) so that full fidelity capture
+ * remains cheap even at very high operation rates. Journals may be read back
+ * with a {@link JournalReader} and exported for analysis with the
+ * {@link JournalExporter}.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalProgressListener implements ProgressEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(JournalProgressListener.class);
+
+    private File f;
+    private boolean allowOverwrite = false;
+    private int segmentRecords = JournalWriter.DEFAULT_SEGMENT_RECORDS;
+    private volatile JournalWriter writer;
+
+    /**
+     * Creates a new journal progress listener which writes to the given file
+     * provided it does not already exist
+     * 
+     * @param file
+     *            File
+     */
+    public JournalProgressListener(String file) {
+        this(file, false);
+    }
+
+    /**
+     * Creates a new journal progress listener which writes to the given file
+     * optionally overwriting it if it exists
+     * 
+     * @param file
+     *            File
+     * @param allowOverwrite
+     *            Whether to allow overwrites
+     */
+    public JournalProgressListener(String file, boolean allowOverwrite) {
+        this.f = new File(file);
+        this.allowOverwrite = allowOverwrite;
+    }
+
+    /**
+     * Sets the number of records per journal segment
+     * 
+     * @param records
+     *            Records per segment
+     */
+    public void setSegmentRecords(int records) {
+        if (records <= 0 || records > JournalWriter.MAX_SEGMENT_RECORDS)
+            throw new IllegalArgumentException(
+                    "Records per segment must be in the range 1 to " + JournalWriter.MAX_SEGMENT_RECORDS);
+        this.segmentRecords = records;
+    }
+
+    /**
+     * Handles the started event by creating the journal
+     */
+    @Override
+    public synchronized <T extends Options> void start(Runner<T> runner, T options) {
+        if (!FileUtils.checkFile(this.f, this.allowOverwrite)) {
+            throw new RuntimeException("Journal File is not a file, already exists or is not writable");
+        }
+        try {
+            this.writer = new JournalWriter(this.f, this.segmentRecords);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating journal file " + this.f.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Handles the finished event by closing the journal
+     */
+    @Override
+    public synchronized <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+        if (this.writer == null)
+            return;
+        try {
+            this.writer.close();
+            logger.info("Wrote " + this.writer.getRecordCount() + " run(s) to journal " + this.f.getAbsolutePath()
+                    + " in " + this.writer.getSegmentCount() + " segment(s)");
+        } catch (IOException e) {
+            System.err.println("Error closing journal file " + this.f.getAbsolutePath());
+            logger.error("Error closing journal file " + this.f.getAbsolutePath() + " - " + e.getMessage());
+        } finally {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Does nothing as this listener discards informational messages
+     */
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, String message) {
+        // We don't handle informational messages
+    }
+
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event) {
+        // We don't handle informational messages
+    }
+
+    @Override
+    public <T extends Options> void beforeOperation(Runner<T> runner, T options, Operation operation) {
+        // We don't handle before operation events
+    }
+
+    /**
+     * Handles the operation run event by appending it to the journal
+     */
+    @Override
+    public <T extends Options> void afterOperation(Runner<T> runner, T options, Operation operation, OperationRun run) {
+        JournalWriter writer = this.writer;
+        if (writer == null)
+            return;
+        try {
+            writer.append(run);
+        } catch (IOException e) {
+            System.err.println("Error writing journal file " + this.f.getAbsolutePath());
+            logger.error("Error writing journal file " + this.f.getAbsolutePath() + " - " + e.getMessage());
+            if (options.getHaltOnError() || options.getHaltAny())
+                runner.halt(options, e);
+        }
+    }
+
+    @Override
+    public <T extends Options> void beforeOperationMix(Runner<T> runner, T options, OperationMix mix) {
+        // We don't handle before operation mix events
+    }
+
+    @Override
+    public <T extends Options> void afterOperationMix(Runner<T> runner, T options, OperationMix mix,
+            OperationMixRun run) {
+        // We don't handle operation mix events
+    }
+}
@@ -0,0 +1,67 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring;
+
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+
+/**
+ * Interface for Progress Listeners that receive progress as typed events
+ * <p>
+ * Runners deliver progress to these listeners via
+ * {@link #progress(Runner, Options, ProgressEvent)} instead of
+ * {@link #progress(Runner, Options, String)} so the message for an event is
+ * only formatted if the listener asks for it. Listeners that are not
+ * interested in informational messages should implement this interface and
+ * ignore the events so that no time is spent formatting messages on the
+ * threads performing operations.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public interface ProgressEventListener extends ProgressListener {
+
+    /**
+     * Invoked when a progress event is available
+     * 
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     * @param event
+     *            Progress event
+     */
+    public abstract <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event);
+}
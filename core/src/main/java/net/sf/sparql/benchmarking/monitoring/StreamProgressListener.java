@@ -35,6 +35,7 @@ package net.sf.sparql.benchmarking.monitoring;
 import java.io.OutputStream;
 import java.io.PrintStream;
 
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.Options;
@@ -49,7 +50,7 @@ import net.sf.sparql.benchmarking.stats.OperationRun;
  * @author rvesse
  * 
  */
-public class StreamProgressListener implements ProgressListener {
+public class StreamProgressListener implements ProgressEventListener {
 	private PrintStream output;
 	private boolean closeOnFinish = true;
 	private volatile long lastThread = -1;
@@ -180,6 +181,14 @@ public class StreamProgressListener implements ProgressListener {
 		}
 	}
 
+	@Override
+	public <T extends Options> void progress(Runner<T> runner, T options,
+			ProgressEvent event) {
+		if (this.output != null) {
+			this.progress(runner, options, event.getMessage());
+		}
+	}
+
 	protected final boolean hasSwitchedThreads() {
 		if (this.lastThread == Thread.currentThread().getId())
 			return false;
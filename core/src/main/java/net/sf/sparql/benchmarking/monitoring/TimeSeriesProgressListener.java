@@ -0,0 +1,382 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.WindowedStats;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FileUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A Progress Listener that writes a live time series of throughput, error rate
+ * and latency
+ * <p>
+ * Rolling time window statistics (see {@link WindowedStats}) are maintained
+ * for each operation and for the operation mix as a whole. Once every bucket
+ * (one second by default) a CSV row is written for each operation, plus the
+ * mix, and each configured window (by default 1, 10 and 60 seconds), making
+ * it easy to spot degradation of the system being tested over the course of
+ * a soak or stress test while it is running.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class TimeSeriesProgressListener implements ProgressEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesProgressListener.class);
+
+    /**
+     * Default windows in milliseconds
+     */
+    public static final long[] DEFAULT_WINDOWS = { 1000, 10000, 60000 };
+
+    /**
+     * Scope used for rows which report on the operation mix
+     */
+    public static final String MIX_SCOPE = "Operation Mix";
+
+    private File file;
+    private boolean allowOverwrite = false;
+    private PrintStream output;
+    private boolean closeOnFinish = true;
+    private long[] windows = DEFAULT_WINDOWS;
+    private long bucketSize = WindowedStats.DEFAULT_BUCKET_SIZE;
+    private final ConcurrentHashMap<Operation, WindowedStats> operationStats = new ConcurrentHashMap<Operation, WindowedStats>();
+    private volatile WindowedStats mixStats;
+    private volatile boolean running = false;
+    private Thread reporter;
+
+    /**
+     * Creates a new time series listener which writes to the given file
+     * provided it does not already exist
+     * 
+     * @param file
+     *            File
+     */
+    public TimeSeriesProgressListener(String file) {
+        this(file, false);
+    }
+
+    /**
+     * Creates a new time series listener which writes to the given file
+     * optionally overwriting it if it exists
+     * 
+     * @param file
+     *            File
+     * @param allowOverwrite
+     *            Whether to allow overwrites
+     */
+    public TimeSeriesProgressListener(String file, boolean allowOverwrite) {
+        this.file = new File(file);
+        this.allowOverwrite = allowOverwrite;
+    }
+
+    /**
+     * Creates a new time series listener which writes to the given stream
+     * 
+     * @param output
+     *            Output Stream
+     * @param closeOnFinish
+     *            Whether the stream should be closed when the
+     *            {@link #finish(Runner, Options, boolean)} event is received
+     */
+    public TimeSeriesProgressListener(PrintStream output, boolean closeOnFinish) {
+        if (output == null)
+            throw new IllegalArgumentException("Output Stream cannot be null");
+        this.output = output;
+        this.closeOnFinish = closeOnFinish;
+    }
+
+    /**
+     * Sets the windows reported
+     * 
+     * @param windows
+     *            Windows in milliseconds
+     */
+    public void setWindows(long... windows) {
+        if (windows == null || windows.length == 0)
+            throw new IllegalArgumentException("At least one window must be specified");
+        for (long window : windows) {
+            if (window <= 0)
+                throw new IllegalArgumentException("Windows must be greater than zero");
+        }
+        this.windows = windows.clone();
+    }
+
+    /**
+     * Sets the bucket size which is also the interval at which rows are
+     * written
+     * 
+     * @param bucketSize
+     *            Bucket size in milliseconds
+     */
+    public void setBucketSize(long bucketSize) {
+        if (bucketSize <= 0)
+            throw new IllegalArgumentException("Bucket size must be greater than zero");
+        this.bucketSize = bucketSize;
+    }
+
+    /**
+     * Creates windowed statistics large enough for the largest window
+     * 
+     * @return Windowed statistics
+     */
+    private WindowedStats createStats() {
+        long max = 0;
+        for (long window : this.windows) {
+            max = Math.max(max, window);
+        }
+        return new WindowedStats((int) Math.max(1, (max + this.bucketSize - 1) / this.bucketSize), this.bucketSize);
+    }
+
+    /**
+     * Gets the windowed statistics for an operation
+     * 
+     * @param operation
+     *            Operation
+     * @return Windowed statistics, null if the operation has not completed
+     *         any runs
+     */
+    public WindowedStats getStats(Operation operation) {
+        return this.operationStats.get(operation);
+    }
+
+    /**
+     * Gets the windowed statistics for the operation mix
+     * 
+     * @return Windowed statistics
+     */
+    public WindowedStats getMixStats() {
+        return this.mixStats;
+    }
+
+    /**
+     * Handles the started event by writing the header and starting a
+     * background thread which writes a row per window at the end of every
+     * bucket
+     */
+    @Override
+    public synchronized <T extends Options> void start(final Runner<T> runner, final T options) {
+        if (this.file != null) {
+            if (!FileUtils.checkFile(this.file, this.allowOverwrite)) {
+                throw new RuntimeException("Time Series Output File is not a file, already exists or is not writable");
+            }
+            try {
+                this.output = new PrintStream(new FileOutputStream(this.file), false, "UTF-8");
+            } catch (Exception e) {
+                throw new RuntimeException("Error creating time series file " + this.file.getAbsolutePath(), e);
+            }
+        }
+
+        this.operationStats.clear();
+        this.mixStats = createStats();
+        this.output.println(getHeader());
+        this.output.flush();
+
+        this.running = true;
+        this.reporter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (running) {
+                    // Wake shortly after each bucket boundary so the bucket
+                    // that just finished is included
+                    long now = System.currentTimeMillis();
+                    try {
+                        Thread.sleep(bucketSize - (now % bucketSize) + 10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (running)
+                        report(options, System.currentTimeMillis());
+                }
+            }
+        }, "Time Series Reporter");
+        this.reporter.setDaemon(true);
+        this.reporter.start();
+    }
+
+    /**
+     * Gets the CSV header
+     * 
+     * @return Header
+     */
+    private String getHeader() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Timestamp,Scope,Window,Operations,Operations per Second,Errors,Error Rate,Average Runtime");
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            builder.append("," + FormatUtils.formatPercentile(percentile) + " Percentile Runtime");
+        }
+        builder.append(",Max Runtime");
+        return builder.toString();
+    }
+
+    /**
+     * Writes rows for all windows
+     * 
+     * @param options
+     *            Options
+     * @param now
+     *            Current time in milliseconds since the epoch
+     */
+    private synchronized <T extends Options> void report(T options, long now) {
+        if (this.output == null)
+            return;
+        StringBuilder builder = new StringBuilder();
+        Iterator<Operation> ops = options.getOperationMix().getOperations();
+        while (ops.hasNext()) {
+            Operation op = ops.next();
+            WindowedStats stats = this.operationStats.get(op);
+            if (stats != null)
+                appendRows(builder, now, FormatUtils.toCsv(op.getName()), stats);
+        }
+        appendRows(builder, now, MIX_SCOPE, this.mixStats);
+        this.output.print(builder);
+        this.output.flush();
+        if (this.output.checkError())
+            logger.error("Error writing time series, output is likely incomplete");
+    }
+
+    private void appendRows(StringBuilder builder, long now, String scope, WindowedStats stats) {
+        for (long window : this.windows) {
+            WindowedStats.Window w = stats.getWindow(now, window);
+            builder.append(now).append(',');
+            builder.append(scope).append(',');
+            builder.append(w.getSize() / ConvertUtils.MILLISECONDS_PER_SECONDS).append(',');
+            builder.append(w.getCount()).append(',');
+            builder.append(w.getThroughput()).append(',');
+            builder.append(w.getErrors()).append(',');
+            builder.append(w.getErrorRate()).append(',');
+            builder.append(ConvertUtils.toSeconds(w.getAverageRuntime()));
+            for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+                builder.append(',').append(ConvertUtils.toSeconds(w.getPercentileRuntime(percentile)));
+            }
+            builder.append(',').append(ConvertUtils.toSeconds(w.getMaximumRuntime())).append('\n');
+        }
+    }
+
+    /**
+     * Handles the finished event by stopping the background thread and closing
+     * the output if appropriate
+     */
+    @Override
+    public <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+        Thread reporter;
+        synchronized (this) {
+            this.running = false;
+            reporter = this.reporter;
+            this.reporter = null;
+        }
+        if (reporter != null) {
+            reporter.interrupt();
+            try {
+                reporter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (this.output == null)
+                return;
+            this.output.flush();
+            if (this.file != null || this.closeOnFinish) {
+                this.output.close();
+                this.output = null;
+            }
+        }
+    }
+
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, String message) {
+        // We don't handle informational messages
+    }
+
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event) {
+        // We don't handle informational messages
+    }
+
+    @Override
+    public <T extends Options> void beforeOperation(Runner<T> runner, T options, Operation operation) {
+        // We don't handle before operation events
+    }
+
+    /**
+     * Handles the operation run event by recording it in the windowed
+     * statistics for the operation
+     */
+    @Override
+    public <T extends Options> void afterOperation(Runner<T> runner, T options, Operation operation, OperationRun run) {
+        if (!this.running)
+            return;
+        WindowedStats stats = this.operationStats.get(operation);
+        if (stats == null) {
+            stats = createStats();
+            WindowedStats existing = this.operationStats.putIfAbsent(operation, stats);
+            if (existing != null)
+                stats = existing;
+        }
+        stats.record(run.getTimestamp(), run.getRuntime(), !run.wasSuccessful());
+    }
+
+    @Override
+    public <T extends Options> void beforeOperationMix(Runner<T> runner, T options, OperationMix mix) {
+        // We don't handle before operation mix events
+    }
+
+    /**
+     * Handles the operation mix run event by recording it in the windowed
+     * statistics for the mix
+     */
+    @Override
+    public <T extends Options> void afterOperationMix(Runner<T> runner, T options, OperationMix mix,
+            OperationMixRun run) {
+        if (!this.running)
+            return;
+        this.mixStats.record(System.currentTimeMillis(), run.getTotalRuntime(), run.getTotalErrors() > 0);
+    }
+}
@@ -36,11 +36,14 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.util.Iterator;
 
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.BenchmarkOptions;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.HttpPhase;
+import net.sf.sparql.benchmarking.stats.HttpPhaseTimings;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
 import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.FileUtils;
@@ -50,7 +53,7 @@ import net.sf.sparql.benchmarking.util.FileUtils;
  * 
  * @author rvesse
  */
-public class XmlProgressListener implements ProgressListener {
+public class XmlProgressListener implements ProgressEventListener {
 
     private File file;
     private PrintWriter writer;
@@ -108,6 +111,15 @@ public class XmlProgressListener implements ProgressListener {
                                ATTR_AVG_RESPONSE_TIME_GEOM = "averageResponseTimeGeometric",
                                ATTR_VARIANCE = "variance",
                                ATTR_STD_DEV = "standardDeviation",
+                               ATTR_RUNTIME_P50 = "runtimeP50",
+                               ATTR_RUNTIME_P90 = "runtimeP90",
+                               ATTR_RUNTIME_P99 = "runtimeP99",
+                               ATTR_RUNTIME_P999 = "runtimeP999",
+                               ATTR_RESPONSE_TIME_P50 = "responseTimeP50",
+                               ATTR_RESPONSE_TIME_P90 = "responseTimeP90",
+                               ATTR_RESPONSE_TIME_P99 = "responseTimeP99",
+                               ATTR_RESPONSE_TIME_P999 = "responseTimeP999",
+                               ATTR_MAX_RESPONSE_TIME = "maxResponseTime",
                                ATTR_OPS = "operationsPerSecond",
                                ATTR_ACTUAL_OPS = "actualOperationsPerSecond",
                                ATTR_OPH = "operationsPerHour",
@@ -116,7 +128,16 @@ public class XmlProgressListener implements ProgressListener {
                                ATTR_ACTUAL_OMPH = "actualOperationMixesPerHour",
                                ATTR_FASTEST_OPERATION = "fastestOperation",
                                ATTR_SLOWEST_OPERATION = "slowestOperation",
-                               ATTR_RUN_ORDER = "runOrder";
+                               ATTR_RUN_ORDER = "runOrder",
+                               ATTR_DNS_TIME = "dnsTime",
+                               ATTR_CONNECT_TIME = "connectTime",
+                               ATTR_TLS_TIME = "tlsTime",
+                               ATTR_TTFB = "timeToFirstByte",
+                               ATTR_DOWNLOAD_TIME = "downloadTime",
+                               ATTR_PARSE_TIME = "parseTime",
+                               ATTR_BYTES_RECEIVED = "bytesReceived",
+                               ATTR_BYTES_PER_SECOND = "bytesPerSecond",
+                               ATTR_TOTAL_BYTES_RECEIVED = "totalBytesReceived";
     //@formatter:on
 
     /**
@@ -307,6 +328,22 @@ public class XmlProgressListener implements ProgressListener {
                 addAttribute(ATTR_OPH, op.getStats().getOperationsPerHour());
                 if (wasMultithreaded)
                     addAttribute(ATTR_ACTUAL_OPH, op.getStats().getActualOperationsPerHour());
+                addAttribute(ATTR_RUNTIME_P50, op.getStats().getPercentileRuntime(50));
+                addAttribute(ATTR_RUNTIME_P90, op.getStats().getPercentileRuntime(90));
+                addAttribute(ATTR_RUNTIME_P99, op.getStats().getPercentileRuntime(99));
+                addAttribute(ATTR_RUNTIME_P999, op.getStats().getPercentileRuntime(99.9));
+                addAttribute(ATTR_RESPONSE_TIME_P50, op.getStats().getPercentileResponseTime(50));
+                addAttribute(ATTR_RESPONSE_TIME_P90, op.getStats().getPercentileResponseTime(90));
+                addAttribute(ATTR_RESPONSE_TIME_P99, op.getStats().getPercentileResponseTime(99));
+                addAttribute(ATTR_RESPONSE_TIME_P999, op.getStats().getPercentileResponseTime(99.9));
+                addAttribute(ATTR_MAX_RESPONSE_TIME, op.getStats().getPercentileResponseTime(100));
+                if (op.getStats().getTotalBytesReceived() > 0)
+                    addAttribute(ATTR_TOTAL_BYTES_RECEIVED, op.getStats().getTotalBytesReceived());
+                if (op.getStats().getPhaseTimedRunCount() > 0) {
+                    for (HttpPhase phase : HttpPhase.values()) {
+                        addAttribute(getPhaseAttribute(phase, true), op.getStats().getAveragePhaseTime(phase));
+                    }
+                }
                 finishAttributes(true);
 
                 id++;
@@ -331,6 +368,15 @@ public class XmlProgressListener implements ProgressListener {
             addAttribute(ATTR_OMPH, mix.getStats().getOperationMixesPerHour());
             if (wasMultithreaded)
                 addAttribute(ATTR_ACTUAL_OMPH, mix.getStats().getActualOperationMixesPerHour());
+            addAttribute(ATTR_RUNTIME_P50, mix.getStats().getPercentileRuntime(50));
+            addAttribute(ATTR_RUNTIME_P90, mix.getStats().getPercentileRuntime(90));
+            addAttribute(ATTR_RUNTIME_P99, mix.getStats().getPercentileRuntime(99));
+            addAttribute(ATTR_RUNTIME_P999, mix.getStats().getPercentileRuntime(99.9));
+            addAttribute(ATTR_RESPONSE_TIME_P50, mix.getStats().getPercentileResponseTime(50));
+            addAttribute(ATTR_RESPONSE_TIME_P90, mix.getStats().getPercentileResponseTime(90));
+            addAttribute(ATTR_RESPONSE_TIME_P99, mix.getStats().getPercentileResponseTime(99));
+            addAttribute(ATTR_RESPONSE_TIME_P999, mix.getStats().getPercentileResponseTime(99.9));
+            addAttribute(ATTR_MAX_RESPONSE_TIME, mix.getStats().getPercentileResponseTime(100));
             finishAttributes(true);
 
             closeTag(TAG_STATS);
@@ -351,6 +397,11 @@ public class XmlProgressListener implements ProgressListener {
         // Not relevant for XML output
     }
 
+    @Override
+    public <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event) {
+        // Not relevant for XML output
+    }
+
     /**
      * Does nothing as this listener discards individual operation run
      * statistics
@@ -400,6 +451,16 @@ public class XmlProgressListener implements ProgressListener {
             addAttribute(ATTR_RESPONSE_TIME, r.getResponseTime());
             addAttribute(ATTR_RUNTIME, r.getRuntime());
             addAttribute(ATTR_RESULT_COUNT, r.getResultCount());
+            if (r.getBytesReceived() >= 0) {
+                addAttribute(ATTR_BYTES_RECEIVED, r.getBytesReceived());
+                addAttribute(ATTR_BYTES_PER_SECOND, r.getBytesPerSecond());
+            }
+            HttpPhaseTimings timings = r.getHttpPhaseTimings();
+            if (timings != null) {
+                for (HttpPhase phase : HttpPhase.values()) {
+                    addAttribute(getPhaseAttribute(phase, false), timings.get(phase));
+                }
+            }
 
             if (r.getErrorMessage() != null) {
                 finishAttributes();
@@ -415,6 +476,40 @@ public class XmlProgressListener implements ProgressListener {
         writer.flush();
     }
 
+    /**
+     * Gets the attribute name used for a HTTP phase time
+     * 
+     * @param phase
+     *            Phase
+     * @param average
+     *            Whether the attribute is for the average phase time
+     * @return Attribute name
+     */
+    private static String getPhaseAttribute(HttpPhase phase, boolean average) {
+        String name;
+        switch (phase) {
+        case DNS:
+            name = ATTR_DNS_TIME;
+            break;
+        case CONNECT:
+            name = ATTR_CONNECT_TIME;
+            break;
+        case TLS:
+            name = ATTR_TLS_TIME;
+            break;
+        case TTFB:
+            name = ATTR_TTFB;
+            break;
+        case DOWNLOAD:
+            name = ATTR_DOWNLOAD_TIME;
+            break;
+        default:
+            name = ATTR_PARSE_TIME;
+            break;
+        }
+        return average ? "average" + Character.toUpperCase(name.charAt(0)) + name.substring(1) : name;
+    }
+
     private void openTag(String tagname) {
         openTag(tagname, false);
     }
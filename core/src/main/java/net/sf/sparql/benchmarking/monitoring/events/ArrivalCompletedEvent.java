@@ -0,0 +1,117 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A progress event reporting that an open loop client completed a run of an
+ * operation mix for an arrival
+ * 
+ * @author rvesse
+ * 
+ */
+public class ArrivalCompletedEvent extends ProgressEvent {
+
+    private final int clientId;
+    private final OperationMix mix;
+    private final OperationMixRun run;
+    private final long lateness;
+
+    /**
+     * Creates a new event
+     * 
+     * @param clientId
+     *            Parallel client ID
+     * @param mix
+     *            Operation mix
+     * @param run
+     *            Mix run information
+     * @param lateness
+     *            Time in nanoseconds between when the arrival was intended to
+     *            start and when it actually started
+     */
+    public ArrivalCompletedEvent(int clientId, OperationMix mix, OperationMixRun run, long lateness) {
+        super(ProgressVerbosity.OPERATION_MIX, false);
+        this.clientId = clientId;
+        this.mix = mix;
+        this.run = run;
+        this.lateness = lateness;
+    }
+
+    /**
+     * Gets the ID of the parallel client
+     * 
+     * @return Client ID
+     */
+    public int getClientID() {
+        return this.clientId;
+    }
+
+    /**
+     * Gets the operation mix
+     * 
+     * @return Operation mix
+     */
+    public OperationMix getOperationMix() {
+        return this.mix;
+    }
+
+    /**
+     * Gets the mix run information
+     * 
+     * @return Mix run information
+     */
+    public OperationMixRun getRun() {
+        return this.run;
+    }
+
+    /**
+     * Gets how late the arrival started i.e. the time it spent queued waiting
+     * for a free client
+     * 
+     * @return Lateness in nanoseconds
+     */
+    public long getLateness() {
+        return this.lateness;
+    }
+
+    @Override
+    protected String format() {
+        return "Operation Mix Run by Client " + this.clientId + " started " + FormatUtils.formatSeconds(this.lateness)
+                + " late and took " + FormatUtils.formatSeconds(this.run.getTotalRuntime());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+
+/**
+ * A progress event that carries a pre-formatted message
+ * 
+ * @author rvesse
+ * 
+ */
+public class MessageEvent extends ProgressEvent {
+
+    private final String message;
+
+    /**
+     * Creates a new message event reported at the
+     * {@link ProgressVerbosity#SUMMARY} level
+     * 
+     * @param message
+     *            Message
+     * @param partial
+     *            Whether the message is a partial line
+     */
+    public MessageEvent(String message, boolean partial) {
+        this(ProgressVerbosity.SUMMARY, message, partial);
+    }
+
+    /**
+     * Creates a new message event
+     * 
+     * @param verbosity
+     *            Verbosity
+     * @param message
+     *            Message
+     * @param partial
+     *            Whether the message is a partial line
+     */
+    public MessageEvent(ProgressVerbosity verbosity, String message, boolean partial) {
+        super(verbosity, partial);
+        this.message = message;
+    }
+
+    @Override
+    protected String format() {
+        return this.message;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A progress event reporting that an operation has completed
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationCompletedEvent extends ProgressEvent {
+
+    private final Operation operation;
+    private final OperationRun run;
+
+    /**
+     * Creates a new event
+     * 
+     * @param operation
+     *            Operation
+     * @param run
+     *            Run information
+     */
+    public OperationCompletedEvent(Operation operation, OperationRun run) {
+        super(ProgressVerbosity.OPERATION, false);
+        this.operation = operation;
+        this.run = run;
+    }
+
+    /**
+     * Gets the operation
+     * 
+     * @return Operation
+     */
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    /**
+     * Gets the run information
+     * 
+     * @return Run information
+     */
+    public OperationRun getRun() {
+        return this.run;
+    }
+
+    @Override
+    protected String format() {
+        if (this.run.wasSuccessful()) {
+            return "got " + FormatUtils.formatResultCount(this.run.getResultCount()) + " result(s) in "
+                    + ConvertUtils.toSeconds(this.run.getRuntime()) + "s";
+        } else {
+            return "got error after " + ConvertUtils.toSeconds(this.run.getRuntime()) + "s: "
+                    + this.run.getErrorMessage();
+        }
+    }
+}
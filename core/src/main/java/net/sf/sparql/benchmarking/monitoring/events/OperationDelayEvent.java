@@ -0,0 +1,73 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * A progress event reporting a delay before the next operation is run
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationDelayEvent extends ProgressEvent {
+
+    private final long delay;
+
+    /**
+     * Creates a new event
+     * 
+     * @param delay
+     *            Delay in milliseconds
+     */
+    public OperationDelayEvent(long delay) {
+        super(ProgressVerbosity.OPERATION, false);
+        this.delay = delay;
+    }
+
+    /**
+     * Gets the delay
+     * 
+     * @return Delay in milliseconds
+     */
+    public long getDelay() {
+        return this.delay;
+    }
+
+    @Override
+    protected String format() {
+        return "Sleeping for " + ConvertUtils.toSeconds((long) (this.delay * ConvertUtils.NANOSECONDS_PER_MILLISECONDS))
+                + "s before next operation";
+    }
+}
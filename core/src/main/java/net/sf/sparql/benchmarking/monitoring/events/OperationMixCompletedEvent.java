@@ -0,0 +1,134 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A progress event reporting that a parallel client completed a run of an
+ * operation mix
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationMixCompletedEvent extends ProgressEvent {
+
+    private final int clientId;
+    private final int runNumber;
+    private final OperationMix mix;
+    private final OperationMixRun run;
+
+    /**
+     * Creates a new event
+     * 
+     * @param clientId
+     *            Parallel client ID
+     * @param runNumber
+     *            Number of the completed run across all clients, zero or
+     *            negative if unknown
+     * @param mix
+     *            Operation mix
+     * @param run
+     *            Mix run information
+     */
+    public OperationMixCompletedEvent(int clientId, int runNumber, OperationMix mix, OperationMixRun run) {
+        super(ProgressVerbosity.OPERATION_MIX, false);
+        this.clientId = clientId;
+        this.runNumber = runNumber;
+        this.mix = mix;
+        this.run = run;
+    }
+
+    /**
+     * Gets the ID of the parallel client
+     * 
+     * @return Client ID
+     */
+    public int getClientID() {
+        return this.clientId;
+    }
+
+    /**
+     * Gets the number of the completed run across all clients
+     * 
+     * @return Run number, zero or negative if unknown
+     */
+    public int getRunNumber() {
+        return this.runNumber;
+    }
+
+    /**
+     * Gets the operation mix
+     * 
+     * @return Operation mix
+     */
+    public OperationMix getOperationMix() {
+        return this.mix;
+    }
+
+    /**
+     * Gets the mix run information
+     * 
+     * @return Mix run information
+     */
+    public OperationMixRun getRun() {
+        return this.run;
+    }
+
+    @Override
+    protected String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Operation Mix Run ").append(this.runNumber).append(" by Client ").append(this.clientId)
+                .append("\n\n");
+        builder.append("Total Response Time: ").append(FormatUtils.formatSeconds(this.run.getTotalResponseTime()))
+                .append('\n');
+        builder.append("Total Runtime: ").append(FormatUtils.formatSeconds(this.run.getTotalRuntime()));
+        int minOperationId = this.run.getMinimumRuntimeOperationID();
+        int maxOperationId = this.run.getMaximumRuntimeOperationID();
+        if (minOperationId != -1) {
+            builder.append("\nMinimum Operation Runtime: ")
+                    .append(FormatUtils.formatSeconds(this.run.getMinimumRuntime())).append(" (Operation ")
+                    .append(this.mix.getOperation(minOperationId).getName()).append(')');
+        }
+        if (maxOperationId != -1) {
+            builder.append("\nMaximum Operation Runtime: ")
+                    .append(FormatUtils.formatSeconds(this.run.getMaximumRuntime())).append(" (Operation ")
+                    .append(this.mix.getOperation(maxOperationId).getName()).append(')');
+        }
+        builder.append('\n');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import org.joda.time.Instant;
+
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A progress event reporting that a parallel client is starting a run of an
+ * operation mix
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationMixStartedEvent extends ProgressEvent {
+
+    private final int clientId;
+    private final Instant time;
+
+    /**
+     * Creates a new event
+     * 
+     * @param clientId
+     *            Parallel client ID
+     * @param time
+     *            Time at which the run started
+     */
+    public OperationMixStartedEvent(int clientId, Instant time) {
+        super(ProgressVerbosity.OPERATION_MIX, false);
+        this.clientId = clientId;
+        this.time = time;
+    }
+
+    /**
+     * Gets the ID of the parallel client
+     * 
+     * @return Client ID
+     */
+    public int getClientID() {
+        return this.clientId;
+    }
+
+    /**
+     * Gets the time at which the run started
+     * 
+     * @return Time
+     */
+    public Instant getTime() {
+        return this.time;
+    }
+
+    @Override
+    protected String format() {
+        return "Client " + this.clientId + " starting new operation mix run\nCurrent Time: "
+                + FormatUtils.formatInstant(this.time);
+    }
+}
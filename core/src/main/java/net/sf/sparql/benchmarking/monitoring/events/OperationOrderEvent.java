@@ -0,0 +1,81 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import java.util.List;
+
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+
+/**
+ * A progress event reporting the order in which operations will be run for a
+ * run of an operation mix
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationOrderEvent extends ProgressEvent {
+
+    private final List<Integer> ids;
+
+    /**
+     * Creates a new event
+     * 
+     * @param ids
+     *            Operation IDs in the order they will be run
+     */
+    public OperationOrderEvent(List<Integer> ids) {
+        super(ProgressVerbosity.OPERATION_MIX, false);
+        this.ids = ids;
+    }
+
+    /**
+     * Gets the operation IDs in the order they will be run
+     * 
+     * @return Operation IDs
+     */
+    public List<Integer> getOperationOrder() {
+        return this.ids;
+    }
+
+    @Override
+    protected String format() {
+        StringBuilder operationOrder = new StringBuilder();
+        operationOrder.append("Operation Order for this Run is ");
+        for (int i = 0; i < this.ids.size(); i++) {
+            operationOrder.append(this.ids.get(i).toString());
+            if (i < this.ids.size() - 1)
+                operationOrder.append(", ");
+        }
+        return operationOrder.toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.monitoring.events;
+
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+
+/**
+ * Abstract progress event
+ * <p>
+ * Events capture the information to be reported and only format their message
+ * when {@link #getMessage()} is first called, so events that no listener
+ * displays never pay for string formatting.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class ProgressEvent {
+
+    private final ProgressVerbosity verbosity;
+    private final boolean partial;
+    private volatile String message;
+
+    /**
+     * Creates a new event
+     * 
+     * @param verbosity
+     *            Verbosity level at which the event is reported
+     * @param partial
+     *            Whether the message for the event is a partial line
+     */
+    protected ProgressEvent(ProgressVerbosity verbosity, boolean partial) {
+        if (verbosity == null)
+            throw new NullPointerException("Verbosity cannot be null");
+        this.verbosity = verbosity;
+        this.partial = partial;
+    }
+
+    /**
+     * Gets the verbosity level at which the event is reported
+     * 
+     * @return Verbosity
+     */
+    public final ProgressVerbosity getVerbosity() {
+        return this.verbosity;
+    }
+
+    /**
+     * Gets whether the message for this event is a partial line i.e. further
+     * events will complete the line
+     * 
+     * @return True if a partial line, false otherwise
+     */
+    public final boolean isPartial() {
+        return this.partial;
+    }
+
+    /**
+     * Gets the informational message for this event
+     * <p>
+     * Unless the event is a partial line the message is terminated with a new
+     * line. The message is formatted the first time this is called.
+     * </p>
+     * 
+     * @return Message
+     */
+    public final String getMessage() {
+        String m = this.message;
+        if (m == null) {
+            m = this.partial ? this.format() : this.format() + '\n';
+            this.message = m;
+        }
+        return m;
+    }
+
+    /**
+     * Formats the informational message for this event, this should not
+     * include a terminating new line
+     * 
+     * @return Message
+     */
+    protected abstract String format();
+
+    @Override
+    public String toString() {
+        return this.getMessage();
+    }
+}
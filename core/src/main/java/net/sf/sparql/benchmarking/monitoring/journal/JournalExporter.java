@@ -0,0 +1,201 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import net.sf.sparql.benchmarking.stats.impl.LatencyHistogram;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * Exports the contents of a run journal in CSV form
+ * <p>
+ * Journals may be exported as raw records, as per operation latency
+ * histograms or as a time series of throughput and latency. All times are
+ * exported in seconds with the exception of timestamps which are milliseconds
+ * since the epoch.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalExporter {
+
+    /**
+     * Private constructor prevents direct instantiation
+     */
+    private JournalExporter() {
+    }
+
+    /**
+     * Exports every record in the journal
+     * 
+     * @param journal
+     *            Journal
+     * @param output
+     *            Writer to export to
+     * @throws IOException
+     */
+    public static void exportRecords(JournalReader journal, Writer output) throws IOException {
+        output.write("Start Timestamp,Operation ID,Client ID,Run Order,Runtime,Response Time,Result Count,Error Category\n");
+        for (JournalRecord record : journal) {
+            output.write(record.getStartTime() + "," + record.getOperationId() + "," + record.getClientId() + ","
+                    + record.getRunOrder() + "," + ConvertUtils.toSeconds(record.getRuntime()) + ","
+                    + ConvertUtils.toSeconds(record.getResponseTime()) + "," + record.getResultCount() + ","
+                    + record.getErrorCategory() + "\n");
+        }
+        output.flush();
+    }
+
+    /**
+     * Exports latency percentiles for each operation and for all operations
+     * 
+     * @param journal
+     *            Journal
+     * @param output
+     *            Writer to export to
+     * @throws IOException
+     */
+    public static void exportHistogram(JournalReader journal, Writer output) throws IOException {
+        Map<Integer, Latencies> operations = new TreeMap<Integer, Latencies>();
+        Latencies all = new Latencies();
+        for (JournalRecord record : journal) {
+            Latencies latencies = operations.get(record.getOperationId());
+            if (latencies == null) {
+                latencies = new Latencies();
+                operations.put(record.getOperationId(), latencies);
+            }
+            latencies.add(record);
+            all.add(record);
+        }
+
+        output.write("Operation ID,Runs,Errors,Average Runtime");
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            output.write("," + FormatUtils.formatPercentile(percentile) + " Percentile Runtime");
+        }
+        output.write(",Max Runtime");
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            output.write("," + FormatUtils.formatPercentile(percentile) + " Percentile Response Time");
+        }
+        output.write(",Max Response Time\n");
+        for (Entry<Integer, Latencies> e : operations.entrySet()) {
+            e.getValue().write(Integer.toString(e.getKey()), output);
+        }
+        all.write("All", output);
+        output.flush();
+    }
+
+    /**
+     * Exports a time series of throughput and latency
+     * <p>
+     * Runs are assigned to intervals based upon their start time.
+     * </p>
+     * 
+     * @param journal
+     *            Journal
+     * @param output
+     *            Writer to export to
+     * @param interval
+     *            Interval in milliseconds
+     * @throws IOException
+     */
+    public static void exportTimeSeries(JournalReader journal, Writer output, long interval) throws IOException {
+        if (interval <= 0)
+            throw new IllegalArgumentException("Interval must be greater than zero");
+
+        Map<Long, long[]> intervals = new TreeMap<Long, long[]>();
+        for (JournalRecord record : journal) {
+            long start = record.getStartTime() - (record.getStartTime() % interval);
+            // Runs, errors, total runtime, max runtime and total response time
+            long[] totals = intervals.get(start);
+            if (totals == null) {
+                totals = new long[5];
+                intervals.put(start, totals);
+            }
+            totals[0]++;
+            if (!record.wasSuccessful())
+                totals[1]++;
+            totals[2] += record.getRuntime();
+            totals[3] = Math.max(totals[3], record.getRuntime());
+            totals[4] += Math.max(0, record.getResponseTime());
+        }
+
+        output.write(
+                "Interval Start,Elapsed,Operations,Errors,Operations per Second,Average Runtime,Max Runtime,Average Response Time\n");
+        long first = intervals.isEmpty() ? 0 : intervals.keySet().iterator().next();
+        for (Entry<Long, long[]> e : intervals.entrySet()) {
+            long[] totals = e.getValue();
+            output.write(e.getKey() + "," + ((e.getKey() - first) / ConvertUtils.MILLISECONDS_PER_SECONDS) + ","
+                    + totals[0] + "," + totals[1] + ","
+                    + (totals[0] * ConvertUtils.MILLISECONDS_PER_SECONDS / interval) + ","
+                    + ConvertUtils.toSeconds(totals[2] / totals[0]) + "," + ConvertUtils.toSeconds(totals[3]) + ","
+                    + ConvertUtils.toSeconds(totals[4] / totals[0]) + "\n");
+        }
+        output.flush();
+    }
+
+    /**
+     * Latencies for a set of runs
+     */
+    private static class Latencies {
+        private final LatencyHistogram runtimes = new LatencyHistogram();
+        private final LatencyHistogram responseTimes = new LatencyHistogram();
+        private long runs, errors, totalRuntime;
+
+        void add(JournalRecord record) {
+            this.runs++;
+            if (!record.wasSuccessful())
+                this.errors++;
+            this.totalRuntime += record.getRuntime();
+            this.runtimes.record(record.getRuntime());
+            this.responseTimes.record(record.getResponseTime());
+        }
+
+        void write(String label, Writer output) throws IOException {
+            output.write(label + "," + this.runs + "," + this.errors + ","
+                    + ConvertUtils.toSeconds(this.runs > 0 ? this.totalRuntime / this.runs : 0));
+            for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+                output.write("," + ConvertUtils.toSeconds(this.runtimes.getValueAtPercentile(percentile)));
+            }
+            output.write("," + ConvertUtils.toSeconds(this.runtimes.getMaxValue()));
+            for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+                output.write("," + ConvertUtils.toSeconds(this.responseTimes.getValueAtPercentile(percentile)));
+            }
+            output.write("," + ConvertUtils.toSeconds(this.responseTimes.getMaxValue()) + "\n");
+        }
+    }
+}
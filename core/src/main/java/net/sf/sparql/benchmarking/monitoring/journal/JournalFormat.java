@@ -0,0 +1,110 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.io.File;
+import java.nio.ByteOrder;
+
+/**
+ * Constants and helpers describing the on disk format of run journals
+ * <p>
+ * A journal consists of one or more segment files, the first segment is the
+ * journal file itself and subsequent segments append the segment number to
+ * the file name e.g. {@code run.journal}, {@code run.journal.1} etc. Each
+ * segment starts with a {@value #HEADER_SIZE} byte header followed by fixed
+ * width records (see {@link JournalRecord#RECORD_SIZE}). All values are
+ * stored little endian.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalFormat {
+
+    /**
+     * Private constructor prevents direct instantiation
+     */
+    private JournalFormat() {
+    }
+
+    /**
+     * Magic number at the start of each segment
+     */
+    public static final int MAGIC = 0x4C4A5153;
+
+    /**
+     * Format version
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of the segment header in bytes
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * Byte order used for all values
+     */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Offset of the record size in the segment header
+     */
+    static final int RECORD_SIZE_OFFSET = 8;
+
+    /**
+     * Offset of the segment number in the segment header
+     */
+    static final int SEGMENT_OFFSET = 12;
+
+    /**
+     * Offset of the record count in the segment header, this is updated after
+     * every record is written so a journal remains readable even if the JVM
+     * dies part way through a run
+     */
+    static final int COUNT_OFFSET = 16;
+
+    /**
+     * Gets the file for a segment of a journal
+     * 
+     * @param journal
+     *            Journal file
+     * @param segment
+     *            Segment number
+     * @return Segment file
+     */
+    public static File getSegmentFile(File journal, int segment) {
+        if (segment == 0)
+            return journal;
+        return new File(journal.getPath() + "." + segment);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records from a run journal written by a {@link JournalWriter}
+ * <p>
+ * Segments are memory mapped read only and decoded as they are iterated so
+ * journals of any size can be read in constant memory.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalReader implements Iterable<JournalRecord> {
+
+    private final File file;
+
+    /**
+     * Creates a new reader
+     * 
+     * @param file
+     *            Journal file
+     * @throws IOException
+     *             Thrown if the file is not a valid journal
+     */
+    public JournalReader(File file) throws IOException {
+        this.file = file;
+        open(file);
+    }
+
+    /**
+     * Opens and validates a segment
+     * 
+     * @param segmentFile
+     *            Segment file
+     * @return Mapped segment
+     * @throws IOException
+     *             Thrown if the segment cannot be read or is not a valid
+     *             segment
+     */
+    private static MappedByteBuffer open(File segmentFile) throws IOException {
+        FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ);
+        try {
+            if (channel.size() < JournalFormat.HEADER_SIZE)
+                throw new IOException(segmentFile + " is not a valid journal, too small to contain a header");
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(JournalFormat.BYTE_ORDER);
+            if (buffer.getInt(0) != JournalFormat.MAGIC)
+                throw new IOException(segmentFile + " is not a valid journal");
+            if (buffer.getInt(4) != JournalFormat.VERSION)
+                throw new IOException(segmentFile + " has unsupported journal version " + buffer.getInt(4));
+            if (buffer.getInt(JournalFormat.RECORD_SIZE_OFFSET) != JournalRecord.RECORD_SIZE)
+                throw new IOException(segmentFile + " has unexpected record size "
+                        + buffer.getInt(JournalFormat.RECORD_SIZE_OFFSET));
+            return buffer;
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Gets the number of records in a segment
+     * 
+     * @param buffer
+     *            Mapped segment
+     * @return Number of records
+     */
+    private static int getCount(MappedByteBuffer buffer) {
+        // Never trust the count beyond what is actually present in the file
+        long available = (buffer.capacity() - JournalFormat.HEADER_SIZE) / JournalRecord.RECORD_SIZE;
+        return (int) Math.min(available, Math.max(0, buffer.getLong(JournalFormat.COUNT_OFFSET)));
+    }
+
+    /**
+     * Gets the total number of records in the journal
+     * 
+     * @return Number of records
+     * @throws IOException
+     *             Thrown if a segment cannot be read
+     */
+    public long getRecordCount() throws IOException {
+        long total = 0;
+        for (int i = 0;; i++) {
+            File segmentFile = JournalFormat.getSegmentFile(this.file, i);
+            if (!segmentFile.exists())
+                return total;
+            total += getCount(open(segmentFile));
+        }
+    }
+
+    @Override
+    public Iterator<JournalRecord> iterator() {
+        return new Iterator<JournalRecord>() {
+            private int segment = -1;
+            private MappedByteBuffer buffer;
+            private int index, count;
+
+            @Override
+            public boolean hasNext() {
+                while (this.index >= this.count) {
+                    File segmentFile = JournalFormat.getSegmentFile(file, this.segment + 1);
+                    if (!segmentFile.exists())
+                        return false;
+                    try {
+                        this.buffer = open(segmentFile);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error reading journal segment " + segmentFile, e);
+                    }
+                    this.segment++;
+                    this.index = 0;
+                    this.count = getCount(this.buffer);
+                }
+                return true;
+            }
+
+            @Override
+            public JournalRecord next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                JournalRecord record = JournalRecord.read(this.buffer,
+                        JournalFormat.HEADER_SIZE + this.index * JournalRecord.RECORD_SIZE);
+                this.index++;
+                return record;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.util.ErrorCategories;
+
+/**
+ * A record from a run journal
+ * <p>
+ * Each record is a fixed width binary encoding of a single operation run,
+ * see {@link #RECORD_SIZE} for the layout.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalRecord {
+
+    /**
+     * Size of a record in bytes
+     * <p>
+     * Records consist of the start timestamp, run order, runtime, response
+     * time, result count and client ID as longs followed by the operation ID
+     * and error category as ints.
+     * </p>
+     */
+    public static final int RECORD_SIZE = 6 * 8 + 2 * 4;
+
+    private final long startTime, runOrder, runtime, responseTime, resultCount, clientId;
+    private final int operationId, errorCategory;
+
+    /**
+     * Creates a new record
+     * 
+     * @param startTime
+     *            Start timestamp in milliseconds since the epoch
+     * @param operationId
+     *            Operation ID
+     * @param clientId
+     *            Client ID
+     * @param runOrder
+     *            Run order
+     * @param runtime
+     *            Runtime in nanoseconds
+     * @param responseTime
+     *            Response time in nanoseconds
+     * @param resultCount
+     *            Result count
+     * @param errorCategory
+     *            Error category
+     */
+    public JournalRecord(long startTime, int operationId, long clientId, long runOrder, long runtime,
+            long responseTime, long resultCount, int errorCategory) {
+        this.startTime = startTime;
+        this.operationId = operationId;
+        this.clientId = clientId;
+        this.runOrder = runOrder;
+        this.runtime = runtime;
+        this.responseTime = responseTime;
+        this.resultCount = resultCount;
+        this.errorCategory = errorCategory;
+    }
+
+    /**
+     * Writes a record for an operation run to the given buffer at its current
+     * position
+     * <p>
+     * The client ID recorded is the ID of the thread that performed the run
+     * since each parallel client runs on its own thread.
+     * </p>
+     * 
+     * @param buffer
+     *            Buffer
+     * @param run
+     *            Operation run
+     */
+    public static void write(ByteBuffer buffer, OperationRun run) {
+        buffer.putLong(run.getTimestamp() - TimeUnit.NANOSECONDS.toMillis(Math.max(0, run.getRuntime())));
+        buffer.putLong(run.getRunOrder());
+        buffer.putLong(run.getRuntime());
+        buffer.putLong(run.getResponseTime());
+        buffer.putLong(run.getResultCount());
+        buffer.putLong(run.getThreadId());
+        buffer.putInt(run.getId());
+        buffer.putInt(run.getErrorCategory());
+    }
+
+    /**
+     * Reads a record from the given buffer at the given offset
+     * 
+     * @param buffer
+     *            Buffer
+     * @param offset
+     *            Offset
+     * @return Record
+     */
+    public static JournalRecord read(ByteBuffer buffer, int offset) {
+        long startTime = buffer.getLong(offset);
+        long runOrder = buffer.getLong(offset + 8);
+        long runtime = buffer.getLong(offset + 16);
+        long responseTime = buffer.getLong(offset + 24);
+        long resultCount = buffer.getLong(offset + 32);
+        long clientId = buffer.getLong(offset + 40);
+        int operationId = buffer.getInt(offset + 48);
+        int errorCategory = buffer.getInt(offset + 52);
+        return new JournalRecord(startTime, operationId, clientId, runOrder, runtime, responseTime, resultCount,
+                errorCategory);
+    }
+
+    /**
+     * Gets the time at which the run started
+     * 
+     * @return Timestamp in milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the ID of the operation that was run
+     * 
+     * @return Operation ID
+     */
+    public int getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * Gets the ID of the client that performed the run
+     * 
+     * @return Client ID
+     */
+    public long getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Gets the run order
+     * 
+     * @return Run order
+     */
+    public long getRunOrder() {
+        return runOrder;
+    }
+
+    /**
+     * Gets the runtime
+     * 
+     * @return Runtime in nanoseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Gets the response time
+     * 
+     * @return Response time in nanoseconds
+     */
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Gets the result count
+     * 
+     * @return Result count
+     */
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Gets the error category
+     * 
+     * @return Error category
+     */
+    public int getErrorCategory() {
+        return errorCategory;
+    }
+
+    /**
+     * Gets whether the run was successful
+     * 
+     * @return True if successful, false otherwise
+     */
+    public boolean wasSuccessful() {
+        return errorCategory == ErrorCategories.NONE;
+    }
+}
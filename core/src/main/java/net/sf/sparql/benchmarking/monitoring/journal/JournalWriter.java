@@ -0,0 +1,211 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.stats.OperationRun;
+
+/**
+ * Appends operation runs to a memory mapped, segmented run journal
+ * <p>
+ * Each segment is mapped into memory when it is created so appending a record
+ * is just a handful of writes into memory, the operating system takes care of
+ * writing the data to disk. When a segment is full a new segment is created,
+ * when the journal is closed the final segment is forced to disk and
+ * truncated to the records actually written.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JournalWriter implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(JournalWriter.class);
+
+    /**
+     * Default number of records per segment
+     */
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    /**
+     * Maximum number of records per segment, segments are limited to 2GB since
+     * that is the most that can be memory mapped at once
+     */
+    public static final int MAX_SEGMENT_RECORDS = (Integer.MAX_VALUE - JournalFormat.HEADER_SIZE)
+            / JournalRecord.RECORD_SIZE;
+
+    private final File file;
+    private final int segmentRecords;
+    private int segment = -1;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long count, total;
+
+    /**
+     * Creates a new writer, any existing journal segments are deleted
+     * 
+     * @param file
+     *            Journal file
+     * @param segmentRecords
+     *            Number of records per segment
+     * @throws IOException
+     *             Thrown if existing segments cannot be deleted or the first
+     *             segment cannot be created
+     */
+    public JournalWriter(File file, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0 || segmentRecords > MAX_SEGMENT_RECORDS)
+            throw new IllegalArgumentException("Records per segment must be in the range 1 to " + MAX_SEGMENT_RECORDS);
+        this.file = file;
+        this.segmentRecords = segmentRecords;
+        this.deleteSegments();
+        this.nextSegment();
+    }
+
+    /**
+     * Deletes the segments of any previous journal written to the same file,
+     * otherwise a shorter journal would be read back followed by the
+     * remaining segments of the previous journal
+     * 
+     * @throws IOException
+     */
+    private void deleteSegments() throws IOException {
+        // The first segment is truncated when it is created, readers stop at
+        // the first missing segment so stop at the first one not found
+        for (int i = 1;; i++) {
+            File segmentFile = JournalFormat.getSegmentFile(this.file, i);
+            if (!segmentFile.exists())
+                return;
+            if (!segmentFile.delete())
+                throw new IOException("Unable to delete existing journal segment " + segmentFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Closes the current segment and creates the next segment
+     * 
+     * @throws IOException
+     */
+    private void nextSegment() throws IOException {
+        if (this.channel != null) {
+            this.buffer.force();
+            this.channel.close();
+        }
+        this.segment++;
+        this.channel = FileChannel.open(JournalFormat.getSegmentFile(this.file, this.segment).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = this.channel.map(MapMode.READ_WRITE, 0,
+                JournalFormat.HEADER_SIZE + (long) this.segmentRecords * JournalRecord.RECORD_SIZE);
+        this.buffer.order(JournalFormat.BYTE_ORDER);
+        this.buffer.putInt(JournalFormat.MAGIC);
+        this.buffer.putInt(JournalFormat.VERSION);
+        this.buffer.putInt(JournalFormat.RECORD_SIZE_OFFSET, JournalRecord.RECORD_SIZE);
+        this.buffer.putInt(JournalFormat.SEGMENT_OFFSET, this.segment);
+        this.buffer.putLong(JournalFormat.COUNT_OFFSET, 0);
+        this.buffer.position(JournalFormat.HEADER_SIZE);
+        this.count = 0;
+    }
+
+    /**
+     * Appends a record for an operation run
+     * 
+     * @param run
+     *            Operation run
+     * @throws IOException
+     *             Thrown if a new segment is needed and cannot be created
+     */
+    public synchronized void append(OperationRun run) throws IOException {
+        if (this.buffer == null)
+            throw new IOException("Journal is closed");
+        if (this.count == this.segmentRecords)
+            this.nextSegment();
+        JournalRecord.write(this.buffer, run);
+        this.count++;
+        this.total++;
+        this.buffer.putLong(JournalFormat.COUNT_OFFSET, this.count);
+    }
+
+    /**
+     * Gets the number of records written
+     * 
+     * @return Number of records
+     */
+    public synchronized long getRecordCount() {
+        return this.total;
+    }
+
+    /**
+     * Gets the number of segments written
+     * 
+     * @return Number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return this.segment + 1;
+    }
+
+    /**
+     * Forces the current segment to disk
+     */
+    public synchronized void force() {
+        if (this.buffer != null)
+            this.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel == null)
+            return;
+        try {
+            this.buffer.force();
+            try {
+                // Some platforms do not permit truncating a file which is
+                // still mapped, the journal remains readable regardless
+                this.channel.truncate(JournalFormat.HEADER_SIZE + this.count * JournalRecord.RECORD_SIZE);
+            } catch (IOException e) {
+                logger.debug("Unable to truncate journal segment - {}", e.getMessage());
+            }
+        } finally {
+            this.channel.close();
+            this.channel = null;
+            this.buffer = null;
+        }
+    }
+}
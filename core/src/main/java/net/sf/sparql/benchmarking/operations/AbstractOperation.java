@@ -62,6 +62,13 @@ public abstract class AbstractOperation implements Operation {
         return this.stats;
     }
 
+    @Override
+    public void setStats(OperationStats stats) {
+        if (stats == null)
+            throw new NullPointerException("Operation statistics cannot be null");
+        this.stats = stats;
+    }
+
     @Override
     public String getName() {
         return this.name;
@@ -34,6 +34,8 @@ package net.sf.sparql.benchmarking.operations;
 
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.impl.AbstractOperationRun;
+import net.sf.sparql.benchmarking.util.HttpPhaseTimer;
 
 /**
  * Abstract implementation of an operation callable
@@ -47,7 +49,7 @@ public abstract class AbstractOperationCallable<T extends Options> implements Op
 
     private Runner<T> runner;
     private T options;
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
 
     /**
      * Creates a new operation callable
@@ -89,9 +91,45 @@ public abstract class AbstractOperationCallable<T extends Options> implements Op
         return cancelled;
     }
 
+    /**
+     * Starts collecting HTTP phase timings on the current thread if enabled by
+     * the options
+     */
+    protected final void startPhaseTimings() {
+        if (this.options.getHttpPhaseTimings())
+            HttpPhaseTimer.start();
+    }
+
+    /**
+     * Stops collecting HTTP phase timings on the current thread and attaches
+     * any collected timings to the given run
+     * 
+     * @param run
+     *            Run
+     * @return Run
+     */
+    protected final <TRun extends AbstractOperationRun> TRun completePhaseTimings(TRun run) {
+        run.setHttpPhaseTimings(HttpPhaseTimer.stop(run.getRuntime()));
+        return run;
+    }
+
     @Override
     public final void cancel() {
         cancelled = true;
+        this.onCancel();
+    }
+
+    /**
+     * Called when the callable is asked to cancel, this may be called from a
+     * different thread to the thread running the callable
+     * <p>
+     * The default implementation does nothing, derived implementations may
+     * override this to abort any in-progress work so that the callable returns
+     * promptly.
+     * </p>
+     */
+    protected void onCancel() {
+        // Does nothing by default
     }
 
 }
\ No newline at end of file
@@ -113,6 +113,19 @@ public interface Operation {
      */
     public abstract OperationStats getStats();
 
+    /**
+     * Sets the statistics for the operation
+     * <p>
+     * This allows the default statistics implementation to be replaced e.g.
+     * with one that operates in constant memory, any previously collected
+     * statistics are discarded.
+     * </p>
+     * 
+     * @param stats
+     *            Operation statistics
+     */
+    public abstract void setStats(OperationStats stats);
+
     /**
      * Gets the ID used to identify the operation within an operation mix (if
      * known)
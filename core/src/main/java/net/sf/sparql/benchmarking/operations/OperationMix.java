@@ -80,4 +80,17 @@ public interface OperationMix {
      */
     public abstract OperationMixStats getStats();
 
+    /**
+     * Sets the statistics for the operation mix
+     * <p>
+     * This allows the default statistics implementation to be replaced e.g.
+     * with one that operates in constant memory, any previously collected
+     * statistics are discarded.
+     * </p>
+     * 
+     * @param stats
+     *            Statistics
+     */
+    public abstract void setStats(OperationMixStats stats);
+
 }
\ No newline at end of file
@@ -81,6 +81,13 @@ public class OperationMixImpl implements OperationMix {
         return this.stats;
     }
 
+    @Override
+    public void setStats(OperationMixStats stats) {
+        if (stats == null)
+            throw new NullPointerException("Operation mix statistics cannot be null");
+        this.stats = stats;
+    }
+
     @Override
     public Operation getOperation(int id) {
         if (id < 0 || id >= this.operations.size())
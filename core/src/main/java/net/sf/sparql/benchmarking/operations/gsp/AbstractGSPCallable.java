@@ -32,6 +32,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.gsp;
 
+import org.apache.jena.atlas.lib.IRILib;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.DatasetAccessor;
 import org.apache.jena.query.DatasetAccessorFactory;
@@ -87,11 +88,29 @@ public abstract class AbstractGSPCallable<T extends Options> extends AbstractOpe
         long numResults = OperationRun.NOT_YET_RUN;
 
         DatasetAccessor accessor = this.getAccessor();
+        this.startPhaseTimings();
         long startTime = System.nanoTime();
         numResults = this.doOperation(accessor);
         long endTime = System.nanoTime();
 
-        return new OperationRunImpl(endTime - startTime, numResults);
+        return completePhaseTimings(this.createRun(endTime - startTime, numResults));
+    }
+
+    /**
+     * Creates the run which records the results of the operation
+     * <p>
+     * Derived implementations may override this to record additional
+     * statistics about the run.
+     * </p>
+     * 
+     * @param runtime
+     *            Runtime
+     * @param numResults
+     *            Number of results
+     * @return Operation run
+     */
+    protected OperationRunImpl createRun(long runtime, long numResults) {
+        return new OperationRunImpl(runtime, numResults);
     }
 
     /**
@@ -121,6 +140,20 @@ public abstract class AbstractGSPCallable<T extends Options> extends AbstractOpe
         return this.uri;
     }
 
+    /**
+     * Gets the URI to which requests for the graph this callable operates on
+     * are made
+     * 
+     * @return Target URI
+     */
+    protected String getTargetUri() {
+        String endpoint = this.getOptions().getGraphStoreEndpoint();
+        String sep = endpoint.contains("?") ? "&" : "?";
+        if (this.isDefaultGraphUri())
+            return endpoint + sep + "default";
+        return endpoint + sep + "graph=" + IRILib.encodeUriComponent(this.uri);
+    }
+
     /**
      * Gets a {@link DatasetAccessor} prepared with the configured options
      * 
@@ -0,0 +1,170 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import org.apache.jena.rdf.model.Model;
+
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+
+/**
+ * Abstract implementation of a SPARQL Graph Store Protocol operation which
+ * sends a RDF graph to the server
+ * <p>
+ * The graph is serialized into the format given by
+ * {@link Options#getGraphStoreFormat()} when the operation is checked prior to
+ * running and the resulting {@link GSPPayload} is reused for every run.
+ * Alternatively the operation may be created with a payload that is used
+ * as-is, e.g. a {@link FileGSPPayload} which streams the data directly from a
+ * file.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class AbstractGSPDataOperation extends AbstractGSPOperation {
+
+    private Model data;
+    private volatile GSPPayload payload;
+
+    /**
+     * Creates a new operation
+     * 
+     * @param name
+     *            Name
+     * @param data
+     *            Data to be sent
+     * @param uri
+     *            Graph URI
+     */
+    public AbstractGSPDataOperation(String name, Model data, String uri) {
+        super(name, uri);
+        if (data == null)
+            throw new NullPointerException("Data cannot be null");
+        this.data = data;
+    }
+
+    /**
+     * Creates a new operation which sends a fixed payload
+     * 
+     * @param name
+     *            Name
+     * @param payload
+     *            Payload to be sent, used as-is regardless of the configured
+     *            graph store format
+     * @param uri
+     *            Graph URI
+     */
+    public AbstractGSPDataOperation(String name, GSPPayload payload, String uri) {
+        super(name, uri);
+        if (payload == null)
+            throw new NullPointerException("Payload cannot be null");
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the data to be sent
+     * 
+     * @return Data, null if the operation sends a fixed payload
+     */
+    protected Model getData() {
+        return this.data;
+    }
+
+    /**
+     * Gets the payload to send, serializing the data if it has not already
+     * been serialized in the format required by the options
+     * 
+     * @param options
+     *            Options
+     * @return Payload
+     */
+    protected <T extends Options> GSPPayload getPayload(T options) {
+        GSPPayload payload = this.payload;
+        if (this.data == null)
+            return payload;
+        if (payload != null && payload.isFormat(options.getGraphStoreFormat(), options.getGraphStoreCompression()))
+            return payload;
+        synchronized (this) {
+            payload = this.payload;
+            if (payload == null
+                    || !payload.isFormat(options.getGraphStoreFormat(), options.getGraphStoreCompression())) {
+                payload = GSPPayload.create(this.data, options.getGraphStoreFormat(),
+                        options.getGraphStoreCompression());
+                this.payload = payload;
+            }
+            return payload;
+        }
+    }
+
+    /**
+     * Checks the operation can run and serializes the data ready for running,
+     * file payloads are validated at this point if
+     * {@link Options#getGraphStoreValidation()} is enabled
+     */
+    @Override
+    public <T extends Options> boolean canRun(Runner<T> runner, T options) {
+        if (!super.canRun(runner, options))
+            return false;
+        try {
+            GSPPayload payload = this.getPayload(options);
+            if (this.data != null) {
+                runner.reportProgress(options, "Serialized " + payload.getTripleCount() + " Triple(s) for operation "
+                        + this.getName() + " as " + payload.getDescription());
+            } else if (payload instanceof FileGSPPayload && options.getGraphStoreValidation()) {
+                long triples = ((FileGSPPayload) payload).validate();
+                runner.reportProgress(options, "Validated " + triples + " Triple(s) for operation " + this.getName()
+                        + " in " + payload.getDescription());
+            }
+            return true;
+        } catch (Exception e) {
+            runner.reportProgress(options,
+                    "Unable to prepare data for operation " + this.getName() + " - " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets a description of the operation
+     * 
+     * @param method
+     *            HTTP method
+     * @return Description
+     */
+    protected String getContentString(String method) {
+        if (this.data == null)
+            return method + " " + this.payload.getDescription() + " to "
+                    + (this.getGraphUri() != null ? this.getGraphUri() : "default graph");
+        return method + " " + this.data.size() + " Triple(s) to "
+                + (this.getGraphUri() != null ? this.getGraphUri() : "default graph");
+    }
+}
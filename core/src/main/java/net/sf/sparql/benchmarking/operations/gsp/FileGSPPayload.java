@@ -0,0 +1,215 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+/**
+ * A payload which streams RDF data directly from a file on every run
+ * <p>
+ * The data is never parsed, except by an optional up front validation pass
+ * (see {@link #validate()}), so graphs far larger than the available heap may
+ * be sent. The request body is sent using chunked transfer encoding and is
+ * read from the file through a {@link FileChannel} into a single fixed size
+ * buffer.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class FileGSPPayload extends GSPPayload {
+
+    /**
+     * Size of the buffer used to copy the file to the request body
+     */
+    public static final int BUFFER_SIZE = 256 * 1024;
+
+    private final File file;
+    private volatile long triples = -1;
+
+    /**
+     * Creates a new payload
+     * 
+     * @param file
+     *            File, the format is determined from the file extension and
+     *            files with a {@code .gz} extension are considered to be GZip
+     *            compressed
+     * @throws IOException
+     *             Thrown if the file cannot be read or is not in a known RDF
+     *             graph format
+     */
+    public FileGSPPayload(File file) throws IOException {
+        super(getContentType(file), file.getName().endsWith(".gz"));
+        this.file = file;
+    }
+
+    private static String getContentType(File file) throws IOException {
+        if (!file.isFile() || !file.canRead())
+            throw new FileNotFoundException(file.getAbsolutePath() + " does not exist or is not a readable file");
+        Lang lang = RDFLanguages.filenameToLang(file.getName());
+        if (lang == null || !RDFLanguages.isTriples(lang))
+            throw new IOException("No known RDF graph format for file " + file.getAbsolutePath());
+        return lang.getContentType().getContentType();
+    }
+
+    /**
+     * Gets the file
+     * 
+     * @return File
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Validates the file by parsing it, counting the triples as they are
+     * parsed so memory usage is constant regardless of the size of the file
+     * 
+     * @return Number of triples
+     * @throws IOException
+     *             Thrown if the file cannot be read
+     * @throws org.apache.jena.riot.RiotException
+     *             Thrown if the file is not valid RDF
+     */
+    public long validate() throws IOException {
+        final long[] count = new long[1];
+        InputStream input = Channels.newInputStream(FileChannel.open(this.file.toPath(), StandardOpenOption.READ));
+        try {
+            if (this.isCompressed())
+                input = new GZIPInputStream(input, BUFFER_SIZE);
+            RDFDataMgr.parse(new StreamRDFBase() {
+                @Override
+                public void triple(Triple triple) {
+                    count[0]++;
+                }
+            }, input, RDFLanguages.contentTypeToLang(this.getContentType()));
+        } finally {
+            input.close();
+        }
+        this.triples = count[0];
+        return this.triples;
+    }
+
+    @Override
+    public HttpEntity createEntity() {
+        FileChannelEntity entity = new FileChannelEntity(this.file);
+        entity.setContentType(this.getContentType()
+                + (RDFLanguages.THRIFT.equals(RDFLanguages.contentTypeToLang(this.getContentType())) ? ""
+                        : "; charset=UTF-8"));
+        if (this.isCompressed())
+            entity.setContentEncoding("gzip");
+        entity.setChunked(true);
+        return entity;
+    }
+
+    @Override
+    public long getSize() {
+        return this.file.length();
+    }
+
+    /**
+     * Gets the number of triples in the payload, this is only known if the
+     * payload has been validated
+     */
+    @Override
+    public long getTripleCount() {
+        return this.triples;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.file.getName() + " (" + super.getDescription() + ")";
+    }
+
+    /**
+     * A HTTP entity which streams a file
+     */
+    private static class FileChannelEntity extends AbstractHttpEntity {
+        private final File file;
+
+        FileChannelEntity(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return this.isChunked() ? -1 : this.file.length();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return Channels.newInputStream(FileChannel.open(this.file.toPath(), StandardOpenOption.READ));
+        }
+
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    output.write(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+                output.flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+}
@@ -32,14 +32,56 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.gsp;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import net.sf.sparql.benchmarking.monitoring.events.ResponseStartedEvent;
+import net.sf.sparql.benchmarking.operations.query.results.ResultCounter;
+import net.sf.sparql.benchmarking.operations.query.results.ResultCounters;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
 
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.SystemDefaultHttpClient;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.atlas.web.auth.HttpAuthenticator;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.DatasetAccessor;
-import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.web.HttpNames;
+import org.apache.jena.riot.web.HttpOp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A callable which runs the Graph Store Protocol GET operation
+ * <p>
+ * The response is streamed and counted in constant memory rather than being
+ * loaded into a model. The graph is requested in the format given by
+ * {@link Options#getGraphStoreFormat()}, compressed if
+ * {@link Options#getAllowCompression()} is enabled, and triples are counted by
+ * the lightweight raw scanners if {@link Options#getRawResultCounting()} is
+ * enabled and the response format is supported, otherwise by a streaming
+ * parser. If {@link Options#getNoCount()} is enabled only the bytes received
+ * are counted.
+ * </p>
  * 
  * @author rvesse
  * 
@@ -48,6 +90,21 @@ import org.apache.jena.rdf.model.Model;
  */
 public class GSPGetCallable<T extends Options> extends AbstractGSPCallable<T> {
 
+    private static final Logger logger = LoggerFactory.getLogger(GSPGetCallable.class);
+
+    /**
+     * Size of the buffer used when consuming the response
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private long responseTime = OperationRun.NOT_YET_RUN;
+    private long bytesReceived = OperationRun.UNKNOWN;
+
+    /**
+     * The request currently in progress, if any
+     */
+    private volatile HttpGet request;
+
     /**
      * Creates a new callable
      * 
@@ -74,10 +131,200 @@ public class GSPGetCallable<T extends Options> extends AbstractGSPCallable<T> {
         super(runner, options, uri);
     }
 
+    /**
+     * Aborts the request in progress (if any) so that a cancelled download
+     * returns promptly rather than consuming the rest of the response
+     */
+    @Override
+    protected void onCancel() {
+        HttpGet get = this.request;
+        if (get != null)
+            get.abort();
+    }
+
     @Override
     protected long doOperation(DatasetAccessor accessor) {
-        Model m = this.isDefaultGraphUri() ? accessor.getModel() : accessor.getModel(this.getGraphUri());
-        return m.size();
+        T options = this.getOptions();
+        HttpClient client = HttpOp.getDefaultHttpClient();
+        boolean shutdown = client == null;
+        if (shutdown)
+            client = new SystemDefaultHttpClient();
+
+        HttpGet get = new HttpGet(this.getTargetUri());
+        this.request = get;
+        long startTime = System.nanoTime();
+        try {
+            get.addHeader(HttpNames.hAccept, options.getGraphStoreFormat() + ",*/*;q=0.1");
+            if (options.getAllowCompression())
+                get.addHeader(HttpNames.hAcceptEncoding, "gzip,deflate");
+            HttpOp.applyUserAgent(get);
+            HttpContext context = new BasicHttpContext();
+            HttpAuthenticator authenticator = options.getAuthenticator();
+            if (authenticator != null && client instanceof AbstractHttpClient)
+                authenticator.apply((AbstractHttpClient) client, context, get.getURI());
+
+            // Make the request, this returns as soon as the response starts
+            HttpResponse response = client.execute(get, context);
+            this.responseTime = System.nanoTime() - startTime;
+            HttpEntity entity = response.getEntity();
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= 400) {
+                String payload = entity != null ? EntityUtils.toString(entity) : null;
+                throw new HttpException(status, response.getStatusLine().getReasonPhrase(), payload);
+            }
+            if (entity == null) {
+                this.bytesReceived = 0;
+                return 0;
+            }
+            this.getRunner().reportProgress(options, new ResponseStartedEvent(this.responseTime));
+
+            CountingInputStream input = new CountingInputStream(entity.getContent());
+            try {
+                return this.count(this.decode(input, entity.getContentEncoding()),
+                        entity.getContentType() != null ? entity.getContentType().getValue() : null);
+            } finally {
+                this.bytesReceived = input.getCount();
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new HttpException(e);
+        } finally {
+            this.request = null;
+            if (shutdown)
+                client.getConnectionManager().shutdown();
+        }
+    }
+
+    /**
+     * Decodes the response if it was compressed
+     * 
+     * @param input
+     *            Raw response
+     * @param encoding
+     *            Content encoding header, may be null
+     * @return Decoded response
+     * @throws IOException
+     */
+    private InputStream decode(InputStream input, Header encoding) throws IOException {
+        if (encoding == null)
+            return input;
+        String value = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+        if (value.equals("gzip") || value.equals("x-gzip")) {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        } else if (value.equals("deflate")) {
+            return new InflaterInputStream(input);
+        }
+        return input;
+    }
+
+    /**
+     * Counts the triples in the response
+     * 
+     * @param input
+     *            Decoded response
+     * @param contentType
+     *            Content type of the response, may be null
+     * @return Number of triples or {@link OperationRun#UNKNOWN} if not counted
+     * @throws IOException
+     */
+    private long count(InputStream input, String contentType) throws IOException {
+        T options = this.getOptions();
+        if (options.getNoCount()) {
+            this.scan(input, null);
+            return OperationRun.UNKNOWN;
+        }
+
+        // Prefer the raw scanners where possible since they are cheapest
+        ResultCounter counter = options.getRawResultCounting() ? ResultCounters.create(contentType, true) : null;
+        if (counter != null) {
+            this.scan(input, counter);
+            counter.finish();
+            return counter.getCount();
+        }
+
+        Lang lang = contentType != null ? RDFLanguages.contentTypeToLang(contentType) : null;
+        if (lang == null || !RDFLanguages.isTriples(lang)) {
+            logger.warn("Unable to count triples in response of content type " + contentType);
+            this.scan(input, null);
+            return OperationRun.UNKNOWN;
+        }
+        TripleCounter triples = new TripleCounter();
+        RDFDataMgr.parse(triples, input, this.getTargetUri(), lang);
+        return triples.count;
     }
 
+    /**
+     * Consumes the response optionally scanning it with a result counter
+     * 
+     * @param input
+     *            Decoded response
+     * @param counter
+     *            Result counter, may be null
+     * @throws IOException
+     */
+    private void scan(InputStream input, ResultCounter counter) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (!isCancelled() && (read = input.read(buffer)) != -1) {
+            if (counter != null)
+                counter.scan(buffer, 0, read);
+        }
+    }
+
+    @Override
+    protected OperationRunImpl createRun(long runtime, long numResults) {
+        OperationRunImpl run = new OperationRunImpl(runtime, this.responseTime, numResults);
+        run.setBytesReceived(this.bytesReceived);
+        return run;
+    }
+
+    /**
+     * Stream destination which counts the triples parsed
+     */
+    private static class TripleCounter extends StreamRDFBase {
+        private long count = 0;
+
+        @Override
+        public void triple(Triple triple) {
+            this.count++;
+        }
+    }
+
+    /**
+     * Input stream which counts the bytes read from the underlying stream
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        public CountingInputStream(InputStream input) {
+            super(input);
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1)
+                this.count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0)
+                this.count += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+    }
 }
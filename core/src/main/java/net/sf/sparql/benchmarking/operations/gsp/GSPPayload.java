@@ -0,0 +1,192 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+
+/**
+ * The RDF data sent by Graph Store Protocol operations in the form in which it
+ * is sent
+ * <p>
+ * Payloads are prepared before running starts so that preparing the data,
+ * which for large graphs can take longer than the server takes to ingest it,
+ * is not included in the measured runtimes. Data may either be serialized into
+ * memory once (see {@link #create(Model, String, boolean)}) or streamed
+ * directly from a file on every run (see {@link #create(File)}).
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class GSPPayload {
+
+    private final String contentType;
+    private final boolean compressed;
+
+    /**
+     * Creates a new payload
+     * 
+     * @param contentType
+     *            Content type of the data
+     * @param compressed
+     *            Whether the data is GZip compressed
+     */
+    protected GSPPayload(String contentType, boolean compressed) {
+        if (contentType == null)
+            throw new NullPointerException("Content Type cannot be null");
+        this.contentType = contentType;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Serializes a graph into a payload held in memory
+     * 
+     * @param model
+     *            Graph
+     * @param contentType
+     *            Content type of the RDF format to serialize as
+     * @param compress
+     *            Whether to GZip compress the data
+     * @return Payload
+     */
+    public static GSPPayload create(Model model, String contentType, boolean compress) {
+        Lang lang = RDFLanguages.contentTypeToLang(contentType);
+        if (lang == null)
+            throw new IllegalArgumentException(contentType + " is not a known RDF format");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            OutputStream output = compress ? new GZIPOutputStream(bytes, 64 * 1024) : bytes;
+            RDFDataMgr.write(output, model, lang);
+            output.close();
+        } catch (IOException e) {
+            // Can't happen since we are writing to memory
+            throw new RuntimeException("Unexpected error serializing graph", e);
+        }
+        return new SerializedGSPPayload(bytes.toByteArray(), lang.getContentType().getContentType(), compress,
+                model.size());
+    }
+
+    /**
+     * Creates a payload which streams the data directly from a file
+     * <p>
+     * The format is determined from the file extension, files with a
+     * {@code .gz} extension are sent as-is with a GZip content encoding.
+     * </p>
+     * 
+     * @param file
+     *            File
+     * @return Payload
+     * @throws IOException
+     *             Thrown if the file cannot be read or is not in a known RDF
+     *             format
+     */
+    public static GSPPayload create(File file) throws IOException {
+        return new FileGSPPayload(file);
+    }
+
+    /**
+     * Gets whether this payload is suitable for the given format
+     * 
+     * @param contentType
+     *            Content type
+     * @param compress
+     *            Whether compression is required
+     * @return True if suitable, false otherwise
+     */
+    public boolean isFormat(String contentType, boolean compress) {
+        Lang lang = RDFLanguages.contentTypeToLang(contentType);
+        return this.compressed == compress && lang != null
+                && lang.getContentType().getContentType().equals(this.contentType);
+    }
+
+    /**
+     * Creates a HTTP entity for sending the payload
+     * <p>
+     * Entities must be repeatable so that they may be safely retried.
+     * </p>
+     * 
+     * @return HTTP entity
+     */
+    public abstract HttpEntity createEntity();
+
+    /**
+     * Gets the content type of the payload
+     * 
+     * @return Content type
+     */
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    /**
+     * Gets whether the payload is GZip compressed
+     * 
+     * @return True if compressed, false otherwise
+     */
+    public boolean isCompressed() {
+        return this.compressed;
+    }
+
+    /**
+     * Gets the size of the payload
+     * 
+     * @return Size in bytes
+     */
+    public abstract long getSize();
+
+    /**
+     * Gets the number of triples in the payload
+     * 
+     * @return Number of triples, a negative value if unknown
+     */
+    public abstract long getTripleCount();
+
+    /**
+     * Gets a description of the data e.g. for use in progress messages
+     * 
+     * @return Description
+     */
+    public String getDescription() {
+        return this.getSize() + " bytes of " + this.contentType + (this.compressed ? " (GZip compressed)" : "");
+    }
+}
@@ -38,12 +38,17 @@ package net.sf.sparql.benchmarking.operations.gsp;
 
 import org.apache.jena.query.DatasetAccessor;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.web.HttpOp;
 
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
 
 /**
  * A callable which runs the Graph Store Protocol PUT operation
+ * <p>
+ * The data is sent as a pre-serialized {@link GSPPayload} so no serialization
+ * takes place while the operation is being timed.
+ * </p>
  * 
  * @author rvesse
  * 
@@ -52,7 +57,7 @@ import net.sf.sparql.benchmarking.runners.Runner;
  */
 public class GSPPutCallable<T extends Options> extends AbstractGSPCallable<T> {
 
-    private Model data;
+    private GSPPayload data;
 
     /**
      * Creates a new callable that operates on the default graph
@@ -70,6 +75,11 @@ public class GSPPutCallable<T extends Options> extends AbstractGSPCallable<T> {
 
     /**
      * Creates a new callable that operates on a specific graph
+     * <p>
+     * The data is serialized when the callable is created, use
+     * {@link #GSPPutCallable(Runner, Options, GSPPayload, String)} to reuse
+     * data that has already been serialized.
+     * </p>
      * 
      * @param runner
      *            Runner
@@ -81,17 +91,30 @@ public class GSPPutCallable<T extends Options> extends AbstractGSPCallable<T> {
      *            Graph URI
      */
     public GSPPutCallable(Runner<T> runner, T options, Model data, String uri) {
+        this(runner, options,
+                GSPPayload.create(data, options.getGraphStoreFormat(), options.getGraphStoreCompression()), uri);
+    }
+
+    /**
+     * Creates a new callable that operates on a specific graph
+     * 
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     * @param data
+     *            Pre-serialized data to be added
+     * @param uri
+     *            Graph URI
+     */
+    public GSPPutCallable(Runner<T> runner, T options, GSPPayload data, String uri) {
         super(runner, options, uri);
         this.data = data;
     }
 
     @Override
     protected long doOperation(DatasetAccessor accessor) {
-        if (this.isDefaultGraphUri()) {
-            accessor.putModel(this.data);
-        } else {
-            accessor.putModel(this.getGraphUri(), this.data);
-        }
+        HttpOp.execHttpPut(this.getTargetUri(), this.data.createEntity(), null, null, this.getOptions().getAuthenticator());
         return 0;
     }
 
@@ -44,9 +44,7 @@ import net.sf.sparql.benchmarking.runners.Runner;
  * @author rvesse
  * 
  */
-public class GSPPutOperation extends AbstractGSPOperation {
-
-    private Model data;
+public class GSPPutOperation extends AbstractGSPDataOperation {
 
     /**
      * Creates an operation that operates on the default graph
@@ -71,8 +69,22 @@ public class GSPPutOperation extends AbstractGSPOperation {
      *            Graph URI
      */
     public GSPPutOperation(String name, Model data, String uri) {
-        super(name, uri);
-        this.data = data;
+        super(name, data, uri);
+    }
+
+    /**
+     * Creates an operation that sends a fixed payload e.g. a
+     * {@link FileGSPPayload} which streams data directly from a file
+     * 
+     * @param name
+     *            Name
+     * @param payload
+     *            Payload to be sent
+     * @param uri
+     *            Graph URI, null to operate on the default graph
+     */
+    public GSPPutOperation(String name, GSPPayload payload, String uri) {
+        super(name, payload, uri);
     }
 
     @Override
@@ -82,13 +94,12 @@ public class GSPPutOperation extends AbstractGSPOperation {
 
     @Override
     public String getContentString() {
-        return "PUT " + this.data.size() + " Triple(s) to "
-                + (this.getGraphUri() != null ? this.getGraphUri() : "default graph");
+        return this.getContentString("PUT");
     }
 
     @Override
     public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
-        return new GSPPutCallable<T>(runner, options, this.data, this.getGraphUri());
+        return new GSPPutCallable<T>(runner, options, this.getPayload(options), this.getGraphUri());
     }
 
 }
@@ -0,0 +1,101 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import java.nio.charset.Charset;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+
+/**
+ * A payload holding a RDF graph serialized into memory
+ * <p>
+ * The graph is serialized once and the resulting bytes are sent as-is on every
+ * run.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class SerializedGSPPayload extends GSPPayload {
+
+    private final byte[] data;
+    private final long triples;
+
+    /**
+     * Creates a new payload
+     * 
+     * @param data
+     *            Serialized data
+     * @param contentType
+     *            Content type of the data
+     * @param compressed
+     *            Whether the data is GZip compressed
+     * @param triples
+     *            Number of triples in the data
+     */
+    public SerializedGSPPayload(byte[] data, String contentType, boolean compressed, long triples) {
+        super(contentType, compressed);
+        if (data == null)
+            throw new NullPointerException("Data cannot be null");
+        this.data = data;
+        this.triples = triples;
+    }
+
+    /**
+     * Creates a HTTP entity which wraps the serialized bytes without copying
+     * them
+     */
+    @Override
+    public HttpEntity createEntity() {
+        Lang lang = RDFLanguages.contentTypeToLang(this.getContentType());
+        ContentType type = RDFLanguages.THRIFT.equals(lang) ? ContentType.create(this.getContentType(), (Charset) null)
+                : ContentType.create(this.getContentType(), "UTF-8");
+        ByteArrayEntity entity = new ByteArrayEntity(this.data, type);
+        if (this.isCompressed())
+            entity.setContentEncoding("gzip");
+        return entity;
+    }
+
+    @Override
+    public long getSize() {
+        return this.data.length;
+    }
+
+    @Override
+    public long getTripleCount() {
+        return this.triples;
+    }
+}
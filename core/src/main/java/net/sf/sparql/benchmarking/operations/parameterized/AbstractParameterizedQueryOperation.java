@@ -37,6 +37,9 @@ import org.apache.jena.query.Query;
 import org.apache.jena.sparql.engine.binding.Binding;
 
 import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.operations.query.QueryOperation;
 import net.sf.sparql.benchmarking.operations.query.callables.RemoteQueryCallable;
 import net.sf.sparql.benchmarking.options.Options;
@@ -51,6 +54,8 @@ import net.sf.sparql.benchmarking.stats.impl.QueryRun;
  */
 public abstract class AbstractParameterizedQueryOperation extends AbstractParameterizedSparqlOperation implements QueryOperation {
 
+    private final ParameterizedQueryTemplate template;
+
     /**
      * Creates a new parameterized query operation
      * 
@@ -62,7 +67,26 @@ public abstract class AbstractParameterizedQueryOperation extends AbstractParame
      *            Name
      */
     public AbstractParameterizedQueryOperation(String sparqlString, Collection<Binding> parameters, String name) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, null);
+    }
+
+    /**
+     * Creates a new parameterized query operation
+     * 
+     * @param sparqlString
+     *            SPARQL String
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public AbstractParameterizedQueryOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
+        this.template = new ParameterizedQueryTemplate(sparqlString);
     }
 
     @Override
@@ -72,12 +96,12 @@ public abstract class AbstractParameterizedQueryOperation extends AbstractParame
 
     @Override
     public Query getQuery() {
-        return this.getParameterizedSparql().asQuery();
+        return this.template.bind(this.getParameters());
     }
 
     @Override
     public String getQueryString() {
-        return this.getParameterizedSparql().getCommandText();
+        return this.getQuery().toString();
     }
 
     @Override
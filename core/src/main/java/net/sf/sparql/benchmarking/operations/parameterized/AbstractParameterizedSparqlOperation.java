@@ -32,29 +32,37 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.parameterized;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
 
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.binding.Binding;
 
 import net.sf.sparql.benchmarking.operations.AbstractOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.UniformParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 
 /**
  * Abstract parameterized SPARQL operation
+ * <p>
+ * Parameterized operations may be run by many threads concurrently so
+ * implementations should bind their parameters via an
+ * {@link AbstractParameterizedTemplate} rather than sharing any mutable state.
+ * </p>
  * 
  * @author rvesse
  * 
  */
 public abstract class AbstractParameterizedSparqlOperation extends AbstractOperation {
 
-    private ParameterizedSparqlString sparqlStr;
-    private List<Binding> pool = new ArrayList<Binding>();
-    private Random random = new Random();
+    private static final int MAX_LISTED_PARAMETERS = 100;
+
+    private final String sparqlString;
+    private final ParameterSource parameters;
+    private final ParameterSampler sampler;
 
     /**
      * Creates a new parameterized SPARQL operation
@@ -68,39 +76,101 @@ public abstract class AbstractParameterizedSparqlOperation extends AbstractOpera
      *            Name
      */
     public AbstractParameterizedSparqlOperation(String sparqlString, Collection<Binding> parameters, String name) {
+        this(sparqlString, new ListParameterSource(parameters), name, null);
+    }
+
+    /**
+     * Creates a new parameterized SPARQL operation
+     * 
+     * @param sparqlString
+     *            SPARQL string
+     * @param parameters
+     *            Parameters to inject, each binding represents a single set of
+     *            parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public AbstractParameterizedSparqlOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler) {
         super(name);
-        this.sparqlStr = new ParameterizedSparqlString(sparqlString);
-        this.pool.addAll(parameters);
+        this.sparqlString = sparqlString;
+        if (parameters == null)
+            throw new NullPointerException("Parameters cannot be null");
+        this.parameters = parameters;
+        if (sampler == null) {
+            sampler = new UniformParameterSampler(parameters.size());
+        } else if (sampler.size() != parameters.size()) {
+            throw new IllegalArgumentException("Parameter sampler expects " + sampler.size()
+                    + " sets of parameters but " + parameters.size() + " sets were provided");
+        }
+        this.sampler = sampler;
+    }
+
+    /**
+     * Gets the next set of parameters as chosen by the parameter sampler
+     * <p>
+     * Samplers are thread safe so this is safe to call from many threads
+     * concurrently.
+     * </p>
+     * 
+     * @return Parameters
+     */
+    protected final Binding getParameters() {
+        return this.parameters.get(this.sampler.nextIndex());
+    }
+
+    /**
+     * Gets the parameter sampler
+     * 
+     * @return Parameter sampler
+     */
+    public final ParameterSampler getSampler() {
+        return this.sampler;
     }
 
     /**
      * Gets the parameterized SPARQL with a random set of parameters injected
+     * <p>
+     * A new parameterized string is returned on each call so this is safe to
+     * call concurrently, however the resulting SPARQL must be parsed every
+     * time so {@link #getParameters()} combined with an
+     * {@link AbstractParameterizedTemplate} is preferred.
+     * </p>
      * 
      * @return Parameterized SPARQL string
      */
     protected final ParameterizedSparqlString getParameterizedSparql() {
-        this.sparqlStr.clearParams();
-        int r = this.random.nextInt(this.pool.size());
-        Binding b = this.pool.get(r);
+        ParameterizedSparqlString sparqlStr = new ParameterizedSparqlString(this.sparqlString);
+        Binding b = this.getParameters();
 
         Iterator<Var> vs = b.vars();
         while (vs.hasNext()) {
             Var v = vs.next();
-            this.sparqlStr.setParam(v.getName(), b.get(v));
+            sparqlStr.setParam(v.getName(), b.get(v));
         }
 
-        return this.sparqlStr;
+        return sparqlStr;
     }
 
     @Override
     public String getContentString() {
         StringBuilder builder = new StringBuilder();
-        builder.append(sparqlStr.getCommandText());
+        builder.append(this.sparqlString);
         builder.append('\n');
-        builder.append("Available Parameters (" + this.pool.size() + " sets):\n");
-        for (Binding b : this.pool)
+        builder.append("Parameter Sampling: " + this.sampler.getDescription() + "\n");
+        builder.append("Parameter Source: " + this.parameters.getDescription() + "\n");
+        builder.append("Available Parameters (" + this.parameters.size() + " sets):\n");
+        // Parameter sources may be very large so only list the first few sets
+        int listed = Math.min(this.parameters.size(), MAX_LISTED_PARAMETERS);
+        for (int i = 0; i < listed; i++)
         {
-            builder.append(b.toString() + "\n");
+            builder.append(this.parameters.get(i).toString() + "\n");
+        }
+        if (listed < this.parameters.size()) {
+            builder.append("... " + (this.parameters.size() - listed) + " more sets\n");
         }
         return builder.toString();
     }
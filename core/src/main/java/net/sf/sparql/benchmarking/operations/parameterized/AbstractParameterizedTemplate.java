@@ -0,0 +1,181 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.util.FmtUtils;
+
+/**
+ * Abstract parameterized SPARQL template
+ * <p>
+ * A template is compiled once when it is created and then bound to a set of
+ * parameters each time an operation is run. Templates hold no mutable state
+ * once created so may be safely bound from many threads concurrently.
+ * </p>
+ * <p>
+ * Where a template cannot be compiled, e.g. because the SPARQL is only valid
+ * once the parameters have been injected, binding falls back to textual
+ * injection of the parameters into a fresh {@link ParameterizedSparqlString}
+ * which requires the SPARQL to be parsed on every binding.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ * @param <T>
+ *            Type of the bound SPARQL
+ */
+public abstract class AbstractParameterizedTemplate<T> {
+
+    private static final Pattern VARIABLE = Pattern.compile("[?$]([\\p{L}\\p{N}_]+)");
+
+    private final String sparqlString;
+    private final Map<String, Integer> variables = new HashMap<String, Integer>();
+
+    /**
+     * Creates a new template
+     * 
+     * @param sparqlString
+     *            SPARQL string
+     */
+    protected AbstractParameterizedTemplate(String sparqlString) {
+        if (sparqlString == null)
+            throw new NullPointerException("SPARQL string cannot be null");
+        this.sparqlString = sparqlString;
+
+        // Count variable occurrences so bound lengths can be computed
+        Matcher m = VARIABLE.matcher(sparqlString);
+        while (m.find()) {
+            Integer occurrences = this.variables.get(m.group(1));
+            this.variables.put(m.group(1), occurrences != null ? occurrences + 1 : 1);
+        }
+    }
+
+    /**
+     * Gets the raw text of the template
+     * 
+     * @return Template text
+     */
+    public final String getCommandText() {
+        return this.sparqlString;
+    }
+
+    /**
+     * Gets the length of the template text once the given parameters have
+     * been injected
+     * <p>
+     * This is computed from the template text length and the lengths of the
+     * parameter values so is much cheaper than serializing the bound SPARQL,
+     * it is exact for textual injection and an estimate otherwise since
+     * serialization may format the SPARQL differently.
+     * </p>
+     * 
+     * @param parameters
+     *            Parameters
+     * @return Length in characters
+     */
+    public final long getBoundLength(Binding parameters) {
+        long length = this.sparqlString.length();
+        Iterator<Var> vs = parameters.vars();
+        while (vs.hasNext()) {
+            Var v = vs.next();
+            Integer occurrences = this.variables.get(v.getName());
+            if (occurrences == null)
+                continue;
+            // Each occurrence of the variable is replaced by the value
+            length += occurrences
+                    * (FmtUtils.stringForNode(parameters.get(v)).length() - (long) v.getName().length() - 1);
+        }
+        return length;
+    }
+
+    /**
+     * Gets whether the template was compiled, if not then every binding
+     * requires the SPARQL to be parsed
+     * 
+     * @return True if compiled, false otherwise
+     */
+    public abstract boolean isCompiled();
+
+    /**
+     * Binds the template with the given parameters
+     * 
+     * @param parameters
+     *            Parameters
+     * @return Bound SPARQL
+     */
+    public abstract T bind(Binding parameters);
+
+    /**
+     * Injects the given parameters into the template text, used when the
+     * template could not be compiled
+     * 
+     * @param parameters
+     *            Parameters
+     * @return Parameterized SPARQL string
+     */
+    protected final ParameterizedSparqlString inject(Binding parameters) {
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(this.sparqlString);
+        Iterator<Var> vs = parameters.vars();
+        while (vs.hasNext()) {
+            Var v = vs.next();
+            pss.setParam(v.getName(), parameters.get(v));
+        }
+        return pss;
+    }
+
+    /**
+     * Converts parameters into a substitution map
+     * 
+     * @param parameters
+     *            Parameters
+     * @return Substitution map
+     */
+    protected static Map<Var, Node> toSubstitutions(Binding parameters) {
+        Map<Var, Node> substitutions = new HashMap<Var, Node>();
+        Iterator<Var> vs = parameters.vars();
+        while (vs.hasNext()) {
+            Var v = vs.next();
+            substitutions.put(v, parameters.get(v));
+        }
+        return substitutions;
+    }
+}
@@ -38,6 +38,9 @@ import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.update.UpdateRequest;
 
 import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.operations.update.UpdateOperation;
 import net.sf.sparql.benchmarking.operations.update.callables.RemoteUpdateCallable;
 import net.sf.sparql.benchmarking.options.Options;
@@ -53,6 +56,8 @@ import net.sf.sparql.benchmarking.stats.impl.UpdateRun;
 public abstract class AbstractParameterizedUpdateOperation extends AbstractParameterizedSparqlOperation implements
         UpdateOperation {
 
+    private final ParameterizedUpdateTemplate template;
+
     /**
      * Creates a new parameterized update operation
      * 
@@ -64,7 +69,26 @@ public abstract class AbstractParameterizedUpdateOperation extends AbstractParam
      *            Name
      */
     public AbstractParameterizedUpdateOperation(String sparqlString, Collection<Binding> parameters, String name) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, null);
+    }
+
+    /**
+     * Creates a new parameterized update operation
+     * 
+     * @param sparqlString
+     *            SPARQL String
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public AbstractParameterizedUpdateOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
+        this.template = new ParameterizedUpdateTemplate(sparqlString);
     }
 
     @Override
@@ -77,14 +101,23 @@ public abstract class AbstractParameterizedUpdateOperation extends AbstractParam
         return new UpdateRun(message, category, runtime);
     }
 
+    /**
+     * Gets the update template
+     * 
+     * @return Update template
+     */
+    protected final ParameterizedUpdateTemplate getTemplate() {
+        return this.template;
+    }
+
     @Override
     public UpdateRequest getUpdate() {
-        return this.getParameterizedSparql().asUpdate();
+        return this.template.bind(this.getParameters());
     }
 
     @Override
     public String getUpdateString() {
-        return this.getParameterizedSparql().getCommandText();
+        return this.getUpdate().toString();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateRequest;
+
+import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
+import net.sf.sparql.benchmarking.operations.update.BatchedUpdateOperation;
+import net.sf.sparql.benchmarking.operations.update.callables.BatchedUpdateCallable;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+
+/**
+ * A parameterized update operation which draws many sets of parameters for
+ * each run and coalesces the resulting updates into a single request against
+ * a remote service via HTTP
+ * 
+ * @author rvesse
+ * 
+ */
+public class BatchedParameterizedUpdateOperation extends ParameterizedUpdateOperation implements
+        BatchedUpdateOperation {
+
+    private final int batchSize;
+    private final long maxBatchLength;
+
+    /**
+     * Creates a new batched parameterized update operation
+     * 
+     * @param sparqlString
+     *            SPARQL String
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which sets of parameters
+     *            are used for each batch, {@code null} for uniform sampling
+     * @param batchSize
+     *            Maximum number of statements in a batch
+     * @param maxBatchLength
+     *            Size of the SPARQL text in characters at which a batch is
+     *            closed, values <= 0 mean there is no limit
+     */
+    public BatchedParameterizedUpdateOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler, int batchSize, long maxBatchLength) {
+        super(sparqlString, parameters, name, sampler);
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be >= 1");
+        this.batchSize = batchSize;
+        this.maxBatchLength = maxBatchLength;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public long getMaxBatchLength() {
+        return this.maxBatchLength;
+    }
+
+    @Override
+    public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
+        return new BatchedUpdateCallable<T>(this.getUpdate(), runner, options);
+    }
+
+    /**
+     * Gets a batch of updates, each binding of the template in the batch uses
+     * a separate set of parameters
+     * <p>
+     * Bindings are added while the batch has room for all the statements of
+     * another binding, at least one binding is always added. When a maximum
+     * batch length is set the length of each binding is computed from the
+     * template text and the parameter values rather than by serializing it.
+     * </p>
+     */
+    @Override
+    public UpdateRequest getUpdate() {
+        UpdateRequest batch = new UpdateRequest();
+        long length = 0;
+        while (this.maxBatchLength <= 0 || length < this.maxBatchLength) {
+            Binding parameters = this.getParameters();
+            UpdateRequest bound = this.getTemplate().bind(parameters);
+            if (batch.getOperations().isEmpty())
+                batch.usePrologueFrom(bound);
+            if (this.maxBatchLength > 0)
+                length += this.getTemplate().getBoundLength(parameters);
+            for (Update update : bound.getOperations()) {
+                batch.add(update);
+            }
+
+            // Every binding of the template has the same number of statements
+            if (bound.getOperations().isEmpty()
+                    || batch.getOperations().size() + bound.getOperations().size() > this.batchSize)
+                break;
+        }
+        return batch;
+    }
+
+    @Override
+    public String getType() {
+        return "Remote Batched Parameterized SPARQL Update";
+    }
+
+    @Override
+    public String getContentString() {
+        return super.getContentString() + "Batch Size: " + this.batchSize
+                + (this.maxBatchLength > 0 ? " statements or " + this.maxBatchLength + " characters" : " statements")
+                + "\n";
+    }
+}
@@ -37,6 +37,9 @@ import java.util.Collection;
 import org.apache.jena.sparql.engine.binding.Binding;
 
 import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.operations.query.callables.InMemoryQueryCallable;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -60,7 +63,25 @@ public class InMemoryParameterizedQueryOperation extends AbstractParameterizedQu
      *            Name
      */
     public InMemoryParameterizedQueryOperation(String sparqlString, Collection<Binding> parameters, String name) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, null);
+    }
+
+    /**
+     * Creates a new parameterized query operation
+     * 
+     * @param sparqlString
+     *            SPARQL String
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public InMemoryParameterizedQueryOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
     }
 
     @Override
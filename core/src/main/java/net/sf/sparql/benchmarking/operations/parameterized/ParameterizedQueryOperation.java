@@ -36,6 +36,9 @@ import java.util.Collection;
 
 import org.apache.jena.sparql.engine.binding.Binding;
 
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
 
@@ -58,7 +61,25 @@ public class ParameterizedQueryOperation extends AbstractParameterizedQueryOpera
      *            Name
      */
     public ParameterizedQueryOperation(String sparqlString, Collection<Binding> parameters, String name) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, null);
+    }
+
+    /**
+     * Creates a new parameterized query operation
+     * 
+     * @param sparqlString
+     *            SPARQL String
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public ParameterizedQueryOperation(String sparqlString, ParameterSource parameters, String name,
+            ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
     }
 
     @Override
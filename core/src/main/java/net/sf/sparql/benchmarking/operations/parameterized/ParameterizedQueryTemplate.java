@@ -0,0 +1,118 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryException;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.modify.request.QuadAcc;
+import org.apache.jena.sparql.syntax.Template;
+import org.apache.jena.sparql.syntax.syntaxtransform.QueryTransformOps;
+
+/**
+ * A parameterized query template
+ * <p>
+ * {@code SELECT}, {@code ASK} and {@code CONSTRUCT} queries are parsed once
+ * and then bound by substituting the parameters into the syntax tree of the
+ * query. {@code DESCRIBE} queries and templates that are not valid queries
+ * prior to injection are bound by textual injection instead.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ParameterizedQueryTemplate extends AbstractParameterizedTemplate<Query> {
+
+    private final Query query;
+
+    /**
+     * Creates a new query template
+     * 
+     * @param sparqlString
+     *            SPARQL string
+     */
+    public ParameterizedQueryTemplate(String sparqlString) {
+        super(sparqlString);
+        this.query = compile(sparqlString);
+    }
+
+    private static Query compile(String sparqlString) {
+        Query query;
+        try {
+            query = QueryFactory.create(sparqlString);
+        } catch (QueryException e) {
+            // Only valid once parameters are injected
+            return null;
+        }
+        // Syntax transforms do not handle DESCRIBE targets correctly
+        if (query.isDescribeType())
+            return null;
+
+        // Ensure lazily computed state is computed up front since the query
+        // is shared between threads
+        query.setResultVars();
+        return query;
+    }
+
+    @Override
+    public boolean isCompiled() {
+        return this.query != null;
+    }
+
+    @Override
+    public Query bind(Binding parameters) {
+        if (this.query == null)
+            return this.inject(parameters).asQuery();
+
+        Query q = QueryTransformOps.transform(this.query, toSubstitutions(parameters));
+        if (q.isConstructType()) {
+            // Syntax transforms do not apply to the construct template
+            q.setConstructTemplate(substitute(this.query.getConstructTemplate(), parameters));
+        }
+        return q;
+    }
+
+    private static Template substitute(Template template, Binding parameters) {
+        if (!template.containsRealQuad())
+            return new Template(Substitute.substitute(template.getBGP(), parameters));
+
+        QuadAcc quads = new QuadAcc();
+        for (Quad quad : template.getQuads()) {
+            quads.addQuad(Substitute.substitute(quad, parameters));
+        }
+        return new Template(quads);
+    }
+}
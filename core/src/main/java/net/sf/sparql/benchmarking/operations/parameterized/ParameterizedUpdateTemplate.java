@@ -0,0 +1,88 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import org.apache.jena.query.QueryException;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.syntax.syntaxtransform.UpdateTransformOps;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+
+/**
+ * A parameterized update template
+ * <p>
+ * Updates are parsed once and then bound by substituting the parameters into
+ * the syntax tree of the update. Templates that are not valid updates prior to
+ * injection, e.g. {@code INSERT DATA} with parameterized terms, are bound by
+ * textual injection instead.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ParameterizedUpdateTemplate extends AbstractParameterizedTemplate<UpdateRequest> {
+
+    private final UpdateRequest update;
+
+    /**
+     * Creates a new update template
+     * 
+     * @param sparqlString
+     *            SPARQL string
+     */
+    public ParameterizedUpdateTemplate(String sparqlString) {
+        super(sparqlString);
+        this.update = compile(sparqlString);
+    }
+
+    private static UpdateRequest compile(String sparqlString) {
+        try {
+            return UpdateFactory.create(sparqlString);
+        } catch (QueryException e) {
+            // Only valid once parameters are injected
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isCompiled() {
+        return this.update != null;
+    }
+
+    @Override
+    public UpdateRequest bind(Binding parameters) {
+        if (this.update == null)
+            return this.inject(parameters).asUpdate();
+        return UpdateTransformOps.transform(this.update, toSubstitutions(parameters));
+    }
+}
@@ -41,6 +41,9 @@ import org.apache.jena.sparql.engine.binding.Binding;
 
 import net.sf.sparql.benchmarking.operations.OperationCallable;
 import net.sf.sparql.benchmarking.operations.parameterized.ParameterizedQueryOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.operations.query.nvp.NvpQueryCallable;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -70,7 +73,27 @@ public class ParameterizedNvpQueryOperation extends ParameterizedQueryOperation
      */
     public ParameterizedNvpQueryOperation(String sparqlString, Collection<Binding> parameters, String name,
             Map<String, List<String>> nvps) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, nvps, null);
+    }
+
+    /**
+     * Creates a new parameterized query operation
+     * 
+     * @param sparqlString
+     *            Query string
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param nvps
+     *            Name value pairs
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public ParameterizedNvpQueryOperation(String sparqlString, ParameterSource parameters, String name,
+            Map<String, List<String>> nvps, ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
         this.nvps.putAll(nvps);
     }
 
@@ -40,6 +40,9 @@ import java.util.Map;
 import org.apache.jena.sparql.engine.binding.Binding;
 import net.sf.sparql.benchmarking.operations.OperationCallable;
 import net.sf.sparql.benchmarking.operations.parameterized.ParameterizedUpdateOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.ParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ParameterSource;
 import net.sf.sparql.benchmarking.operations.update.nvp.NvpUpdateCallable;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -69,7 +72,27 @@ public class ParameterizedNvpUpdateOperation extends ParameterizedUpdateOperatio
      */
     public ParameterizedNvpUpdateOperation(String sparqlString, Collection<Binding> parameters, String name,
             Map<String, List<String>> nvps) {
-        super(sparqlString, parameters, name);
+        this(sparqlString, new ListParameterSource(parameters), name, nvps, null);
+    }
+
+    /**
+     * Creates a new parameterized query operation
+     * 
+     * @param sparqlString
+     *            Update string
+     * @param parameters
+     *            Parameters
+     * @param name
+     *            Name
+     * @param nvps
+     *            Name value pairs
+     * @param sampler
+     *            Parameter sampler which determines which set of parameters is
+     *            used for each run, {@code null} for uniform sampling
+     */
+    public ParameterizedNvpUpdateOperation(String sparqlString, ParameterSource parameters, String name,
+            Map<String, List<String>> nvps, ParameterSampler sampler) {
+        super(sparqlString, parameters, name, sampler);
         this.nvps.putAll(nvps);
     }
 
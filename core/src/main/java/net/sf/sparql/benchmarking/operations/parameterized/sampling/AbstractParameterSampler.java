@@ -0,0 +1,83 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+/**
+ * Abstract parameter sampler
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class AbstractParameterSampler implements ParameterSampler {
+
+    /**
+     * Increment used to derive distinct seeds for multiple random sources from
+     * a single seed, this is the 64 bit golden ratio so derived seeds are well
+     * spread
+     */
+    protected static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final int size;
+
+    /**
+     * Creates a new sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     */
+    protected AbstractParameterSampler(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Number of parameter sets must be >= 0");
+        this.size = size;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final int nextIndex() {
+        if (this.size == 0)
+            throw new IllegalStateException("No parameter sets available to sample from");
+        return this.next();
+    }
+
+    /**
+     * Gets the index of the next set of parameters, only called when there is
+     * at least one set of parameters
+     * 
+     * @return Index in the range {@code 0} to {@code size - 1}
+     */
+    protected abstract int next();
+}
@@ -0,0 +1,98 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Abstract parameter sampler that draws from a random source
+ * <p>
+ * Each thread draws from its own random source so sampling does not contend
+ * between threads. When a seed is provided each thread is given a random
+ * source derived from the seed and the order in which threads first sample,
+ * so runs with the same seed and number of threads draw the same sequences of
+ * parameters.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public abstract class AbstractRandomParameterSampler extends AbstractParameterSampler {
+
+    private final Long seed;
+    private final ThreadLocal<Random> random;
+
+    /**
+     * Creates a new sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     * @param seed
+     *            Random seed, {@code null} if sampling need not be reproducible
+     */
+    protected AbstractRandomParameterSampler(int size, final Long seed) {
+        super(size);
+        this.seed = seed;
+        if (seed != null) {
+            final AtomicLong streams = new AtomicLong();
+            this.random = new ThreadLocal<Random>() {
+                @Override
+                protected Random initialValue() {
+                    return new Random(seed.longValue() + streams.getAndIncrement() * SEED_INCREMENT);
+                }
+            };
+        } else {
+            this.random = null;
+        }
+    }
+
+    /**
+     * Gets the random source for the current thread
+     * 
+     * @return Random source
+     */
+    protected final Random random() {
+        return this.random != null ? this.random.get() : ThreadLocalRandom.current();
+    }
+
+    /**
+     * Gets the seed description to append to descriptions
+     * 
+     * @return Seed description
+     */
+    protected final String getSeedDescription() {
+        return this.seed != null ? " (seed " + this.seed + ")" : "";
+    }
+}
@@ -0,0 +1,98 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+import java.util.Random;
+
+/**
+ * A parameter sampler where a given fraction of traffic goes to a hot spot
+ * consisting of a given fraction of the parameter sets
+ * <p>
+ * The hot spot is the parameter sets at the start of the parameters file, e.g.
+ * with a traffic fraction of {@code 0.9} and a key fraction of {@code 0.1} 90%
+ * of runs use one of the first 10% of the parameter sets and the remaining 10%
+ * of runs use one of the remaining parameter sets. Sets are chosen uniformly
+ * within the hot spot and within the remainder.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class HotspotParameterSampler extends AbstractRandomParameterSampler {
+
+    private final double trafficFraction, keysFraction;
+    private final int hotSize;
+
+    /**
+     * Creates a new hot spot sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     * @param trafficFraction
+     *            Fraction of traffic that goes to the hot spot, must be in the
+     *            range 0 to 1
+     * @param keysFraction
+     *            Fraction of parameter sets that form the hot spot, must be in
+     *            the range 0 to 1
+     * @param seed
+     *            Random seed, {@code null} if sampling need not be reproducible
+     */
+    public HotspotParameterSampler(int size, double trafficFraction, double keysFraction, Long seed) {
+        super(size, seed);
+        if (!(trafficFraction >= 0 && trafficFraction <= 1))
+            throw new IllegalArgumentException("Hot spot traffic fraction must be in the range 0 to 1");
+        if (!(keysFraction >= 0 && keysFraction <= 1))
+            throw new IllegalArgumentException("Hot spot keys fraction must be in the range 0 to 1");
+        this.trafficFraction = trafficFraction;
+        this.keysFraction = keysFraction;
+        // Hot spot always has at least one set of parameters
+        this.hotSize = Math.min(size, Math.max(1, (int) Math.ceil(size * keysFraction)));
+    }
+
+    @Override
+    protected int next() {
+        Random random = this.random();
+        int coldSize = this.size() - this.hotSize;
+        if (coldSize == 0 || random.nextDouble() < this.trafficFraction) {
+            return random.nextInt(this.hotSize);
+        } else {
+            return this.hotSize + random.nextInt(coldSize);
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Hot spot with %.1f%% of traffic to %.1f%% of parameters", this.trafficFraction * 100,
+                this.keysFraction * 100) + this.getSeedDescription();
+    }
+}
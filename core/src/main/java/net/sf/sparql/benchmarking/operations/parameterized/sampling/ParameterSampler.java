@@ -0,0 +1,71 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+/**
+ * Interface for parameter samplers which determine which set of parameters a
+ * parameterized operation uses each time it is run
+ * <p>
+ * Samplers are created for a specific number of parameter sets and may be
+ * called from many threads concurrently so implementations must be thread safe
+ * and should be cheap to call since they are called on every run.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public interface ParameterSampler {
+
+    /**
+     * Gets the index of the next set of parameters to use
+     * 
+     * @return Index in the range {@code 0} to {@code size - 1}
+     * @throws IllegalStateException
+     *             Thrown if there are no parameter sets to sample from
+     */
+    public abstract int nextIndex();
+
+    /**
+     * Gets the number of parameter sets being sampled from
+     * 
+     * @return Number of parameter sets
+     */
+    public abstract int size();
+
+    /**
+     * Gets a human readable description of the sampler
+     * 
+     * @return Description
+     */
+    public abstract String getDescription();
+}
@@ -0,0 +1,156 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+import java.util.Locale;
+
+/**
+ * Helper methods for creating parameter samplers
+ * 
+ * @author rvesse
+ * 
+ */
+public class ParameterSamplers {
+
+    /**
+     * Uniform sampling
+     */
+    public static final String UNIFORM = "uniform";
+    /**
+     * Zipfian sampling
+     */
+    public static final String ZIPFIAN = "zipfian";
+    /**
+     * Hot spot sampling
+     */
+    public static final String HOTSPOT = "hotspot";
+    /**
+     * Sequential sampling
+     */
+    public static final String SEQUENTIAL = "sequential";
+    /**
+     * Shuffled sampling
+     */
+    public static final String SHUFFLED = "shuffled";
+
+    /**
+     * Private constructor prevents instantiation
+     */
+    private ParameterSamplers() {
+    }
+
+    /**
+     * Parses a sampler specification
+     * <p>
+     * A specification is the name of a sampler followed by any colon separated
+     * arguments it requires and optionally an {@code @} followed by a random
+     * seed. The following specifications are supported:
+     * </p>
+     * <ul>
+     * <li>{@code uniform} - Every set of parameters is equally likely</li>
+     * <li>{@code zipfian:s} - Zipfian distribution with exponent {@code s}
+     * where earlier sets of parameters are more popular e.g.
+     * {@code zipfian:1.1}</li>
+     * <li>{@code hotspot:t:k} - Fraction {@code t} of traffic goes to the first
+     * fraction {@code k} of the sets of parameters e.g.
+     * {@code hotspot:0.9:0.1}</li>
+     * <li>{@code sequential} - Sets of parameters are used in order</li>
+     * <li>{@code shuffled} - Every set of parameters is used once in a random
+     * order before any is reused</li>
+     * </ul>
+     * <p>
+     * For example {@code zipfian:1.1@12345} gives a reproducible Zipfian
+     * distribution. A seed has no effect on sequential sampling.
+     * </p>
+     * 
+     * @param spec
+     *            Specification, {@code null} or empty for uniform sampling
+     * @param size
+     *            Number of parameter sets
+     * @return Parameter sampler
+     * @throws IllegalArgumentException
+     *             Thrown if the specification is not valid
+     */
+    public static ParameterSampler parse(String spec, int size) {
+        if (spec == null || spec.trim().length() == 0)
+            return new UniformParameterSampler(size);
+        spec = spec.trim();
+
+        Long seed = null;
+        int at = spec.lastIndexOf('@');
+        if (at >= 0) {
+            try {
+                seed = Long.parseLong(spec.substring(at + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter sampling '" + spec + "' has an invalid seed", e);
+            }
+            spec = spec.substring(0, at).trim();
+        }
+
+        String[] parts = spec.split(":");
+        String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+        if (UNIFORM.equals(name)) {
+            checkArguments(spec, parts, 0, name);
+            return new UniformParameterSampler(size, seed);
+        } else if (ZIPFIAN.equals(name)) {
+            checkArguments(spec, parts, 1, "zipfian:exponent");
+            return new ZipfianParameterSampler(size, parseDouble(spec, parts[1]), seed);
+        } else if (HOTSPOT.equals(name)) {
+            checkArguments(spec, parts, 2, "hotspot:traffic:keys");
+            return new HotspotParameterSampler(size, parseDouble(spec, parts[1]), parseDouble(spec, parts[2]), seed);
+        } else if (SEQUENTIAL.equals(name)) {
+            checkArguments(spec, parts, 0, name);
+            return new SequentialParameterSampler(size);
+        } else if (SHUFFLED.equals(name)) {
+            checkArguments(spec, parts, 0, name);
+            return new ShuffledParameterSampler(size, seed);
+        } else {
+            throw new IllegalArgumentException("Parameter sampling '" + spec + "' is not a known sampler, expected one of "
+                    + UNIFORM + ", " + ZIPFIAN + ", " + HOTSPOT + ", " + SEQUENTIAL + " or " + SHUFFLED);
+        }
+    }
+
+    private static void checkArguments(String spec, String[] parts, int expected, String form) {
+        if (parts.length != expected + 1)
+            throw new IllegalArgumentException("Parameter sampling '" + spec + "' is not of the form " + form);
+    }
+
+    private static double parseDouble(String spec, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter sampling '" + spec + "' has an invalid numeric argument '"
+                    + value + "'", e);
+        }
+    }
+}
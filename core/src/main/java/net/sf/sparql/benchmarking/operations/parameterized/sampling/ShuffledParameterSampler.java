@@ -0,0 +1,120 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A parameter sampler that uses every set of parameters once in a random order
+ * before any set is reused i.e. sampling without replacement
+ * <p>
+ * Each pass over the parameters uses a fresh random permutation which is
+ * derived solely from the seed and the pass number, draws are shared between
+ * all threads so the sequence of parameters used across all threads is
+ * reproducible given the same seed.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ShuffledParameterSampler extends AbstractParameterSampler {
+
+    private final Long seed;
+    private final long baseSeed;
+    private final AtomicLong counter = new AtomicLong();
+    private volatile Permutation current;
+
+    /**
+     * Creates a new shuffled sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     * @param seed
+     *            Random seed, {@code null} if sampling need not be reproducible
+     */
+    public ShuffledParameterSampler(int size, Long seed) {
+        super(size);
+        this.seed = seed;
+        this.baseSeed = seed != null ? seed.longValue() : System.nanoTime();
+    }
+
+    @Override
+    protected int next() {
+        long n = this.counter.getAndIncrement();
+        long pass = n / this.size();
+        int position = (int) (n % this.size());
+
+        Permutation p = this.current;
+        if (p == null || p.pass != pass) {
+            p = new Permutation(pass, this.shuffle(pass));
+            // Only move forwards, a thread that falls behind a pass uses its
+            // own copy of the earlier permutation
+            Permutation existing = this.current;
+            if (existing == null || existing.pass < pass)
+                this.current = p;
+        }
+        return p.indices[position];
+    }
+
+    private int[] shuffle(long pass) {
+        int[] indices = new int[this.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        // Fisher-Yates shuffle
+        Random random = new Random(this.baseSeed + pass * SEED_INCREMENT);
+        for (int i = indices.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = temp;
+        }
+        return indices;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shuffled" + (this.seed != null ? " (seed " + this.seed + ")" : "");
+    }
+
+    private static final class Permutation {
+        private final long pass;
+        private final int[] indices;
+
+        private Permutation(long pass, int[] indices) {
+            this.pass = pass;
+            this.indices = indices;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+/**
+ * A parameter sampler where every set of parameters is equally likely to be
+ * chosen
+ * 
+ * @author rvesse
+ * 
+ */
+public class UniformParameterSampler extends AbstractRandomParameterSampler {
+
+    /**
+     * Creates a new uniform sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     */
+    public UniformParameterSampler(int size) {
+        this(size, null);
+    }
+
+    /**
+     * Creates a new uniform sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     * @param seed
+     *            Random seed, {@code null} if sampling need not be reproducible
+     */
+    public UniformParameterSampler(int size, Long seed) {
+        super(size, seed);
+    }
+
+    @Override
+    protected int next() {
+        return this.random().nextInt(this.size());
+    }
+
+    @Override
+    public String getDescription() {
+        return "Uniform" + this.getSeedDescription();
+    }
+}
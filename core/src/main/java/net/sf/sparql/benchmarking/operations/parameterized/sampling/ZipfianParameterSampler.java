@@ -0,0 +1,150 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+/**
+ * A parameter sampler where parameter sets are chosen according to a Zipfian
+ * distribution
+ * <p>
+ * The parameter set at index {@code i} is chosen with probability proportional
+ * to {@code 1 / (i + 1)^s} where {@code s} is the exponent, so the parameter
+ * sets at the start of the parameters file are the most popular. Higher
+ * exponents give more skewed distributions, an exponent of {@code 0} is
+ * equivalent to uniform sampling.
+ * </p>
+ * <p>
+ * Draws use the rejection-inversion method of Hormann and Derflinger, so no
+ * per parameter set table is needed and the sampler uses constant memory
+ * regardless of the number of parameter sets. Each draw takes on average
+ * only slightly more than one iteration.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ZipfianParameterSampler extends AbstractRandomParameterSampler {
+
+    private final double exponent;
+    private final double hIntegralX1, hIntegralSize, threshold;
+
+    /**
+     * Creates a new Zipfian sampler
+     * 
+     * @param size
+     *            Number of parameter sets
+     * @param exponent
+     *            Exponent, must be {@code >= 0}
+     * @param seed
+     *            Random seed, {@code null} if sampling need not be reproducible
+     */
+    public ZipfianParameterSampler(int size, double exponent, Long seed) {
+        super(size, seed);
+        if (exponent < 0 || Double.isNaN(exponent) || Double.isInfinite(exponent))
+            throw new IllegalArgumentException("Zipfian exponent must be >= 0");
+        this.exponent = exponent;
+        this.hIntegralX1 = this.hIntegral(1.5) - 1d;
+        this.hIntegralSize = this.hIntegral(size + 0.5);
+        this.threshold = 2d - this.hIntegralInverse(this.hIntegral(2.5) - this.h(2));
+    }
+
+    @Override
+    protected int next() {
+        if (this.exponent == 0)
+            return this.random().nextInt(this.size());
+
+        // Ranks run from 1 to size
+        while (true) {
+            double u = this.hIntegralSize + this.random().nextDouble() * (this.hIntegralX1 - this.hIntegralSize);
+            double x = this.hIntegralInverse(u);
+            long k = (long) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > this.size()) {
+                k = this.size();
+            }
+            if (k - x <= this.threshold || u >= this.hIntegral(k + 0.5) - this.h(k))
+                return (int) (k - 1);
+        }
+    }
+
+    /**
+     * Integral of {@link #h(double)} from 1 to x, offset so that it is zero
+     * at 1
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1d - this.exponent) * logX) * logX;
+    }
+
+    /**
+     * Unnormalized probability density of x
+     */
+    private double h(double x) {
+        return Math.exp(-this.exponent * Math.log(x));
+    }
+
+    /**
+     * Inverse of {@link #hIntegral(double)}
+     */
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - this.exponent);
+        if (t < -1d) {
+            // Limit the value to avoid rounding errors producing NaN
+            t = -1d;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * Computes {@code log(1 + x) / x} accurately for x close to zero
+     */
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8)
+            return Math.log1p(x) / x;
+        return 1d - x * (0.5 - x * (1d / 3d - 0.25 * x));
+    }
+
+    /**
+     * Computes {@code (exp(x) - 1) / x} accurately for x close to zero
+     */
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8)
+            return Math.expm1(x) / x;
+        return 1d + x * 0.5 * (1d + x * (1d / 3d) * (1d + 0.25 * x));
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Zipfian with exponent %s", this.exponent) + this.getSeedDescription();
+    }
+}
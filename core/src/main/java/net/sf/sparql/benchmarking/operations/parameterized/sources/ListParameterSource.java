@@ -0,0 +1,78 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sources;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.jena.sparql.engine.binding.Binding;
+
+/**
+ * A parameter source backed by an in-memory list of parameters
+ * 
+ * @author rvesse
+ * 
+ */
+public class ListParameterSource implements ParameterSource {
+
+    private final List<Binding> parameters;
+
+    /**
+     * Creates a new source
+     * 
+     * @param parameters
+     *            Parameters, each binding represents a single set of
+     *            parameters
+     */
+    public ListParameterSource(Collection<Binding> parameters) {
+        if (parameters == null)
+            throw new NullPointerException("Parameters cannot be null");
+        this.parameters = new ArrayList<Binding>(parameters);
+    }
+
+    @Override
+    public int size() {
+        return this.parameters.size();
+    }
+
+    @Override
+    public Binding get(int index) {
+        return this.parameters.get(index);
+    }
+
+    @Override
+    public String getDescription() {
+        return "In-memory list";
+    }
+}
@@ -0,0 +1,282 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.binding.BindingMap;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+
+/**
+ * A parameter source backed by a memory mapped file in SPARQL TSV results
+ * format
+ * <p>
+ * When created the file is memory mapped and scanned once to build a compact
+ * index of the offsets at which each row starts, rows are only decoded into
+ * bindings when they are requested. This means very large parameter files can
+ * be used without having to hold all the parameters on the heap.
+ * </p>
+ * <p>
+ * Files are mapped in segments of up to 1GB such that rows never span a
+ * segment, so each row needs only a 32 bit offset within its segment. Blank
+ * lines are ignored.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class MappedTsvParameterSource implements ParameterSource {
+
+    /**
+     * Default maximum size of mapped segments
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private static final int INITIAL_INDEX_SIZE = 1024;
+
+    private final File file;
+    private final List<Var> vars = new ArrayList<Var>();
+    private final MappedByteBuffer[] segments;
+    private final int[] segmentFirstRows;
+    private final int[] offsets;
+    private final int size;
+
+    /**
+     * Creates a new source
+     * 
+     * @param file
+     *            TSV file
+     * @throws IOException
+     *             Thrown if the file cannot be read or is not valid TSV
+     */
+    public MappedTsvParameterSource(File file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new source
+     * 
+     * @param file
+     *            TSV file
+     * @param segmentSize
+     *            Maximum size of mapped segments
+     * @throws IOException
+     *             Thrown if the file cannot be read or is not valid TSV
+     */
+    MappedTsvParameterSource(File file, int segmentSize) throws IOException {
+        if (file == null)
+            throw new NullPointerException("File cannot be null");
+        if (segmentSize <= 0)
+            throw new IllegalArgumentException("Segment size must be > 0");
+        this.file = file;
+
+        List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+        List<Integer> segmentFirstRows = new ArrayList<Integer>();
+        int[] offsets = new int[INITIAL_INDEX_SIZE];
+        int rows = 0;
+        long lineNum = 0;
+        boolean header = true;
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            long start = 0;
+            while (start < length) {
+                int segmentLength = (int) Math.min(segmentSize, length - start);
+                boolean last = start + segmentLength >= length;
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, segmentLength);
+                int firstRow = rows;
+
+                // Scan for complete lines, a partial line at the end of a
+                // segment starts the next segment
+                int lineStart = 0;
+                for (int i = 0; i <= segmentLength; i++) {
+                    boolean endOfLine = i < segmentLength ? segment.get(i) == '\n' : last && lineStart < segmentLength;
+                    if (!endOfLine)
+                        continue;
+                    lineNum++;
+                    int lineEnd = i > lineStart && segment.get(i - 1) == '\r' ? i - 1 : i;
+                    if (header) {
+                        this.parseHeader(decode(segment, lineStart, lineEnd));
+                        header = false;
+                    } else if (lineEnd > lineStart) {
+                        int values = 1;
+                        for (int j = lineStart; j < lineEnd; j++) {
+                            if (segment.get(j) == '\t')
+                                values++;
+                        }
+                        if (values != this.vars.size())
+                            throw new IOException(String.format(
+                                    "Line %d of parameters file %s: Expected %d values but found %d", lineNum,
+                                    file.getPath(), this.vars.size(), values));
+                        if (rows == Integer.MAX_VALUE)
+                            throw new IOException("Parameters file " + file.getPath()
+                                    + " contains too many rows to index");
+                        if (rows == offsets.length)
+                            offsets = Arrays.copyOf(offsets, (int) Math.min(Integer.MAX_VALUE, offsets.length * 2L));
+                        offsets[rows++] = lineStart;
+                    }
+                    lineStart = i + 1;
+                }
+
+                if (rows > firstRow) {
+                    segments.add(segment);
+                    segmentFirstRows.add(firstRow);
+                }
+                if (last)
+                    break;
+                if (lineStart == 0)
+                    throw new IOException(String.format("Line %d of parameters file %s is longer than %d bytes",
+                            lineNum + 1, file.getPath(), segmentSize));
+                start += lineStart;
+            }
+        } finally {
+            raf.close();
+        }
+        if (header)
+            throw new IOException("Parameters file " + file.getPath() + " is empty, expected at least a header line");
+
+        this.segments = segments.toArray(new MappedByteBuffer[segments.size()]);
+        this.segmentFirstRows = new int[segmentFirstRows.size()];
+        for (int i = 0; i < this.segmentFirstRows.length; i++) {
+            this.segmentFirstRows[i] = segmentFirstRows.get(i);
+        }
+        this.offsets = Arrays.copyOf(offsets, rows);
+        this.size = rows;
+    }
+
+    private void parseHeader(String line) throws IOException {
+        for (String token : line.split("\t", -1)) {
+            token = token.trim();
+            if (token.length() < 2 || (token.charAt(0) != '?' && token.charAt(0) != '$'))
+                throw new IOException("Parameters file " + this.file.getPath() + " has an invalid header, '" + token
+                        + "' is not a variable");
+            this.vars.add(Var.alloc(token.substring(1)));
+        }
+    }
+
+    private static String decode(ByteBuffer segment, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        ByteBuffer buffer = segment.duplicate();
+        buffer.position(start);
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Binding get(int index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in the range 0 to " + (this.size - 1));
+
+        // Find the segment containing the row
+        int s = Arrays.binarySearch(this.segmentFirstRows, index);
+        if (s < 0)
+            s = -s - 2;
+        MappedByteBuffer segment = this.segments[s];
+
+        // Find the end of the row
+        int start = this.offsets[index];
+        int end = start;
+        int limit = segment.limit();
+        while (end < limit && segment.get(end) != '\n') {
+            end++;
+        }
+        if (end > start && segment.get(end - 1) == '\r')
+            end--;
+
+        String[] tokens = decode(segment, start, end).split("\t", -1);
+        BindingMap b = BindingFactory.create();
+        for (int i = 0; i < tokens.length; i++) {
+            // Empty values are unbound
+            if (tokens[i].length() == 0)
+                continue;
+            b.add(this.vars.get(i), this.parseNode(tokens[i], index));
+        }
+        return b;
+    }
+
+    private Node parseNode(String token, int index) {
+        // Fast path for IRIs and simple literals without escapes since these
+        // are the most common parameters and the general purpose parser is
+        // comparatively costly
+        int last = token.length() - 1;
+        if (last > 0 && token.charAt(0) == '<' && token.charAt(last) == '>') {
+            if (isSimple(token, last, true))
+                return NodeFactory.createURI(token.substring(1, last));
+        } else if (last > 0 && token.charAt(0) == '"' && token.charAt(last) == '"') {
+            if (isSimple(token, last, false))
+                return NodeFactory.createLiteral(token.substring(1, last));
+        }
+
+        try {
+            return NodeFactoryExtra.parseNode(token);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Parameter set " + index + " in parameters file " + this.file.getPath()
+                    + " has an invalid value '" + token + "'", e);
+        }
+    }
+
+    private static boolean isSimple(String token, int last, boolean iri) {
+        for (int i = 1; i < last; i++) {
+            char c = token.charAt(i);
+            if (c == '\\' || (iri ? c == '<' || c == '>' || c <= ' ' : c == '"' || c == '\n' || c == '\r'))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Memory mapped TSV file " + this.file.getPath();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.parameterized.sources;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Helper methods for obtaining parameter sources
+ * <p>
+ * Sources for parameter files are cached so that operations which reference
+ * the same parameters file share a single source and the file is only indexed
+ * once.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ParameterSources {
+
+    private static final Map<String, CachedSource> CACHE = new HashMap<String, CachedSource>();
+
+    /**
+     * Private constructor prevents instantiation
+     */
+    private ParameterSources() {
+    }
+
+    /**
+     * Gets a parameter source for a file in SPARQL TSV results format
+     * <p>
+     * If a source for the file has already been created and the file has not
+     * changed since then the existing source is returned.
+     * </p>
+     * 
+     * @param file
+     *            TSV file
+     * @return Parameter source
+     * @throws IOException
+     *             Thrown if the file cannot be read or is not valid TSV
+     */
+    public static synchronized ParameterSource getTsvSource(File file) throws IOException {
+        File f = file.getCanonicalFile();
+        String key = f.getPath();
+        CachedSource cached = CACHE.get(key);
+        if (cached != null && cached.length == f.length() && cached.lastModified == f.lastModified())
+            return cached.source;
+
+        CachedSource created = new CachedSource(f.length(), f.lastModified(), new MappedTsvParameterSource(f));
+        CACHE.put(key, created);
+        return created.source;
+    }
+
+    /**
+     * Clears the cache of parameter sources
+     * <p>
+     * Sources already in use by operations are unaffected.
+     * </p>
+     */
+    public static synchronized void clear() {
+        CACHE.clear();
+    }
+
+    private static final class CachedSource {
+        private final long length, lastModified;
+        private final ParameterSource source;
+
+        private CachedSource(long length, long lastModified, ParameterSource source) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.source = source;
+        }
+    }
+}
@@ -32,24 +32,37 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.query.callables;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.Triple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.ResultSet;
-import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.engine.http.HttpQuery;
 import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
 
+import net.sf.sparql.benchmarking.monitoring.events.ResponseStartedEvent;
 import net.sf.sparql.benchmarking.operations.AbstractOperationCallable;
+import net.sf.sparql.benchmarking.operations.query.results.ResultCounter;
+import net.sf.sparql.benchmarking.operations.query.results.ResultCounters;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
 import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.stats.impl.QueryRun;
-import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.ErrorCategories;
 import net.sf.sparql.benchmarking.util.FormatUtils;
+import net.sf.sparql.benchmarking.util.ThreadingUtils;
 
 /**
  * Abstract callable for queries
@@ -63,6 +76,34 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
 
     private static final Logger logger = LoggerFactory.getLogger(RemoteQueryCallable.class);
 
+    /**
+     * Size of the buffer used when counting results from the raw response
+     */
+    private static final int RAW_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Size of the buffer used when counting results from the raw response on
+     * a virtual thread, there may be very many virtual threads so this is
+     * smaller to limit memory usage
+     */
+    private static final int VIRTUAL_RAW_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Per-thread buffer used when counting results from the raw response
+     */
+    private static final ThreadLocal<byte[]> RAW_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[ThreadingUtils.isVirtual(Thread.currentThread()) ? VIRTUAL_RAW_BUFFER_SIZE
+                    : RAW_BUFFER_SIZE];
+        }
+    };
+
+    /**
+     * The query execution currently in progress, if any
+     */
+    private volatile QueryExecution execution;
+
     /**
      * Creates a new callable
      * 
@@ -75,6 +116,22 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
         super(runner, options);
     }
 
+    /**
+     * Aborts the query execution in progress (if any) so that a cancelled
+     * query returns promptly
+     */
+    @Override
+    protected void onCancel() {
+        QueryExecution exec = this.execution;
+        if (exec == null)
+            return;
+        try {
+            exec.abort();
+        } catch (Throwable e) {
+            logger.debug("Error aborting query execution: {}", e.getMessage());
+        }
+    }
+
     /**
      * Gets the query to be run
      * 
@@ -99,19 +156,28 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
     }
 
     /**
-     * Counts results for queries that return a model.
+     * Counts results for queries that return a graph i.e. {@code CONSTRUCT}
+     * and {@code DESCRIBE} queries
      * <p>
-     * The default implementation returns the size of the model
+     * The default implementation iterates over the triples to count them, since
+     * the triples are streamed this operates in constant memory regardless of
+     * the size of the results.
      * </p>
      * 
      * @param options
      *            Options
-     * @param m
-     *            Model
+     * @param triples
+     *            Triples
      * @return Number of results
      */
-    protected long countResults(T options, Model m) {
-        return m.size();
+    protected long countResults(T options, Iterator<Triple> triples) {
+        long numResults = 0;
+        long localLimit = options.getLocalLimit();
+        while (triples.hasNext() && !isCancelled() && (localLimit <= 0 || numResults < localLimit)) {
+            numResults++;
+            triples.next();
+        }
+        return numResults;
     }
 
     /**
@@ -159,6 +225,45 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
         // Does nothing by default
     }
 
+    /**
+     * Creates a raw HTTP request for the query which allows the results to be
+     * counted directly from the bytes of the response rather than parsing them,
+     * this is used when {@link Options#getRawResultCounting()} is enabled
+     * <p>
+     * The default implementation returns {@code null} indicating that raw
+     * result counting is not supported and the query should be run normally.
+     * </p>
+     * 
+     * @param query
+     *            Query
+     * @return Raw HTTP request or {@code null} if not supported
+     */
+    protected HttpQuery createRawRequest(Query query) {
+        return null;
+    }
+
+    /**
+     * Creates a HTTP request for a graph query i.e. a {@code CONSTRUCT} or
+     * {@code DESCRIBE} query, which allows the response to be parsed and
+     * counted on the calling thread
+     * <p>
+     * ARQ parses graph responses via a background thread for most formats, so
+     * where this is supported the response is instead parsed into a counting
+     * sink on the calling thread. This keeps the time spent reading the
+     * response within the measured runtime and avoids creating a thread per
+     * query. The default implementation returns {@code null} indicating that
+     * the query should be run normally with the triples being counted by
+     * {@link #countResults(Options, Iterator)}.
+     * </p>
+     * 
+     * @param query
+     *            Query
+     * @return HTTP request or {@code null} if not supported
+     */
+    protected HttpQuery createGraphRequest(Query query) {
+        return null;
+    }
+
     /**
      * Runs the Query counting the number of Results
      */
@@ -176,14 +281,31 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
                 }
             }
         }
-        logger.debug("Running query:\n" + query.toString());
+        if (logger.isDebugEnabled())
+            logger.debug("Running query:\n" + query.toString());
+
+        // Count the raw response if possible
+        if (options.getRawResultCounting() && !options.getNoCount()) {
+            HttpQuery request = this.createRawRequest(query);
+            if (request != null)
+                return this.callRaw(query, request);
+        }
+
+        // Parse graph responses on this thread if possible
+        if (query.isConstructType() || query.isDescribeType()) {
+            HttpQuery request = this.createGraphRequest(query);
+            if (request != null)
+                return this.callGraph(request);
+        }
 
         // Create query execution
         QueryExecution exec = this.createQueryExecution(query);
         this.customizeRequest(exec);
+        this.execution = exec;
 
         long numResults = 0;
         long responseTime = OperationRun.NOT_YET_RUN;
+        this.startPhaseTimings();
         long startTime = System.nanoTime();
         try {
 
@@ -191,12 +313,27 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
             if (query.isAskType()) {
                 boolean result = exec.execAsk();
                 numResults = countResults(options, result);
-            } else if (query.isConstructType()) {
-                Model m = exec.execConstruct();
-                numResults = countResults(options, m);
-            } else if (query.isDescribeType()) {
-                Model m = exec.execDescribe();
-                numResults = countResults(options, m);
+            } else if (query.isConstructType() || query.isDescribeType()) {
+                // Stream the triples rather than building a model
+                Iterator<Triple> triples = query.isConstructType() ? exec.execConstructTriples() : exec
+                        .execDescribeTriples();
+                try {
+                    // Response time is the time to the first triple
+                    triples.hasNext();
+                    responseTime = System.nanoTime() - startTime;
+
+                    // Abort if we have been cancelled by the time the engine
+                    // responds
+                    if (isCancelled()) {
+                        return null;
+                    }
+                    this.getRunner().reportProgress(options, new ResponseStartedEvent(responseTime));
+                    numResults = countResults(options, triples);
+                } finally {
+                    // Ensure any background parsing is stopped if we did not
+                    // consume all the triples
+                    Iter.close(triples);
+                }
             } else if (query.isSelectType()) {
                 ResultSet rset = exec.execSelect();
                 responseTime = System.nanoTime() - startTime;
@@ -206,8 +343,7 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
                 if (isCancelled()) {
                     return null;
                 }
-                this.getRunner().reportPartialProgress(options,
-                        "started responding in " + ConvertUtils.toSeconds(responseTime) + "s...");
+                this.getRunner().reportProgress(options, new ResponseStartedEvent(responseTime));
                 numResults = countResults(options, rset);
             } else {
                 logger.warn("Query is not of a recognised type and so was not run");
@@ -223,22 +359,240 @@ public abstract class AbstractQueryCallable<T extends Options> extends AbstractO
 
             // Return results
             long endTime = System.nanoTime();
-            return new QueryRun(endTime - startTime, responseTime, numResults);
+            return completePhaseTimings(new QueryRun(endTime - startTime, responseTime, numResults));
 
         } catch (HttpException e) {
             // Make sure to categorize HTTP errors appropriately
             logger.error("{}", FormatUtils.formatException(e));
-            return new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e), System.nanoTime() - startTime);
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
         } catch (QueryExceptionHTTP e) {
             logger.error("{}", FormatUtils.formatException(e));
-            return new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e), System.nanoTime() - startTime);
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
         } finally {
             // Clean up query execution
+            this.execution = null;
             if (exec != null)
                 exec.close();
         }
     }
 
+    /**
+     * Runs the query counting the results directly from the raw response
+     * 
+     * @param query
+     *            Query
+     * @param request
+     *            Raw HTTP request
+     * @return Query run
+     */
+    private QueryRun callRaw(Query query, HttpQuery request) {
+        T options = this.getOptions();
+        boolean graph = query.isConstructType() || query.isDescribeType();
+
+        long numResults = 0;
+        long bytesReceived = 0;
+        InputStream input = null;
+        this.startPhaseTimings();
+        long startTime = System.nanoTime();
+        try {
+            // Make the query, this returns as soon as the response starts
+            input = request.exec();
+            long responseTime = System.nanoTime() - startTime;
+
+            // Abort if we have been cancelled by the time the engine
+            // responds
+            if (isCancelled()) {
+                return null;
+            }
+            this.getRunner().reportProgress(options, new ResponseStartedEvent(responseTime));
+
+            ResultCounter counter = query.isAskType() ? null : ResultCounters.create(request.getContentType(), graph);
+            if (counter == null && !query.isAskType())
+                logger.warn("Unable to count raw results of content type " + request.getContentType());
+
+            // Consume the response
+            long localLimit = options.getLocalLimit();
+            byte[] buffer = RAW_BUFFER.get();
+            int read;
+            while (!isCancelled() && (read = input.read(buffer)) != -1) {
+                bytesReceived += read;
+                if (counter != null) {
+                    counter.scan(buffer, 0, read);
+                    if (localLimit > 0 && counter.getCount() >= localLimit)
+                        break;
+                }
+            }
+
+            // Abort if we have been cancelled while consuming the response
+            if (isCancelled()) {
+                return null;
+            }
+
+            if (counter != null) {
+                counter.finish();
+                numResults = localLimit > 0 ? Math.min(localLimit, counter.getCount()) : counter.getCount();
+            } else {
+                numResults = query.isAskType() ? 1 : OperationRun.UNKNOWN;
+            }
+
+            // Return results
+            long endTime = System.nanoTime();
+            QueryRun run = new QueryRun(endTime - startTime, responseTime, numResults);
+            run.setBytesReceived(bytesReceived);
+            return completePhaseTimings(run);
+
+        } catch (HttpException e) {
+            // Make sure to categorize HTTP errors appropriately
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
+        } catch (QueryExceptionHTTP e) {
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
+        } catch (IOException e) {
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.EXECUTION, System.nanoTime()
+                    - startTime));
+        } finally {
+            // Clean up the response
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing raw response - " + e.getMessage());
+                }
+            }
+            if (request.shouldShutdownClient() && request.getClient() != null)
+                request.getClient().getConnectionManager().shutdown();
+        }
+    }
+
+    /**
+     * Runs a graph query parsing the response into a counting sink on the
+     * calling thread
+     * 
+     * @param request
+     *            HTTP request
+     * @return Query run
+     */
+    private QueryRun callGraph(HttpQuery request) {
+        T options = this.getOptions();
+
+        long numResults = OperationRun.UNKNOWN;
+        InputStream input = null;
+        this.startPhaseTimings();
+        long startTime = System.nanoTime();
+        try {
+            // Make the query, this returns as soon as the response starts
+            input = request.exec();
+            long responseTime = System.nanoTime() - startTime;
+
+            // Abort if we have been cancelled by the time the engine
+            // responds
+            if (isCancelled()) {
+                return null;
+            }
+            this.getRunner().reportProgress(options, new ResponseStartedEvent(responseTime));
+
+            Lang lang = request.getContentType() != null ? RDFLanguages.contentTypeToLang(request.getContentType())
+                    : null;
+            if (options.getNoCount() || lang == null || !RDFLanguages.isTriples(lang)) {
+                if (!options.getNoCount())
+                    logger.warn("Unable to count triples in response of content type " + request.getContentType());
+                // Still consume the response so the runtime is comparable
+                byte[] buffer = RAW_BUFFER.get();
+                while (!isCancelled() && input.read(buffer) != -1) {
+                    // Discard
+                }
+            } else {
+                TripleCounter counter = new TripleCounter(options.getLocalLimit());
+                try {
+                    RDFDataMgr.parse(counter, input, options.getQueryEndpoint(), lang);
+                } catch (RuntimeException e) {
+                    // Stopping parsing early is signalled by an exception
+                    // which the parser may wrap
+                    if (!counter.stopped)
+                        throw e;
+                }
+                numResults = counter.count;
+            }
+
+            // Abort if we have been cancelled while consuming the response
+            if (isCancelled()) {
+                return null;
+            }
+
+            // Return results
+            long endTime = System.nanoTime();
+            return completePhaseTimings(new QueryRun(endTime - startTime, responseTime, numResults));
+
+        } catch (HttpException e) {
+            // Make sure to categorize HTTP errors appropriately
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
+        } catch (QueryExceptionHTTP e) {
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
+        } catch (IOException e) {
+            logger.error("{}", FormatUtils.formatException(e));
+            return completePhaseTimings(new QueryRun(e.getMessage(), ErrorCategories.EXECUTION, System.nanoTime()
+                    - startTime));
+        } finally {
+            // Clean up the response
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing graph response - " + e.getMessage());
+                }
+            }
+            if (request.shouldShutdownClient() && request.getClient() != null)
+                request.getClient().getConnectionManager().shutdown();
+        }
+    }
+
+    /**
+     * Stream destination which counts the triples parsed, stopping parsing
+     * once the local limit is reached or the operation is cancelled
+     */
+    private class TripleCounter extends StreamRDFBase {
+        private final long limit;
+        private long count = 0;
+        private boolean stopped = false;
+
+        public TripleCounter(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            if (this.stopped)
+                return;
+            this.count++;
+            if ((this.limit > 0 && this.count >= this.limit) || isCancelled()) {
+                this.stopped = true;
+                throw new StopParsingException();
+            }
+        }
+    }
+
+    /**
+     * Thrown to stop parsing a graph response early
+     */
+    private static class StopParsingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public StopParsingException() {
+            // No need for a stack trace
+            super(null, null, false, false);
+        }
+    }
+
     /**
      * Creates the query execution to use for the query
      * 
@@ -35,8 +35,12 @@ package net.sf.sparql.benchmarking.operations.query.callables;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.sparql.engine.http.HttpParams;
+import org.apache.jena.sparql.engine.http.HttpQuery;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
 
+import net.sf.sparql.benchmarking.operations.query.results.ResultCounters;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
 
@@ -65,9 +69,7 @@ public abstract class AbstractRemoteQueryCallable<T extends Options> extends Abs
 
     @Override
     protected QueryExecution createQueryExecution(Query query) {
-        if (this.getOptions().getEnsureAbsoluteURIs()) {
-            if (!query.explicitlySetBaseURI()) query.setBaseURI((String)null);
-        }
+        this.prepareBaseURI(query);
         return QueryExecutionFactory.sparqlService(this.getOptions().getQueryEndpoint(), query, this.getOptions()
                 .getAuthenticator());
     }
@@ -86,4 +88,79 @@ public abstract class AbstractRemoteQueryCallable<T extends Options> extends Abs
         }
     }
 
+    @Override
+    protected HttpQuery createRawRequest(Query query) {
+        this.prepareBaseURI(query);
+        T options = this.getOptions();
+
+        // Request a format that can be counted if the configured format can't
+        String format;
+        if (query.isAskType()) {
+            format = options.getResultsAskFormat();
+        } else if (query.isConstructType() || query.isDescribeType()) {
+            format = options.getResultsGraphFormat();
+            if (!ResultCounters.isSupported(format, true))
+                format = WebContent.contentTypeNTriples;
+        } else {
+            format = options.getResultsSelectFormat();
+            if (!ResultCounters.isSupported(format, false))
+                format = WebContent.contentTypeResultsXML;
+        }
+        return this.createRequest(query, format);
+    }
+
+    @Override
+    protected HttpQuery createGraphRequest(Query query) {
+        this.prepareBaseURI(query);
+        return this.createRequest(query, this.getOptions().getResultsGraphFormat());
+    }
+
+    /**
+     * Creates a HTTP request for the query
+     * 
+     * @param query
+     *            Query
+     * @param format
+     *            Format to accept
+     * @return HTTP request
+     */
+    private HttpQuery createRequest(Query query, String format) {
+        T options = this.getOptions();
+        HttpQuery request = new HttpQuery(options.getQueryEndpoint());
+        request.addParam(HttpParams.pQuery, query.toString());
+        request.setAccept(format);
+        request.setAllowDeflate(options.getAllowCompression());
+        request.setAllowGZip(options.getAllowCompression());
+        request.setAuthenticator(options.getAuthenticator());
+        this.customizeRequest(request);
+        return request;
+    }
+
+    /**
+     * Provides derived implementations the option to customize the HTTP
+     * request used when raw result counting is enabled or for graph queries
+     * e.g. to add custom parameters
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     * 
+     * @param request
+     *            Raw HTTP request
+     */
+    protected void customizeRequest(HttpQuery request) {
+        // Does nothing by default
+    }
+
+    /**
+     * Clears the base URI of the query if absolute URIs are required
+     * 
+     * @param query
+     *            Query
+     */
+    private void prepareBaseURI(Query query) {
+        if (this.getOptions().getEnsureAbsoluteURIs()) {
+            if (!query.explicitlySetBaseURI()) query.setBaseURI((String)null);
+        }
+    }
+
 }
\ No newline at end of file
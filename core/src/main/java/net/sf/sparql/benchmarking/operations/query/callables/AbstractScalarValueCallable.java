@@ -37,9 +37,11 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package net.sf.sparql.benchmarking.operations.query.callables;
 
 import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.http.HttpQuery;
 
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -92,6 +94,15 @@ public abstract class AbstractScalarValueCallable<T extends Options, TCallable e
         }
     }
 
+    /**
+     * Returns {@code null} since the scalar value must be obtained from the
+     * parsed results so raw result counting is not supported
+     */
+    @Override
+    protected HttpQuery createRawRequest(Query query) {
+        return null;
+    }
+
     /**
      * Method that should be implemented by derived classes to convert the node
      * into an integer
@@ -36,10 +36,13 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.query.callables;
 
+import java.util.Iterator;
+
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.ResultSet;
-import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.engine.http.HttpQuery;
 
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -100,8 +103,8 @@ public abstract class WrapperQueryCallable<T extends Options, TCallable extends
     }
 
     @Override
-    protected long countResults(T options, Model m) {
-        return this.callable.countResults(options, m);
+    protected long countResults(T options, Iterator<Triple> triples) {
+        return this.callable.countResults(options, triples);
     }
 
     @Override
@@ -119,4 +122,14 @@ public abstract class WrapperQueryCallable<T extends Options, TCallable extends
         return this.callable.createQueryExecution(query);
     }
 
+    @Override
+    protected HttpQuery createRawRequest(Query query) {
+        return this.callable.createRawRequest(query);
+    }
+
+    @Override
+    protected HttpQuery createGraphRequest(Query query) {
+        return this.callable.createGraphRequest(query);
+    }
+
 }
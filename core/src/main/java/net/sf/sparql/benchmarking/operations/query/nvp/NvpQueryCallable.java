@@ -39,6 +39,7 @@ import java.util.Map.Entry;
 
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
+import org.apache.jena.sparql.engine.http.HttpQuery;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
 
 import net.sf.sparql.benchmarking.operations.query.callables.RemoteQueryCallable;
@@ -87,4 +88,14 @@ public class NvpQueryCallable<T extends Options> extends RemoteQueryCallable<T>
         }
     }
 
+    @Override
+    protected void customizeRequest(HttpQuery request) {
+        super.customizeRequest(request);
+        for (Entry<String, List<String>> nvp : this.nvps.entrySet()) {
+            for (String value : nvp.getValue()) {
+                request.addParam(nvp.getKey(), value);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,77 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+/**
+ * Result counter for SPARQL CSV results
+ * <p>
+ * Counts the records following the header record, new lines within quoted
+ * values are ignored. Note that an empty line is a valid result where the
+ * only variable is unbound.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class CsvResultCounter extends AbstractResultCounter {
+
+    private boolean header = true;
+    private boolean content = false;
+    private boolean quoted = false;
+
+    @Override
+    protected void scan(byte b) {
+        if (b == '"') {
+            // Escaped quotes are doubled so simply toggling is sufficient
+            this.quoted = !this.quoted;
+            this.content = true;
+        } else if (b == '\n' && !this.quoted) {
+            if (this.header) {
+                this.header = false;
+            } else {
+                this.count++;
+            }
+            this.content = false;
+        } else if (b != '\r') {
+            this.content = true;
+        }
+    }
+
+    @Override
+    public void finish() {
+        // Count a final record with no trailing new line
+        if (!this.header && this.content)
+            this.count++;
+        this.content = false;
+    }
+}
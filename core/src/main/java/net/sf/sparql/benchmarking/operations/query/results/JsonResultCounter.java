@@ -0,0 +1,121 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+/**
+ * Result counter for SPARQL JSON results
+ * <p>
+ * Counts the objects directly within the {@code bindings} array of the
+ * {@code results} object, strings are tracked so that structural characters
+ * within values are ignored.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class JsonResultCounter extends AbstractResultCounter {
+
+    private static final byte[] KEY = { 'b', 'i', 'n', 'd', 'i', 'n', 'g', 's' };
+    /**
+     * Depth at which the bindings key occurs i.e. inside the results object
+     * which is itself inside the top level object
+     */
+    private static final int KEY_DEPTH = 2;
+
+    private int depth = 0;
+    private boolean inString = false, escaped = false;
+    private int match = -1;
+    private boolean key = false, colon = false, done = false;
+    private int bindingsDepth = -1;
+
+    @Override
+    protected void scan(byte b) {
+        if (this.inString) {
+            if (this.escaped) {
+                this.escaped = false;
+                this.match = -1;
+            } else if (b == '\\') {
+                this.escaped = true;
+                this.match = -1;
+            } else if (b == '"') {
+                this.inString = false;
+                this.key = this.match == KEY.length;
+                this.match = -1;
+            } else if (this.match >= 0) {
+                this.match = this.match < KEY.length && b == KEY[this.match] ? this.match + 1 : -1;
+            }
+            return;
+        }
+        if (isWhitespace(b))
+            return;
+
+        if (this.key) {
+            // Looking for the colon and then the start of the array after the
+            // bindings key
+            if (b == ':' && !this.colon) {
+                this.colon = true;
+                return;
+            }
+            if (b == '[' && this.colon) {
+                this.bindingsDepth = this.depth + 1;
+            }
+            this.key = false;
+            this.colon = false;
+        }
+
+        switch (b) {
+        case '"':
+            this.inString = true;
+            this.match = !this.done && this.bindingsDepth < 0 && this.depth == KEY_DEPTH ? 0 : -1;
+            break;
+        case '{':
+            if (this.depth == this.bindingsDepth)
+                this.count++;
+            this.depth++;
+            break;
+        case '[':
+            this.depth++;
+            break;
+        case '}':
+        case ']':
+            this.depth--;
+            if (this.bindingsDepth > 0 && this.depth < this.bindingsDepth) {
+                this.bindingsDepth = -1;
+                this.done = true;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+}
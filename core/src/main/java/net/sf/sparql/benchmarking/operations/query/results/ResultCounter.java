@@ -0,0 +1,73 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+/**
+ * Interface for result counters which count results by scanning the raw bytes
+ * of a query response without parsing it
+ * <p>
+ * Counters are stateful and are intended to be used for a single response,
+ * the response is passed to the counter in chunks via
+ * {@link #scan(byte[], int, int)} and {@link #finish()} is called once the end
+ * of the response has been reached.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public interface ResultCounter {
+
+    /**
+     * Scans a chunk of the response
+     * 
+     * @param buffer
+     *            Buffer
+     * @param offset
+     *            Offset into the buffer at which the chunk starts
+     * @param length
+     *            Length of the chunk
+     */
+    public abstract void scan(byte[] buffer, int offset, int length);
+
+    /**
+     * Indicates that the end of the response has been reached
+     */
+    public abstract void finish();
+
+    /**
+     * Gets the number of results counted so far
+     * 
+     * @return Number of results
+     */
+    public abstract long getCount();
+}
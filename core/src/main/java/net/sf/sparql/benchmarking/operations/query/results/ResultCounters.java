@@ -0,0 +1,104 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+import java.util.Locale;
+
+import org.apache.jena.riot.WebContent;
+
+/**
+ * Factory for result counters
+ * 
+ * @author rvesse
+ * 
+ */
+public class ResultCounters {
+
+    /**
+     * Private constructor prevents instantiation
+     */
+    private ResultCounters() {
+    }
+
+    /**
+     * Creates a result counter for the given content type
+     * 
+     * @param contentType
+     *            Content type, any parameters are ignored
+     * @param graph
+     *            Whether the results are a graph i.e. from a {@code CONSTRUCT}
+     *            or {@code DESCRIBE} query, rather than a result set
+     * @return Result counter or {@code null} if the content type is not
+     *         supported
+     */
+    public static ResultCounter create(String contentType, boolean graph) {
+        if (contentType == null)
+            return null;
+        int index = contentType.indexOf(';');
+        String type = (index >= 0 ? contentType.substring(0, index) : contentType).trim().toLowerCase(Locale.ROOT);
+
+        if (graph) {
+            if (type.equals(WebContent.contentTypeNTriples) || type.equals(WebContent.contentTypeNTriplesAlt)
+                    || type.equals(WebContent.contentTypeNQuads) || type.equals(WebContent.contentTypeNQuadsAlt1)
+                    || type.equals(WebContent.contentTypeNQuadsAlt2)) {
+                return new NTriplesResultCounter();
+            } else if (type.equals(WebContent.contentTypeTurtle) || type.equals(WebContent.contentTypeTurtleAlt1)
+                    || type.equals(WebContent.contentTypeTurtleAlt2)) {
+                return new TurtleResultCounter();
+            }
+        } else if (type.equals(WebContent.contentTypeResultsXML) || type.equals(WebContent.contentTypeXML)
+                || type.equals(WebContent.contentTypeXMLAlt)) {
+            return new XmlResultCounter();
+        } else if (type.equals(WebContent.contentTypeResultsJSON) || type.equals(WebContent.contentTypeJSON)) {
+            return new JsonResultCounter();
+        } else if (type.equals(WebContent.contentTypeTextTSV)) {
+            return new TsvResultCounter();
+        } else if (type.equals(WebContent.contentTypeTextCSV)) {
+            return new CsvResultCounter();
+        }
+        return null;
+    }
+
+    /**
+     * Gets whether the given content type is supported
+     * 
+     * @param contentType
+     *            Content type
+     * @param graph
+     *            Whether the results are a graph rather than a result set
+     * @return True if supported, false otherwise
+     */
+    public static boolean isSupported(String contentType, boolean graph) {
+        return create(contentType, graph) != null;
+    }
+}
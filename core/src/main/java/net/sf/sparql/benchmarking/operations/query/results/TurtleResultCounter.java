@@ -0,0 +1,341 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+import java.util.Arrays;
+
+/**
+ * Result counter for Turtle
+ * <p>
+ * Counts triples by tracking the structure of the Turtle without parsing the
+ * terms themselves. A triple is counted each time an object is completed
+ * i.e. at a {@code ,}, {@code ;} or {@code .} following an object or at the
+ * end of a blank node property list. Collections are counted as generating
+ * two triples per item. IRIs, strings and comments are tracked so that
+ * structural characters within them are ignored and prefix and base
+ * directives are not counted.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class TurtleResultCounter extends AbstractResultCounter {
+
+    // Lexical states
+    private static final int DEFAULT = 0, TOKEN = 1, IRI = 2, STRING_START = 3, STRING = 4, LONG_STRING = 5,
+            COMMENT = 6;
+    // Nesting levels
+    private static final int STATEMENT = 0, BLANK_NODE = 1, COLLECTION = 2;
+    // Directives
+    private static final int NO_DIRECTIVE = 0, AT_DIRECTIVE = 1, SPARQL_DIRECTIVE = 2;
+
+    private int state = DEFAULT;
+    private byte quote;
+    private int quotes = 0;
+    private boolean escaped = false;
+    private boolean dot = false;
+    private boolean datatype = false;
+
+    private int depth = 0;
+    private int[] types = new int[8];
+    private boolean[] pending = new boolean[8];
+    private long[] items = new long[8];
+
+    private boolean inStatement = false, separated = false;
+    private int statementTerms = 0;
+    private int directive = NO_DIRECTIVE;
+    private byte[] keyword = new byte[6];
+    private int keywordLength = -1;
+
+    @Override
+    protected void scan(byte b) {
+        while (!this.process(b)) {
+            // Byte needs reprocessing in the new state
+        }
+    }
+
+    /**
+     * Processes a byte
+     * 
+     * @param b
+     *            Byte
+     * @return True if the byte was consumed, false if it should be processed
+     *         again in the new state
+     */
+    private boolean process(byte b) {
+        switch (this.state) {
+        case TOKEN:
+            if (this.dot) {
+                this.dot = false;
+                if (!isDelimiter(b)) {
+                    // Dot was within the token
+                    return this.process(b);
+                }
+                this.endToken();
+                this.terminate();
+                return false;
+            }
+            if (b == '.') {
+                this.dot = true;
+                return true;
+            }
+            if (isDelimiter(b)) {
+                this.endToken();
+                return false;
+            }
+            if (this.keywordLength >= 0) {
+                if (this.keywordLength < this.keyword.length) {
+                    this.keyword[this.keywordLength++] = b;
+                } else {
+                    this.keywordLength = -1;
+                }
+            }
+            return true;
+        case IRI:
+            if (b == '>') {
+                this.state = DEFAULT;
+                if (this.directive == SPARQL_DIRECTIVE && this.depth == 0)
+                    this.reset();
+            }
+            return true;
+        case STRING_START:
+            if (b == this.quote) {
+                this.quotes++;
+                if (this.quotes == 3) {
+                    this.state = LONG_STRING;
+                    this.quotes = 0;
+                }
+                return true;
+            }
+            // Either an empty string or the first character of a short string
+            this.state = this.quotes == 2 ? DEFAULT : STRING;
+            this.quotes = 0;
+            return false;
+        case STRING:
+            if (this.escaped) {
+                this.escaped = false;
+            } else if (b == '\\') {
+                this.escaped = true;
+            } else if (b == this.quote) {
+                this.state = DEFAULT;
+            }
+            return true;
+        case LONG_STRING:
+            if (this.escaped) {
+                this.escaped = false;
+            } else if (b == '\\') {
+                this.escaped = true;
+                this.quotes = 0;
+            } else if (b == this.quote) {
+                this.quotes++;
+                if (this.quotes == 3) {
+                    this.state = DEFAULT;
+                    this.quotes = 0;
+                }
+            } else {
+                this.quotes = 0;
+            }
+            return true;
+        case COMMENT:
+            if (b == '\n' || b == '\r')
+                this.state = DEFAULT;
+            return true;
+        default:
+            return this.processDefault(b);
+        }
+    }
+
+    private boolean processDefault(byte b) {
+        if (isWhitespace(b))
+            return true;
+
+        switch (b) {
+        case '#':
+            this.state = COMMENT;
+            break;
+        case '<':
+            this.startTerm();
+            this.state = IRI;
+            break;
+        case '"':
+        case '\'':
+            this.startTerm();
+            this.state = STRING_START;
+            this.quote = b;
+            this.quotes = 1;
+            break;
+        case '^':
+            // Datatype so the following IRI or prefixed name is part of the
+            // current term
+            this.datatype = true;
+            break;
+        case '@':
+            if (!this.inStatement) {
+                this.directive = AT_DIRECTIVE;
+                this.startTerm();
+            }
+            // Otherwise a language tag which is part of the current term
+            this.state = TOKEN;
+            break;
+        case '[':
+            this.startTerm();
+            this.push(BLANK_NODE);
+            break;
+        case '(':
+            this.startTerm();
+            this.push(COLLECTION);
+            break;
+        case ']':
+            if (this.depth > 0) {
+                if (this.pending[this.depth])
+                    this.count++;
+                this.depth--;
+            }
+            break;
+        case ')':
+            if (this.depth > 0) {
+                this.count += 2 * this.items[this.depth];
+                this.depth--;
+            }
+            break;
+        case ',':
+        case ';':
+            if (this.pending[this.depth]) {
+                this.count++;
+                this.pending[this.depth] = false;
+            }
+            if (this.depth == 0)
+                this.separated = true;
+            break;
+        case '.':
+            this.terminate();
+            break;
+        default:
+            boolean first = !this.inStatement;
+            this.startTerm();
+            this.keywordLength = first ? 0 : -1;
+            this.state = TOKEN;
+            return false;
+        }
+        return true;
+    }
+
+    private void startTerm() {
+        if (this.datatype) {
+            this.datatype = false;
+            return;
+        }
+        if (this.depth == 0) {
+            this.inStatement = true;
+            this.statementTerms++;
+        }
+        this.pending[this.depth] = true;
+        if (this.types[this.depth] == COLLECTION)
+            this.items[this.depth]++;
+    }
+
+    private void endToken() {
+        this.state = DEFAULT;
+        if (this.keywordLength > 0 && this.directive == NO_DIRECTIVE) {
+            String k = new String(this.keyword, 0, this.keywordLength);
+            if (k.equalsIgnoreCase("PREFIX") || k.equalsIgnoreCase("BASE"))
+                this.directive = SPARQL_DIRECTIVE;
+        }
+        this.keywordLength = -1;
+    }
+
+    private void terminate() {
+        if (this.depth > 0)
+            return;
+        if (this.directive == NO_DIRECTIVE && this.pending[0] && (this.separated || this.statementTerms > 1))
+            this.count++;
+        this.reset();
+    }
+
+    private void reset() {
+        this.depth = 0;
+        this.pending[0] = false;
+        this.inStatement = false;
+        this.separated = false;
+        this.statementTerms = 0;
+        this.directive = NO_DIRECTIVE;
+    }
+
+    private void push(int type) {
+        this.depth++;
+        if (this.depth == this.types.length) {
+            this.types = Arrays.copyOf(this.types, this.depth * 2);
+            this.pending = Arrays.copyOf(this.pending, this.depth * 2);
+            this.items = Arrays.copyOf(this.items, this.depth * 2);
+        }
+        this.types[this.depth] = type;
+        this.pending[this.depth] = false;
+        this.items[this.depth] = 0;
+    }
+
+    @Override
+    public void finish() {
+        if (this.state == TOKEN) {
+            boolean terminated = this.dot;
+            this.dot = false;
+            this.endToken();
+            if (terminated)
+                this.terminate();
+        }
+    }
+
+    /**
+     * Gets whether a byte ends a token
+     * 
+     * @param b
+     *            Byte
+     * @return True if a delimiter
+     */
+    private static boolean isDelimiter(byte b) {
+        switch (b) {
+        case '<':
+        case '"':
+        case '\'':
+        case '[':
+        case ']':
+        case '(':
+        case ')':
+        case ',':
+        case ';':
+        case '#':
+            return true;
+        default:
+            return isWhitespace(b);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.query.results;
+
+/**
+ * Result counter for SPARQL XML results
+ * <p>
+ * Counts {@code <result>} start tags (optionally namespace prefixed). Markup
+ * characters within values are either escaped or appear within
+ * {@code <![CDATA[ ... ]]>} sections, so beyond skipping CDATA sections and
+ * {@code <!-- ... -->} comments no other parsing is needed.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class XmlResultCounter extends AbstractResultCounter {
+
+    private static final byte[] TAG = { 'r', 'e', 's', 'u', 'l', 't' };
+    private static final byte[] CDATA_START = { '[', 'C', 'D', 'A', 'T', 'A', '[' };
+
+    private static final int TEXT = 0, NAME = 1, DECLARATION = 2, OTHER_DECLARATION = 3, COMMENT = 4, CDATA = 5;
+
+    private int state = TEXT;
+    private boolean failed = false;
+    private int match = 0;
+
+    @Override
+    protected void scan(byte b) {
+        switch (this.state) {
+        case NAME:
+            if (this.match == 0 && !this.failed && b == '!') {
+                // Comment, CDATA section or other declaration
+                this.state = DECLARATION;
+                return;
+            } else if (b == ':') {
+                // Namespace prefix so match against the local name
+                this.match = 0;
+                this.failed = false;
+            } else if (b == '>' || b == '/' || isWhitespace(b)) {
+                if (!this.failed && this.match == TAG.length)
+                    this.count++;
+                this.state = TEXT;
+            } else if (!this.failed && this.match < TAG.length && b == TAG[this.match]) {
+                this.match++;
+            } else {
+                this.failed = true;
+            }
+            break;
+        case DECLARATION:
+            // Matching either the -- that starts a comment or the [CDATA[ that
+            // starts a CDATA section
+            if (b == '-' && this.match <= 0) {
+                if (this.match == -1) {
+                    this.state = COMMENT;
+                    this.match = 0;
+                } else {
+                    this.match = -1;
+                }
+            } else if (this.match >= 0 && b == CDATA_START[this.match]) {
+                this.match++;
+                if (this.match == CDATA_START.length) {
+                    this.state = CDATA;
+                    this.match = 0;
+                }
+            } else {
+                this.state = b == '>' ? TEXT : OTHER_DECLARATION;
+            }
+            return;
+        case OTHER_DECLARATION:
+            if (b == '>')
+                this.state = TEXT;
+            return;
+        case COMMENT:
+            // Ends at -->
+            if (b == '-') {
+                this.match++;
+            } else if (b == '>' && this.match >= 2) {
+                this.state = TEXT;
+            } else {
+                this.match = 0;
+            }
+            return;
+        case CDATA:
+            // Ends at ]]>
+            if (b == ']') {
+                this.match++;
+            } else if (b == '>' && this.match >= 2) {
+                this.state = TEXT;
+            } else {
+                this.match = 0;
+            }
+            return;
+        default:
+            break;
+        }
+        if (b == '<') {
+            this.state = NAME;
+            this.failed = false;
+            this.match = 0;
+        }
+    }
+}
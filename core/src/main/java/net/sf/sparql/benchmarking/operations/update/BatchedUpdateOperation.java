@@ -0,0 +1,64 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.update;
+
+/**
+ * Interface for update operations which coalesce many individual update
+ * statements into a single update request
+ * <p>
+ * Each run of a batched operation makes one request containing a batch of
+ * statements. The number of statements made is recorded as the result count
+ * of the run so that per-statement latency and throughput may be derived
+ * from the statistics.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public interface BatchedUpdateOperation extends UpdateOperation {
+
+    /**
+     * Gets the maximum number of statements in a batch
+     * 
+     * @return Batch size
+     */
+    public abstract int getBatchSize();
+
+    /**
+     * Gets the size of the SPARQL text in characters at which a batch is
+     * closed, regardless of how many statements it contains
+     * 
+     * @return Maximum batch length, values <= 0 mean there is no limit
+     */
+    public abstract long getMaxBatchLength();
+}
@@ -0,0 +1,237 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.update;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.update.Update;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+
+import net.sf.sparql.benchmarking.operations.AbstractOperation;
+import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.operations.update.callables.BatchedUpdateCallable;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.UpdateRun;
+
+/**
+ * An operation which replays a change file against a remote SPARQL service via
+ * HTTP, coalescing consecutive lines into batches which are each sent as a
+ * single update request
+ * <p>
+ * Each non-blank line of the change file is a complete SPARQL Update e.g. an
+ * {@code INSERT DATA} statement, lines starting with {@code #} are ignored.
+ * Each line is parsed individually and its updates added to the batch so
+ * lines may end with a {@code ;} or a trailing comment. The batch size counts
+ * statements rather than lines, a line is never split between batches so a
+ * line with more statements than the batch size forms a batch on its own.
+ * Lines are read sequentially as batches are needed so the change file is
+ * never held in memory, when the end of the file is reached reading starts
+ * again from the beginning. Concurrent runs always receive disjoint batches
+ * of consecutive lines.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ChangeFileUpdateOperation extends AbstractOperation implements BatchedUpdateOperation {
+
+    private final File file;
+    private final int batchSize;
+    private final long maxBatchLength;
+    private BufferedReader reader;
+    private UpdateRequest pending;
+    private long pendingLength;
+
+    /**
+     * Creates a new operation
+     * 
+     * @param name
+     *            Name
+     * @param file
+     *            Change file
+     * @param batchSize
+     *            Maximum number of statements in a batch
+     * @param maxBatchLength
+     *            Size of the SPARQL text in characters at which a batch is
+     *            closed, values <= 0 mean there is no limit
+     * @throws IOException
+     *             Thrown if the change file cannot be read or contains no
+     *             statements
+     */
+    public ChangeFileUpdateOperation(String name, File file, int batchSize, long maxBatchLength) throws IOException {
+        super(name);
+        if (file == null)
+            throw new NullPointerException("File cannot be null");
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be >= 1");
+        this.file = file;
+        this.batchSize = batchSize;
+        this.maxBatchLength = maxBatchLength;
+        if (this.nextLine() == null)
+            throw new IOException("Change file " + file.getPath() + " contains no statements");
+        this.reset();
+    }
+
+    /**
+     * Gets the change file
+     * 
+     * @return Change file
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public long getMaxBatchLength() {
+        return this.maxBatchLength;
+    }
+
+    @Override
+    public <T extends Options> boolean canRun(Runner<T> runner, T options) {
+        if (options.getUpdateEndpoint() == null) {
+            runner.reportProgress(options, "Remote updates cannot run with no update endpoint specified");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
+        return new BatchedUpdateCallable<T>(this.getUpdate(), runner, options);
+    }
+
+    @Override
+    public OperationRun createErrorInformation(String message, int category, long runtime) {
+        return new UpdateRun(message, category, runtime);
+    }
+
+    @Override
+    public String getType() {
+        return "Remote Batched SPARQL Update";
+    }
+
+    @Override
+    public String getContentString() {
+        return "Change File: " + this.file.getPath() + "\nBatch Size: " + this.batchSize
+                + (this.maxBatchLength > 0 ? " statements or " + this.maxBatchLength + " characters" : " statements");
+    }
+
+    /**
+     * Gets the next batch of updates
+     */
+    @Override
+    public synchronized UpdateRequest getUpdate() {
+        try {
+            UpdateRequest batch = new UpdateRequest();
+            long length = 0;
+            while (batch.getOperations().size() < this.batchSize) {
+                if (this.maxBatchLength > 0 && length >= this.maxBatchLength)
+                    break;
+                if (this.pending == null) {
+                    String line = this.nextLine();
+                    if (line == null) {
+                        // Wrap around to the start of the change file
+                        this.reset();
+                        line = this.nextLine();
+                    }
+                    this.pending = UpdateFactory.create(line);
+                    this.pendingLength = line.length();
+                }
+
+                // Leave a line which doesn't fit for the next batch
+                int size = this.pending.getOperations().size();
+                if (!batch.getOperations().isEmpty() && batch.getOperations().size() + size > this.batchSize)
+                    break;
+                for (Update update : this.pending) {
+                    batch.add(update);
+                }
+                length += this.pendingLength;
+                this.pending = null;
+            }
+            return batch;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading change file " + this.file.getPath(), e);
+        }
+    }
+
+    /**
+     * Gets the next batch of updates as a string
+     */
+    @Override
+    public String getUpdateString() {
+        return this.getUpdate().toString();
+    }
+
+    /**
+     * Reads the next statement from the change file
+     * 
+     * @return Next statement or {@code null} if the end of the file was reached
+     * @throws IOException
+     */
+    private String nextLine() throws IOException {
+        if (this.reader == null)
+            this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(this.file),
+                    StandardCharsets.UTF_8));
+        String line;
+        while ((line = this.reader.readLine()) != null) {
+            line = line.trim();
+            if (line.length() > 0 && !line.startsWith("#"))
+                return line;
+        }
+        return null;
+    }
+
+    /**
+     * Closes the change file so the next read starts from the beginning
+     * 
+     * @throws IOException
+     */
+    private void reset() throws IOException {
+        if (this.reader != null)
+            this.reader.close();
+        this.reader = null;
+    }
+}
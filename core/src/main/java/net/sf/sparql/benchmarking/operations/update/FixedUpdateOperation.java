@@ -45,6 +45,10 @@ import net.sf.sparql.benchmarking.stats.impl.UpdateRun;
 
 /**
  * An operation that makes a fixed SPARQL Update against a remote SPARQL service via HTTP
+ * <p>
+ * The update is parsed and prepared for sending (see {@link PreparedUpdate})
+ * once when the operation is created and reused for every run.
+ * </p>
  * 
  * @author rvesse
  * 
@@ -53,6 +57,7 @@ public class FixedUpdateOperation extends AbstractOperation implements UpdateOpe
 
     private UpdateRequest update;
     private String origUpdateStr;
+    private PreparedUpdate prepared;
 
     /**
      * Creates a new update operation
@@ -66,6 +71,7 @@ public class FixedUpdateOperation extends AbstractOperation implements UpdateOpe
         super(name);
         this.origUpdateStr = updateString;
         this.update = UpdateFactory.create(updateString);
+        this.prepared = new PreparedUpdate(this.update);
     }
 
     @Override
@@ -79,7 +85,7 @@ public class FixedUpdateOperation extends AbstractOperation implements UpdateOpe
 
     @Override
     public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
-        return new RemoteUpdateCallable<T>(this.update, runner, options);
+        return new RemoteUpdateCallable<T>(this.prepared, runner, options);
     }
 
     @Override
@@ -102,6 +108,15 @@ public class FixedUpdateOperation extends AbstractOperation implements UpdateOpe
         return this.update;
     }
 
+    /**
+     * Gets the update prepared for sending
+     * 
+     * @return Prepared update
+     */
+    public PreparedUpdate getPreparedUpdate() {
+        return this.prepared;
+    }
+
     @Override
     public String getUpdateString() {
         return this.origUpdateStr;
@@ -0,0 +1,120 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.update;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.update.UpdateRequest;
+
+/**
+ * An update request together with its wire form
+ * <p>
+ * The update is serialized and encoded into the bytes of the HTTP request
+ * body once when this is created so these costs are not incurred on every
+ * run. Prepared updates are immutable and may be shared by any number of
+ * threads.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class PreparedUpdate {
+
+    /**
+     * Content type of the request body
+     */
+    public static final String CONTENT_TYPE = WebContent.contentTypeSPARQLUpdate + "; charset="
+            + WebContent.charsetUTF8;
+
+    private final UpdateRequest update;
+    private final String updateString;
+    private final byte[] body;
+
+    /**
+     * Creates a new prepared update
+     * 
+     * @param update
+     *            Update request
+     */
+    public PreparedUpdate(UpdateRequest update) {
+        if (update == null)
+            throw new NullPointerException("Update cannot be null");
+        this.update = update;
+        this.updateString = update.toString();
+        this.body = this.updateString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the update request
+     * 
+     * @return Update request
+     */
+    public UpdateRequest getUpdate() {
+        return this.update;
+    }
+
+    /**
+     * Gets the update as it is sent over the wire
+     * 
+     * @return Update string
+     */
+    public String getUpdateString() {
+        return this.updateString;
+    }
+
+    /**
+     * Gets the size of the request body
+     * 
+     * @return Size in bytes
+     */
+    public int getSize() {
+        return this.body.length;
+    }
+
+    /**
+     * Creates an entity which sends the update as the HTTP request body
+     * <p>
+     * Entities share the encoded bytes so this is cheap to call for every run.
+     * </p>
+     * 
+     * @return HTTP entity
+     */
+    public HttpEntity createEntity() {
+        ByteArrayEntity entity = new ByteArrayEntity(this.body);
+        entity.setContentType(CONTENT_TYPE);
+        return entity;
+    }
+}
@@ -63,11 +63,23 @@ public abstract class AbstractRemoteUpdateCallable<T extends Options> extends Ab
 
     @Override
     protected UpdateProcessor createUpdateProcessor(UpdateRequest update) {
+        this.applyBaseURI(update);
+        return UpdateExecutionFactory.createRemote(update, this.getOptions().getUpdateEndpoint(), this.getOptions()
+                .getAuthenticator());
+    }
+
+    /**
+     * Clears the base URI of the update if
+     * {@link Options#getEnsureAbsoluteURIs()} is enabled and the update did not
+     * explicitly set a base URI
+     * 
+     * @param update
+     *            Update
+     */
+    protected void applyBaseURI(UpdateRequest update) {
         if (this.getOptions().getEnsureAbsoluteURIs()) {
             if (!update.explicitlySetBaseURI()) update.setBaseURI((String)null);
         }
-        return UpdateExecutionFactory.createRemote(update, this.getOptions().getUpdateEndpoint(), this.getOptions()
-                .getAuthenticator());
     }
 
 }
\ No newline at end of file
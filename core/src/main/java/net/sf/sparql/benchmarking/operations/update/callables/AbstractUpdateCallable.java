@@ -81,6 +81,21 @@ public abstract class AbstractUpdateCallable<T extends Options> extends Abstract
      */
     protected abstract UpdateRequest getUpdate();
 
+    /**
+     * Gets the update string for the update to be executed, this is only used
+     * for logging
+     * <p>
+     * The default implementation serializes the update returned by
+     * {@link #getUpdate()}, derived implementations which already have the
+     * string form of the update should override this.
+     * </p>
+     * 
+     * @return Update string
+     */
+    protected String getUpdateString() {
+        return this.getUpdate().toString();
+    }
+
     /**
      * Provides derived implementations the option to customize the update
      * processor before actually executing the update e.g. to add custom
@@ -109,12 +124,14 @@ public abstract class AbstractUpdateCallable<T extends Options> extends Abstract
     @Override
     public UpdateRun call() throws Exception {
         UpdateRequest update = this.getUpdate();
-        logger.debug("Running update:\n" + update.toString());
+        if (logger.isDebugEnabled())
+            logger.debug("Running update:\n" + this.getUpdateString());
 
         // Create a remote update processor and configure it appropriately
         UpdateProcessor processor = this.createUpdateProcessor(update);
         this.customizeRequest(processor);
 
+        this.startPhaseTimings();
         long startTime = System.nanoTime();
         try {
             // Execute the update
@@ -122,14 +139,30 @@ public abstract class AbstractUpdateCallable<T extends Options> extends Abstract
         } catch (HttpException e) {
             // Make sure to categorize HTTP errors appropriately
             logger.error("{}", FormatUtils.formatException(e));
-            return new UpdateRun(e.getMessage(), ErrorCategories.categorizeHttpError(e), System.nanoTime() - startTime);
+            return completePhaseTimings(new UpdateRun(e.getMessage(), ErrorCategories.categorizeHttpError(e),
+                    System.nanoTime() - startTime));
         }
 
         if (this.isCancelled())
             return null;
 
         long endTime = System.nanoTime();
-        return new UpdateRun(endTime - startTime);
+        return completePhaseTimings(this.createRun(endTime - startTime));
+    }
+
+    /**
+     * Creates the run which records the results of a successful update
+     * <p>
+     * Derived implementations may override this to record additional
+     * statistics about the run.
+     * </p>
+     * 
+     * @param runtime
+     *            Runtime
+     * @return Update run
+     */
+    protected UpdateRun createRun(long runtime) {
+        return new UpdateRun(runtime);
     }
 
 }
\ No newline at end of file
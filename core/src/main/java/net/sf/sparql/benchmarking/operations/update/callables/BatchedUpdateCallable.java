@@ -0,0 +1,72 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.update.callables;
+
+import org.apache.jena.update.UpdateRequest;
+
+import net.sf.sparql.benchmarking.operations.update.BatchedUpdateOperation;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.impl.UpdateRun;
+
+/**
+ * Callable which makes a batch of updates as a single request, the number of
+ * statements in the batch is recorded as the result count
+ * 
+ * @author rvesse
+ * 
+ * @param <T>
+ *            Options type
+ * @see BatchedUpdateOperation
+ */
+public class BatchedUpdateCallable<T extends Options> extends RemoteUpdateCallable<T> {
+
+    /**
+     * Creates a new callable
+     * 
+     * @param batch
+     *            Batch of updates to run
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     */
+    public BatchedUpdateCallable(UpdateRequest batch, Runner<T> runner, T options) {
+        super(batch, runner, options);
+    }
+
+    @Override
+    protected UpdateRun createRun(long runtime) {
+        return new UpdateRun(runtime, this.getUpdate().getOperations().size());
+    }
+}
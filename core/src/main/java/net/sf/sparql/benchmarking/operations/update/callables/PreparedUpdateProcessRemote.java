@@ -0,0 +1,82 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.operations.update.callables;
+
+import org.apache.jena.atlas.web.auth.HttpAuthenticator;
+import org.apache.jena.riot.web.HttpOp;
+import org.apache.jena.sparql.modify.UpdateProcessRemoteBase;
+
+import net.sf.sparql.benchmarking.operations.update.PreparedUpdate;
+
+/**
+ * A remote update processor which sends the wire form of a
+ * {@link PreparedUpdate} rather than serializing the update as part of
+ * executing it
+ * <p>
+ * Like ARQ's own remote update processor the update is sent as the body of
+ * a HTTP POST request, any parameters (see {@link #addParam(String, String)})
+ * are sent in the query string.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class PreparedUpdateProcessRemote extends UpdateProcessRemoteBase {
+
+    private final PreparedUpdate update;
+
+    /**
+     * Creates a new processor
+     * 
+     * @param update
+     *            Prepared update
+     * @param endpoint
+     *            Update endpoint
+     * @param authenticator
+     *            HTTP authenticator, may be null
+     */
+    public PreparedUpdateProcessRemote(PreparedUpdate update, String endpoint, HttpAuthenticator authenticator) {
+        super(update.getUpdate(), endpoint, null);
+        this.update = update;
+        this.setAuthenticator(authenticator);
+    }
+
+    @Override
+    public void execute() {
+        String endpoint = this.getEndpoint();
+        String params = this.getQueryString();
+        if (params != null && params.length() > 0)
+            endpoint = endpoint + (endpoint.contains("?") ? "&" : "?") + params;
+        HttpOp.execHttpPost(endpoint, this.update.createEntity(), null, this.getHttpContext(), this.getAuthenticator());
+    }
+}
@@ -32,12 +32,22 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.operations.update.callables;
 
+import org.apache.jena.update.UpdateProcessor;
 import org.apache.jena.update.UpdateRequest;
 
+import net.sf.sparql.benchmarking.operations.update.PreparedUpdate;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
 
 /**
+ * Callable which runs an update against a remote service
+ * <p>
+ * The update is always sent in its prepared wire form (see
+ * {@link PreparedUpdate}) so serializing the update is never included in the
+ * measured runtime. Operations which run the same update repeatedly should
+ * prepare it once and use {@link #RemoteUpdateCallable(PreparedUpdate, Runner, Options)}.
+ * </p>
+ * 
  * @author rvesse
  * 
  * @param <T>
@@ -46,6 +56,7 @@ import net.sf.sparql.benchmarking.runners.Runner;
 public class RemoteUpdateCallable<T extends Options> extends AbstractRemoteUpdateCallable<T> {
 
     private UpdateRequest update;
+    private PreparedUpdate prepared;
 
     /**
      * Creates a new update runner
@@ -62,8 +73,43 @@ public class RemoteUpdateCallable<T extends Options> extends AbstractRemoteUpdat
         this.update = update;
     }
 
+    /**
+     * Creates a new update runner
+     * 
+     * @param update
+     *            Prepared update to run
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     */
+    public RemoteUpdateCallable(PreparedUpdate update, Runner<T> runner, T options) {
+        this(update.getUpdate(), runner, options);
+        this.prepared = update;
+    }
+
     @Override
     protected UpdateRequest getUpdate() {
         return this.update;
     }
+
+    @Override
+    protected String getUpdateString() {
+        return this.prepared != null ? this.prepared.getUpdateString() : super.getUpdateString();
+    }
+
+    /**
+     * Creates an update processor which sends the prepared form of the
+     * update, if the update was not already prepared it is prepared now which
+     * is prior to the measured runtime
+     */
+    @Override
+    protected UpdateProcessor createUpdateProcessor(UpdateRequest update) {
+        this.applyBaseURI(update);
+        PreparedUpdate prepared = this.prepared;
+        if (prepared == null || prepared.getUpdate() != update)
+            prepared = new PreparedUpdate(update);
+        return new PreparedUpdateProcessRemote(prepared, this.getOptions().getUpdateEndpoint(), this.getOptions()
+                .getAuthenticator());
+    }
 }
@@ -69,7 +69,7 @@ public class FixedNvpUpdateOperation extends FixedUpdateOperation {
 
     @Override
     public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
-        return new NvpUpdateCallable<T>(this.getUpdate(), runner, options, this.nvps);
+        return new NvpUpdateCallable<T>(this.getPreparedUpdate(), runner, options, this.nvps);
     }
 
     @Override
@@ -41,6 +41,7 @@ import org.apache.jena.sparql.modify.UpdateProcessRemoteBase;
 import org.apache.jena.update.UpdateProcessor;
 import org.apache.jena.update.UpdateRequest;
 
+import net.sf.sparql.benchmarking.operations.update.PreparedUpdate;
 import net.sf.sparql.benchmarking.operations.update.callables.RemoteUpdateCallable;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -74,6 +75,23 @@ public class NvpUpdateCallable<T extends Options> extends RemoteUpdateCallable<T
         this.nvps.putAll(nvps);
     }
 
+    /**
+     * Creates a new callable
+     * 
+     * @param update
+     *            Prepared update
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     * @param nvps
+     *            Name value pairs
+     */
+    public NvpUpdateCallable(PreparedUpdate update, Runner<T> runner, T options, Map<String, List<String>> nvps) {
+        super(update, runner, options);
+        this.nvps.putAll(nvps);
+    }
+
     @Override
     protected void customizeRequest(UpdateProcessor processor) {
         super.customizeRequest(processor);
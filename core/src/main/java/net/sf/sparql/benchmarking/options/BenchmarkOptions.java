@@ -59,10 +59,11 @@ public class BenchmarkOptions extends OptionsImpl {
      */
     public static final int DEFAULT_OUTLIERS = 1;
     private String csvResultsFile = null;
+    private String csvRawResultsFile = null;
     private String xmlResultsFile = null;
     private int outliers = DEFAULT_OUTLIERS;
     private boolean allowOverwite = false;
-    private ProgressListener csvListener = null;
+    private CsvProgressListener csvListener = null;
     private ProgressListener xmlListener = null;
     private int runs = DEFAULT_RUNS;
     private int warmups = DEFAULT_WARMUPS;
@@ -114,6 +115,7 @@ public class BenchmarkOptions extends OptionsImpl {
 
             // Add new progress listener for the results file
             this.csvListener = new CsvProgressListener(file, this.getAllowOverwrite());
+            this.csvListener.setRawResultsFile(this.csvRawResultsFile);
             this.addListener(this.csvListener);
         } else if (this.csvListener != null) {
             // Remove existing progress listener
@@ -166,6 +168,28 @@ public class BenchmarkOptions extends OptionsImpl {
         return csvResultsFile;
     }
 
+    /**
+     * Sets the CSV Raw Results File, this file receives a row for every
+     * operation run and is only written when CSV results are enabled
+     * 
+     * @param file
+     *            Filename for CSV Raw Results, null disables CSV raw results
+     */
+    public void setCsvRawResultsFile(String file) {
+        this.csvRawResultsFile = file;
+        if (this.csvListener != null)
+            this.csvListener.setRawResultsFile(file);
+    }
+
+    /**
+     * Gets the CSV Raw Results File
+     * 
+     * @return Filename for CSV Raw Results
+     */
+    public String getCsvRawResultsFile() {
+        return csvRawResultsFile;
+    }
+
     /**
      * Sets whether {@link ProgressListener} which write to files are allowed to
      * overwrite existing files (default false)
@@ -236,6 +260,7 @@ public class BenchmarkOptions extends OptionsImpl {
         BenchmarkOptions copy = new BenchmarkOptions();
         this.copyStandardOptions(copy);
         copy.setAllowOverwrite(this.getAllowOverwrite());
+        copy.setCsvRawResultsFile(this.getCsvRawResultsFile());
         copy.setCsvResultsFile(this.getCsvResultsFile());
         copy.setOutliers(this.getOutliers());
         copy.setRuns(this.getRuns());
@@ -0,0 +1,127 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.options;
+
+import net.sf.sparql.benchmarking.parallel.arrivals.ArrivalProcess;
+import net.sf.sparql.benchmarking.parallel.arrivals.FixedRateArrivalProcess;
+
+/**
+ * Options for open loop testing
+ * <p>
+ * Open loop testing is a variation on soak testing where operation mix runs are
+ * started according to an {@link ArrivalProcess} regardless of whether
+ * previously started runs have completed. The parallel threads setting
+ * determines the maximum number of runs that may be in progress at any one
+ * time, if all threads are busy then arrivals are queued and the time spent
+ * queued is included in the reported response times. At most
+ * {@link #getMaxBacklog()} arrivals may be queued, any further arrivals are
+ * dropped and reported as such.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class OpenLoopOptions extends SoakOptions {
+
+    /**
+     * Default arrival rate in arrivals per second
+     */
+    public static final double DEFAULT_ARRIVAL_RATE = 1;
+
+    /**
+     * Default maximum number of arrivals that may be queued waiting for a free
+     * client
+     */
+    public static final int DEFAULT_MAX_BACKLOG = 10000;
+
+    private ArrivalProcess arrivals = new FixedRateArrivalProcess(DEFAULT_ARRIVAL_RATE);
+    private int maxBacklog = DEFAULT_MAX_BACKLOG;
+
+    /**
+     * Gets the arrival process which determines when operation mix runs are
+     * started
+     * 
+     * @return Arrival process
+     */
+    public ArrivalProcess getArrivalProcess() {
+        return this.arrivals;
+    }
+
+    /**
+     * Sets the arrival process which determines when operation mix runs are
+     * started
+     * 
+     * @param arrivals
+     *            Arrival process
+     */
+    public void setArrivalProcess(ArrivalProcess arrivals) {
+        if (arrivals == null)
+            throw new NullPointerException("Arrival process cannot be null");
+        this.arrivals = arrivals;
+    }
+
+    /**
+     * Gets the maximum number of arrivals that may be queued waiting for a
+     * free client, arrivals beyond this are dropped
+     * 
+     * @return Maximum backlog
+     */
+    public int getMaxBacklog() {
+        return this.maxBacklog;
+    }
+
+    /**
+     * Sets the maximum number of arrivals that may be queued waiting for a
+     * free client, arrivals beyond this are dropped
+     * 
+     * @param maxBacklog
+     *            Maximum backlog
+     */
+    public void setMaxBacklog(int maxBacklog) {
+        if (maxBacklog < 1)
+            throw new IllegalArgumentException("Maximum backlog must be >= 1");
+        this.maxBacklog = maxBacklog;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends Options> T copy() {
+        OpenLoopOptions copy = new OpenLoopOptions();
+        this.copyStandardOptions(copy);
+        copy.setMaxRuns(this.getMaxRuns());
+        copy.setMaxRuntime(this.getMaxRuntime());
+        copy.setArrivalProcess(this.getArrivalProcess());
+        copy.setMaxBacklog(this.getMaxBacklog());
+        return (T) copy;
+    }
+}
@@ -47,6 +47,7 @@ import net.sf.sparql.benchmarking.runners.mix.DefaultOperationMixRunner;
 import net.sf.sparql.benchmarking.runners.mix.OperationMixRunner;
 import net.sf.sparql.benchmarking.runners.operations.DefaultOperationRunner;
 import net.sf.sparql.benchmarking.runners.operations.OperationRunner;
+import net.sf.sparql.benchmarking.util.HttpClientPool;
 
 /**
  * Interface for generic runner options
@@ -77,6 +78,10 @@ public interface Options {
      * and operations that retrieve RDF graphs
      */
     public static final String DEFAULT_FORMAT_GRAPH = WebContent.contentTypeRDFXML;
+    /**
+     * Default format in which Graph Store Protocol operations send RDF graphs
+     */
+    public static final String DEFAULT_GRAPH_STORE_FORMAT = WebContent.contentTypeNTriples;
     /**
      * Default Max Delay between operations in milliseconds
      */
@@ -94,6 +99,38 @@ public interface Options {
      * as-is and don't impose a limit on unlimited queries
      */
     public static final long DEFAULT_LIMIT = 0;
+    /**
+     * Default maximum HTTP connections per route, connections are only opened
+     * as needed so this is deliberately generous
+     */
+    public static final int DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE = 1024;
+    /**
+     * Default HTTP keep alive in milliseconds used when the server does not
+     * specify a keep alive
+     */
+    public static final long DEFAULT_HTTP_KEEP_ALIVE = 30000;
+    /**
+     * Default time in milliseconds after which idle HTTP connections are
+     * evicted from the pool
+     */
+    public static final long DEFAULT_HTTP_IDLE_TIMEOUT = 60000;
+    /**
+     * Default threading mode
+     */
+    public static final ThreadingMode DEFAULT_THREADING_MODE = ThreadingMode.PLATFORM;
+    /**
+     * Default listener buffer size, zero means listeners are invoked
+     * synchronously
+     */
+    public static final int DEFAULT_LISTENER_BUFFER_SIZE = 0;
+    /**
+     * Default behaviour when an asynchronous listener's buffer is full
+     */
+    public static final ListenerBackpressure DEFAULT_LISTENER_BACKPRESSURE = ListenerBackpressure.BLOCK;
+    /**
+     * Default progress verbosity
+     */
+    public static final ProgressVerbosity DEFAULT_PROGRESS_VERBOSITY = ProgressVerbosity.OPERATION;
 
     /**
      * Adds a Progress Listener if it is not already registered
@@ -178,6 +215,10 @@ public interface Options {
     /**
      * Gets the in-use executor for running queries and query mixes in threads
      * using the Java concurrent framework
+     * <p>
+     * The executor is created on first use according to the configured
+     * {@link #getThreadingMode()}.
+     * </p>
      * 
      * @return The Executor Service used to execute tasks
      */
@@ -194,6 +235,14 @@ public interface Options {
      */
     public abstract long getGlobalOrder();
 
+    /**
+     * Gets whether Graph Store Protocol operations send RDF graphs GZip
+     * compressed
+     * 
+     * @return True if graphs are sent compressed, false otherwise
+     */
+    public abstract boolean getGraphStoreCompression();
+
     /**
      * Gets the SPARQL graph store protocol endpoint that is in use
      * 
@@ -201,6 +250,30 @@ public interface Options {
      */
     public abstract String getGraphStoreEndpoint();
 
+    /**
+     * Gets the format in which Graph Store Protocol operations send RDF graphs
+     * <p>
+     * Graphs are serialized into this format once before running starts so
+     * serialization is not included in the measured runtimes. This is also the
+     * preferred format requested by Graph Store Protocol GET operations.
+     * </p>
+     * 
+     * @return Content type
+     */
+    public abstract String getGraphStoreFormat();
+
+    /**
+     * Gets whether data files sent by Graph Store Protocol operations are
+     * validated before running starts
+     * <p>
+     * When enabled each file is parsed once in full to check it is valid RDF,
+     * otherwise files are streamed to the server without ever being parsed.
+     * </p>
+     * 
+     * @return True if data files are validated
+     */
+    public abstract boolean getGraphStoreValidation();
+
     /**
      * Gets Halt on Any behavior
      * 
@@ -229,6 +302,82 @@ public interface Options {
      */
     public abstract boolean getHaltOnTimeout();
 
+    /**
+     * Gets the shared HTTP client pool used for remote operations
+     * <p>
+     * This is created by runners when HTTP connection pooling is enabled (see
+     * {@link #getHttpConnectionPooling()}) unless one has already been set.
+     * </p>
+     * 
+     * @return HTTP client pool or null if none
+     */
+    public abstract HttpClientPool getHttpClientPool();
+
+    /**
+     * Gets whether remote operations share a pool of keep-alive HTTP connections
+     * <p>
+     * When disabled ARQ creates a new connection for every request which means
+     * connection setup costs are included in measured runtimes.
+     * </p>
+     * 
+     * @return True if connections are pooled
+     */
+    public abstract boolean getHttpConnectionPooling();
+
+    /**
+     * Gets the time after which idle pooled HTTP connections are evicted
+     * <p>
+     * Values <= 0 are considered to mean idle connections are never evicted
+     * </p>
+     * 
+     * @return Idle timeout in milliseconds
+     */
+    public abstract long getHttpIdleTimeout();
+
+    /**
+     * Gets how long pooled HTTP connections are kept alive if the server does
+     * not specify
+     * <p>
+     * Values <= 0 are considered to mean connections are not reused
+     * </p>
+     * 
+     * @return Keep alive in milliseconds
+     */
+    public abstract long getHttpKeepAlive();
+
+    /**
+     * Gets the maximum number of pooled HTTP connections per route i.e. per
+     * endpoint host
+     * <p>
+     * This should be at least the maximum number of parallel threads otherwise
+     * threads will have to wait for a connection to become available.
+     * </p>
+     * 
+     * @return Maximum connections per route
+     */
+    public abstract int getHttpMaxConnectionsPerRoute();
+
+    /**
+     * Gets whether remote operations record a per-phase breakdown of their HTTP
+     * timings i.e. DNS lookup, TCP connect, TLS handshake, time to first byte,
+     * download and parse times
+     * <p>
+     * Phase timings are captured by instrumenting the shared HTTP client pool so
+     * are only available when HTTP connection pooling is enabled.
+     * </p>
+     * 
+     * @return True if phase timings are recorded
+     */
+    public abstract boolean getHttpPhaseTimings();
+
+    /**
+     * Gets whether pooled HTTP connections set TCP_NODELAY i.e. disable Nagle's
+     * algorithm
+     * 
+     * @return True if TCP_NODELAY is set
+     */
+    public abstract boolean getHttpTcpNoDelay();
+
     /**
      * Gets the LIMIT to impose on queries
      * 
@@ -261,6 +410,29 @@ public interface Options {
      */
     public abstract List<ProgressListener> getListeners();
 
+    /**
+     * Gets the behaviour used when the buffer of an asynchronous listener is
+     * full
+     * 
+     * @return Listener backpressure
+     */
+    public abstract ListenerBackpressure getListenerBackpressure();
+
+    /**
+     * Gets the number of events that may be buffered for each progress
+     * listener
+     * <p>
+     * When greater than zero runners wrap each listener in an
+     * {@link net.sf.sparql.benchmarking.monitoring.AsyncProgressListener} for
+     * the duration of a run so that listeners are invoked on their own thread
+     * rather than on the threads performing operations. When zero or less
+     * listeners are invoked synchronously.
+     * </p>
+     * 
+     * @return Listener buffer size
+     */
+    public abstract int getListenerBufferSize();
+
     /**
      * Gets whether the API should ensure that relative URIs are presented as
      * absolute URIs to services the harness interacts with
@@ -313,6 +485,19 @@ public interface Options {
      */
     public abstract int getParallelThreads();
 
+    /**
+     * Gets the level of detail at which progress is reported
+     * <p>
+     * Progress events that are more detailed than this level are discarded
+     * before they reach any listener, so reducing the verbosity avoids the
+     * overhead of reporting progress for every operation on high throughput
+     * runs.
+     * </p>
+     * 
+     * @return Progress verbosity
+     */
+    public abstract ProgressVerbosity getProgressVerbosity();
+
     /**
      * Gets the SPARQL query endpoint that is in use
      * 
@@ -327,6 +512,26 @@ public interface Options {
      */
     public abstract boolean getRandomizeOrder();
 
+    /**
+     * Gets whether remote queries count their results directly from the raw
+     * response body
+     * <p>
+     * When enabled results are counted by lightweight streaming scanners over
+     * the bytes of the response rather than by parsing them with ARQ, this avoids
+     * the client becoming the bottleneck for large results. Supported formats
+     * are SPARQL XML, JSON, CSV and TSV results plus N-Triples, N-Quads and
+     * Turtle, if the configured result format is not supported then SPARQL XML
+     * results or N-Triples is requested instead. The number of bytes received is
+     * also recorded for each run.
+     * </p>
+     * <p>
+     * Has no effect if {@link #getNoCount()} is enabled.
+     * </p>
+     * 
+     * @return True if raw result counting is used
+     */
+    public abstract boolean getRawResultCounting();
+
     /**
      * Gets the Results format used for operations that make ASK queries
      * 
@@ -367,6 +572,20 @@ public interface Options {
      */
     public abstract OperationMix getSetupMix();
 
+    /**
+     * Gets whether streaming statistics are used
+     * <p>
+     * When enabled operations and operation mixes record their statistics in
+     * constant memory by maintaining running totals and histograms instead of
+     * retaining every run. This is primarily intended for long running soak
+     * tests, the trade off is that individual runs cannot be inspected
+     * afterwards and outliers cannot be trimmed.
+     * </p>
+     * 
+     * @return True if streaming statistics are used
+     */
+    public abstract boolean getStreamingStatistics();
+
     /**
      * Gets the tear down mix to be run, {@code null} indicates no tear down mix
      * is requested.
@@ -379,9 +598,25 @@ public interface Options {
      */
     public abstract OperationMix getTeardownMix();
 
+    /**
+     * Gets the threading mode used to run parallel clients and their
+     * operations
+     * 
+     * @return Threading mode
+     */
+    public abstract ThreadingMode getThreadingMode();
+
     /**
      * Gets the timeout for operations, a zero/negative value indicates no
      * timeout
+     * <p>
+     * A timeout does not strictly bound the wall clock time of an operation.
+     * When it expires the operation is cancelled and any request it is making
+     * via the shared HTTP connection pool is aborted, however operations that
+     * are blocked in ways that cannot be aborted only stop once they next
+     * return control to the benchmarker. Timed out operations always have the
+     * timeout recorded as their runtime.
+     * </p>
      * 
      * @return Timeout in seconds
      */
@@ -453,6 +688,15 @@ public interface Options {
      */
     public abstract void setEnsureAbsoluteURIs(boolean ensureAbsolute);
 
+    /**
+     * Sets whether Graph Store Protocol operations send RDF graphs GZip
+     * compressed
+     * 
+     * @param compress
+     *            True if graphs should be sent compressed, false otherwise
+     */
+    public abstract void setGraphStoreCompression(boolean compress);
+
     /**
      * Gets the SPARQL graph store protocol endpoint that is in use
      * 
@@ -460,6 +704,24 @@ public interface Options {
      */
     public abstract void setGraphStoreEndpoint(String endpoint);
 
+    /**
+     * Sets the format in which Graph Store Protocol operations send RDF graphs
+     * 
+     * @param contentType
+     *            Content type of a RDF graph format e.g. N-Triples, Turtle or
+     *            RDF/Thrift
+     */
+    public abstract void setGraphStoreFormat(String contentType);
+
+    /**
+     * Sets whether data files sent by Graph Store Protocol operations are
+     * validated before running starts
+     * 
+     * @param validate
+     *            True if data files should be validated
+     */
+    public abstract void setGraphStoreValidation(boolean validate);
+
     /**
      * Sets Halt on Any behavior, if set to true sets Halt on Error and Halt on
      * Timeout to true as well
@@ -493,6 +755,70 @@ public interface Options {
      */
     public abstract void setHaltOnTimeout(boolean halt);
 
+    /**
+     * Sets the shared HTTP client pool used for remote operations
+     * 
+     * @param pool
+     *            HTTP client pool
+     */
+    public abstract void setHttpClientPool(HttpClientPool pool);
+
+    /**
+     * Sets whether remote operations share a pool of keep-alive HTTP connections
+     * 
+     * @param enabled
+     *            Whether to pool connections
+     */
+    public abstract void setHttpConnectionPooling(boolean enabled);
+
+    /**
+     * Sets the time after which idle pooled HTTP connections are evicted
+     * 
+     * @param timeout
+     *            Idle timeout in milliseconds
+     */
+    public abstract void setHttpIdleTimeout(long timeout);
+
+    /**
+     * Sets how long pooled HTTP connections are kept alive if the server does
+     * not specify
+     * 
+     * @param keepAlive
+     *            Keep alive in milliseconds
+     */
+    public abstract void setHttpKeepAlive(long keepAlive);
+
+    /**
+     * Sets the maximum number of pooled HTTP connections per route i.e. per
+     * endpoint host
+     * 
+     * @param max
+     *            Maximum connections per route
+     */
+    public abstract void setHttpMaxConnectionsPerRoute(int max);
+
+    /**
+     * Sets whether remote operations record a per-phase breakdown of their HTTP
+     * timings
+     * <p>
+     * Phase timings are captured by instrumenting the shared HTTP client pool so
+     * are only available when HTTP connection pooling is enabled.
+     * </p>
+     * 
+     * @param enabled
+     *            True if phase timings should be recorded
+     */
+    public abstract void setHttpPhaseTimings(boolean enabled);
+
+    /**
+     * Sets whether pooled HTTP connections set TCP_NODELAY i.e. disable Nagle's
+     * algorithm
+     * 
+     * @param noDelay
+     *            Whether to set TCP_NODELAY
+     */
+    public abstract void setHttpTcpNoDelay(boolean noDelay);
+
     /**
      * Sets the LIMIT to impose on queries
      * <p>
@@ -506,6 +832,24 @@ public interface Options {
      */
     public abstract void setLimit(long limit);
 
+    /**
+     * Sets the behaviour used when the buffer of an asynchronous listener is
+     * full
+     * 
+     * @param backpressure
+     *            Listener backpressure
+     */
+    public abstract void setListenerBackpressure(ListenerBackpressure backpressure);
+
+    /**
+     * Sets the number of events that may be buffered for each progress
+     * listener, see {@link #getListenerBufferSize()} for details
+     * 
+     * @param size
+     *            Listener buffer size
+     */
+    public abstract void setListenerBufferSize(int size);
+
     /**
      * Sets the limit on the number of query results that will be counted
      * <p>
@@ -579,6 +923,14 @@ public interface Options {
      */
     public abstract void setParallelThreads(int threads);
 
+    /**
+     * Sets the level of detail at which progress is reported
+     * 
+     * @param verbosity
+     *            Progress verbosity
+     */
+    public abstract void setProgressVerbosity(ProgressVerbosity verbosity);
+
     /**
      * Sets the SPARQL query endpoint to be used
      * 
@@ -595,6 +947,18 @@ public interface Options {
      */
     public abstract void setRandomizeOrder(boolean randomize);
 
+    /**
+     * Sets whether remote queries count their results directly from the raw
+     * response body
+     * <p>
+     * See {@link #getRawResultCounting()} for more details.
+     * </p>
+     * 
+     * @param enabled
+     *            True if raw result counting should be used
+     */
+    public abstract void setRawResultCounting(boolean enabled);
+
     /**
      * Sets the Results format to be used for operations that make ASK queries
      * 
@@ -640,6 +1004,21 @@ public interface Options {
      */
     public abstract void setSetupMix(OperationMix mix);
 
+    /**
+     * Sets whether streaming statistics are used
+     * <p>
+     * When enabled operations and operation mixes record their statistics in
+     * constant memory by maintaining running totals and histograms instead of
+     * retaining every run. This is primarily intended for long running soak
+     * tests, the trade off is that individual runs cannot be inspected
+     * afterwards and outliers cannot be trimmed.
+     * </p>
+     * 
+     * @param streaming
+     *            Whether to use streaming statistics
+     */
+    public abstract void setStreamingStatistics(boolean streaming);
+
     /**
      * Sets the tear down mix that will be run once after testing completes
      * successfully.
@@ -653,9 +1032,32 @@ public interface Options {
      */
     public abstract void setTeardownMix(OperationMix mix);
 
+    /**
+     * Sets the threading mode used to run parallel clients and their
+     * operations
+     * <p>
+     * {@link ThreadingMode#VIRTUAL} allows very large numbers of parallel
+     * clients to be simulated, if the JVM does not support virtual threads
+     * then platform threads are used instead. The threading mode must be set
+     * before the executor is first used.
+     * </p>
+     * 
+     * @param mode
+     *            Threading mode
+     */
+    public abstract void setThreadingMode(ThreadingMode mode);
+
     /**
      * Sets the timeout for operations, a zero/negative value indicates no
      * timeout
+     * <p>
+     * A timeout does not strictly bound the wall clock time of an operation.
+     * When it expires the operation is cancelled and any request it is making
+     * via the shared HTTP connection pool is aborted, however operations that
+     * are blocked in ways that cannot be aborted only stop once they next
+     * return control to the benchmarker. Timed out operations always have the
+     * timeout recorded as their runtime.
+     * </p>
      * 
      * @param timeout
      *            Timeout in seconds
@@ -38,17 +38,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.jena.atlas.web.auth.HttpAuthenticator;
 
 import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
 
 import net.sf.sparql.benchmarking.monitoring.ProgressListener;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.runners.mix.OperationMixRunner;
 import net.sf.sparql.benchmarking.runners.operations.OperationRunner;
+import net.sf.sparql.benchmarking.util.HttpClientPool;
+import net.sf.sparql.benchmarking.util.ThreadingUtils;
 
 /**
  * Implementation of generic options
@@ -63,11 +66,18 @@ public class OptionsImpl implements Options {
     private boolean haltAny = false;
     private HaltBehaviour haltBehaviour = DEFAULT_HALT_BEHAVIOUR;
     private List<ProgressListener> listeners = new ArrayList<ProgressListener>();
-    private ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile ExecutorService executor;
+    private ThreadingMode threadingMode = DEFAULT_THREADING_MODE;
+    private int listenerBufferSize = DEFAULT_LISTENER_BUFFER_SIZE;
+    private ListenerBackpressure listenerBackpressure = DEFAULT_LISTENER_BACKPRESSURE;
+    private ProgressVerbosity progressVerbosity = DEFAULT_PROGRESS_VERBOSITY;
     private OperationMix operationMix;
     private String queryEndpoint;
     private String updateEndpoint;
     private String graphStoreEndpoint;
+    private String graphStoreFormat = DEFAULT_GRAPH_STORE_FORMAT;
+    private boolean graphStoreCompression = false;
+    private boolean graphStoreValidation = false;
     private Dataset dataset;
     private Map<String, String> customEndpoints = new HashMap<String, String>();
     private Map<String, Object> customSettings = new HashMap<String, Object>();
@@ -81,6 +91,7 @@ public class OptionsImpl implements Options {
     private HttpAuthenticator authenticator;
     private AtomicLong globalOrder = new AtomicLong(0);
     private boolean randomize = true;
+    private boolean rawResultCounting = false;
     int sanity = DEFAULT_SANITY_CHECKS;
     private OperationMix setupMix;
     private OperationMix teardownMix;
@@ -89,7 +100,15 @@ public class OptionsImpl implements Options {
     private long limit = DEFAULT_LIMIT;
     private long localLimit = DEFAULT_LIMIT;
     private boolean noCount = false;
+    private boolean streamingStats = false;
     private boolean ensureAbsoluteURIs = false;
+    private HttpClientPool httpClientPool = null;
+    private boolean httpPooling = true;
+    private long httpIdleTimeout = DEFAULT_HTTP_IDLE_TIMEOUT;
+    private long httpKeepAlive = DEFAULT_HTTP_KEEP_ALIVE;
+    private int httpMaxPerRoute = DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE;
+    private boolean httpPhaseTimings = false;
+    private boolean httpTcpNoDelay = true;
 
     @Override
     public void addListener(ProgressListener listener) {
@@ -124,12 +143,24 @@ public class OptionsImpl implements Options {
         }
         copy.setDataset(this.getDataset());
         copy.setEnsureAbsoluteURIs(this.getEnsureAbsoluteURIs());
+        copy.setGraphStoreCompression(this.getGraphStoreCompression());
         copy.setGraphStoreEndpoint(this.getGraphStoreEndpoint());
+        copy.setGraphStoreFormat(this.getGraphStoreFormat());
+        copy.setGraphStoreValidation(this.getGraphStoreValidation());
         copy.setHaltAny(this.getHaltAny());
         copy.setHaltBehaviour(this.getHaltBehaviour());
         copy.setHaltOnError(this.getHaltOnError());
         copy.setHaltOnTimeout(this.getHaltOnTimeout());
+        copy.setHttpClientPool(this.getHttpClientPool());
+        copy.setHttpConnectionPooling(this.getHttpConnectionPooling());
+        copy.setHttpIdleTimeout(this.getHttpIdleTimeout());
+        copy.setHttpKeepAlive(this.getHttpKeepAlive());
+        copy.setHttpMaxConnectionsPerRoute(this.getHttpMaxConnectionsPerRoute());
+        copy.setHttpPhaseTimings(this.getHttpPhaseTimings());
+        copy.setHttpTcpNoDelay(this.getHttpTcpNoDelay());
         copy.setLimit(this.getLimit());
+        copy.setListenerBackpressure(this.getListenerBackpressure());
+        copy.setListenerBufferSize(this.getListenerBufferSize());
         copy.setLocalLimit(this.getLocalLimit());
         copy.setMaxDelay(this.getMaxDelay());
         copy.setMixRunner(this.getMixRunner());
@@ -137,14 +168,18 @@ public class OptionsImpl implements Options {
         copy.setOperationMix(this.getOperationMix());
         copy.setOperationRunner(this.getOperationRunner());
         copy.setParallelThreads(this.getParallelThreads());
+        copy.setProgressVerbosity(this.getProgressVerbosity());
         copy.setQueryEndpoint(this.getQueryEndpoint());
         copy.setRandomizeOrder(this.getRandomizeOrder());
+        copy.setRawResultCounting(this.getRawResultCounting());
         copy.setResultsAskFormat(this.getResultsAskFormat());
         copy.setResultsGraphFormat(this.getResultsGraphFormat());
         copy.setResultsSelectFormat(this.getResultsSelectFormat());
         copy.setSanityCheckLevel(this.getSanityCheckLevel());
         copy.setSetupMix(this.getSetupMix());
+        copy.setStreamingStatistics(this.getStreamingStatistics());
         copy.setTeardownMix(this.getTeardownMix());
+        copy.setThreadingMode(this.getThreadingMode());
         copy.setTimeout(this.getTimeout());
         copy.globalOrder.set(this.globalOrder.get());
     }
@@ -186,7 +221,13 @@ public class OptionsImpl implements Options {
 
     @Override
     public ExecutorService getExecutor() {
-        return executor;
+        if (this.executor == null) {
+            synchronized (this) {
+                if (this.executor == null)
+                    this.executor = ThreadingUtils.createExecutor(this.threadingMode);
+            }
+        }
+        return this.executor;
     }
 
     @Override
@@ -194,11 +235,26 @@ public class OptionsImpl implements Options {
         return globalOrder.incrementAndGet();
     }
 
+    @Override
+    public boolean getGraphStoreCompression() {
+        return graphStoreCompression;
+    }
+
     @Override
     public String getGraphStoreEndpoint() {
         return graphStoreEndpoint;
     }
 
+    @Override
+    public String getGraphStoreFormat() {
+        return graphStoreFormat;
+    }
+
+    @Override
+    public boolean getGraphStoreValidation() {
+        return graphStoreValidation;
+    }
+
     @Override
     public boolean getHaltAny() {
         return haltAny;
@@ -219,6 +275,41 @@ public class OptionsImpl implements Options {
         return haltOnTimeout;
     }
 
+    @Override
+    public HttpClientPool getHttpClientPool() {
+        return this.httpClientPool;
+    }
+
+    @Override
+    public boolean getHttpConnectionPooling() {
+        return this.httpPooling;
+    }
+
+    @Override
+    public long getHttpIdleTimeout() {
+        return this.httpIdleTimeout;
+    }
+
+    @Override
+    public long getHttpKeepAlive() {
+        return this.httpKeepAlive;
+    }
+
+    @Override
+    public int getHttpMaxConnectionsPerRoute() {
+        return this.httpMaxPerRoute;
+    }
+
+    @Override
+    public boolean getHttpPhaseTimings() {
+        return this.httpPhaseTimings;
+    }
+
+    @Override
+    public boolean getHttpTcpNoDelay() {
+        return this.httpTcpNoDelay;
+    }
+
     @Override
     public long getLimit() {
         return limit;
@@ -234,6 +325,16 @@ public class OptionsImpl implements Options {
         return this.listeners;
     }
 
+    @Override
+    public ListenerBackpressure getListenerBackpressure() {
+        return this.listenerBackpressure;
+    }
+
+    @Override
+    public int getListenerBufferSize() {
+        return this.listenerBufferSize;
+    }
+
     @Override
     public int getMaxDelay() {
         return delay;
@@ -264,6 +365,11 @@ public class OptionsImpl implements Options {
         return parallelThreads;
     }
 
+    @Override
+    public ProgressVerbosity getProgressVerbosity() {
+        return this.progressVerbosity;
+    }
+
     @Override
     public String getQueryEndpoint() {
         return queryEndpoint;
@@ -274,6 +380,11 @@ public class OptionsImpl implements Options {
         return randomize;
     }
 
+    @Override
+    public boolean getRawResultCounting() {
+        return this.rawResultCounting;
+    }
+
     @Override
     public String getResultsAskFormat() {
         return askResultsFormat;
@@ -299,11 +410,21 @@ public class OptionsImpl implements Options {
         return this.setupMix;
     }
 
+    @Override
+    public boolean getStreamingStatistics() {
+        return this.streamingStats;
+    }
+
     @Override
     public OperationMix getTeardownMix() {
         return this.teardownMix;
     }
 
+    @Override
+    public ThreadingMode getThreadingMode() {
+        return this.threadingMode;
+    }
+
     @Override
     public int getTimeout() {
         return timeout;
@@ -349,11 +470,29 @@ public class OptionsImpl implements Options {
         this.ensureAbsoluteURIs = ensureAbsolute;
     }
 
+    @Override
+    public void setGraphStoreCompression(boolean compress) {
+        this.graphStoreCompression = compress;
+    }
+
     @Override
     public void setGraphStoreEndpoint(String endpoint) {
         this.graphStoreEndpoint = endpoint;
     }
 
+    @Override
+    public void setGraphStoreFormat(String contentType) {
+        Lang lang = RDFLanguages.contentTypeToLang(contentType);
+        if (lang == null || !RDFLanguages.isTriples(lang))
+            throw new IllegalArgumentException(contentType + " is not a known RDF graph format");
+        this.graphStoreFormat = contentType;
+    }
+
+    @Override
+    public void setGraphStoreValidation(boolean validate) {
+        this.graphStoreValidation = validate;
+    }
+
     @Override
     public void setHaltAny(boolean halt) {
         haltAny = halt;
@@ -378,10 +517,57 @@ public class OptionsImpl implements Options {
         haltOnTimeout = halt;
     }
 
+    @Override
+    public void setHttpClientPool(HttpClientPool pool) {
+        this.httpClientPool = pool;
+    }
+
+    @Override
+    public void setHttpConnectionPooling(boolean enabled) {
+        this.httpPooling = enabled;
+    }
+
+    @Override
+    public void setHttpIdleTimeout(long timeout) {
+        this.httpIdleTimeout = timeout;
+    }
+
+    @Override
+    public void setHttpKeepAlive(long keepAlive) {
+        this.httpKeepAlive = keepAlive;
+    }
+
+    @Override
+    public void setHttpMaxConnectionsPerRoute(int max) {
+        this.httpMaxPerRoute = max;
+    }
+
+    @Override
+    public void setHttpPhaseTimings(boolean enabled) {
+        this.httpPhaseTimings = enabled;
+    }
+
+    @Override
+    public void setHttpTcpNoDelay(boolean noDelay) {
+        this.httpTcpNoDelay = noDelay;
+    }
+
     @Override
     public void setLimit(long limit) {
         this.limit = limit;
     }
+
+    @Override
+    public void setListenerBackpressure(ListenerBackpressure backpressure) {
+        if (backpressure == null)
+            throw new NullPointerException("Listener backpressure cannot be null");
+        this.listenerBackpressure = backpressure;
+    }
+
+    @Override
+    public void setListenerBufferSize(int size) {
+        this.listenerBufferSize = size;
+    }
     
     @Override
     public void setLocalLimit(long limit) {
@@ -422,6 +608,13 @@ public class OptionsImpl implements Options {
         parallelThreads = threads;
     }
 
+    @Override
+    public void setProgressVerbosity(ProgressVerbosity verbosity) {
+        if (verbosity == null)
+            throw new NullPointerException("Progress verbosity cannot be null");
+        this.progressVerbosity = verbosity;
+    }
+
     @Override
     public void setQueryEndpoint(String endpoint) {
         this.queryEndpoint = endpoint;
@@ -432,6 +625,11 @@ public class OptionsImpl implements Options {
         this.randomize = randomize;
     }
 
+    @Override
+    public void setRawResultCounting(boolean enabled) {
+        this.rawResultCounting = enabled;
+    }
+
     @Override
     public void setResultsAskFormat(String contentType) {
         askResultsFormat = contentType;
@@ -457,11 +655,25 @@ public class OptionsImpl implements Options {
         this.setupMix = mix;
     }
 
+    @Override
+    public void setStreamingStatistics(boolean streaming) {
+        this.streamingStats = streaming;
+    }
+
     @Override
     public void setTeardownMix(OperationMix mix) {
         this.teardownMix = mix;
     }
 
+    @Override
+    public synchronized void setThreadingMode(ThreadingMode mode) {
+        if (mode == null)
+            throw new NullPointerException("Threading mode cannot be null");
+        if (this.executor != null && mode != this.threadingMode)
+            throw new IllegalStateException("Threading mode cannot be changed once the executor has been used");
+        this.threadingMode = mode;
+    }
+
     @Override
     public void setTimeout(int timeout) {
         this.timeout = timeout;
@@ -24,10 +24,29 @@ public class StressOptions extends OptionsImpl {
 	 * Default stress test ramp up factor
 	 */
 	public static final int DEFAULT_RAMP_UP_FACTOR = 2;
+	/**
+	 * Default duration of each load step in seconds when searching for the
+	 * saturation point
+	 */
+	public static final long DEFAULT_STEP_DURATION = 60;
+	/**
+	 * Default 99th percentile latency SLO in milliseconds which is 0 indicating
+	 * there is no SLO
+	 */
+	public static final long DEFAULT_LATENCY_SLO = 0;
+	/**
+	 * Default minimum fractional increase in throughput that an increase in
+	 * load must produce for the system to be considered not yet saturated
+	 */
+	public static final double DEFAULT_MIN_THROUGHPUT_GAIN = 0.05;
 
 	private int maxThreads = DEFAULT_MAX_THREADS;
 	private long runtime = DEFAULT_RUNTIME;
 	private int rampUpFactor = DEFAULT_RAMP_UP_FACTOR;
+	private boolean saturationSearch = false;
+	private long stepDuration = DEFAULT_STEP_DURATION;
+	private long latencySlo = DEFAULT_LATENCY_SLO;
+	private double minThroughputGain = DEFAULT_MIN_THROUGHPUT_GAIN;
 
 	/**
 	 * Creates new stress options
@@ -100,6 +119,101 @@ public class StressOptions extends OptionsImpl {
 		this.rampUpFactor = rampUpFactor;
 	}
 
+	/**
+	 * Gets whether stress testing should search for the saturation point
+	 * <p>
+	 * When enabled rather than simply ramping up load until the maximum
+	 * threads or runtime is reached the load is ramped up until throughput
+	 * stops increasing or the latency SLO is broken and then a binary search
+	 * is used to find the maximum concurrency at which throughput still scales.
+	 * </p>
+	 * 
+	 * @return True if searching for the saturation point
+	 */
+	public boolean getSaturationSearch() {
+		return this.saturationSearch;
+	}
+
+	/**
+	 * Sets whether stress testing should search for the saturation point
+	 * 
+	 * @param enabled
+	 *            Whether to search for the saturation point
+	 */
+	public void setSaturationSearch(boolean enabled) {
+		this.saturationSearch = enabled;
+	}
+
+	/**
+	 * Gets the duration of each load step in seconds when searching for the
+	 * saturation point
+	 * 
+	 * @return Step duration in seconds
+	 */
+	public long getStepDuration() {
+		return this.stepDuration;
+	}
+
+	/**
+	 * Sets the duration of each load step in seconds when searching for the
+	 * saturation point
+	 * 
+	 * @param duration
+	 *            Step duration in seconds
+	 */
+	public void setStepDuration(long duration) {
+		if (duration <= 0)
+			throw new IllegalArgumentException("Step duration must be >= 1");
+		this.stepDuration = duration;
+	}
+
+	/**
+	 * Gets the 99th percentile latency SLO in milliseconds
+	 * <p>
+	 * A value <= 0 is considered to indicate that there is no SLO
+	 * </p>
+	 * 
+	 * @return Latency SLO in milliseconds
+	 */
+	public long getLatencySlo() {
+		return this.latencySlo;
+	}
+
+	/**
+	 * Sets the 99th percentile latency SLO in milliseconds, when searching for
+	 * the saturation point a load level whose 99th percentile operation mix
+	 * runtime exceeds this is considered unsustainable
+	 * 
+	 * @param slo
+	 *            Latency SLO in milliseconds
+	 */
+	public void setLatencySlo(long slo) {
+		this.latencySlo = slo;
+	}
+
+	/**
+	 * Gets the minimum fractional increase in throughput that an increase in
+	 * load must produce for the system to be considered not yet saturated
+	 * 
+	 * @return Minimum throughput gain e.g. 0.05 for 5%
+	 */
+	public double getMinThroughputGain() {
+		return this.minThroughputGain;
+	}
+
+	/**
+	 * Sets the minimum fractional increase in throughput that an increase in
+	 * load must produce for the system to be considered not yet saturated
+	 * 
+	 * @param gain
+	 *            Minimum throughput gain e.g. 0.05 for 5%
+	 */
+	public void setMinThroughputGain(double gain) {
+		if (gain < 0)
+			throw new IllegalArgumentException("Minimum throughput gain must be >= 0");
+		this.minThroughputGain = gain;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends Options> T copy() {
@@ -108,6 +222,10 @@ public class StressOptions extends OptionsImpl {
 		copy.setMaxThreads(this.getMaxThreads());
 		copy.setMaxRuntime(this.getMaxRuntime());
 		copy.setRampUpFactor(this.getRampUpFactor());
+		copy.setSaturationSearch(this.getSaturationSearch());
+		copy.setStepDuration(this.getStepDuration());
+		copy.setLatencySlo(this.getLatencySlo());
+		copy.setMinThroughputGain(this.getMinThroughputGain());
 		return (T) copy;
 	}
 }
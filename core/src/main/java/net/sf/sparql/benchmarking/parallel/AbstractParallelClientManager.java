@@ -32,9 +32,6 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.parallel;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.parallel.impl.DefaultParallelClient;
 import net.sf.sparql.benchmarking.runners.Runner;
@@ -51,8 +48,8 @@ public abstract class AbstractParallelClientManager<T extends Options> implement
 
     private Runner<T> runner;
     private T options;
-    private boolean ready = false;
-    private boolean halt = false;
+    private volatile ParallelClientCoordinator coordinator;
+    private volatile boolean halt = false;
 
     /**
      * Creates a new parallel client manager
@@ -79,19 +76,24 @@ public abstract class AbstractParallelClientManager<T extends Options> implement
 
     @Override
     public final boolean isReady() {
-        return this.ready;
+        ParallelClientCoordinator c = this.coordinator;
+        return c != null && c.isStarted();
     }
 
-    /**
-     * Sets that the client manager is ready
-     */
-    protected final void setReady() {
-        this.ready = true;
+    @Override
+    public final void awaitReady() throws InterruptedException {
+        ParallelClientCoordinator c = this.coordinator;
+        if (c == null)
+            throw new IllegalStateException("Parallel clients have not been created");
+        c.awaitStarted();
     }
 
     @Override
     public final void halt() {
         this.halt = true;
+        ParallelClientCoordinator c = this.coordinator;
+        if (c != null)
+            c.halt();
     }
 
     /**
@@ -108,28 +110,56 @@ public abstract class AbstractParallelClientManager<T extends Options> implement
      */
     @Override
     public Object call() throws Exception {
+        this.startClients();
+
+        // And then wait until all clients have finished their runs
+        this.awaitClients();
+
+        return null;
+    }
+
+    /**
+     * Starts the parallel clients and marks the manager as ready
+     * <p>
+     * Derived implementations which override {@link #call()} to provide
+     * additional behaviour should call this to start the clients.
+     * </p>
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting for the clients to be
+     *             running
+     */
+    protected void startClients() throws InterruptedException {
         this.getRunner().reportProgress(this.getOptions(), "Parallel Client manager starting...");
 
         // Start the required number of clients, they won't start doing any work
-        // until we finish this as they rely on the isReady() method to
-        // determine when to start work and it will return false until after
-        // this loop
-        List<ParallelClientTask<T>> tasks = new ArrayList<ParallelClientTask<T>>();
-        for (int i = 1; i <= this.getOptions().getParallelThreads(); i++) {
-            ParallelClientTask<T> task = new ParallelClientTask<T>(this, i);
-            tasks.add(task);
+        // until every client is running and the coordinator is started so
+        // that all clients start simultaneously
+        int clients = this.getOptions().getParallelThreads();
+        ParallelClientCoordinator c = new ParallelClientCoordinator(clients);
+        this.coordinator = c;
+        if (this.halt)
+            c.halt();
+        for (int i = 1; i <= clients; i++) {
+            ParallelClientTask<T> task = new ParallelClientTask<T>(this, i, c);
             this.getOptions().getExecutor().submit(task);
             this.getRunner().reportProgress(this.getOptions(), "Created Parallel Client ID " + i);
         }
         this.getRunner().reportProgress(this.getOptions(), "Parallel Client manager is starting clients...");
-        this.setReady();
-
-        // And then wait until all runs have finished
-        while (!this.hasFinished() && !this.halt) {
-            Thread.sleep(100);
-        }
+        c.start();
+    }
 
-        return null;
+    /**
+     * Waits until all the parallel clients have exited or the manager is
+     * halted
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting
+     */
+    protected void awaitClients() throws InterruptedException {
+        ParallelClientCoordinator c = this.coordinator;
+        if (c != null)
+            c.awaitFinished();
     }
 
     @Override
@@ -0,0 +1,185 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coordinates the start and completion of a group of parallel clients
+ * <p>
+ * Clients that are run via a {@link ParallelClientTask} created with a
+ * coordinator signal when they are running and then block until the manager
+ * calls {@link #start()}, this only happens once every client is running so
+ * all clients begin work simultaneously. Clients also signal when they exit so
+ * that the manager can detect completion as soon as it happens via
+ * {@link #awaitFinished()} rather than having to poll. Halting releases all
+ * waiting threads immediately.
+ * </p>
+ * <p>
+ * A coordinator may only be used for a single group of clients, managers that
+ * run several groups of clients e.g. stress test steps should create a new
+ * coordinator for each group.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ParallelClientCoordinator {
+
+    private final CountDownLatch running, start = new CountDownLatch(1), finished;
+    private volatile boolean halted = false;
+
+    /**
+     * Creates a new coordinator
+     * 
+     * @param clients
+     *            Number of clients
+     */
+    public ParallelClientCoordinator(int clients) {
+        if (clients < 0)
+            throw new IllegalArgumentException("Number of clients must be >= 0");
+        this.running = new CountDownLatch(clients);
+        this.finished = new CountDownLatch(clients);
+    }
+
+    /**
+     * Called by a client when it is running, blocks until the manager starts
+     * the clients or halts
+     */
+    void clientRunning() {
+        this.running.countDown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.start.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Called by a client when it has exited
+     */
+    void clientFinished() {
+        this.finished.countDown();
+    }
+
+    /**
+     * Waits until every client is running
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting for clients
+     */
+    public void awaitRunning() throws InterruptedException {
+        this.running.await();
+    }
+
+    /**
+     * Waits until every client is running and then allows them all to start
+     * simultaneously
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting for clients
+     */
+    public void start() throws InterruptedException {
+        this.awaitRunning();
+        this.start.countDown();
+    }
+
+    /**
+     * Gets whether the clients have been started
+     * 
+     * @return True if started, false otherwise
+     */
+    public boolean isStarted() {
+        return this.start.getCount() == 0;
+    }
+
+    /**
+     * Waits until the clients have been started
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting
+     */
+    public void awaitStarted() throws InterruptedException {
+        this.start.await();
+    }
+
+    /**
+     * Waits until every client has exited or the coordinator is halted
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting
+     */
+    public void awaitFinished() throws InterruptedException {
+        this.finished.await();
+    }
+
+    /**
+     * Gets whether every client has exited
+     * 
+     * @return True if finished, false otherwise
+     */
+    public boolean isFinished() {
+        return this.finished.getCount() == 0;
+    }
+
+    /**
+     * Halts the coordinator releasing any threads waiting on it
+     */
+    public void halt() {
+        this.halted = true;
+        drain(this.running);
+        drain(this.start);
+        drain(this.finished);
+    }
+
+    /**
+     * Gets whether the coordinator was halted
+     * 
+     * @return True if halted, false otherwise
+     */
+    public boolean isHalted() {
+        return this.halted;
+    }
+
+    private static void drain(CountDownLatch latch) {
+        while (latch.getCount() > 0) {
+            latch.countDown();
+        }
+    }
+}
@@ -98,6 +98,14 @@ public interface ParallelClientManager<T extends Options> extends Callable<Objec
      */
     public abstract boolean isReady();
 
+    /**
+     * Waits until the manager is ready for clients to begin executing
+     * 
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting
+     */
+    public abstract void awaitReady() throws InterruptedException;
+
     /**
      * Gets the runner
      * 
@@ -46,6 +46,8 @@ import net.sf.sparql.benchmarking.options.Options;
  */
 public class ParallelClientTask<T extends Options> extends FutureTask<Object> {
 
+    private final ParallelClientCoordinator coordinator;
+
     /**
      * Creates a new Parallel Client Task
      * 
@@ -55,7 +57,38 @@ public class ParallelClientTask<T extends Options> extends FutureTask<Object> {
      *            Client ID
      */
     public ParallelClientTask(ParallelClientManager<T> manager, int id) {
+        this(manager, id, null);
+    }
+
+    /**
+     * Creates a new Parallel Client Task whose start and completion is
+     * signalled to the given coordinator
+     * 
+     * @param manager
+     *            Client Manager
+     * @param id
+     *            Client ID
+     * @param coordinator
+     *            Coordinator, may be {@code null}
+     */
+    public ParallelClientTask(ParallelClientManager<T> manager, int id, ParallelClientCoordinator coordinator) {
         super(manager.createClient(id));
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public void run() {
+        if (this.coordinator == null) {
+            super.run();
+            return;
+        }
+
+        this.coordinator.clientRunning();
+        try {
+            super.run();
+        } finally {
+            this.coordinator.clientFinished();
+        }
     }
 
 }
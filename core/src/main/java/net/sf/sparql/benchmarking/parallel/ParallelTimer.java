@@ -5,14 +5,14 @@ Redistribution and use in source and binary forms, with or without
 modification, are permitted provided that the following conditions are
 met:
 
- * Redistributions of source code must retain the above copyright
+* Redistributions of source code must retain the above copyright
   notice, this list of conditions and the following disclaimer.
 
- * Redistributions in binary form must reproduce the above copyright
+* Redistributions in binary form must reproduce the above copyright
   notice, this list of conditions and the following disclaimer in the
   documentation and/or other materials provided with the distribution.
 
- * Neither the name Cray Inc. nor the names of its contributors may be
+* Neither the name Cray Inc. nor the names of its contributors may be
   used to endorse or promote products derived from this software
   without specific prior written permission.
 
@@ -28,10 +28,12 @@ THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
 (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
 OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  
- */
+*/
 
 package net.sf.sparql.benchmarking.parallel;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * A Timer that can be used to time runtime where runtime may be being consumed
  * on multiple threads and overlapping, allows you to determine actual runtime
@@ -39,8 +41,9 @@ package net.sf.sparql.benchmarking.parallel;
  * <p>
  * Essentially this is just a class that tracks the number of threads that have
  * started the timer and the time at which the timer was last started when there
- * were no active threads using {@code synchronized} to ensure that only one
- * thread can access a method at any one time.
+ * were no active threads. The state is held in an immutable snapshot which is
+ * replaced atomically so the timer is lock free and threads never block one
+ * another when starting and stopping it.
  * </p>
  * <p>
  * Then when the timer is stopped and there are no active threads the total time
@@ -57,37 +60,59 @@ package net.sf.sparql.benchmarking.parallel;
  */
 public class ParallelTimer {
 
-    private long total = 0;
-    private long startTime;
-    private long active = 0;
+    private final AtomicReference<State> state = new AtomicReference<State>(new State(0, 0, 0));
+
+    /**
+     * Immutable timer state
+     */
+    private static final class State {
+        final long active, startTime, total;
+
+        State(long active, long startTime, long total) {
+            this.active = active;
+            this.startTime = startTime;
+            this.total = total;
+        }
+    }
 
     /**
      * Starts timing
      */
-    public synchronized void start() {
-        if (active == 0) {
-            // Start Timer
-            active++;
-            startTime = System.nanoTime();
-        } else {
-            // Increment Active Threads
-            active++;
+    public void start() {
+        while (true) {
+            State current = this.state.get();
+            State next;
+            if (current.active == 0) {
+                // Start Timer
+                next = new State(1, System.nanoTime(), current.total);
+            } else {
+                // Increment Active Threads
+                next = new State(current.active + 1, current.startTime, current.total);
+            }
+            if (this.state.compareAndSet(current, next))
+                return;
         }
     }
 
     /**
      * Stops timing
      */
-    public synchronized void stop() {
-        if (active == 0) {
-            // Nothing to do
-        } else if (active == 1) {
-            // Stop Timer
-            active--;
-            total += System.nanoTime() - startTime;
-        } else {
-            // Decrement Active Threads
-            active--;
+    public void stop() {
+        while (true) {
+            State current = this.state.get();
+            State next;
+            if (current.active == 0) {
+                // Nothing to do
+                return;
+            } else if (current.active == 1) {
+                // Stop Timer
+                next = new State(0, 0, current.total + (System.nanoTime() - current.startTime));
+            } else {
+                // Decrement Active Threads
+                next = new State(current.active - 1, current.startTime, current.total);
+            }
+            if (this.state.compareAndSet(current, next))
+                return;
         }
     }
 
@@ -96,11 +121,12 @@ public class ParallelTimer {
      * 
      * @return Actual Runtime consumed
      */
-    public synchronized long getActualRuntime() {
-        if (active == 0) {
-            return total;
+    public long getActualRuntime() {
+        State current = this.state.get();
+        if (current.active == 0) {
+            return current.total;
         } else {
-            return total + (System.nanoTime() - startTime);
+            return current.total + (System.nanoTime() - current.startTime);
         }
     }
 
@@ -109,7 +135,7 @@ public class ParallelTimer {
      * 
      * @return Active Threads
      */
-    public synchronized long getActiveThreads() {
-        return active;
+    public long getActiveThreads() {
+        return this.state.get().active;
     }
 }
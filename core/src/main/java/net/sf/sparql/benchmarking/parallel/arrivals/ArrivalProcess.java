@@ -0,0 +1,78 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.arrivals;
+
+/**
+ * Interface for arrival processes which determine when new work should be
+ * started when running open loop tests
+ * <p>
+ * In an open loop test work is started according to a schedule regardless of
+ * whether previously started work has completed, this differs from the normal
+ * closed loop testing where a client only starts new work once its previous
+ * work has completed.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Gets the interval until the next arrival
+     * <p>
+     * Implementations will only be called from a single thread so do not need
+     * to be thread safe.
+     * </p>
+     * 
+     * @param elapsed
+     *            Time elapsed since testing started in nanoseconds
+     * @return Interval until the next arrival in nanoseconds
+     */
+    public abstract long nextInterval(long elapsed);
+
+    /**
+     * Gets the target arrival rate
+     * 
+     * @param elapsed
+     *            Time elapsed since testing started in nanoseconds
+     * @return Target arrival rate in arrivals per second
+     */
+    public abstract double getRate(long elapsed);
+
+    /**
+     * Gets a human readable description of the arrival process
+     * 
+     * @return Description
+     */
+    public abstract String getDescription();
+}
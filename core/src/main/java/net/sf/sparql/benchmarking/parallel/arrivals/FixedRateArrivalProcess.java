@@ -0,0 +1,76 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.arrivals;
+
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * An arrival process where arrivals occur at a fixed rate i.e. the interval
+ * between arrivals is always the same
+ * 
+ * @author rvesse
+ * 
+ */
+public class FixedRateArrivalProcess implements ArrivalProcess {
+
+    private double rate;
+    private long interval;
+
+    /**
+     * Creates a new fixed rate arrival process
+     * 
+     * @param rate
+     *            Arrival rate in arrivals per second
+     */
+    public FixedRateArrivalProcess(double rate) {
+        if (rate <= 0)
+            throw new IllegalArgumentException("Arrival rate must be > 0");
+        this.rate = rate;
+        this.interval = Math.max(1, (long) (ConvertUtils.NANOSECONDS_PER_SECOND / rate));
+    }
+
+    @Override
+    public long nextInterval(long elapsed) {
+        return this.interval;
+    }
+
+    @Override
+    public double getRate(long elapsed) {
+        return this.rate;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Fixed rate of %,.3f arrivals per second", this.rate);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.arrivals;
+
+import java.util.Random;
+
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * An arrival process where arrivals follow a Poisson process i.e. the
+ * intervals between arrivals are exponentially distributed around the mean
+ * interval for the desired rate
+ * <p>
+ * This more closely models real world traffic where requests arrive
+ * independently of each other and so are sometimes bunched together.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class PoissonArrivalProcess implements ArrivalProcess {
+
+    private double rate;
+    private Random random;
+
+    /**
+     * Creates a new Poisson arrival process
+     * 
+     * @param rate
+     *            Mean arrival rate in arrivals per second
+     */
+    public PoissonArrivalProcess(double rate) {
+        this(rate, new Random());
+    }
+
+    /**
+     * Creates a new Poisson arrival process
+     * 
+     * @param rate
+     *            Mean arrival rate in arrivals per second
+     * @param seed
+     *            Random seed, allows for reproducible arrival schedules
+     */
+    public PoissonArrivalProcess(double rate, long seed) {
+        this(rate, new Random(seed));
+    }
+
+    private PoissonArrivalProcess(double rate, Random random) {
+        if (rate <= 0)
+            throw new IllegalArgumentException("Arrival rate must be > 0");
+        this.rate = rate;
+        this.random = random;
+    }
+
+    @Override
+    public long nextInterval(long elapsed) {
+        // Inverse transform sampling of the exponential distribution, use 1 -
+        // nextDouble() since nextDouble() may return 0
+        double u = 1d - this.random.nextDouble();
+        double interval = -Math.log(u) / this.rate;
+        return Math.max(1, (long) (interval * ConvertUtils.NANOSECONDS_PER_SECOND));
+    }
+
+    @Override
+    public double getRate(long elapsed) {
+        return this.rate;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Poisson process with mean rate of %,.3f arrivals per second", this.rate);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.arrivals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * An arrival process where the arrival rate follows a schedule i.e. the rate
+ * changes over time
+ * <p>
+ * A schedule consists of a sequence of steps, each of which has a duration and
+ * an arrival rate. Once the schedule is exhausted the rate of the final step
+ * continues to be used. Within each step arrivals may either be at a fixed rate
+ * or follow a Poisson process.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ScheduledArrivalProcess implements ArrivalProcess {
+
+    private long[] ends;
+    private double[] rates;
+    private boolean poisson;
+    private Random random;
+
+    /**
+     * Creates a new scheduled arrival process
+     * 
+     * @param durations
+     *            Duration of each step in seconds
+     * @param rates
+     *            Arrival rate for each step in arrivals per second
+     * @param poisson
+     *            Whether arrivals within each step follow a Poisson process
+     *            rather than a fixed rate
+     * @param seed
+     *            Random seed, only used if {@code poisson} is true
+     */
+    public ScheduledArrivalProcess(long[] durations, double[] rates, boolean poisson, long seed) {
+        if (durations == null || rates == null)
+            throw new NullPointerException("Durations and rates cannot be null");
+        if (durations.length == 0 || durations.length != rates.length)
+            throw new IllegalArgumentException("Must have at least one step and the same number of durations and rates");
+        this.ends = new long[durations.length];
+        this.rates = new double[rates.length];
+        long end = 0;
+        for (int i = 0; i < durations.length; i++) {
+            if (durations[i] <= 0)
+                throw new IllegalArgumentException("Step durations must be > 0");
+            if (rates[i] <= 0)
+                throw new IllegalArgumentException("Arrival rates must be > 0");
+            end += (long) (durations[i] * ConvertUtils.NANOSECONDS_PER_SECOND);
+            this.ends[i] = end;
+            this.rates[i] = rates[i];
+        }
+        this.poisson = poisson;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Parses a schedule specification
+     * <p>
+     * A schedule specification is a comma separated list of steps where each
+     * step is of the form {@code seconds:rate} e.g. {@code 60:10,60:20,120:40}
+     * would run at 10 arrivals per second for a minute, then 20 arrivals per
+     * second for a minute and then 40 arrivals per second thereafter.
+     * </p>
+     * 
+     * @param schedule
+     *            Schedule specification
+     * @param poisson
+     *            Whether arrivals within each step follow a Poisson process
+     * @param seed
+     *            Random seed
+     * @return Scheduled arrival process
+     */
+    public static ScheduledArrivalProcess parse(String schedule, boolean poisson, long seed) {
+        if (schedule == null)
+            throw new NullPointerException("Schedule cannot be null");
+        List<Long> durations = new ArrayList<Long>();
+        List<Double> rates = new ArrayList<Double>();
+        for (String step : schedule.split(",")) {
+            step = step.trim();
+            if (step.length() == 0)
+                continue;
+            String[] parts = step.split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Schedule step '" + step + "' is not of the form seconds:rate");
+            try {
+                durations.add(Long.parseLong(parts[0].trim()));
+                rates.add(Double.parseDouble(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Schedule step '" + step + "' is not of the form seconds:rate", e);
+            }
+        }
+
+        long[] ds = new long[durations.size()];
+        double[] rs = new double[rates.size()];
+        for (int i = 0; i < ds.length; i++) {
+            ds[i] = durations.get(i);
+            rs[i] = rates.get(i);
+        }
+        return new ScheduledArrivalProcess(ds, rs, poisson, seed);
+    }
+
+    @Override
+    public long nextInterval(long elapsed) {
+        double rate = this.getRate(elapsed);
+        double interval;
+        if (this.poisson) {
+            interval = -Math.log(1d - this.random.nextDouble()) / rate;
+        } else {
+            interval = 1d / rate;
+        }
+        return Math.max(1, (long) (interval * ConvertUtils.NANOSECONDS_PER_SECOND));
+    }
+
+    @Override
+    public double getRate(long elapsed) {
+        for (int i = 0; i < this.ends.length; i++) {
+            if (elapsed < this.ends[i])
+                return this.rates[i];
+        }
+        return this.rates[this.rates.length - 1];
+    }
+
+    @Override
+    public String getDescription() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.poisson ? "Poisson process" : "Fixed rate").append(" following the schedule ");
+        long start = 0;
+        for (int i = 0; i < this.ends.length; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(String.format("%,.3f/s for %,.0fs", this.rates[i],
+                    ConvertUtils.toSeconds(this.ends[i] - start)));
+            start = this.ends[i];
+        }
+        return builder.toString();
+    }
+}
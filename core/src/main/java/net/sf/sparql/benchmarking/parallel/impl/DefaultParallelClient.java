@@ -32,6 +32,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.parallel.impl;
 
+import net.sf.sparql.benchmarking.monitoring.events.OperationMixCompletedEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationMixStartedEvent;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.parallel.AbstractParallelClient;
@@ -78,9 +80,7 @@ public class DefaultParallelClient<T extends Options> extends AbstractParallelCl
 
         // Firstly wait for the manager to tell us it is ready, this is to
         // ensure all clients launch near simultaneously
-        while (!manager.isReady()) {
-            Thread.sleep(50);
-        }
+        manager.awaitReady();
 
         // While there is work to do run benchmarks
         while (manager.shouldRun()) {
@@ -89,36 +89,17 @@ public class DefaultParallelClient<T extends Options> extends AbstractParallelCl
                 continue;
 
             try {
-                runner.reportProgress(options, "Client " + this.getID() + " starting new operation mix run");
-                runner.reportProgress(options, "Current Time: " + FormatUtils.formatInstant(Instant.now()));
+                runner.reportProgress(options, new OperationMixStartedEvent(this.getID(), Instant.now()));
 
-                // Run a query mix
+                // Run a query mix directly on this thread
                 runner.reportBeforeOperationMix(options, operationMix);
-                OperationMixTask<T> task = new OperationMixTask<T>(runner, options);
-                options.getExecutor().submit(task);
-                OperationMixRun r = task.get();
+                OperationMixRun r = new OperationMixCallable<T>(runner, options).call();
 
                 // Report completed run
                 int completedRun = manager.completeRun();
-                runner.reportProgress(options, "Operation Mix Run " + completedRun + " by Client " + this.getID());
                 runner.reportAfterOperationMix(options, operationMix, r);
-                runner.reportProgress(options);
                 runner.reportProgress(options,
-                        "Total Response Time: " + FormatUtils.formatSeconds(r.getTotalResponseTime()));
-                runner.reportProgress(options, "Total Runtime: " + FormatUtils.formatSeconds(r.getTotalRuntime()));
-                int minOperationId = r.getMinimumRuntimeOperationID();
-                int maxOperationId = r.getMaximumRuntimeOperationID();
-                if (minOperationId != -1) {
-                    runner.reportProgress(options,
-                            "Minimum Operation Runtime: " + FormatUtils.formatSeconds(r.getMinimumRuntime())
-                                    + " (Operation " + operationMix.getOperation(minOperationId).getName() + ")");
-                }
-                if (maxOperationId != -1) {
-                    runner.reportProgress(options,
-                            "Maximum Operation Runtime: " + FormatUtils.formatSeconds(r.getMaximumRuntime())
-                                    + " (Operation " + operationMix.getOperation(maxOperationId).getName() + ")");
-                }
-                runner.reportProgress(options);
+                        new OperationMixCompletedEvent(this.getID(), completedRun, operationMix, r));
             } catch (Exception e) {
                 // Log Error
                 logger.error(FormatUtils.formatException(e));
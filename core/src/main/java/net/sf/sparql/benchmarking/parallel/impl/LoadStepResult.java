@@ -0,0 +1,139 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * Results of running a single load step when searching for the saturation
+ * point of a system
+ * 
+ * @author rvesse
+ * 
+ */
+public class LoadStepResult {
+
+    private final int threads;
+    private final long runs;
+    private final long elapsed;
+    private final long p50, p99;
+    private final boolean withinSlo;
+
+    /**
+     * Creates a new load step result
+     * 
+     * @param threads
+     *            Number of parallel clients used
+     * @param runs
+     *            Number of operation mix runs completed
+     * @param elapsed
+     *            Elapsed time in nanoseconds
+     * @param p50
+     *            50th percentile operation mix response time in nanoseconds
+     * @param p99
+     *            99th percentile operation mix response time in nanoseconds
+     * @param withinSlo
+     *            Whether the step met the latency SLO
+     */
+    public LoadStepResult(int threads, long runs, long elapsed, long p50, long p99, boolean withinSlo) {
+        this.threads = threads;
+        this.runs = runs;
+        this.elapsed = elapsed;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.withinSlo = withinSlo;
+    }
+
+    /**
+     * Gets the number of parallel clients used
+     * 
+     * @return Parallel clients
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Gets the number of operation mix runs completed
+     * 
+     * @return Completed runs
+     */
+    public long getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Gets the elapsed time for the step
+     * 
+     * @return Elapsed time in nanoseconds
+     */
+    public long getElapsed() {
+        return this.elapsed;
+    }
+
+    /**
+     * Gets the throughput achieved
+     * 
+     * @return Operation mix runs per second
+     */
+    public double getThroughput() {
+        return this.elapsed > 0 ? this.runs / ConvertUtils.toSeconds(this.elapsed) : 0;
+    }
+
+    /**
+     * Gets the 50th percentile operation mix response time
+     * 
+     * @return Response time in nanoseconds
+     */
+    public long getMedianResponseTime() {
+        return this.p50;
+    }
+
+    /**
+     * Gets the 99th percentile operation mix response time
+     * 
+     * @return Response time in nanoseconds
+     */
+    public long getP99ResponseTime() {
+        return this.p99;
+    }
+
+    /**
+     * Gets whether the step met the latency SLO
+     * 
+     * @return True if within the SLO or there was no SLO
+     */
+    public boolean isWithinSlo() {
+        return this.withinSlo;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import net.sf.sparql.benchmarking.monitoring.events.ArrivalCompletedEvent;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.OpenLoopOptions;
+import net.sf.sparql.benchmarking.parallel.AbstractParallelClient;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel client for open loop testing, takes arrivals scheduled by an
+ * {@link OpenLoopParallelClientManager} and services them
+ * 
+ * @author rvesse
+ * 
+ */
+public class OpenLoopParallelClient extends AbstractParallelClient<OpenLoopOptions> {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoopParallelClient.class);
+
+    private OpenLoopParallelClientManager manager;
+
+    /**
+     * Creates a new open loop client
+     * 
+     * @param manager
+     *            Client Manager
+     * @param id
+     *            Client ID
+     */
+    public OpenLoopParallelClient(OpenLoopParallelClientManager manager, int id) {
+        super(manager, id);
+        this.manager = manager;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        Thread.currentThread().setName("Open Loop Client " + this.getID());
+
+        OpenLoopOptions options = manager.getOptions();
+        Runner<OpenLoopOptions> runner = manager.getRunner();
+        OperationMix operationMix = options.getOperationMix();
+
+        // Firstly wait for the manager to tell us it is ready
+        manager.awaitReady();
+
+        // While there may be arrivals service them
+        while (manager.shouldRun()) {
+            long intendedStart = manager.takeArrival();
+            if (intendedStart == OpenLoopParallelClientManager.NO_ARRIVAL)
+                continue;
+
+            try {
+                if (!manager.startRun())
+                    continue;
+                long actualStart = System.nanoTime();
+
+                // Run a query mix directly on this thread
+                runner.reportBeforeOperationMix(options, operationMix);
+                OperationMixRun r = new OperationMixCallable<OpenLoopOptions>(runner, options).call();
+                manager.recordArrival(intendedStart, actualStart, System.nanoTime());
+
+                runner.reportAfterOperationMix(options, operationMix, r);
+                runner.reportProgress(options, new ArrivalCompletedEvent(this.getID(), operationMix, r, actualStart
+                        - intendedStart));
+            } catch (Exception e) {
+                // Log Error
+                logger.error(FormatUtils.formatException(e));
+                if (options.getHaltOnError() || options.getHaltAny()) {
+                    // Inform manager it needs to halt other clients
+                    manager.halt();
+
+                    runner.halt(options, "Operation Mix run failed in Client " + this.getID() + " - " + e.getMessage());
+                }
+            } finally {
+                manager.completeRun();
+            }
+        }
+        return null;
+    }
+}
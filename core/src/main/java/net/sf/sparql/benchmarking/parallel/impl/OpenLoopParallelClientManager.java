@@ -0,0 +1,330 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import net.sf.sparql.benchmarking.options.OpenLoopOptions;
+import net.sf.sparql.benchmarking.parallel.AbstractParallelClientManager;
+import net.sf.sparql.benchmarking.parallel.ParallelClient;
+import net.sf.sparql.benchmarking.parallel.arrivals.ArrivalProcess;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.impl.LatencyHistogram;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * A Callable used to manage the running of parallel clients for open loop
+ * testing
+ * <p>
+ * Unlike other managers this manager actively schedules work, arrivals are
+ * generated according to the configured {@link ArrivalProcess} and placed on a
+ * queue from which the clients take them. Each arrival records the time at
+ * which it was intended to start so that reported response times include any
+ * time spent waiting for a free client, this avoids the coordinated omission
+ * problem where a slow server causes a closed loop test to issue less load and
+ * so under report latency.
+ * </p>
+ * <p>
+ * The queue is bounded by {@link OpenLoopOptions#getMaxBacklog()}, if the
+ * system falls so far behind that the queue is full further arrivals are
+ * dropped and counted rather than queued.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class OpenLoopParallelClientManager extends AbstractParallelClientManager<OpenLoopOptions> {
+
+    /**
+     * Value returned by {@link #takeArrival()} when no arrival is available
+     */
+    public static final long NO_ARRIVAL = Long.MIN_VALUE;
+
+    private static final long POLL_INTERVAL = 50;
+
+    private long[] arrivals = new long[0];
+    private int head = 0, backlog = 0;
+    private final LatencyHistogram serviceTimes = new LatencyHistogram();
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+    private final LatencyHistogram queueDelays = new LatencyHistogram();
+    private volatile boolean scheduling = true;
+    private long scheduledRuns = 0, droppedRuns = 0, startedRuns = 0, completedRuns = 0;
+    private int maxBacklog = 0;
+    private long startTime = System.nanoTime(), endTime = -1;
+
+    /**
+     * Creates a new Parallel Client Manager
+     * 
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     */
+    public OpenLoopParallelClientManager(Runner<OpenLoopOptions> runner, OpenLoopOptions options) {
+        super(runner, options);
+    }
+
+    @Override
+    public Object call() throws Exception {
+        synchronized (this) {
+            this.arrivals = new long[this.getOptions().getMaxBacklog()];
+        }
+        this.startClients();
+
+        // Generate arrivals
+        ArrivalProcess process = this.getOptions().getArrivalProcess();
+        long maxRuns = this.getOptions().getMaxRuns();
+        long maxRuntime = this.getOptions().getMaxRuntime() > 0 ? TimeUnit.MINUTES.toNanos(this.getOptions()
+                .getMaxRuntime()) : -1;
+        this.startTime = System.nanoTime();
+        long next = this.startTime;
+        try {
+            while (!this.shouldHalt()) {
+                if (maxRuntime > 0 && next - this.startTime >= maxRuntime)
+                    break;
+                if (maxRuns > 0 && this.getScheduledRuns() >= maxRuns)
+                    break;
+
+                long now = System.nanoTime();
+                if (next > now) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+
+                // Schedule the arrival
+                this.offerArrival(next);
+                next += process.nextInterval(next - this.startTime);
+            }
+        } finally {
+            synchronized (this) {
+                this.scheduling = false;
+                this.notifyAll();
+            }
+        }
+        this.getRunner().reportProgress(this.getOptions(),
+                "Finished scheduling arrivals, waiting for " + this.getBacklog() + " queued arrivals to complete");
+
+        // And then wait until all runs have finished
+        this.awaitClients();
+        this.endTime = System.nanoTime();
+
+        return null;
+    }
+
+    /**
+     * Queues an arrival, if the queue is full the arrival is dropped
+     * 
+     * @param intendedStart
+     *            Intended start time
+     */
+    private synchronized void offerArrival(long intendedStart) {
+        this.scheduledRuns++;
+        if (this.backlog == this.arrivals.length) {
+            this.droppedRuns++;
+            return;
+        }
+        this.arrivals[(this.head + this.backlog) % this.arrivals.length] = intendedStart;
+        this.backlog++;
+        this.maxBacklog = Math.max(this.maxBacklog, this.backlog);
+        this.notify();
+    }
+
+    /**
+     * Takes the next arrival waiting to be serviced
+     * 
+     * @return Intended start time of the arrival as given by
+     *         {@link System#nanoTime()} or {@link #NO_ARRIVAL} if no arrival
+     *         became available in a reasonable time
+     * @throws InterruptedException
+     *             Thrown if interrupted while waiting for an arrival
+     */
+    public synchronized long takeArrival() throws InterruptedException {
+        if (this.shouldHalt())
+            return NO_ARRIVAL;
+        if (this.backlog == 0 && this.scheduling)
+            this.wait(POLL_INTERVAL);
+        if (this.backlog == 0)
+            return NO_ARRIVAL;
+        long intendedStart = this.arrivals[this.head];
+        this.head = (this.head + 1) % this.arrivals.length;
+        this.backlog--;
+        return intendedStart;
+    }
+
+    /**
+     * Records the timings of a completed arrival
+     * 
+     * @param intendedStart
+     *            Intended start time
+     * @param actualStart
+     *            Actual start time
+     * @param end
+     *            End time
+     */
+    public void recordArrival(long intendedStart, long actualStart, long end) {
+        this.serviceTimes.record(end - actualStart);
+        this.responseTimes.record(end - intendedStart);
+        this.queueDelays.record(actualStart - intendedStart);
+    }
+
+    @Override
+    public synchronized boolean shouldRun() {
+        if (this.shouldHalt())
+            return false;
+        return this.scheduling || this.backlog > 0;
+    }
+
+    @Override
+    public synchronized boolean startRun() {
+        if (this.shouldHalt())
+            return false;
+        this.startedRuns++;
+        return true;
+    }
+
+    @Override
+    public synchronized int completeRun() {
+        this.completedRuns++;
+        return (int) this.completedRuns;
+    }
+
+    @Override
+    public synchronized boolean hasFinished() {
+        // Every scheduled arrival is either dropped, still queued or has been
+        // taken by a client and will be counted as completed once done
+        return !this.scheduling && this.completedRuns + this.droppedRuns == this.scheduledRuns;
+    }
+
+    @Override
+    public ParallelClient<OpenLoopOptions> createClient(int id) {
+        return new OpenLoopParallelClient(this, id);
+    }
+
+    /**
+     * Gets the number of arrivals scheduled
+     * 
+     * @return Scheduled arrivals
+     */
+    public synchronized long getScheduledRuns() {
+        return this.scheduledRuns;
+    }
+
+    /**
+     * Gets the number of arrivals dropped because the backlog was full
+     * 
+     * @return Dropped arrivals
+     */
+    public synchronized long getDroppedRuns() {
+        return this.droppedRuns;
+    }
+
+    /**
+     * Gets the number of arrivals currently queued waiting for a free client
+     * 
+     * @return Backlog
+     */
+    public synchronized int getBacklog() {
+        return this.backlog;
+    }
+
+    /**
+     * Gets the number of arrivals which have started being serviced
+     * 
+     * @return Started arrivals
+     */
+    public synchronized long getStartedRuns() {
+        return this.startedRuns;
+    }
+
+    /**
+     * Gets the number of arrivals which have completed
+     * 
+     * @return Completed arrivals
+     */
+    public synchronized long getCompletedRuns() {
+        return this.completedRuns;
+    }
+
+    /**
+     * Gets the maximum number of arrivals that were queued waiting for a free
+     * client at any one time
+     * 
+     * @return Maximum backlog
+     */
+    public synchronized int getMaxBacklog() {
+        return this.maxBacklog;
+    }
+
+    /**
+     * Gets the achieved throughput
+     * 
+     * @return Completed arrivals per second
+     */
+    public double getThroughput() {
+        long end = this.endTime != -1 ? this.endTime : System.nanoTime();
+        double seconds = ConvertUtils.toSeconds(end - this.startTime);
+        return seconds > 0 ? this.getCompletedRuns() / seconds : 0;
+    }
+
+    /**
+     * Gets the service time histogram, service time is the time from when an
+     * arrival actually started to be serviced until it completed
+     * 
+     * @return Service times
+     */
+    public LatencyHistogram getServiceTimes() {
+        return this.serviceTimes;
+    }
+
+    /**
+     * Gets the response time histogram, response time is the time from when an
+     * arrival was intended to start until it completed and so includes any
+     * queueing delay
+     * 
+     * @return Response times
+     */
+    public LatencyHistogram getResponseTimes() {
+        return this.responseTimes;
+    }
+
+    /**
+     * Gets the queue delay histogram, queue delay is the time an arrival spent
+     * waiting for a free client
+     * 
+     * @return Queue delays
+     */
+    public LatencyHistogram getQueueDelays() {
+        return this.queueDelays;
+    }
+}
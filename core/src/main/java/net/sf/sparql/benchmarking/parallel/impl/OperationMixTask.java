@@ -41,10 +41,13 @@ import net.sf.sparql.benchmarking.stats.OperationMixRun;
  * An operation mix task that can be executed
  * 
  * @author rvesse
+ * @deprecated Parallel clients now run operation mixes directly on their own
+ *             thread via {@link OperationMixCallable}
  * @param <T>
  *            Options type
  * 
  */
+@Deprecated
 public class OperationMixTask<T extends Options> extends FutureTask<OperationMixRun> {
 
     /**
@@ -0,0 +1,360 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.sparql.benchmarking.options.StressOptions;
+import net.sf.sparql.benchmarking.parallel.ParallelClient;
+import net.sf.sparql.benchmarking.parallel.ParallelClientCoordinator;
+import net.sf.sparql.benchmarking.parallel.ParallelClientManager;
+import net.sf.sparql.benchmarking.parallel.ParallelClientTask;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.impl.LatencyHistogram;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * A Callable used to manage the running of parallel clients when searching for
+ * the saturation point of a system during stress testing
+ * <p>
+ * The search runs a sequence of load steps, each of which runs a fixed number
+ * of parallel clients for the configured step duration and measures the
+ * throughput and latency achieved. Load is first ramped up by the ramp up
+ * factor until a step fails to increase throughput sufficiently or breaks the
+ * latency SLO, then a binary search is carried out between the last good step
+ * and the failing step to find the concurrency at which throughput stops
+ * scaling.
+ * </p>
+ * <p>
+ * A step is considered an improvement over a previous step if it meets the
+ * latency SLO and its throughput increased by at least the minimum throughput
+ * gain scaled by the relative increase in load, so with the default ramp up
+ * factor of 2 and minimum gain of 5% doubling the clients must increase
+ * throughput by at least 5%.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class SaturationSearchParallelClientManager implements ParallelClientManager<StressOptions> {
+
+    private Runner<StressOptions> runner;
+    private StressOptions options;
+    private long startTime = System.nanoTime();
+    private volatile ParallelClientCoordinator coordinator;
+    private volatile boolean halt = false;
+    private volatile long stepEnd = 0;
+    private long startedRuns = 0, completedRuns = 0;
+    private LatencyHistogram stepLatencies = new LatencyHistogram();
+    private ThreadLocal<Long> runStarts = new ThreadLocal<Long>();
+    private List<LoadStepResult> steps = new ArrayList<LoadStepResult>();
+    private LoadStepResult saturationPoint = null;
+
+    /**
+     * Creates a new Parallel Client Manager
+     * 
+     * @param runner
+     *            Runner
+     * @param options
+     *            Options
+     */
+    public SaturationSearchParallelClientManager(Runner<StressOptions> runner, StressOptions options) {
+        this.runner = runner;
+        this.options = options;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        this.runner.reportProgress(this.options, "Parallel Client manager starting saturation search...");
+        this.startTime = System.nanoTime();
+
+        // Each step changes the number of parallel threads so remember the
+        // configured value so it can be restored once the search finishes
+        int originalThreads = this.options.getParallelThreads();
+        try {
+            int maxThreads = this.options.getMaxThreads() > 0 ? this.options.getMaxThreads() : Integer.MAX_VALUE;
+            int threads = Math.max(1, Math.min(originalThreads, maxThreads));
+            LoadStepResult good = null;
+            int bad = -1;
+
+            // Ramp up until throughput stops scaling
+            while (!this.halt && !this.exceededMaxRuntime()) {
+                LoadStepResult step = this.runStep(threads);
+                if (!this.isImprovement(good, step)) {
+                    bad = threads;
+                    break;
+                }
+                good = step;
+                if (threads >= maxThreads)
+                    break;
+                threads = (int) Math.min(maxThreads, (long) threads * this.options.getRampUpFactor());
+            }
+
+            // Then binary search between the last good and the first bad step
+            if (good != null && bad != -1) {
+                this.runner.reportProgress(this.options, "Searching for saturation point between "
+                        + good.getThreads() + " and " + bad + " clients...");
+                int low = good.getThreads();
+                int high = bad;
+                while (high - low > 1 && !this.halt && !this.exceededMaxRuntime()) {
+                    int mid = low + (high - low) / 2;
+                    LoadStepResult step = this.runStep(mid);
+                    if (this.isImprovement(good, step)) {
+                        good = step;
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            this.saturationPoint = good;
+        } finally {
+            this.options.setParallelThreads(originalThreads);
+        }
+
+        return null;
+    }
+
+    /**
+     * Runs a single load step
+     * 
+     * @param threads
+     *            Number of parallel clients
+     * @return Step results
+     * @throws Exception
+     *             Thrown if a client encounters an error
+     */
+    private LoadStepResult runStep(int threads) throws Exception {
+        this.runner.reportProgress(this.options, "Starting a load step with " + threads + " clients...");
+        this.options.setParallelThreads(threads);
+        LoadStepResult measured = this.runClients(threads);
+
+        // Assess the step against the latency SLO
+        boolean withinSlo = this.options.getLatencySlo() <= 0
+                || measured.getP99ResponseTime() <= TimeUnit.MILLISECONDS.toNanos(this.options.getLatencySlo());
+        LoadStepResult result = new LoadStepResult(threads, measured.getRuns(), measured.getElapsed(),
+                measured.getMedianResponseTime(), measured.getP99ResponseTime(), withinSlo);
+        this.steps.add(result);
+        this.runner.reportProgress(this.options, "Completed a load step with " + threads + " clients - "
+                + String.format("%,.3f", result.getThroughput()) + " operation mixes per second, 99th percentile "
+                + FormatUtils.formatSeconds(result.getP99ResponseTime())
+                + (result.isWithinSlo() ? "" : " (exceeds latency SLO)"));
+        return result;
+    }
+
+    /**
+     * Runs the parallel clients for a single load step and measures the
+     * throughput and latency achieved
+     * <p>
+     * The returned result is assessed against the latency SLO by the caller so
+     * its {@link LoadStepResult#isWithinSlo()} value is ignored.
+     * </p>
+     * 
+     * @param threads
+     *            Number of parallel clients
+     * @return Step measurements
+     * @throws Exception
+     *             Thrown if a client encounters an error
+     */
+    protected LoadStepResult runClients(int threads) throws Exception {
+        synchronized (this) {
+            this.startedRuns = 0;
+            this.completedRuns = 0;
+            this.stepLatencies = new LatencyHistogram();
+        }
+        // Clients won't start doing any work until every client of this step
+        // is running so that the step duration is measured precisely
+        ParallelClientCoordinator c = new ParallelClientCoordinator(threads);
+        this.coordinator = c;
+        if (this.halt)
+            c.halt();
+        for (int i = 1; i <= threads; i++) {
+            ParallelClientTask<StressOptions> task = new ParallelClientTask<StressOptions>(this, i, c);
+            this.options.getExecutor().submit(task);
+        }
+        c.awaitRunning();
+        long stepStart = System.nanoTime();
+        this.stepEnd = stepStart + TimeUnit.SECONDS.toNanos(this.options.getStepDuration());
+        c.start();
+
+        // Wait for all clients to finish their in-progress runs and exit
+        c.awaitFinished();
+        long elapsed = System.nanoTime() - stepStart;
+
+        synchronized (this) {
+            return new LoadStepResult(threads, this.completedRuns, elapsed,
+                    this.stepLatencies.getValueAtPercentile(50), this.stepLatencies.getValueAtPercentile(99), true);
+        }
+    }
+
+    /**
+     * Determines whether a step is an improvement over a previous step
+     * 
+     * @param previous
+     *            Previous step, may be null if no previous good step
+     * @param step
+     *            Step
+     * @return True if the step is an improvement
+     */
+    private boolean isImprovement(LoadStepResult previous, LoadStepResult step) {
+        if (!step.isWithinSlo() || step.getRuns() == 0)
+            return false;
+        if (previous == null)
+            return true;
+        double loadIncrease = (double) (step.getThreads() - previous.getThreads()) / previous.getThreads();
+        double required = previous.getThroughput() * (1 + this.options.getMinThroughputGain() * loadIncrease);
+        return step.getThroughput() > required;
+    }
+
+    /**
+     * Gets whether the maximum run time has been exceeded
+     * 
+     * @return True if maximum runtime has been exceeded
+     */
+    protected boolean exceededMaxRuntime() {
+        double runtime = ConvertUtils.toMinutes(System.nanoTime() - this.startTime);
+        return runtime >= this.getOptions().getMaxRuntime();
+    }
+
+    /**
+     * Gets the results of all load steps in the order they were run
+     * 
+     * @return Load step results
+     */
+    public List<LoadStepResult> getSteps() {
+        return Collections.unmodifiableList(this.steps);
+    }
+
+    /**
+     * Gets the load step identified as the saturation point i.e. the step with
+     * the highest concurrency at which throughput was still scaling and the
+     * latency SLO was met
+     * 
+     * @return Saturation point or null if no step met the latency SLO
+     */
+    public LoadStepResult getSaturationPoint() {
+        return this.saturationPoint;
+    }
+
+    /**
+     * Gets the load step with the maximum sustainable throughput i.e. the
+     * highest throughput of any step that met the latency SLO
+     * 
+     * @return Maximum sustainable throughput step or null if no step met the
+     *         latency SLO
+     */
+    public LoadStepResult getMaxSustainableThroughput() {
+        LoadStepResult max = null;
+        for (LoadStepResult step : this.steps) {
+            if (!step.isWithinSlo())
+                continue;
+            if (max == null || step.getThroughput() > max.getThroughput())
+                max = step;
+        }
+        return max;
+    }
+
+    @Override
+    public boolean shouldRun() {
+        if (this.halt)
+            return false;
+        if (this.exceededMaxRuntime())
+            return false;
+        return System.nanoTime() < this.stepEnd;
+    }
+
+    @Override
+    public synchronized boolean startRun() {
+        if (!this.shouldRun())
+            return false;
+        this.startedRuns++;
+        this.runStarts.set(System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public synchronized int completeRun() {
+        Long start = this.runStarts.get();
+        if (start != null) {
+            this.stepLatencies.record(System.nanoTime() - start);
+            this.runStarts.remove();
+        }
+        return (int) ++this.completedRuns;
+    }
+
+    @Override
+    public synchronized boolean hasFinished() {
+        return !this.shouldRun() && this.completedRuns == this.startedRuns;
+    }
+
+    @Override
+    public void halt() {
+        this.halt = true;
+        ParallelClientCoordinator c = this.coordinator;
+        if (c != null)
+            c.halt();
+    }
+
+    @Override
+    public boolean isReady() {
+        ParallelClientCoordinator c = this.coordinator;
+        return c != null && c.isStarted();
+    }
+
+    @Override
+    public void awaitReady() throws InterruptedException {
+        ParallelClientCoordinator c = this.coordinator;
+        if (c == null)
+            throw new IllegalStateException("Parallel clients have not been created");
+        c.awaitStarted();
+    }
+
+    @Override
+    public Runner<StressOptions> getRunner() {
+        return this.runner;
+    }
+
+    @Override
+    public StressOptions getOptions() {
+        return this.options;
+    }
+
+    @Override
+    public ParallelClient<StressOptions> createClient(int id) {
+        return new DefaultParallelClient<StressOptions>(this, id);
+    }
+}
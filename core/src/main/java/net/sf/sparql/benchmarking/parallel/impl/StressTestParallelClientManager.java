@@ -37,10 +37,12 @@ import java.util.Set;
 
 import net.sf.sparql.benchmarking.options.StressOptions;
 import net.sf.sparql.benchmarking.parallel.ParallelClient;
+import net.sf.sparql.benchmarking.parallel.ParallelClientCoordinator;
 import net.sf.sparql.benchmarking.parallel.ParallelClientManager;
 import net.sf.sparql.benchmarking.parallel.ParallelClientTask;
 import net.sf.sparql.benchmarking.runners.Runner;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
 
 /**
  * A Callable uses to manage the running of parallel clients for stress testing
@@ -55,8 +57,8 @@ public class StressTestParallelClientManager implements
 	private StressOptions options;
 	private long startTime = System.nanoTime();
 	private int currentThreads = 0;
-	private volatile boolean ready = false;
-	private boolean halt = false;
+	private volatile ParallelClientCoordinator coordinator;
+	private volatile boolean halt = false;
 	private Set<Long> runningClients = new HashSet<Long>();
 	private int completedRuns = 0;
 
@@ -92,7 +94,7 @@ public class StressTestParallelClientManager implements
 		int maxThreads = this.options.getMaxThreads() > 0 ? this.options
 				.getMaxThreads() : Integer.MAX_VALUE;
 
-		while (this.currentThreads <= maxThreads && !this.exceededMaxRuntime()) {
+		while (this.currentThreads <= maxThreads && !this.exceededMaxRuntime() && !this.halt) {
 			this.runner
 					.reportProgress(
 							this.options,
@@ -102,26 +104,32 @@ public class StressTestParallelClientManager implements
 			this.options.setParallelThreads(this.currentThreads);
 
 			// Start the required number of clients, they won't start doing any
-			// work until we finish this as they rely on the isReady() method to
-			// determine when to start work and it will return false until after
-			// this loop
-			for (int i = 1; i <= Math.min(this.currentThreads, maxThreads); i++) {
+			// work until every client of this step is running so that they
+			// all start simultaneously
+			int clients = Math.min(this.currentThreads, maxThreads);
+			ParallelClientCoordinator c = new ParallelClientCoordinator(clients);
+			this.coordinator = c;
+			if (this.halt)
+				c.halt();
+			for (int i = 1; i <= clients; i++) {
 				ParallelClientTask<StressOptions> task = new ParallelClientTask<StressOptions>(
-						this, i);
+						this, i, c);
 				this.options.getExecutor().submit(task);
 				this.runner.reportProgress(this.options,
 						"Created Parallel Client ID " + i);
 			}
 			this.runner.reportProgress(this.options,
 					"Parallel Client manager is starting clients...");
-			this.ready = true;
+			c.start();
+			long stepStart = System.nanoTime();
 
-			// And then wait until all runs have finished
-			while (!this.hasFinished() && !this.halt) {
-				Thread.sleep(100);
-			}
+			// And then wait until all clients of this step have exited so
+			// that steps never overlap
+			c.awaitFinished();
 			this.runner.reportProgress(this.options, "Completed a run with "
-					+ this.currentThreads + " clients...");
+					+ this.currentThreads + " clients in "
+					+ FormatUtils.formatSeconds(System.nanoTime() - stepStart)
+					+ "...");
 
 			// Now increase the amount of threads appropriately
 			this.currentThreads *= this.options.getRampUpFactor();
@@ -180,11 +188,24 @@ public class StressTestParallelClientManager implements
 	@Override
 	public void halt() {
 		this.halt = true;
+		ParallelClientCoordinator c = this.coordinator;
+		if (c != null)
+			c.halt();
 	}
 
 	@Override
 	public boolean isReady() {
-		return this.ready;
+		ParallelClientCoordinator c = this.coordinator;
+		return c != null && c.isStarted();
+	}
+
+	@Override
+	public void awaitReady() throws InterruptedException {
+		ParallelClientCoordinator c = this.coordinator;
+		if (c == null)
+			throw new IllegalStateException(
+					"Parallel clients have not been created");
+		c.awaitStarted();
 	}
 
 	@Override
@@ -32,6 +32,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.runners;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -40,27 +42,38 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
 
+import net.sf.sparql.benchmarking.monitoring.AsyncProgressListener;
+import net.sf.sparql.benchmarking.monitoring.ProgressEventListener;
 import net.sf.sparql.benchmarking.monitoring.ProgressListener;
+import net.sf.sparql.benchmarking.monitoring.events.MessageEvent;
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.operations.query.callables.InMemoryQueryCallable;
 import net.sf.sparql.benchmarking.operations.query.callables.RemoteQueryCallable;
+import net.sf.sparql.benchmarking.operations.update.BatchedUpdateOperation;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.mix.DefaultOperationMixRunner;
 import net.sf.sparql.benchmarking.runners.mix.InOrderOperationMixRunner;
 import net.sf.sparql.benchmarking.runners.mix.OperationMixRunner;
 import net.sf.sparql.benchmarking.runners.operations.DefaultOperationRunner;
 import net.sf.sparql.benchmarking.runners.operations.OperationRunner;
+import net.sf.sparql.benchmarking.stats.HttpPhase;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
 import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.StreamingOperationMixStatsImpl;
+import net.sf.sparql.benchmarking.stats.impl.StreamingOperationStatsImpl;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.ErrorCategories;
 import net.sf.sparql.benchmarking.util.FormatUtils;
+import net.sf.sparql.benchmarking.util.HttpClientPool;
 
 /**
  * Abstract implementation of a runner providing common halting and progress
@@ -78,6 +91,8 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
     private OperationMixRunner defaultRunner = new DefaultOperationMixRunner();
     private OperationRunner defaultOpRunner = new DefaultOperationRunner();
     private boolean halted = false;
+    private HttpClientPool ownedHttpClientPool;
+    private volatile List<ProgressListener> asyncListeners;
 
     @Override
     public void halt(T options, String message) {
@@ -100,8 +115,10 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
      *            Message
      */
     private void reallyHalt(T options, String message) {
+        releaseHttpClient(options);
+
         // Inform Listeners that Benchmarking Finished with a halt condition
-        for (ProgressListener l : options.getListeners()) {
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.finish(this, options, false);
             } catch (Exception e) {
@@ -114,6 +131,7 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
                 }
             }
         }
+        this.asyncListeners = null;
 
         // Then perform actual halting depending on configured behaviour
         switch (options.getHaltBehaviour()) {
@@ -129,6 +147,23 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
         halt(options, e.getMessage());
     }
 
+    /**
+     * Gets the listeners that events should be reported to
+     * <p>
+     * While a run is in progress with a listener buffer size configured these
+     * are asynchronous wrappers around the registered listeners, otherwise
+     * they are the registered listeners.
+     * </p>
+     * 
+     * @param options
+     *            Options
+     * @return Listeners
+     */
+    protected List<ProgressListener> getListeners(T options) {
+        List<ProgressListener> listeners = this.asyncListeners;
+        return listeners != null ? listeners : options.getListeners();
+    }
+
     @Override
     public void reportProgress(T options) {
         this.reportPartialProgress(options, "\n");
@@ -136,9 +171,21 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
 
     @Override
     public void reportPartialProgress(T options, String message) {
-        for (ProgressListener l : options.getListeners()) {
+        this.reportProgress(options, new MessageEvent(message, true));
+    }
+
+    @Override
+    public void reportProgress(T options, ProgressEvent event) {
+        if (event.getVerbosity().compareTo(options.getProgressVerbosity()) > 0)
+            return;
+
+        for (ProgressListener l : getListeners(options)) {
             try {
-                l.progress(this, options, message);
+                if (l instanceof ProgressEventListener) {
+                    ((ProgressEventListener) l).progress(this, options, event);
+                } else {
+                    l.progress(this, options, event.getMessage());
+                }
             } catch (Exception e) {
                 System.err.println(
                         l.getClass().getName() + " encountered an error during handleProgress() - " + e.getMessage());
@@ -153,12 +200,12 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
 
     @Override
     public void reportProgress(T options, String message) {
-        this.reportPartialProgress(options, message + '\n');
+        this.reportProgress(options, new MessageEvent(message, false));
     }
 
     @Override
     public void reportBeforeOperation(T options, Operation operation) {
-        for (ProgressListener l : options.getListeners()) {
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.beforeOperation(this, options, operation);
             } catch (Exception e) {
@@ -175,7 +222,7 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
 
     @Override
     public void reportAfterOperation(T options, Operation operation, OperationRun run) {
-        for (ProgressListener l : options.getListeners()) {
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.afterOperation(this, options, operation, run);
             } catch (Exception e) {
@@ -192,7 +239,7 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
 
     @Override
     public void reportBeforeOperationMix(T options, OperationMix mix) {
-        for (ProgressListener l : options.getListeners()) {
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.beforeOperationMix(this, options, mix);
             } catch (Exception e) {
@@ -209,7 +256,7 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
 
     @Override
     public void reportAfterOperationMix(T options, OperationMix mix, OperationMixRun run) {
-        for (ProgressListener l : options.getListeners()) {
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.afterOperationMix(this, options, mix, run);
             } catch (Exception e) {
@@ -303,6 +350,95 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
         }
     }
 
+    /**
+     * Prepares the statistics for the operation mix and its operations
+     * <p>
+     * If {@link Options#getStreamingStatistics()} is enabled the default
+     * statistics are replaced with constant memory streaming implementations.
+     * </p>
+     * 
+     * @param options
+     *            Options
+     */
+    protected void prepareStatistics(T options) {
+        if (!options.getStreamingStatistics())
+            return;
+
+        options.getOperationMix().setStats(new StreamingOperationMixStatsImpl());
+        Iterator<Operation> ops = options.getOperationMix().getOperations();
+        while (ops.hasNext()) {
+            ops.next().setStats(new StreamingOperationStatsImpl());
+        }
+    }
+
+    /**
+     * Prepares the shared HTTP client pool used by remote operations
+     * <p>
+     * If {@link Options#getHttpConnectionPooling()} is enabled and no pool has
+     * been provided then a pool is created from the configured HTTP options,
+     * in either case the pool is installed as the HTTP client used for all
+     * remote requests. Pools created by the runner are closed when the run
+     * finishes.
+     * </p>
+     * 
+     * @param options
+     *            Options
+     */
+    protected void prepareHttpClient(T options) {
+        if (!options.getHttpConnectionPooling()) {
+            if (options.getHttpPhaseTimings())
+                logger.warn("HTTP phase timings require HTTP connection pooling so no phase timings will be recorded");
+            return;
+        }
+
+        HttpClientPool pool = options.getHttpClientPool();
+        if (pool == null) {
+            pool = HttpClientPool.create(options);
+            options.setHttpClientPool(pool);
+            this.ownedHttpClientPool = pool;
+        }
+        pool.install();
+    }
+
+    /**
+     * Releases the shared HTTP client pool if it was created by this runner
+     * 
+     * @param options
+     *            Options
+     */
+    private void releaseHttpClient(T options) {
+        if (this.ownedHttpClientPool == null)
+            return;
+        this.ownedHttpClientPool.close();
+        if (options.getHttpClientPool() == this.ownedHttpClientPool)
+            options.setHttpClientPool(null);
+        this.ownedHttpClientPool = null;
+    }
+
+    /**
+     * Reports statistics for the shared HTTP client pool (if any)
+     * 
+     * @param options
+     *            Options
+     */
+    protected void reportHttpClientPool(T options) {
+        HttpClientPool pool = options.getHttpClientPool();
+        if (pool == null)
+            return;
+
+        PoolStats stats = pool.getStats();
+        reportProgress(options, "HTTP Connection Pool Summary");
+        reportProgress(options, "----------------------------");
+        reportProgress(options);
+        reportProgress(options, "Leased Connections: " + FormatUtils.formatNumber(stats.getLeased()));
+        reportProgress(options, "Pending Requests: " + FormatUtils.formatNumber(stats.getPending()));
+        reportProgress(options, "Available Connections: " + FormatUtils.formatNumber(stats.getAvailable()));
+        reportProgress(options, "Maximum Connections: " + FormatUtils.formatNumber(stats.getMax()));
+        reportProgress(options, "Peak Leased Connections: " + FormatUtils.formatNumber(pool.getPeakLeased()));
+        reportProgress(options, "Peak Pending Requests: " + FormatUtils.formatNumber(pool.getPeakPending()));
+        reportProgress(options);
+    }
+
     /**
      * Runs the tear down mix (if any) guaranteeing that operations run in
      * precisely the order specified
@@ -384,16 +520,16 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
      * @param options
      *            Options
      * @param categorizedErrors
-     *            Categorized Errors
+     *            Error counts by category
      */
-    protected void reportCategorizedErrors(T options, Map<Integer, List<OperationRun>> categorizedErrors) {
+    protected void reportCategorizedErrors(T options, Map<Integer, Long> categorizedErrors) {
         reportProgress(options, "Errors by Category: ");
         for (Integer category : categorizedErrors.keySet()) {
             String description = ErrorCategories.getDescription(category);
             if (description == null)
                 description = String.format("  Unknown Category %d", category);
             reportProgress(options, "  " + description + ": "
-                    + String.format("%,d", categorizedErrors.get(category).size()) + " error(s)");
+                    + String.format("%,d", categorizedErrors.get(category)) + " error(s)");
         }
     }
 
@@ -404,7 +540,11 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
      *            Options
      */
     protected void finished(T options) {
-        for (ProgressListener l : options.getListeners()) {
+        reportHttpClientPool(options);
+        reportAsyncListeners(options);
+        releaseHttpClient(options);
+
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.finish(this, options, true);
             } catch (Exception e) {
@@ -418,6 +558,26 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
                 }
             }
         }
+        this.asyncListeners = null;
+    }
+
+    /**
+     * Reports events dropped by asynchronous progress listeners, if any
+     * 
+     * @param options
+     *            Options
+     */
+    protected void reportAsyncListeners(T options) {
+        List<ProgressListener> listeners = this.asyncListeners;
+        if (listeners == null)
+            return;
+        for (ProgressListener l : listeners) {
+            AsyncProgressListener async = (AsyncProgressListener) l;
+            if (async.getDroppedEvents() == 0)
+                continue;
+            reportProgress(options, async.getListener().getClass().getName() + " dropped "
+                    + FormatUtils.formatNumber(async.getDroppedEvents()) + " events due to backpressure");
+        }
     }
 
     /**
@@ -427,7 +587,18 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
      *            Options
      */
     protected void started(T options) {
-        for (ProgressListener l : options.getListeners()) {
+        if (options.getListenerBufferSize() > 0) {
+            List<ProgressListener> listeners = new ArrayList<ProgressListener>();
+            for (ProgressListener l : options.getListeners()) {
+                listeners.add(new AsyncProgressListener(l, options.getListenerBufferSize(),
+                        options.getListenerBackpressure()));
+            }
+            this.asyncListeners = Collections.unmodifiableList(listeners);
+        } else {
+            this.asyncListeners = null;
+        }
+
+        for (ProgressListener l : getListeners(options)) {
             try {
                 l.start(this, options);
             } catch (Exception e) {
@@ -459,6 +630,9 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
                 + (options.getUpdateEndpoint() == null ? "not specified" : options.getUpdateEndpoint()));
         reportProgress(options, "Graph Store Protocol Endpoint = "
                 + (options.getGraphStoreEndpoint() == null ? "not specified" : options.getGraphStoreEndpoint()));
+        reportProgress(options, "Graph Store Protocol Format = " + options.getGraphStoreFormat()
+                + (options.getGraphStoreCompression() ? " (GZip compressed)" : ""));
+        reportProgress(options, "Graph Store Protocol Data File Validation = " + options.getGraphStoreValidation());
         if (options.getCustomEndpoints().size() > 0) {
             for (String key : options.getCustomEndpoints().keySet()) {
                 String value = options.getCustomEndpoint(key);
@@ -481,12 +655,32 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
         reportProgress(options,
                 "Result Counting Limit = " + (options.getLocalLimit() <= 0 ? "Disabled" : options.getLocalLimit()));
         reportProgress(options, "Result Counting = " + (options.getNoCount() ? "Disabled" : "Enabled"));
+        reportProgress(options, "Raw Result Counting = " + (options.getRawResultCounting() ? "Enabled" : "Disabled"));
         reportProgress(options, "ASK Results Format = " + options.getResultsAskFormat());
         reportProgress(options, "Graph Results Format = " + options.getResultsGraphFormat());
         reportProgress(options, "SELECT Results Format = " + options.getResultsSelectFormat());
         reportProgress(options, "Compression = " + (options.getAllowCompression() ? "enabled" : "disabled"));
+        reportProgress(options,
+                "Progress Listeners = " + (options.getListenerBufferSize() > 0
+                        ? "Asynchronous (" + options.getListenerBufferSize() + " events buffered, "
+                                + options.getListenerBackpressure() + " when full)"
+                        : "Synchronous"));
+        reportProgress(options, "Progress Verbosity = " + options.getProgressVerbosity());
         reportProgress(options, "Parallel Threads = " + options.getParallelThreads());
+        reportProgress(options, "Streaming Statistics = " + (options.getStreamingStatistics() ? "enabled" : "disabled"));
         reportProgress(options, "Authentication = " + (options.getAuthenticator() != null ? "enabled" : "disabled"));
+        if (options.getHttpConnectionPooling()) {
+            reportProgress(options, "HTTP Connection Pooling = enabled");
+            reportProgress(options, "HTTP Max Connections per Route = " + options.getHttpMaxConnectionsPerRoute());
+            reportProgress(options, "HTTP Keep Alive = "
+                    + (options.getHttpKeepAlive() > 0 ? options.getHttpKeepAlive() + " milliseconds" : "disabled"));
+            reportProgress(options, "HTTP Idle Connection Timeout = "
+                    + (options.getHttpIdleTimeout() > 0 ? options.getHttpIdleTimeout() + " milliseconds" : "disabled"));
+            reportProgress(options, "HTTP TCP_NODELAY = " + (options.getHttpTcpNoDelay() ? "enabled" : "disabled"));
+            reportProgress(options, "HTTP Phase Timings = " + (options.getHttpPhaseTimings() ? "enabled" : "disabled"));
+        } else {
+            reportProgress(options, "HTTP Connection Pooling = disabled");
+        }
         reportProgress(options);
     }
 
@@ -504,15 +698,31 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
         reportProgress(options, "Total Errors: " + FormatUtils.formatNumber(op.getStats().getTotalErrors()));
         if (op.getStats().getTotalErrors() > 0) {
             // Show errors by category
-            Map<Integer, List<OperationRun>> categorizedErrors = op.getStats().getCategorizedErrors();
+            Map<Integer, Long> categorizedErrors = op.getStats().getCategorizedErrorCounts();
             this.reportCategorizedErrors(options, categorizedErrors);
         }
         reportProgress(options, "Total Results: " + FormatUtils.formatNumber(op.getStats().getTotalResults()));
         reportProgress(options, "Average Results: " + FormatUtils.formatNumber(op.getStats().getAverageResults()));
+        if (op.getStats().getTotalBytesReceived() > 0) {
+            reportProgress(options,
+                    "Total Bytes Received: " + FormatUtils.formatNumber(op.getStats().getTotalBytesReceived()));
+            reportProgress(options, "Average Bytes Received: "
+                    + FormatUtils.formatNumber(op.getStats().getTotalBytesReceived() / op.getStats().getRunCount()));
+            if (op.getStats().getTotalRuntime() > 0)
+                reportProgress(options, "Average Bytes Received per Second: "
+                        + FormatUtils.formatNumber((long) (op.getStats().getTotalBytesReceived()
+                                * ConvertUtils.NANOSECONDS_PER_SECOND / op.getStats().getTotalRuntime())));
+        }
         reportProgress(options,
                 "Total Response Time: " + FormatUtils.formatSeconds(op.getStats().getTotalResponseTime()));
         reportProgress(options, "Average Response Time (Arithmetic): "
                 + FormatUtils.formatSeconds(op.getStats().getAverageResponseTime()));
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            reportProgress(options, FormatUtils.formatPercentile(percentile) + " Percentile Response Time: "
+                    + FormatUtils.formatSeconds(op.getStats().getPercentileResponseTime(percentile)));
+        }
+        reportProgress(options, "Maximum Response Time: "
+                + FormatUtils.formatSeconds(op.getStats().getPercentileResponseTime(100)));
         reportProgress(options, "Total Runtime: " + FormatUtils.formatSeconds(op.getStats().getTotalRuntime()));
         if (options.getParallelThreads() > 1)
             reportProgress(options, "Actual Runtime: " + FormatUtils.formatSeconds(op.getStats().getActualRuntime()));
@@ -525,9 +735,19 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
                 + FormatUtils.formatSeconds(op.getStats().getGeometricAverageRuntime()));
         reportProgress(options, "Minimum Runtime: " + FormatUtils.formatSeconds(op.getStats().getMinimumRuntime()));
         reportProgress(options, "Maximum Runtime: " + FormatUtils.formatSeconds(op.getStats().getMaximumRuntime()));
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            reportProgress(options, FormatUtils.formatPercentile(percentile) + " Percentile Runtime: "
+                    + FormatUtils.formatSeconds(op.getStats().getPercentileRuntime(percentile)));
+        }
         reportProgress(options, "Runtime Variance: " + FormatUtils.formatSecondsSquared(op.getStats().getVariance()));
         reportProgress(options,
                 "Runtime Standard Deviation: " + FormatUtils.formatSeconds(op.getStats().getStandardDeviation()));
+        if (op.getStats().getPhaseTimedRunCount() > 0) {
+            for (HttpPhase phase : HttpPhase.values()) {
+                reportProgress(options, "Average HTTP Phase Time (" + phase.getLabel() + "): "
+                        + FormatUtils.formatSeconds(op.getStats().getAveragePhaseTime(phase)));
+            }
+        }
         reportProgress(options);
         reportProgress(options,
                 "Operations per Second: " + FormatUtils.formatNumber(op.getStats().getOperationsPerSecond()));
@@ -539,7 +759,57 @@ public abstract class AbstractRunner<T extends Options> implements Runner<T> {
         if (options.getParallelThreads() > 1)
             reportProgress(options, "Actual Operations per Hour: "
                     + FormatUtils.formatNumber(op.getStats().getActualOperationsPerHour()));
+        if (op instanceof BatchedUpdateOperation)
+            this.reportBatchSummary(options, op);
+        reportProgress(options);
+    }
+
+    /**
+     * Reports the effective per-statement latency and throughput of a batched
+     * update operation, this relies on the number of statements in each batch
+     * being recorded as the result count of the run
+     * <p>
+     * All the figures are computed from the successful runs only since failed
+     * batches do not record a statement count.
+     * </p>
+     * 
+     * @param options
+     *            Options
+     * @param op
+     *            Operation
+     */
+    protected void reportBatchSummary(T options, Operation op) {
+        long statements = op.getStats().getTotalResults();
+        long batches = op.getStats().getRunCount() - op.getStats().getTotalErrors();
+        long runtime = op.getStats().getTotalSuccessfulRuntime();
+        if (statements <= 0 || batches <= 0 || runtime <= 0)
+            return;
         reportProgress(options);
+        reportProgress(options, "Total Statements: " + FormatUtils.formatNumber(statements));
+        reportProgress(options,
+                "Average Statements per Batch: " + FormatUtils.formatNumber((double) statements / batches));
+        reportProgress(options, "Average Runtime per Statement: "
+                + FormatUtils.formatSeconds((double) runtime / statements));
+        reportProgress(options, "Statements per Second: "
+                + FormatUtils.formatNumber(statements / ConvertUtils.toSeconds(runtime)));
+        if (options.getParallelThreads() > 1 && op.getStats().getActualRuntime() > 0)
+            reportProgress(options, "Actual Statements per Second: "
+                    + FormatUtils.formatNumber(statements / ConvertUtils.toSeconds(op.getStats().getActualRuntime())));
+    }
+
+    /**
+     * Helper method for reporting the percentiles of the mix runtimes
+     * 
+     * @param options
+     *            Options
+     * @param mix
+     *            Operation Mix
+     */
+    protected void reportMixPercentiles(T options, OperationMix mix) {
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            reportProgress(options, FormatUtils.formatPercentile(percentile) + " Percentile Mix Runtime: "
+                    + FormatUtils.formatSeconds(mix.getStats().getPercentileRuntime(percentile)));
+        }
     }
 
     /**
@@ -35,7 +35,6 @@ package net.sf.sparql.benchmarking.runners;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
@@ -49,7 +48,6 @@ import net.sf.sparql.benchmarking.options.BenchmarkOptions;
 import net.sf.sparql.benchmarking.parallel.ParallelClientManagerTask;
 import net.sf.sparql.benchmarking.parallel.impl.BenchmarkParallelClientManager;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
-import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.FormatUtils;
 
 /**
@@ -91,6 +89,8 @@ public class BenchmarkRunner extends AbstractRunner<BenchmarkOptions> {
 
         Iterator<Operation> ops = options.getOperationMix().getOperations();
         checkOperations(options);
+        prepareStatistics(options);
+        prepareHttpClient(options);
 
         // Print Options for User Reference
         reportGeneralOptions(options);
@@ -238,8 +238,8 @@ public class BenchmarkRunner extends AbstractRunner<BenchmarkOptions> {
                 "Total Errors: " + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalErrors()));
         if (options.getOperationMix().getStats().getTotalErrors() > 0) {
             // Show errors by category
-            Map<Integer, List<OperationRun>> categorizedErrors = options.getOperationMix().getStats()
-                    .getCategorizedErrors();
+            Map<Integer, Long> categorizedErrors = options.getOperationMix().getStats()
+                    .getCategorizedErrorCounts();
             reportCategorizedErrors(options, categorizedErrors);
         }
         reportProgress(options);
@@ -263,6 +263,7 @@ public class BenchmarkRunner extends AbstractRunner<BenchmarkOptions> {
                 "Minimum Mix Runtime: " + FormatUtils.formatSeconds(operationMix.getStats().getMinimumRuntime()));
         reportProgress(options,
                 "Maximum Mix Runtime: " + FormatUtils.formatSeconds(operationMix.getStats().getMaximumRuntime()));
+        reportMixPercentiles(options, operationMix);
         reportProgress(options,
                 "Mix Runtime Variance: " + FormatUtils.formatSecondsSquared(operationMix.getStats().getVariance()));
         reportProgress(options, "Mix Runtime Standard Deviation: "
@@ -287,6 +288,8 @@ public class BenchmarkRunner extends AbstractRunner<BenchmarkOptions> {
         reportProgress(options, "Outliers = " + options.getOutliers());
         reportProgress(options, "CSV Results File = "
                 + (options.getCsvResultsFile() == null ? "disabled" : options.getCsvResultsFile()));
+        reportProgress(options, "CSV Raw Results File = "
+                + (options.getCsvRawResultsFile() == null ? "disabled" : options.getCsvRawResultsFile()));
         reportProgress(options, "XML Results File = "
                 + (options.getXmlResultsFile() == null ? "disabled" : options.getXmlResultsFile()));
         reportProgress(options);
@@ -0,0 +1,237 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.runners;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.joda.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.options.OpenLoopOptions;
+import net.sf.sparql.benchmarking.parallel.ParallelClientManagerTask;
+import net.sf.sparql.benchmarking.parallel.impl.OpenLoopParallelClientManager;
+import net.sf.sparql.benchmarking.stats.impl.LatencyHistogram;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+/**
+ * An open loop test runner
+ * <p>
+ * Open loop tests start operation mix runs at a rate determined by an arrival
+ * process regardless of how quickly the system under test responds. This
+ * differs from the other runners which are closed loop i.e. a client only
+ * starts a new run once its previous run has finished, which means a slow
+ * system causes less load to be issued and latency to be under reported.
+ * </p>
+ * <p>
+ * Two different latencies are reported, the service time which is how long a
+ * run actually took to complete once started and the response time which is
+ * measured from when the run was intended to start and so includes any time
+ * spent queued waiting for a free client.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class OpenLoopRunner extends AbstractRunner<OpenLoopOptions> {
+
+    static final Logger logger = LoggerFactory.getLogger(OpenLoopRunner.class);
+
+    @Override
+    public void run(OpenLoopOptions options) {
+        // Inform Listeners that we are starting benchmarking
+        started(options);
+
+        // Validate Options
+        if (options.getQueryEndpoint() == null && options.getUpdateEndpoint() == null
+                && options.getGraphStoreEndpoint() == null && options.getCustomEndpoints().size() == 0
+                && options.getDataset() == null) {
+            System.err.println("At least one remote endpoint or an in-memory dataset must be set");
+            halt(options, "No endpoint was set");
+        }
+        if (options.getMaxRuns() <= 0 && options.getMaxRuntime() <= 0) {
+            System.err
+                    .println("One/both of the maximum runs (use setMaxRuns() method) or the maximum runtime (use setMaxRuntime() method) must be set");
+            halt(options, "No maximum runs/runtime set");
+        }
+        if (options.getOperationMix() == null) {
+            System.err.println("Operation Mix has not been set");
+            halt(options, "No Operation Mix was set");
+        }
+
+        Iterator<Operation> ops;
+        checkOperations(options);
+        prepareStatistics(options);
+        prepareHttpClient(options);
+
+        // Print Options for User Reference
+        reportGeneralOptions(options);
+        reportOpenLoopOptions(options);
+
+        // Sanity Checking
+        runSanityChecks(options);
+
+        // Summarize operations to be used
+        reportProgress(options, "Starting open loop testing...");
+        reportProgress(options, options.getOperationMix().size() + " operations were loaded:");
+
+        int i = 0;
+        ops = options.getOperationMix().getOperations();
+        while (ops.hasNext()) {
+            Operation op = ops.next();
+            reportProgress(options, "Operation ID " + i + " of type " + op.getType() + " (" + op.getName() + ")");
+            reportProgress(options, op.getContentString());
+            reportProgress(options);
+            i++;
+        }
+
+        // Setup
+        runSetup(options);
+
+        // Actual Runs
+        reportProgress(options, "Running open loop tests...");
+        Instant startInstant = Instant.now();
+        Instant endInstant = startInstant;
+        reportProgress(options, "Start Time: " + FormatUtils.formatInstant(startInstant));
+        reportProgress(options);
+
+        long startTime = System.nanoTime();
+        long endTime = startTime;
+
+        // Always use a client manager even if there is only a single thread
+        // since the manager is responsible for scheduling arrivals
+        OpenLoopParallelClientManager manager = new OpenLoopParallelClientManager(this, options);
+        ParallelClientManagerTask<OpenLoopOptions> task = new ParallelClientManagerTask<OpenLoopOptions>(manager);
+        options.getExecutor().submit(task);
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            logger.error("Open loop testing was interrupted - " + e.getMessage());
+            if (options.getHaltAny())
+                halt(options, e);
+        } catch (ExecutionException e) {
+            logger.error("Open loop testing encountered an error - " + e.getMessage());
+
+            StringWriter sw = new StringWriter();
+            e.printStackTrace(new PrintWriter(sw));
+            logger.error(sw.toString());
+
+            if (options.getHaltOnError() || options.getHaltAny())
+                halt(options, e);
+        }
+
+        // Get end time
+        endTime = System.nanoTime();
+        endInstant = Instant.now();
+
+        // Teardown
+        runTeardown(options);
+
+        reportProgress(options, "Finished open loop testing");
+        reportProgress(options);
+
+        // Summarize Operations
+        reportProgress(options, "Operation Summary");
+        reportProgress(options, "-----------------");
+        reportProgress(options);
+
+        ops = options.getOperationMix().getOperations();
+        while (ops.hasNext()) {
+            Operation op = ops.next();
+
+            // Print Summary
+            reportOperationSummary(options, op);
+        }
+
+        reportProgress(options, "Open Loop Summary");
+        reportProgress(options, "-----------------");
+        reportProgress(options);
+        reportProgress(options, "Arrival Process: " + options.getArrivalProcess().getDescription());
+        reportProgress(options, "Scheduled Arrivals: " + FormatUtils.formatNumber(manager.getScheduledRuns()));
+        reportProgress(options, "Completed Arrivals: " + FormatUtils.formatNumber(manager.getCompletedRuns()));
+        reportProgress(options, "Dropped Arrivals: " + FormatUtils.formatNumber(manager.getDroppedRuns()));
+        reportProgress(options, "Achieved Throughput: " + String.format("%,.3f", manager.getThroughput())
+                + " operation mixes per second");
+        reportProgress(options, "Maximum Backlog: " + FormatUtils.formatNumber(manager.getMaxBacklog()));
+        reportProgress(options,
+                "Total Operations Run: "
+                        + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalOperations()));
+        reportProgress(options);
+        reportProgress(options,
+                "Total Errors: " + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalErrors()));
+        if (options.getOperationMix().getStats().getTotalErrors() > 0) {
+            // Show errors by category
+            Map<Integer, Long> categorizedErrors = options.getOperationMix().getStats()
+                    .getCategorizedErrorCounts();
+            reportCategorizedErrors(options, categorizedErrors);
+        }
+        reportProgress(options);
+        reportLatencies(options, "Service Time", manager.getServiceTimes());
+        reportLatencies(options, "Response Time", manager.getResponseTimes());
+        reportLatencies(options, "Queue Delay", manager.getQueueDelays());
+        reportProgress(options);
+        reportProgress(options, "Start Time: " + FormatUtils.formatInstant(startInstant));
+        reportProgress(options, "End Time: " + FormatUtils.formatInstant(endInstant));
+        reportProgress(options, "Total Runtime: " + String.format("%,f", ConvertUtils.toMinutes(endTime - startTime)) + " minutes");
+        reportProgress(options);
+
+        // Finally inform listeners that running finished OK
+        finished(options);
+    }
+
+    private void reportLatencies(OpenLoopOptions options, String name, LatencyHistogram latencies) {
+        for (double percentile : FormatUtils.REPORTED_PERCENTILES) {
+            reportProgress(options, FormatUtils.formatPercentile(percentile) + " Percentile " + name + ": "
+                    + FormatUtils.formatSeconds(latencies.getValueAtPercentile(percentile)));
+        }
+        reportProgress(options, "Maximum " + name + ": " + FormatUtils.formatSeconds(latencies.getMaxValue()));
+    }
+
+    private void reportOpenLoopOptions(OpenLoopOptions options) {
+        reportProgress(options, "Open Loop Options");
+        reportProgress(options, "-----------------");
+        reportProgress(options);
+        reportProgress(options, "Arrival Process = " + options.getArrivalProcess().getDescription());
+        reportProgress(options, "Maximum Runs = " + (options.getMaxRuns() > 0 ? options.getMaxRuns() : "Unlimited"));
+        reportProgress(options, "Maximum Runtime = "
+                + (options.getMaxRuntime() > 0 ? options.getMaxRuntime() + " minutes" : "Unlimited"));
+        reportProgress(options, "Maximum Concurrent Runs = " + options.getParallelThreads());
+        reportProgress(options);
+    }
+}
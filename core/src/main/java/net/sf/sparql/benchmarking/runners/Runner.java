@@ -32,7 +32,9 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.runners;
 
+import net.sf.sparql.benchmarking.monitoring.ProgressEventListener;
 import net.sf.sparql.benchmarking.monitoring.ProgressListener;
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.Options;
@@ -140,6 +142,23 @@ public interface Runner<T extends Options> {
      */
     public abstract void reportProgress(T options);
 
+    /**
+     * Reports progress with a progress event
+     * <p>
+     * Events whose verbosity is greater than
+     * {@link Options#getProgressVerbosity()} are discarded. Otherwise
+     * {@link ProgressEventListener} instances receive the event as-is while
+     * other listeners receive the message for the event, so the message is only
+     * formatted if some listener needs it.
+     * </p>
+     * 
+     * @param options
+     *            Options
+     * @param event
+     *            Progress event
+     */
+    public abstract void reportProgress(T options, ProgressEvent event);
+
     /**
      * Requests that the run be halted, exact halting conditions and behaviour
      * is specified by the given options
@@ -1,7 +1,6 @@
 package net.sf.sparql.benchmarking.runners;
 
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.joda.time.Instant;
@@ -9,7 +8,6 @@ import org.joda.time.Instant;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
-import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.FormatUtils;
 
@@ -39,6 +37,8 @@ public class SmokeRunner extends AbstractRunner<Options> {
 
         Iterator<Operation> ops;
         checkOperations(options);
+        prepareStatistics(options);
+        prepareHttpClient(options);
 
         // Print Options for User Reference
         reportGeneralOptions(options);
@@ -120,8 +120,8 @@ public class SmokeRunner extends AbstractRunner<Options> {
                 "Total Errors: " + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalErrors()));
         if (options.getOperationMix().getStats().getTotalErrors() > 0) {
             // Show errors by category
-            Map<Integer, List<OperationRun>> categorizedErrors = options.getOperationMix().getStats()
-                    .getCategorizedErrors();
+            Map<Integer, Long> categorizedErrors = options.getOperationMix().getStats()
+                    .getCategorizedErrorCounts();
             reportCategorizedErrors(options, categorizedErrors);
         }
         reportProgress(options);
@@ -35,7 +35,6 @@ package net.sf.sparql.benchmarking.runners;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -49,7 +48,6 @@ import net.sf.sparql.benchmarking.options.SoakOptions;
 import net.sf.sparql.benchmarking.parallel.ParallelClientManagerTask;
 import net.sf.sparql.benchmarking.parallel.impl.SoakTestParallelClientManager;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
-import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.FormatUtils;
 
@@ -98,6 +96,8 @@ public class SoakRunner extends AbstractRunner<SoakOptions> {
 
         Iterator<Operation> ops;
         checkOperations(options);
+        prepareStatistics(options);
+        prepareHttpClient(options);
 
         // Print Options for User Reference
         reportGeneralOptions(options);
@@ -230,11 +230,17 @@ public class SoakRunner extends AbstractRunner<SoakOptions> {
                 "Total Errors: " + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalErrors()));
         if (options.getOperationMix().getStats().getTotalErrors() > 0) {
             // Show errors by category
-            Map<Integer, List<OperationRun>> categorizedErrors = options.getOperationMix().getStats()
-                    .getCategorizedErrors();
+            Map<Integer, Long> categorizedErrors = options.getOperationMix().getStats()
+                    .getCategorizedErrorCounts();
             reportCategorizedErrors(options, categorizedErrors);
         }
         reportProgress(options);
+        reportProgress(options, "Minimum Mix Runtime: "
+                + FormatUtils.formatSeconds(options.getOperationMix().getStats().getMinimumRuntime()));
+        reportProgress(options, "Maximum Mix Runtime: "
+                + FormatUtils.formatSeconds(options.getOperationMix().getStats().getMaximumRuntime()));
+        reportMixPercentiles(options, options.getOperationMix());
+        reportProgress(options);
         reportProgress(options, "Start Time: " + FormatUtils.formatInstant(startInstant));
         reportProgress(options, "End Time: " + FormatUtils.formatInstant(endInstant));
         reportProgress(options, "Total Runtime: " + String.format("%,f", ConvertUtils.toMinutes(endTime - startTime)) + " minutes");
@@ -35,7 +35,6 @@ package net.sf.sparql.benchmarking.runners;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import org.joda.time.Instant;
@@ -45,9 +44,11 @@ import org.slf4j.LoggerFactory;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.options.StressOptions;
+import net.sf.sparql.benchmarking.parallel.ParallelClientManager;
 import net.sf.sparql.benchmarking.parallel.ParallelClientManagerTask;
+import net.sf.sparql.benchmarking.parallel.impl.LoadStepResult;
+import net.sf.sparql.benchmarking.parallel.impl.SaturationSearchParallelClientManager;
 import net.sf.sparql.benchmarking.parallel.impl.StressTestParallelClientManager;
-import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.FormatUtils;
 
@@ -67,6 +68,13 @@ import net.sf.sparql.benchmarking.util.FormatUtils;
  * the runs repeated. This process continues until such time as the configured
  * maximum runtime or maximum number of threads is reached.
  * </p>
+ * <p>
+ * Alternatively if {@link StressOptions#getSaturationSearch()} is enabled the
+ * runner instead searches for the saturation point of the system, see
+ * {@link SaturationSearchParallelClientManager} for details of the search.
+ * Throughput and latency are reported for each load step along with the
+ * maximum sustainable throughput.
+ * </p>
  * 
  * @author rvesse
  * 
@@ -94,6 +102,8 @@ public class StressRunner extends AbstractRunner<StressOptions> {
 
         Iterator<Operation> ops;
         checkOperations(options);
+        prepareStatistics(options);
+        prepareHttpClient(options);
 
         // Print Options for User Reference
         reportGeneralOptions(options);
@@ -129,9 +139,15 @@ public class StressRunner extends AbstractRunner<StressOptions> {
         long startTime = System.nanoTime();
         long endTime = startTime;
         // Stress tests are always multi-threaded
-        StressTestParallelClientManager stressClientManager = new StressTestParallelClientManager(this, options);
-        ParallelClientManagerTask<StressOptions> task = new ParallelClientManagerTask<StressOptions>(
-                stressClientManager);
+        StressTestParallelClientManager stressClientManager = null;
+        SaturationSearchParallelClientManager searchClientManager = null;
+        ParallelClientManager<StressOptions> manager;
+        if (options.getSaturationSearch()) {
+            manager = searchClientManager = new SaturationSearchParallelClientManager(this, options);
+        } else {
+            manager = stressClientManager = new StressTestParallelClientManager(this, options);
+        }
+        ParallelClientManagerTask<StressOptions> task = new ParallelClientManagerTask<StressOptions>(manager);
         options.getExecutor().submit(task);
         try {
             task.get();
@@ -193,17 +209,28 @@ public class StressRunner extends AbstractRunner<StressOptions> {
                 "Total Errors: " + FormatUtils.formatNumber(options.getOperationMix().getStats().getTotalErrors()));
         if (options.getOperationMix().getStats().getTotalErrors() > 0) {
             // Show errors by category
-            Map<Integer, List<OperationRun>> categorizedErrors = options.getOperationMix().getStats()
-                    .getCategorizedErrors();
+            Map<Integer, Long> categorizedErrors = options.getOperationMix().getStats()
+                    .getCategorizedErrorCounts();
             reportCategorizedErrors(options, categorizedErrors);
         }
         reportProgress(options);
+        reportProgress(options, "Minimum Mix Runtime: "
+                + FormatUtils.formatSeconds(options.getOperationMix().getStats().getMinimumRuntime()));
+        reportProgress(options, "Maximum Mix Runtime: "
+                + FormatUtils.formatSeconds(options.getOperationMix().getStats().getMaximumRuntime()));
+        reportMixPercentiles(options, options.getOperationMix());
+        reportProgress(options);
         reportProgress(options, "Start Time: " + FormatUtils.formatInstant(startInstant));
         reportProgress(options, "End Time: " + FormatUtils.formatInstant(endInstant));
         reportProgress(options, "Total Runtime: " + ConvertUtils.toMinutes(endTime - startTime) + " minutes");
-        reportProgress(options,
-                "Maximum Parallel Threads: " + FormatUtils.formatNumber(stressClientManager.getCurrentClientCount()));
+        if (stressClientManager != null) {
+            reportProgress(options, "Maximum Parallel Threads: "
+                    + FormatUtils.formatNumber(stressClientManager.getCurrentClientCount()));
+        }
         reportProgress(options);
+        if (searchClientManager != null) {
+            reportSaturationSearch(options, searchClientManager);
+        }
 
         // Finally inform listeners that running finished OK
         finished(options);
@@ -218,6 +245,41 @@ public class StressRunner extends AbstractRunner<StressOptions> {
         reportProgress(options, "Maximum Runtime = "
                 + (options.getMaxRuntime() > 0 ? options.getMaxRuntime() + " minutes" : "Unlimited"));
         reportProgress(options, "Ramp Up Factor = " + options.getRampUpFactor());
+        reportProgress(options, "Saturation Search = " + (options.getSaturationSearch() ? "enabled" : "disabled"));
+        if (options.getSaturationSearch()) {
+            reportProgress(options, "Step Duration = " + options.getStepDuration() + " seconds");
+            reportProgress(options, "99th Percentile Latency SLO = "
+                    + (options.getLatencySlo() > 0 ? options.getLatencySlo() + " milliseconds" : "None"));
+            reportProgress(options, "Minimum Throughput Gain = "
+                    + String.format("%.1f%%", options.getMinThroughputGain() * 100));
+        }
+        reportProgress(options);
+    }
+
+    private void reportSaturationSearch(StressOptions options, SaturationSearchParallelClientManager manager) {
+        reportProgress(options, "Saturation Search Summary");
+        reportProgress(options, "-------------------------");
+        reportProgress(options);
+        reportProgress(options, String.format("%10s %12s %20s %20s %20s %10s", "Threads", "Mix Runs",
+                "Throughput (mix/s)", "50th Percentile (s)", "99th Percentile (s)", "Within SLO"));
+        for (LoadStepResult step : manager.getSteps()) {
+            reportProgress(options, String.format("%10d %12d %20.3f %20.6f %20.6f %10s", step.getThreads(),
+                    step.getRuns(), step.getThroughput(), ConvertUtils.toSeconds(step.getMedianResponseTime()),
+                    ConvertUtils.toSeconds(step.getP99ResponseTime()), step.isWithinSlo() ? "yes" : "no"));
+        }
+        reportProgress(options);
+
+        LoadStepResult max = manager.getMaxSustainableThroughput();
+        if (max != null) {
+            reportProgress(options, "Maximum Sustainable Throughput: " + String.format("%,.3f", max.getThroughput())
+                    + " operation mixes per second with " + max.getThreads() + " parallel threads");
+        } else {
+            reportProgress(options, "Maximum Sustainable Throughput: None, no load step met the latency SLO");
+        }
+        LoadStepResult saturation = manager.getSaturationPoint();
+        if (saturation != null) {
+            reportProgress(options, "Saturation Point: " + saturation.getThreads() + " parallel threads");
+        }
         reportProgress(options);
     }
 }
@@ -35,6 +35,10 @@ package net.sf.sparql.benchmarking.runners.mix;
 import java.util.ArrayList;
 import java.util.List;
 
+import net.sf.sparql.benchmarking.monitoring.events.OperationCompletedEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationDelayEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationOrderEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationStartedEvent;
 import net.sf.sparql.benchmarking.operations.Operation;
 import net.sf.sparql.benchmarking.operations.OperationMix;
 import net.sf.sparql.benchmarking.options.Options;
@@ -45,8 +49,6 @@ import net.sf.sparql.benchmarking.runners.operations.OperationRunner;
 import net.sf.sparql.benchmarking.stats.OperationMixRun;
 import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.stats.impl.OperationMixRunImpl;
-import net.sf.sparql.benchmarking.util.ConvertUtils;
-import net.sf.sparql.benchmarking.util.FormatUtils;
 
 /**
  * Abstract implementation of an operation mix runner
@@ -101,20 +103,13 @@ public abstract class AbstractOperationMixRunner implements OperationMixRunner {
         if (ids.size() == 0)
             runner.halt(options, "MixOrderProvider produced an empty ordering of operations to run");
         if (this.orderProvider.reportOperationOrder(options)) {
-            StringBuffer operationOrder = new StringBuffer();
-            operationOrder.append("Operation Order for this Run is ");
-            for (int i = 0; i < ids.size(); i++) {
-                operationOrder.append(ids.get(i).toString());
-                if (i < ids.size() - 1)
-                    operationOrder.append(", ");
-            }
-            runner.reportProgress(options, operationOrder.toString());
+            runner.reportProgress(options, new OperationOrderEvent(ids));
         }
 
         // Now run each query recording its run details
         for (Integer id : ids) {
             Operation op = mix.getOperation(id);
-            runner.reportPartialProgress(options, "Running Operation " + op.getName() + "...");
+            runner.reportProgress(options, new OperationStartedEvent(op));
 
             runner.reportBeforeOperation(options, op);
             mix.getStats().getTimer().start();
@@ -125,22 +120,13 @@ public abstract class AbstractOperationMixRunner implements OperationMixRunner {
             }
             runner.reportAfterOperation(options, op, r);
             runs.add(r);
-            if (r.wasSuccessful()) {
-                runner.reportProgress(options, "got " + FormatUtils.formatResultCount(r.getResultCount())
-                        + " result(s) in " + ConvertUtils.toSeconds(r.getRuntime()) + "s");
-            } else {
-                runner.reportProgress(options,
-                        "got error after " + ConvertUtils.toSeconds(r.getRuntime()) + "s: " + r.getErrorMessage());
-            }
+            runner.reportProgress(options, new OperationCompletedEvent(op, r));
 
             // Apply delay between operations
             if (options.getMaxDelay() > 0) {
                 try {
                     long delay = (long) (Math.random() * options.getMaxDelay());
-                    runner.reportProgress(options,
-                            "Sleeping for "
-                                    + ConvertUtils.toSeconds((long) (delay * ConvertUtils.NANOSECONDS_PER_MILLISECONDS))
-                                    + "s before next operation");
+                    runner.reportProgress(options, new OperationDelayEvent(delay));
                     Thread.sleep(delay);
                 } catch (InterruptedException e) {
                     // We don't care if we get interrupted while delaying
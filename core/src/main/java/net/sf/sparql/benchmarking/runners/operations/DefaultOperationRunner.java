@@ -34,8 +34,6 @@ package net.sf.sparql.benchmarking.runners.operations;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -64,53 +62,59 @@ public class DefaultOperationRunner implements OperationRunner {
         op.getStats().getTimer().start();
         long order = options.getGlobalOrder();
 
-        // Prepare and submit the task
+        // Prepare the callable, this is run inline on the calling thread with
+        // any timeout enforced by a shared watchdog rather than handing off to
+        // another thread and blocking on it
         OperationCallable<T> callable = op.createCallable(runner, options);
-        FutureTask<OperationRun> task = new FutureTask<OperationRun>(callable);
-        options.getExecutor().submit(task);
+        OperationTimeout timeout = null;
 
-        OperationRun r;
+        OperationRun r = null;
+        Exception error = null;
         long startTime = System.nanoTime();
         try {
-            // Wait for the operation to complete
             if (options.getTimeout() > 0) {
                 // Enforce a timeout on the operation
-                r = task.get(options.getTimeout(), TimeUnit.SECONDS);
-            } else {
-                // No timeout on the operations
-                r = task.get();
+                timeout = OperationTimeout.start(callable, options.getHttpClientPool(), options.getTimeout(),
+                        TimeUnit.SECONDS);
             }
-        } catch (TimeoutException tEx) {
-            // Handle timeout error
-            logger.error("Operation Callable exceeded Timeout - " + tEx.getMessage());
+            r = callable.call();
+        } catch (Exception e) {
+            error = e;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        boolean timedOut = timeout != null && timeout.complete();
+
+        if (timedOut) {
+            // Handle timeout error, whatever the callable returned or threw
+            // is a consequence of it being cancelled. Operations that cannot
+            // be aborted may only return some time after the timeout fired so
+            // the timeout is recorded as the runtime rather than the elapsed
+            // time so timeouts are reported consistently
+            String message = "Operation Callable exceeded Timeout of " + options.getTimeout() + " seconds";
+            logger.error(message);
             if (options.getHaltOnTimeout() || options.getHaltAny())
-                runner.halt(options, tEx);
-            r = op.createErrorInformation("Operation Callable exceeded Timeout - " + tEx.getMessage(), ErrorCategories.TIMEOUT,
-                    System.nanoTime() - startTime);
-
-            // If the query times out but we aren't halting cancel further
-            // evaluation of the operation
-            callable.cancel();
-            task.cancel(true);
-        } catch (InterruptedException e) {
+                runner.halt(options, new TimeoutException(message));
+            r = op.createErrorInformation(message, ErrorCategories.TIMEOUT,
+                    TimeUnit.SECONDS.toNanos(options.getTimeout()));
+        } else if (error instanceof InterruptedException) {
             // Handle interrupted error
-            logger.error("Operation Callable was interrupted - " + e.getMessage());
+            logger.error("Operation Callable was interrupted - " + error.getMessage());
             if (options.getHaltAny())
-                runner.halt(options, e);
-            r = op.createErrorInformation("Operation Callable was interrupted - " + e.getMessage(), ErrorCategories.INTERRUPT,
-                    System.nanoTime() - startTime);
-        } catch (ExecutionException e) {
+                runner.halt(options, error);
+            r = op.createErrorInformation("Operation Callable was interrupted - " + error.getMessage(),
+                    ErrorCategories.INTERRUPT, elapsed);
+        } else if (error != null) {
             // Handle unexpected execution error
-            logger.error("Operation Callable encountered an error - " + e.getMessage());
+            logger.error("Operation Callable encountered an error - " + error);
 
             StringWriter sw = new StringWriter();
-            e.printStackTrace(new PrintWriter(sw));
+            error.printStackTrace(new PrintWriter(sw));
             logger.error(sw.toString());
 
             if (options.getHaltOnError() || options.getHaltAny())
-                runner.halt(options, e);
-            r = op.createErrorInformation("Operation Callable encountered an error - " + e.getMessage(),
-                    ErrorCategories.EXECUTION, System.nanoTime() - startTime);
+                runner.halt(options, error);
+            r = op.createErrorInformation("Operation Callable encountered an error - " + error,
+                    ErrorCategories.EXECUTION, elapsed);
         }
         op.getStats().getTimer().stop();
 
@@ -0,0 +1,150 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.runners.operations;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.util.HttpClientPool;
+
+/**
+ * Enforces a timeout on an operation that is being run inline on the calling
+ * thread
+ * <p>
+ * Timeouts are scheduled on a single shared watchdog thread rather than each
+ * operation requiring a dedicated thread to wait on it. When a timeout expires
+ * the callable is cancelled, any request the thread is making via the shared
+ * HTTP connection pool is aborted and the thread is interrupted so that
+ * blocking operations return promptly.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class OperationTimeout implements Runnable {
+
+    private static final int RUNNING = 0, COMPLETED = 1, FIRING = 2, FIRED = 3;
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
+
+    private final Thread thread;
+    private final OperationCallable<?> callable;
+    private final HttpClientPool pool;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private ScheduledFuture<?> future;
+
+    private static ScheduledThreadPoolExecutor createWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Operation Timeout Watchdog");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        // Most operations complete before their timeout so avoid the queue
+        // filling up with cancelled timeouts
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    private OperationTimeout(OperationCallable<?> callable, HttpClientPool pool) {
+        this.thread = Thread.currentThread();
+        this.callable = callable;
+        this.pool = pool;
+    }
+
+    /**
+     * Starts a timeout for a callable that is about to be called on the
+     * current thread
+     * 
+     * @param callable
+     *            Callable
+     * @param pool
+     *            HTTP client pool, may be {@code null}
+     * @param timeout
+     *            Timeout
+     * @param unit
+     *            Timeout unit
+     * @return Operation timeout
+     */
+    public static OperationTimeout start(OperationCallable<?> callable, HttpClientPool pool, long timeout,
+            TimeUnit unit) {
+        OperationTimeout t = new OperationTimeout(callable, pool);
+        t.future = WATCHDOG.schedule(t, timeout, unit);
+        return t;
+    }
+
+    @Override
+    public void run() {
+        if (!this.state.compareAndSet(RUNNING, FIRING))
+            return;
+        try {
+            this.callable.cancel();
+            if (this.pool != null)
+                this.pool.abort(this.thread);
+            this.thread.interrupt();
+        } finally {
+            this.state.set(FIRED);
+        }
+    }
+
+    /**
+     * Marks the operation as completed, must be called on the thread that
+     * started the timeout once the callable returns
+     * <p>
+     * If the timeout fired then the interrupt status of the thread is cleared
+     * so that the interrupt does not affect subsequent operations.
+     * </p>
+     * 
+     * @return True if the timeout fired, false otherwise
+     */
+    public boolean complete() {
+        if (this.state.compareAndSet(RUNNING, COMPLETED)) {
+            this.future.cancel(false);
+            return false;
+        }
+
+        // Wait for the watchdog to finish firing so we don't receive its
+        // interrupt after clearing our interrupt status
+        while (this.state.get() != FIRED) {
+            Thread.yield();
+        }
+        Thread.interrupted();
+        return true;
+    }
+}
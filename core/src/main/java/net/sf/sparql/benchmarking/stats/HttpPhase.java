@@ -0,0 +1,84 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats;
+
+/**
+ * The phases of a HTTP request that are timed when phase timings are enabled
+ * 
+ * @author rvesse
+ * 
+ */
+public enum HttpPhase {
+    /**
+     * Time spent resolving the host name of the endpoint
+     */
+    DNS("DNS Lookup"),
+    /**
+     * Time spent establishing a TCP connection to the endpoint
+     */
+    CONNECT("TCP Connect"),
+    /**
+     * Time spent on the TLS handshake for secure endpoints
+     */
+    TLS("TLS Handshake"),
+    /**
+     * Time from starting to send the request until the response headers are
+     * received
+     */
+    TTFB("Time to First Byte"),
+    /**
+     * Time spent blocked waiting for the response body to be received
+     */
+    DOWNLOAD("Download"),
+    /**
+     * Remaining time spent client side i.e. the operation runtime not
+     * accounted for by the other phases, primarily this is the time spent
+     * parsing and processing the response
+     */
+    PARSE("Parse");
+
+    private final String label;
+
+    private HttpPhase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets a human readable label for the phase
+     * 
+     * @return Label
+     */
+    public String getLabel() {
+        return this.label;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats;
+
+/**
+ * Per-phase breakdown of the time spent making the HTTP requests for a single
+ * run of a remote operation
+ * <p>
+ * Where an operation makes several HTTP requests the times for each phase are
+ * the totals across all the requests.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class HttpPhaseTimings {
+
+    private final long[] timings;
+    private final int requests;
+
+    /**
+     * Creates new phase timings
+     * 
+     * @param timings
+     *            Time in nanoseconds spent in each phase, indexed by the
+     *            ordinal of the {@link HttpPhase}
+     * @param requests
+     *            Number of HTTP requests made
+     */
+    public HttpPhaseTimings(long[] timings, int requests) {
+        if (timings == null)
+            throw new NullPointerException("Timings cannot be null");
+        if (timings.length != HttpPhase.values().length)
+            throw new IllegalArgumentException("Expected a timing for each of the " + HttpPhase.values().length
+                    + " phases");
+        this.timings = timings.clone();
+        this.requests = requests;
+    }
+
+    /**
+     * Gets the time spent in the given phase
+     * 
+     * @param phase
+     *            Phase
+     * @return Time in nanoseconds
+     */
+    public long get(HttpPhase phase) {
+        return this.timings[phase.ordinal()];
+    }
+
+    /**
+     * Gets the number of HTTP requests made
+     * 
+     * @return Number of requests
+     */
+    public int getRequests() {
+        return this.requests;
+    }
+}
@@ -97,11 +97,23 @@ public interface OperationMixStats {
 
     /**
      * Gets the information for all errors grouped by category
+     * <p>
+     * Implementations that do not retain individual runs may only return a
+     * sample of the errors in each category, use
+     * {@link #getCategorizedErrorCounts()} to obtain accurate counts.
+     * </p>
      * 
      * @return Errors grouped by category
      */
     public abstract Map<Integer, List<OperationRun>> getCategorizedErrors();
 
+    /**
+     * Gets the number of errors in each category
+     * 
+     * @return Error counts grouped by category
+     */
+    public abstract Map<Integer, Long> getCategorizedErrorCounts();
+
     /**
      * Gets the total runtime over all runs
      * 
@@ -181,6 +193,32 @@ public interface OperationMixStats {
      */
     public abstract double getStandardDeviation();
 
+    /**
+     * Gets the total mix runtime at the given percentile over all mix runs
+     * <p>
+     * Percentiles are calculated from a HDR histogram of the runtimes so are
+     * accurate to three significant digits.
+     * </p>
+     * 
+     * @param percentile
+     *            Percentile, expressed as a number between 0 and 100 e.g. 99.9
+     * @return Runtime in nanoseconds
+     */
+    public abstract long getPercentileRuntime(double percentile);
+
+    /**
+     * Gets the total mix response time at the given percentile over all mix runs
+     * <p>
+     * Percentiles are calculated from a HDR histogram of the response times so
+     * are accurate to three significant digits.
+     * </p>
+     * 
+     * @param percentile
+     *            Percentile, expressed as a number between 0 and 100 e.g. 99.9
+     * @return Response time in nanoseconds
+     */
+    public abstract long getPercentileResponseTime(double percentile);
+
     /**
      * Calculates the number of operation mixes per hour that could be executed
      * based on the average runtime of the operation mix
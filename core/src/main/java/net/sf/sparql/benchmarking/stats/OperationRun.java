@@ -32,6 +32,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.stats;
 
+import net.sf.sparql.benchmarking.options.Options;
 import net.sf.sparql.benchmarking.runners.mix.OperationMixRunner;
 import net.sf.sparql.benchmarking.runners.operations.OperationRunner;
 import net.sf.sparql.benchmarking.util.ErrorCategories;
@@ -84,6 +85,26 @@ public interface OperationRun extends Comparable<OperationRun> {
      */
     public abstract long getResultCount();
 
+    /**
+     * Gets the number of bytes received in response to the operation
+     * <p>
+     * This is only recorded by operations which consume their responses as raw
+     * bytes.
+     * </p>
+     * 
+     * @return Bytes received if known, {@link OperationRun#UNKNOWN} otherwise
+     */
+    public abstract long getBytesReceived();
+
+    /**
+     * Gets the rate at which bytes were received over the runtime of the
+     * operation
+     * 
+     * @return Bytes received per second if known, {@link OperationRun#UNKNOWN}
+     *         otherwise
+     */
+    public abstract long getBytesPerSecond();
+
     /**
      * Returns whether this run represents a successful (i.e. non-error) run of
      * the operation
@@ -166,4 +187,30 @@ public interface OperationRun extends Comparable<OperationRun> {
      */
     public abstract void setId(int id) throws IllegalAccessError;
 
+    /**
+     * Gets the breakdown of the time spent in each phase of the HTTP requests
+     * made by the operation
+     * <p>
+     * Phase timings are only recorded for remote operations and only when
+     * enabled via {@link Options#getHttpPhaseTimings()}
+     * </p>
+     * 
+     * @return Phase timings or {@code null} if not recorded
+     */
+    public abstract HttpPhaseTimings getHttpPhaseTimings();
+
+    /**
+     * Gets the time at which the run completed
+     * 
+     * @return Timestamp in milliseconds since the epoch
+     */
+    public abstract long getTimestamp();
+
+    /**
+     * Gets the ID of the thread that performed the run
+     * 
+     * @return Thread ID
+     */
+    public abstract long getThreadId();
+
 }
\ No newline at end of file
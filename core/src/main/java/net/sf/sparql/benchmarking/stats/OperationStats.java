@@ -48,6 +48,13 @@ public interface OperationStats {
 
     /**
      * Gets an iterator over the operation runs
+     * <p>
+     * Runs are not necessarily returned in the order they were added, runs
+     * added by different threads may be interleaved in any order though runs
+     * added by the same thread are returned in the order they were added. The
+     * iterator is over a snapshot of the runs so is unaffected by runs added
+     * subsequently.
+     * </p>
      * 
      * @return Runs of the operation
      */
@@ -67,6 +74,14 @@ public interface OperationStats {
      */
     public abstract long getTotalRuntime();
 
+    /**
+     * Gets the total runtime for the query over all successful runs i.e.
+     * excluding the runtime of runs that resulted in errors
+     * 
+     * @return Total Runtime in nanoseconds
+     */
+    public abstract long getTotalSuccessfulRuntime();
+
     /**
      * Gets the actual runtime for the operation over all runs (takes into
      * account operations that run in parallel)
@@ -150,6 +165,59 @@ public interface OperationStats {
      */
     public abstract double getStandardDeviation();
 
+    /**
+     * Gets the runtime at the given percentile over all runs
+     * <p>
+     * Percentiles are calculated from a HDR histogram of the runtimes so are
+     * accurate to three significant digits.
+     * </p>
+     * 
+     * @param percentile
+     *            Percentile, expressed as a number between 0 and 100 e.g. 99.9
+     * @return Runtime in nanoseconds
+     */
+    public abstract long getPercentileRuntime(double percentile);
+
+    /**
+     * Gets the response time at the given percentile over all runs
+     * <p>
+     * Percentiles are calculated from a HDR histogram of the response times so
+     * are accurate to three significant digits.
+     * </p>
+     * 
+     * @param percentile
+     *            Percentile, expressed as a number between 0 and 100 e.g. 99.9
+     * @return Response time in nanoseconds
+     */
+    public abstract long getPercentileResponseTime(double percentile);
+
+    /**
+     * Gets the number of runs which recorded HTTP phase timings
+     * 
+     * @return Number of runs with phase timings
+     */
+    public abstract long getPhaseTimedRunCount();
+
+    /**
+     * Gets the total time spent in the given HTTP phase across all runs which
+     * recorded phase timings
+     * 
+     * @param phase
+     *            Phase
+     * @return Total phase time in nanoseconds
+     */
+    public abstract long getTotalPhaseTime(HttpPhase phase);
+
+    /**
+     * Gets the average time spent in the given HTTP phase across all runs which
+     * recorded phase timings
+     * 
+     * @param phase
+     *            Phase
+     * @return Average phase time in nanoseconds
+     */
+    public abstract long getAveragePhaseTime(HttpPhase phase);
+
     /**
      * Gets the total number of times this operation resulted in an error
      * 
@@ -159,11 +227,23 @@ public interface OperationStats {
 
     /**
      * Gets the information for all errors grouped by category
+     * <p>
+     * Implementations that do not retain individual runs may only return a
+     * sample of the errors in each category, use
+     * {@link #getCategorizedErrorCounts()} to obtain accurate counts.
+     * </p>
      * 
      * @return Errors grouped by category
      */
     public abstract Map<Integer, List<OperationRun>> getCategorizedErrors();
 
+    /**
+     * Gets the number of errors in each category
+     * 
+     * @return Error counts grouped by category
+     */
+    public abstract Map<Integer, Long> getCategorizedErrorCounts();
+
     /**
      * Gets the total number of results for this operation
      * 
@@ -178,6 +258,14 @@ public interface OperationStats {
      */
     public abstract long getAverageResults();
 
+    /**
+     * Gets the total bytes received across all runs which recorded the bytes
+     * received
+     * 
+     * @return Total bytes received
+     */
+    public abstract long getTotalBytesReceived();
+
     /**
      * Calculates how many times this operation could be executed
      * single-threaded per second based upon the average runtime of the
@@ -32,7 +32,9 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package net.sf.sparql.benchmarking.stats.impl;
 
+import net.sf.sparql.benchmarking.stats.HttpPhaseTimings;
 import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
 import net.sf.sparql.benchmarking.util.ErrorCategories;
 
 /**
@@ -46,10 +48,16 @@ public abstract class AbstractOperationRun implements OperationRun {
     private long runtime = NOT_YET_RUN;
     private long responseTime = NOT_YET_RUN;
     private long resultCount = NOT_YET_RUN;
+    private long bytesReceived = UNKNOWN;
     private String errorMessage;
     private int errorCategory = ErrorCategories.NONE;
     private long order = NOT_YET_RUN;
     private int id = (int) UNKNOWN;
+    private HttpPhaseTimings phaseTimings;
+    // Runs are created once the operation completes so this is the
+    // completion time
+    private final long timestamp = System.currentTimeMillis();
+    private final long threadId = Thread.currentThread().getId();
 
     /**
      * Creates a operation run which represents that the running of an operation
@@ -116,6 +124,28 @@ public abstract class AbstractOperationRun implements OperationRun {
         return this.resultCount;
     }
 
+    @Override
+    public long getBytesReceived() {
+        return this.bytesReceived;
+    }
+
+    @Override
+    public long getBytesPerSecond() {
+        if (this.bytesReceived < 0 || this.runtime <= 0)
+            return UNKNOWN;
+        return (long) (this.bytesReceived * ConvertUtils.NANOSECONDS_PER_SECOND / this.runtime);
+    }
+
+    /**
+     * Sets the number of bytes received in response to the operation
+     * 
+     * @param bytes
+     *            Bytes received
+     */
+    public void setBytesReceived(long bytes) {
+        this.bytesReceived = bytes;
+    }
+
     @Override
     public boolean wasSuccessful() {
         return this.errorMessage == null && this.errorCategory == ErrorCategories.NONE;
@@ -159,6 +189,39 @@ public abstract class AbstractOperationRun implements OperationRun {
         }
     }
 
+    @Override
+    public HttpPhaseTimings getHttpPhaseTimings() {
+        return this.phaseTimings;
+    }
+
+    /**
+     * Sets the HTTP phase timings for the run
+     * 
+     * @param timings
+     *            Phase timings, may be {@code null} if not recorded
+     */
+    public void setHttpPhaseTimings(HttpPhaseTimings timings) {
+        this.phaseTimings = timings;
+    }
+
+    /**
+     * Gets the time at which the run completed, this is the time at which the
+     * run was created
+     */
+    @Override
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets the ID of the thread that performed the run, this is the thread
+     * which created the run
+     */
+    @Override
+    public long getThreadId() {
+        return this.threadId;
+    }
+
     /**
      * Compares a run to another
      * <p>
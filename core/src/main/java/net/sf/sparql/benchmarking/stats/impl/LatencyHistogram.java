@@ -0,0 +1,121 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats.impl;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * A latency histogram used to calculate percentiles over operation timings
+ * <p>
+ * This is a thin wrapper around a HDR histogram which records values in
+ * nanoseconds with three significant digits of precision. The histogram
+ * resizes itself automatically so there is no need to know the range of
+ * values up front, and it is safe for multiple threads to record values
+ * concurrently.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of significant digits of precision to maintain
+     */
+    public static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Largest value the histogram is able to track, larger values are clamped
+     * to this value
+     */
+    private static final long MAX_TRACKABLE_VALUE = Long.MAX_VALUE / 2;
+
+    private final Histogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    /**
+     * Records a value
+     * <p>
+     * Negative values are used throughout the API to indicate unknown timings
+     * and so are ignored.
+     * </p>
+     * 
+     * @param value
+     *            Value in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0)
+            return;
+        this.histogram.recordValue(Math.min(value, MAX_TRACKABLE_VALUE));
+    }
+
+    /**
+     * Gets the value at the given percentile
+     * 
+     * @param percentile
+     *            Percentile, expressed as a number between 0 and 100
+     * @return Value in nanoseconds, 0 if no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.histogram.getTotalCount() == 0)
+            return 0;
+        return this.histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Gets the maximum recorded value
+     * 
+     * @return Maximum value in nanoseconds, 0 if no values have been recorded
+     */
+    public long getMaxValue() {
+        if (this.histogram.getTotalCount() == 0)
+            return 0;
+        return this.histogram.getMaxValue();
+    }
+
+    /**
+     * Gets the number of values recorded
+     * 
+     * @return Number of values
+     */
+    public long getCount() {
+        return this.histogram.getTotalCount();
+    }
+
+    /**
+     * Clears all recorded values
+     */
+    public void clear() {
+        this.histogram.reset();
+    }
+}
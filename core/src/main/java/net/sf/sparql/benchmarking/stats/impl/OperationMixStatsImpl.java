@@ -57,22 +57,41 @@ import net.sf.sparql.benchmarking.util.ConvertUtils;
  */
 public class OperationMixStatsImpl implements OperationMixStats {
 
-    private List<OperationMixRun> runs = new ArrayList<OperationMixRun>();
+    private final Stripes<List<OperationMixRun>> runs = new Stripes<List<OperationMixRun>>() {
+        @Override
+        protected List<OperationMixRun> create() {
+            return new ArrayList<OperationMixRun>();
+        }
+    };
     private ParallelTimer timer = new ParallelTimer();
+    private LatencyHistogram runtimes = new LatencyHistogram();
+    private LatencyHistogram responseTimes = new LatencyHistogram();
 
     @Override
     public Iterator<OperationMixRun> getRuns() {
-        return this.runs.iterator();
+        return this.snapshot().iterator();
     }
 
     @Override
     public long getRunCount() {
-        return this.runs.size();
+        long count = 0;
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
     }
 
     @Override
     public void clear() {
-        this.runs.clear();
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        this.runtimes.clear();
+        this.responseTimes.clear();
     }
 
     @Override
@@ -80,55 +99,63 @@ public class OperationMixStatsImpl implements OperationMixStats {
         if (outliers <= 0)
             return;
 
+        List<OperationMixRun> runs = this.snapshot();
         PriorityQueue<OperationMixRun> rs = new PriorityQueue<OperationMixRun>();
-        rs.addAll(this.runs);
+        rs.addAll(runs);
         // Discard Best N
         for (int i = 0; i < outliers; i++) {
-            this.runs.remove(rs.remove());
+            runs.remove(rs.remove());
         }
         // Discard Last N
         while (rs.size() > outliers) {
             rs.remove();
         }
         for (OperationMixRun r : rs) {
-            this.runs.remove(r);
+            runs.remove(r);
+        }
+
+        // Replace the recorded runs with the remaining runs and rebuild the
+        // histograms from them
+        this.clear();
+        List<OperationMixRun> stripe = this.runs.get();
+        synchronized (stripe) {
+            stripe.addAll(runs);
+        }
+        for (OperationMixRun r : runs) {
+            this.record(r);
         }
     }
 
     @Override
     public long getTotalOperations() {
-        long total = 0;
-        for (OperationMixRun r : this.runs) {
-            total += r.getRunCount();
-        }
-        return total;
+        return this.totals().totalOperations;
     }
 
     @Override
     public long getTotalErrors() {
-        long total = 0;
-        for (OperationMixRun r : this.runs) {
-            total += r.getTotalErrors();
-        }
-        return total;
+        return this.totals().totalErrors;
     }
 
     @Override
     public Map<Integer, List<OperationRun>> getCategorizedErrors() {
         Map<Integer, List<OperationRun>> errors = new HashMap<Integer, List<OperationRun>>();
-        for (OperationMixRun mr : this.runs) {
-            if (mr.getTotalErrors() > 0) {
-                Iterator<OperationRun> rs = mr.getRuns();
-                while (rs.hasNext()) {
-                    OperationRun r = rs.next();
-                    if (r.wasSuccessful())
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationMixRun mr : stripe) {
+                    if (mr.getTotalErrors() == 0)
                         continue;
-
-                    // Categorize error
-                    if (!errors.containsKey(r.getErrorCategory())) {
-                        errors.put(r.getErrorCategory(), new ArrayList<OperationRun>());
+                    Iterator<OperationRun> rs = mr.getRuns();
+                    while (rs.hasNext()) {
+                        OperationRun r = rs.next();
+                        if (r.wasSuccessful())
+                            continue;
+
+                        // Categorize error
+                        if (!errors.containsKey(r.getErrorCategory())) {
+                            errors.put(r.getErrorCategory(), new ArrayList<OperationRun>());
+                        }
+                        errors.get(r.getErrorCategory()).add(r);
                     }
-                    errors.get(r.getErrorCategory()).add(r);
                 }
             }
         }
@@ -136,14 +163,17 @@ public class OperationMixStatsImpl implements OperationMixStats {
     }
 
     @Override
-    public long getTotalRuntime() {
-        long total = 0;
-        for (OperationMixRun r : this.runs) {
-            if (r.getTotalRuntime() == Long.MAX_VALUE)
-                return Long.MAX_VALUE;
-            total += r.getTotalRuntime();
+    public Map<Integer, Long> getCategorizedErrorCounts() {
+        Map<Integer, Long> counts = new HashMap<Integer, Long>();
+        for (Map.Entry<Integer, List<OperationRun>> e : this.getCategorizedErrors().entrySet()) {
+            counts.put(e.getKey(), (long) e.getValue().size());
         }
-        return total;
+        return counts;
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return this.totals().totalRuntime;
     }
 
     @Override
@@ -153,77 +183,67 @@ public class OperationMixStatsImpl implements OperationMixStats {
 
     @Override
     public long getTotalResponseTime() {
-        long total = 0;
-        for (OperationMixRun r : this.runs) {
-            if (r.getTotalResponseTime() == Long.MAX_VALUE)
-                return Long.MAX_VALUE;
-            total += r.getTotalResponseTime();
-        }
-        return total;
+        return this.totals().totalResponseTime;
     }
 
     @Override
     public long getAverageRuntime() {
-        if (this.runs.size() == 0)
+        Totals totals = this.totals();
+        if (totals.count == 0)
             return 0;
-        long total = this.getTotalRuntime();
-        return total / this.runs.size();
+        return totals.totalRuntime / totals.count;
     }
 
     @Override
     public long getActualAverageRuntime() {
-        if (this.runs.size() == 0)
+        long count = this.getRunCount();
+        if (count == 0)
             return 0;
-        long total = this.getActualRuntime();
-        return total / this.runs.size();
+        return this.getActualRuntime() / count;
     }
 
     @Override
     public long getAverageResponseTime() {
-        if (this.runs.size() == 0)
+        Totals totals = this.totals();
+        if (totals.count == 0)
             return 0;
-        long total = this.getTotalResponseTime();
-        return total / this.runs.size();
+        return totals.totalResponseTime / totals.count;
     }
 
     @Override
     public double getGeometricAverageRuntime() {
-        if (this.runs.size() == 0)
-            return 0;
         GeometricMean gmean = new GeometricMean();
-        for (OperationMixRun r : this.runs) {
-            gmean.increment(r.getTotalRuntime());
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationMixRun r : stripe) {
+                    gmean.increment(r.getTotalRuntime());
+                }
+            }
         }
+        if (gmean.getN() == 0)
+            return 0;
         return gmean.getResult();
     }
 
     @Override
     public long getMinimumRuntime() {
-        long min = Long.MAX_VALUE;
-        for (OperationMixRun r : this.runs) {
-            if (r.getTotalRuntime() < min) {
-                min = r.getTotalRuntime();
-            }
-        }
-        return min;
+        return this.totals().minRuntime;
     }
 
     @Override
     public long getMaximumRuntime() {
-        long max = Long.MIN_VALUE;
-        for (OperationMixRun r : this.runs) {
-            if (r.getTotalRuntime() > max) {
-                max = r.getTotalRuntime();
-            }
-        }
-        return max;
+        return this.totals().maxRuntime;
     }
 
     @Override
     public double getVariance() {
         Variance var = new Variance();
-        for (OperationMixRun r : this.runs) {
-            var.increment(r.getTotalRuntime());
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationMixRun r : stripe) {
+                    var.increment(r.getTotalRuntime());
+                }
+            }
         }
         return var.getResult();
     }
@@ -231,12 +251,26 @@ public class OperationMixStatsImpl implements OperationMixStats {
     @Override
     public double getStandardDeviation() {
         StandardDeviation sdev = new StandardDeviation();
-        for (OperationMixRun r : this.runs) {
-            sdev.increment(r.getTotalRuntime());
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationMixRun r : stripe) {
+                    sdev.increment(r.getTotalRuntime());
+                }
+            }
         }
         return sdev.getResult();
     }
 
+    @Override
+    public long getPercentileRuntime(double percentile) {
+        return this.runtimes.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getPercentileResponseTime(double percentile) {
+        return this.responseTimes.getValueAtPercentile(percentile);
+    }
+
     @Override
     public double getOperationMixesPerHour() {
         double avgRuntime = ConvertUtils.toSeconds(this.getAverageRuntime());
@@ -262,6 +296,89 @@ public class OperationMixStatsImpl implements OperationMixStats {
     public void add(OperationMixRun run) {
         if (run == null)
             return;
-        this.runs.add(run);
+        List<OperationMixRun> stripe = this.runs.get();
+        synchronized (stripe) {
+            stripe.add(run);
+        }
+        this.record(run);
+    }
+
+    /**
+     * Computes the totals over the runs recorded by all threads in a single
+     * pass, synchronizing on each stripe in turn rather than copying the runs
+     * 
+     * @return Totals
+     */
+    private Totals totals() {
+        Totals totals = new Totals();
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationMixRun r : stripe) {
+                    totals.add(r);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Takes a snapshot of the runs recorded by all threads
+     * <p>
+     * Runs recorded by the same thread appear in the order they were
+     * recorded.
+     * </p>
+     * 
+     * @return Runs
+     */
+    private List<OperationMixRun> snapshot() {
+        List<OperationMixRun> rs = new ArrayList<OperationMixRun>();
+        for (List<OperationMixRun> stripe : this.runs) {
+            synchronized (stripe) {
+                rs.addAll(stripe);
+            }
+        }
+        return rs;
+    }
+
+    /**
+     * Records the timings of a run in the histograms
+     * 
+     * @param r
+     *            Run
+     */
+    private void record(OperationMixRun r) {
+        this.runtimes.record(r.getTotalRuntime());
+        this.responseTimes.record(r.getTotalResponseTime());
+    }
+
+    /**
+     * Totals computed over the recorded runs
+     */
+    private static class Totals {
+
+        long count = 0, totalOperations = 0, totalErrors = 0;
+        long totalRuntime = 0, totalResponseTime = 0;
+        long minRuntime = Long.MAX_VALUE, maxRuntime = Long.MIN_VALUE;
+
+        void add(OperationMixRun r) {
+            this.count++;
+            this.totalOperations += r.getRunCount();
+            this.totalErrors += r.getTotalErrors();
+
+            // Totals saturate once any run has an unknown time
+            if (r.getTotalRuntime() == Long.MAX_VALUE || this.totalRuntime == Long.MAX_VALUE) {
+                this.totalRuntime = Long.MAX_VALUE;
+            } else {
+                this.totalRuntime += r.getTotalRuntime();
+            }
+            if (r.getTotalResponseTime() == Long.MAX_VALUE || this.totalResponseTime == Long.MAX_VALUE) {
+                this.totalResponseTime = Long.MAX_VALUE;
+            } else {
+                this.totalResponseTime += r.getTotalResponseTime();
+            }
+
+            this.minRuntime = Math.min(this.minRuntime, r.getTotalRuntime());
+            this.maxRuntime = Math.max(this.maxRuntime, r.getTotalRuntime());
+        }
     }
 }
@@ -40,6 +40,8 @@ import java.util.Map;
 import java.util.PriorityQueue;
 
 import net.sf.sparql.benchmarking.parallel.ParallelTimer;
+import net.sf.sparql.benchmarking.stats.HttpPhase;
+import net.sf.sparql.benchmarking.stats.HttpPhaseTimings;
 import net.sf.sparql.benchmarking.stats.OperationRun;
 import net.sf.sparql.benchmarking.stats.OperationStats;
 import net.sf.sparql.benchmarking.util.ConvertUtils;
@@ -56,51 +58,72 @@ import org.apache.commons.math.stat.descriptive.moment.Variance;
  */
 public class OperationStatsImpl implements OperationStats {
 
-    private List<OperationRun> runs = new ArrayList<OperationRun>();
+    private final Stripes<List<OperationRun>> runs = new Stripes<List<OperationRun>>() {
+        @Override
+        protected List<OperationRun> create() {
+            return new ArrayList<OperationRun>();
+        }
+    };
     private ParallelTimer timer = new ParallelTimer();
+    private LatencyHistogram runtimes = new LatencyHistogram();
+    private LatencyHistogram responseTimes = new LatencyHistogram();
 
     @Override
     public Iterator<OperationRun> getRuns() {
-        return this.runs.iterator();
+        return this.snapshot().iterator();
     }
 
     @Override
     public long getTotalRuntime() {
-        long total = 0;
-        for (OperationRun r : this.runs) {
-            if (r.getRuntime() == Long.MAX_VALUE)
-                return Long.MAX_VALUE;
-            total += r.getRuntime();
-        }
-        return total;
+        return this.totals().totalRuntime;
+    }
+
+    @Override
+    public long getTotalSuccessfulRuntime() {
+        return this.totals().totalSuccessfulRuntime;
     }
 
     @Override
     public long getTotalErrors() {
-        long total = 0;
-        for (OperationRun r : this.runs) {
-            if (!r.wasSuccessful())
-                total++;
-        }
-        return total;
+        return this.totals().errors;
     }
 
     @Override
     public Map<Integer, List<OperationRun>> getCategorizedErrors() {
         Map<Integer, List<OperationRun>> errors = new HashMap<Integer, List<OperationRun>>();
-        for (OperationRun r : this.runs) {
-            if (!r.wasSuccessful())
-                continue;
-
-            // Categorize error
-            if (!errors.containsKey(r.getErrorCategory())) {
-                errors.put(r.getErrorCategory(), new ArrayList<OperationRun>());
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    if (r.wasSuccessful())
+                        continue;
+
+                    // Categorize error
+                    if (!errors.containsKey(r.getErrorCategory())) {
+                        errors.put(r.getErrorCategory(), new ArrayList<OperationRun>());
+                    }
+                    errors.get(r.getErrorCategory()).add(r);
+                }
             }
-            errors.get(r.getErrorCategory()).add(r);
         }
         return errors;
     }
 
+    @Override
+    public Map<Integer, Long> getCategorizedErrorCounts() {
+        Map<Integer, Long> counts = new HashMap<Integer, Long>();
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    if (r.wasSuccessful())
+                        continue;
+                    Long count = counts.get(r.getErrorCategory());
+                    counts.put(r.getErrorCategory(), count != null ? count + 1 : 1L);
+                }
+            }
+        }
+        return counts;
+    }
+
     @Override
     public long getActualRuntime() {
         return this.timer.getActualRuntime();
@@ -108,74 +131,67 @@ public class OperationStatsImpl implements OperationStats {
 
     @Override
     public long getTotalResponseTime() {
-        long total = 0;
-        for (OperationRun r : this.runs) {
-            if (r.getResponseTime() == Long.MAX_VALUE)
-                return Long.MAX_VALUE;
-            total += r.getResponseTime();
-        }
-        return total;
+        return this.totals().totalResponseTime;
     }
 
     @Override
     public long getAverageRuntime() {
-        if (this.runs.size() == 0)
+        Totals totals = this.totals();
+        if (totals.count == 0)
             return 0;
-        return this.getTotalRuntime() / this.runs.size();
+        return totals.totalRuntime / totals.count;
     }
 
     @Override
     public long getAverageResponseTime() {
-        if (this.runs.size() == 0)
+        Totals totals = this.totals();
+        if (totals.count == 0)
             return 0;
-        return this.getTotalResponseTime() / this.runs.size();
+        return totals.totalResponseTime / totals.count;
     }
 
     @Override
     public double getGeometricAverageRuntime() {
-        if (this.runs.size() == 0)
-            return 0;
         GeometricMean gmean = new GeometricMean();
-        for (OperationRun r : this.runs) {
-            gmean.increment(r.getRuntime());
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    gmean.increment(r.getRuntime());
+                }
+            }
         }
+        if (gmean.getN() == 0)
+            return 0;
         return gmean.getResult();
     }
 
     @Override
     public long getActualAverageRuntime() {
-        if (this.runs.size() == 0)
+        long count = this.getRunCount();
+        if (count == 0)
             return 0;
-        return this.getActualRuntime() / this.runs.size();
+        return this.getActualRuntime() / count;
     }
 
     @Override
     public long getMinimumRuntime() {
-        long min = Long.MAX_VALUE;
-        for (OperationRun r : this.runs) {
-            if (r.getRuntime() < min) {
-                min = r.getRuntime();
-            }
-        }
-        return min;
+        return this.totals().minRuntime;
     }
 
     @Override
     public long getMaximumRuntime() {
-        long max = Long.MIN_VALUE;
-        for (OperationRun r : this.runs) {
-            if (r.getRuntime() > max) {
-                max = r.getRuntime();
-            }
-        }
-        return max;
+        return this.totals().maxRuntime;
     }
 
     @Override
     public double getVariance() {
         Variance var = new Variance();
-        for (OperationRun r : this.runs) {
-            var.increment(r.getRuntime());
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    var.increment(r.getRuntime());
+                }
+            }
         }
         return var.getResult();
     }
@@ -183,28 +199,70 @@ public class OperationStatsImpl implements OperationStats {
     @Override
     public double getStandardDeviation() {
         StandardDeviation sdev = new StandardDeviation();
-        for (OperationRun r : this.runs) {
-            sdev.increment(r.getRuntime());
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    sdev.increment(r.getRuntime());
+                }
+            }
         }
         return sdev.getResult();
     }
 
     @Override
-    public long getTotalResults() {
+    public long getPercentileRuntime(double percentile) {
+        return this.runtimes.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getPercentileResponseTime(double percentile) {
+        return this.responseTimes.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getPhaseTimedRunCount() {
+        return this.totals().phaseTimedRuns;
+    }
+
+    @Override
+    public long getTotalPhaseTime(HttpPhase phase) {
         long total = 0;
-        for (OperationRun r : this.runs) {
-            if (r.getResultCount() >= 0)
-                total += r.getResultCount();
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    HttpPhaseTimings timings = r.getHttpPhaseTimings();
+                    if (timings != null)
+                        total += timings.get(phase);
+                }
+            }
         }
         return total;
     }
 
+    @Override
+    public long getAveragePhaseTime(HttpPhase phase) {
+        long count = this.getPhaseTimedRunCount();
+        if (count == 0)
+            return 0;
+        return this.getTotalPhaseTime(phase) / count;
+    }
+
+    @Override
+    public long getTotalResults() {
+        return this.totals().totalResults;
+    }
+
     @Override
     public long getAverageResults() {
-        long total = this.getTotalResults();
-        if (total == 0 || this.runs.size() == 0)
+        Totals totals = this.totals();
+        if (totals.totalResults == 0 || totals.count == 0)
             return 0;
-        return total / this.runs.size();
+        return totals.totalResults / totals.count;
+    }
+
+    @Override
+    public long getTotalBytesReceived() {
+        return this.totals().totalBytesReceived;
     }
 
     @Override
@@ -241,7 +299,13 @@ public class OperationStatsImpl implements OperationStats {
 
     @Override
     public void clear() {
-        this.runs.clear();
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        this.runtimes.clear();
+        this.responseTimes.clear();
     }
 
     @Override
@@ -249,35 +313,150 @@ public class OperationStatsImpl implements OperationStats {
         if (outliers <= 0)
             return;
 
+        List<OperationRun> runs = this.snapshot();
         PriorityQueue<OperationRun> rs = new PriorityQueue<OperationRun>();
-        rs.addAll(this.runs);
+        rs.addAll(runs);
         // Discard Best N
         for (int i = 0; i < outliers; i++) {
-            this.runs.remove(rs.remove());
+            runs.remove(rs.remove());
         }
         // Discard Last N
         while (rs.size() > outliers) {
             rs.remove();
         }
         for (OperationRun r : rs) {
-            this.runs.remove(r);
+            runs.remove(r);
+        }
+
+        // Replace the recorded runs with the remaining runs and rebuild the
+        // histograms from them
+        this.clear();
+        List<OperationRun> stripe = this.runs.get();
+        synchronized (stripe) {
+            stripe.addAll(runs);
+        }
+        for (OperationRun r : runs) {
+            this.record(r);
         }
     }
 
     @Override
     public long getRunCount() {
-        return this.runs.size();
+        long count = 0;
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
     }
 
     @Override
     public void add(OperationRun run) {
         if (run == null)
             return;
-        this.runs.add(run);
+        List<OperationRun> stripe = this.runs.get();
+        synchronized (stripe) {
+            stripe.add(run);
+        }
+        this.record(run);
+    }
+
+    /**
+     * Computes the totals over the runs recorded by all threads in a single
+     * pass, synchronizing on each stripe in turn rather than copying the runs
+     * 
+     * @return Totals
+     */
+    private Totals totals() {
+        Totals totals = new Totals();
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                for (OperationRun r : stripe) {
+                    totals.add(r);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Takes a snapshot of the runs recorded by all threads
+     * <p>
+     * Runs recorded by the same thread appear in the order they were
+     * recorded.
+     * </p>
+     * 
+     * @return Runs
+     */
+    private List<OperationRun> snapshot() {
+        List<OperationRun> rs = new ArrayList<OperationRun>();
+        for (List<OperationRun> stripe : this.runs) {
+            synchronized (stripe) {
+                rs.addAll(stripe);
+            }
+        }
+        return rs;
+    }
+
+    /**
+     * Records the timings of a run in the histograms
+     * 
+     * @param r
+     *            Run
+     */
+    private void record(OperationRun r) {
+        this.runtimes.record(r.getRuntime());
+        this.responseTimes.record(r.getResponseTime());
     }
 
     @Override
     public ParallelTimer getTimer() {
         return this.timer;
     }
+
+    /**
+     * Totals computed over the recorded runs
+     */
+    private static class Totals {
+
+        long count = 0, errors = 0, phaseTimedRuns = 0;
+        long totalRuntime = 0, totalSuccessfulRuntime = 0, totalResponseTime = 0, totalResults = 0,
+                totalBytesReceived = 0;
+        long minRuntime = Long.MAX_VALUE, maxRuntime = Long.MIN_VALUE;
+
+        void add(OperationRun r) {
+            this.count++;
+            if (!r.wasSuccessful())
+                this.errors++;
+            if (r.getHttpPhaseTimings() != null)
+                this.phaseTimedRuns++;
+
+            // Totals saturate once any run has an unknown time
+            if (r.getRuntime() == Long.MAX_VALUE || this.totalRuntime == Long.MAX_VALUE) {
+                this.totalRuntime = Long.MAX_VALUE;
+            } else {
+                this.totalRuntime += r.getRuntime();
+            }
+            if (r.wasSuccessful()) {
+                if (r.getRuntime() == Long.MAX_VALUE || this.totalSuccessfulRuntime == Long.MAX_VALUE) {
+                    this.totalSuccessfulRuntime = Long.MAX_VALUE;
+                } else {
+                    this.totalSuccessfulRuntime += r.getRuntime();
+                }
+            }
+            if (r.getResponseTime() == Long.MAX_VALUE || this.totalResponseTime == Long.MAX_VALUE) {
+                this.totalResponseTime = Long.MAX_VALUE;
+            } else {
+                this.totalResponseTime += r.getResponseTime();
+            }
+
+            if (r.getResultCount() >= 0)
+                this.totalResults += r.getResultCount();
+            if (r.getBytesReceived() >= 0)
+                this.totalBytesReceived += r.getBytesReceived();
+            this.minRuntime = Math.min(this.minRuntime, r.getRuntime());
+            this.maxRuntime = Math.max(this.maxRuntime, r.getRuntime());
+        }
+    }
 }
@@ -0,0 +1,210 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats.impl;
+
+/**
+ * Maintains running statistics over a series of timings in constant memory
+ * <p>
+ * Totals, minimum and maximum are tracked directly, the variance is
+ * calculated using Welford's online algorithm and the geometric mean is
+ * calculated from a running sum of logarithms. This means no individual
+ * values need to be retained in order to compute these statistics.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class RunningStatistics {
+
+    private long count = 0;
+    private long total = 0;
+    private boolean saturated = false;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean = 0;
+    private double m2 = 0;
+    private double logSum = 0;
+
+    /**
+     * Adds a value
+     * 
+     * @param value
+     *            Value in nanoseconds
+     */
+    public void add(long value) {
+        this.count++;
+
+        // Totals, a value of Long.MAX_VALUE is used to indicate an infinite
+        // time so any subsequent total is also infinite
+        if (value == Long.MAX_VALUE) {
+            this.saturated = true;
+        } else {
+            this.total += value;
+        }
+
+        if (value < this.min)
+            this.min = value;
+        if (value > this.max)
+            this.max = value;
+
+        // Welford's algorithm for variance
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.m2 += delta * (value - this.mean);
+
+        // Geometric mean
+        this.logSum += Math.log(value);
+    }
+
+    /**
+     * Merges the values of other statistics into these statistics
+     * <p>
+     * The variance is combined using the parallel form of Welford's algorithm
+     * so the result is the same as if all the values had been added to a
+     * single instance.
+     * </p>
+     * 
+     * @param other
+     *            Other statistics
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0)
+            return;
+        if (this.count == 0) {
+            this.count = other.count;
+            this.total = other.total;
+            this.saturated = other.saturated;
+            this.min = other.min;
+            this.max = other.max;
+            this.mean = other.mean;
+            this.m2 = other.m2;
+            this.logSum = other.logSum;
+            return;
+        }
+
+        long n = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / n;
+        this.m2 += other.m2 + delta * delta * ((double) this.count * other.count / n);
+        this.count = n;
+        this.total += other.total;
+        this.saturated |= other.saturated;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+        this.logSum += other.logSum;
+    }
+
+    /**
+     * Gets the number of values
+     * 
+     * @return Number of values
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the total of the values
+     * 
+     * @return Total or {@link Long#MAX_VALUE} if any value was
+     *         {@link Long#MAX_VALUE}
+     */
+    public long getTotal() {
+        return this.saturated ? Long.MAX_VALUE : this.total;
+    }
+
+    /**
+     * Gets the minimum value
+     * 
+     * @return Minimum or {@link Long#MAX_VALUE} if there are no values
+     */
+    public long getMinimum() {
+        return this.min;
+    }
+
+    /**
+     * Gets the maximum value
+     * 
+     * @return Maximum or {@link Long#MIN_VALUE} if there are no values
+     */
+    public long getMaximum() {
+        return this.max;
+    }
+
+    /**
+     * Gets the sample variance
+     * 
+     * @return Variance, {@link Double#NaN} if there are no values
+     */
+    public double getVariance() {
+        if (this.count == 0)
+            return Double.NaN;
+        if (this.count == 1)
+            return 0;
+        return this.m2 / (this.count - 1);
+    }
+
+    /**
+     * Gets the sample standard deviation
+     * 
+     * @return Standard deviation, {@link Double#NaN} if there are no values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(this.getVariance());
+    }
+
+    /**
+     * Gets the geometric mean
+     * 
+     * @return Geometric mean, {@link Double#NaN} if there are no values
+     */
+    public double getGeometricMean() {
+        if (this.count == 0)
+            return Double.NaN;
+        return Math.exp(this.logSum / this.count);
+    }
+
+    /**
+     * Clears the statistics
+     */
+    public void clear() {
+        this.count = 0;
+        this.total = 0;
+        this.saturated = false;
+        this.min = Long.MAX_VALUE;
+        this.max = Long.MIN_VALUE;
+        this.mean = 0;
+        this.m2 = 0;
+        this.logSum = 0;
+    }
+}
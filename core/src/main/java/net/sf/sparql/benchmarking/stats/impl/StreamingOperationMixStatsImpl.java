@@ -0,0 +1,335 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.parallel.ParallelTimer;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationMixStats;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.util.ConvertUtils;
+
+/**
+ * Implementation of operation mix statistics that operates in constant memory
+ * <p>
+ * Unlike {@link OperationMixStatsImpl} this implementation does not retain the
+ * individual mix runs, instead it maintains running totals, variance,
+ * geometric mean, minimum and maximum plus histograms for calculating
+ * percentiles. This makes it suitable for long running soak tests where
+ * retaining every run would cause unbounded heap growth.
+ * </p>
+ * <p>
+ * Runs are accumulated in {@link Stripes} so that parallel clients recording
+ * runs do not contend with each other, the stripes are merged when statistics
+ * are read.
+ * </p>
+ * <p>
+ * As runs are not retained {@link #getRuns()} always returns an empty
+ * iterator, {@link #getCategorizedErrors()} only returns the most recent error
+ * in each category and {@link #trim(int)} is not supported.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class StreamingOperationMixStatsImpl implements OperationMixStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingOperationMixStatsImpl.class);
+
+    private final Stripes<Accumulator> stripes = new Stripes<Accumulator>() {
+        @Override
+        protected Accumulator create() {
+            return new Accumulator();
+        }
+    };
+    private LatencyHistogram runtimeHistogram = new LatencyHistogram();
+    private LatencyHistogram responseTimeHistogram = new LatencyHistogram();
+    private ParallelTimer timer = new ParallelTimer();
+
+    /**
+     * Accumulates the statistics for the mix runs recorded on a stripe
+     */
+    private static class Accumulator {
+        private final RunningStatistics runtimes = new RunningStatistics();
+        private long totalResponseTime = 0;
+        private boolean responseTimeSaturated = false;
+        private long totalOperations = 0;
+        private long totalErrors = 0;
+        private final Map<Integer, Long> errorCounts = new HashMap<Integer, Long>();
+        private final Map<Integer, OperationRun> lastErrors = new HashMap<Integer, OperationRun>();
+
+        void add(OperationMixRun run) {
+            this.runtimes.add(run.getTotalRuntime());
+            if (run.getTotalResponseTime() == Long.MAX_VALUE) {
+                this.responseTimeSaturated = true;
+            } else {
+                this.totalResponseTime += run.getTotalResponseTime();
+            }
+            this.totalOperations += run.getRunCount();
+            if (run.getTotalErrors() > 0) {
+                this.totalErrors += run.getTotalErrors();
+                Iterator<OperationRun> rs = run.getRuns();
+                while (rs.hasNext()) {
+                    OperationRun r = rs.next();
+                    if (r.wasSuccessful())
+                        continue;
+
+                    Long count = this.errorCounts.get(r.getErrorCategory());
+                    this.errorCounts.put(r.getErrorCategory(), count != null ? count + 1 : 1L);
+                    this.lastErrors.put(r.getErrorCategory(), r);
+                }
+            }
+        }
+
+        void merge(Accumulator other) {
+            this.runtimes.merge(other.runtimes);
+            this.totalResponseTime += other.totalResponseTime;
+            this.responseTimeSaturated |= other.responseTimeSaturated;
+            this.totalOperations += other.totalOperations;
+            this.totalErrors += other.totalErrors;
+            for (Map.Entry<Integer, Long> e : other.errorCounts.entrySet()) {
+                Long count = this.errorCounts.get(e.getKey());
+                this.errorCounts.put(e.getKey(), count != null ? count + e.getValue() : e.getValue());
+            }
+            for (Map.Entry<Integer, OperationRun> e : other.lastErrors.entrySet()) {
+                OperationRun last = this.lastErrors.get(e.getKey());
+                if (last == null || e.getValue().getRunOrder() > last.getRunOrder())
+                    this.lastErrors.put(e.getKey(), e.getValue());
+            }
+        }
+
+        void clear() {
+            this.runtimes.clear();
+            this.totalResponseTime = 0;
+            this.responseTimeSaturated = false;
+            this.totalOperations = 0;
+            this.totalErrors = 0;
+            this.errorCounts.clear();
+            this.lastErrors.clear();
+        }
+    }
+
+    /**
+     * Merges the statistics accumulated by all threads
+     * 
+     * @return Merged statistics
+     */
+    private Accumulator merged() {
+        Accumulator merged = new Accumulator();
+        for (Accumulator stripe : this.stripes) {
+            synchronized (stripe) {
+                merged.merge(stripe);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public Iterator<OperationMixRun> getRuns() {
+        return Collections.<OperationMixRun> emptyList().iterator();
+    }
+
+    @Override
+    public long getRunCount() {
+        return this.merged().runtimes.getCount();
+    }
+
+    @Override
+    public void add(OperationMixRun run) {
+        if (run == null)
+            return;
+
+        Accumulator stripe = this.stripes.get();
+        synchronized (stripe) {
+            stripe.add(run);
+        }
+        this.runtimeHistogram.record(run.getTotalRuntime());
+        this.responseTimeHistogram.record(run.getTotalResponseTime());
+    }
+
+    @Override
+    public void clear() {
+        for (Accumulator stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        this.runtimeHistogram.clear();
+        this.responseTimeHistogram.clear();
+    }
+
+    /**
+     * Trimming is not supported since individual runs are not retained, calls
+     * to this method are ignored
+     */
+    @Override
+    public void trim(int outliers) {
+        if (outliers <= 0)
+            return;
+        logger.warn("Unable to trim {} outliers since streaming statistics do not retain individual runs", outliers);
+    }
+
+    @Override
+    public long getTotalOperations() {
+        return this.merged().totalOperations;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        return this.merged().totalErrors;
+    }
+
+    @Override
+    public Map<Integer, List<OperationRun>> getCategorizedErrors() {
+        Map<Integer, List<OperationRun>> errors = new HashMap<Integer, List<OperationRun>>();
+        for (Map.Entry<Integer, OperationRun> e : this.merged().lastErrors.entrySet()) {
+            List<OperationRun> rs = new ArrayList<OperationRun>();
+            rs.add(e.getValue());
+            errors.put(e.getKey(), rs);
+        }
+        return errors;
+    }
+
+    @Override
+    public Map<Integer, Long> getCategorizedErrorCounts() {
+        return this.merged().errorCounts;
+    }
+
+    @Override
+    public long getTotalRuntime() {
+        return this.merged().runtimes.getTotal();
+    }
+
+    @Override
+    public long getActualRuntime() {
+        return this.timer.getActualRuntime();
+    }
+
+    @Override
+    public long getTotalResponseTime() {
+        Accumulator stats = this.merged();
+        return stats.responseTimeSaturated ? Long.MAX_VALUE : stats.totalResponseTime;
+    }
+
+    @Override
+    public long getAverageRuntime() {
+        Accumulator stats = this.merged();
+        if (stats.runtimes.getCount() == 0)
+            return 0;
+        return stats.runtimes.getTotal() / stats.runtimes.getCount();
+    }
+
+    @Override
+    public long getActualAverageRuntime() {
+        long count = this.getRunCount();
+        if (count == 0)
+            return 0;
+        return this.getActualRuntime() / count;
+    }
+
+    @Override
+    public long getAverageResponseTime() {
+        Accumulator stats = this.merged();
+        if (stats.runtimes.getCount() == 0)
+            return 0;
+        return (stats.responseTimeSaturated ? Long.MAX_VALUE : stats.totalResponseTime) / stats.runtimes.getCount();
+    }
+
+    @Override
+    public double getGeometricAverageRuntime() {
+        Accumulator stats = this.merged();
+        if (stats.runtimes.getCount() == 0)
+            return 0;
+        return stats.runtimes.getGeometricMean();
+    }
+
+    @Override
+    public long getMinimumRuntime() {
+        return this.merged().runtimes.getMinimum();
+    }
+
+    @Override
+    public long getMaximumRuntime() {
+        return this.merged().runtimes.getMaximum();
+    }
+
+    @Override
+    public double getVariance() {
+        return this.merged().runtimes.getVariance();
+    }
+
+    @Override
+    public double getStandardDeviation() {
+        return this.merged().runtimes.getStandardDeviation();
+    }
+
+    @Override
+    public long getPercentileRuntime(double percentile) {
+        return this.runtimeHistogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public long getPercentileResponseTime(double percentile) {
+        return this.responseTimeHistogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public double getOperationMixesPerHour() {
+        double avgRuntime = ConvertUtils.toSeconds(this.getAverageRuntime());
+        if (avgRuntime == 0)
+            return 0;
+        return ConvertUtils.SECONDS_PER_HOUR / avgRuntime;
+    }
+
+    @Override
+    public double getActualOperationMixesPerHour() {
+        double avgRuntime = ConvertUtils.toSeconds(this.getActualAverageRuntime());
+        if (avgRuntime == 0)
+            return 0;
+        return ConvertUtils.SECONDS_PER_HOUR / avgRuntime;
+    }
+
+    @Override
+    public ParallelTimer getTimer() {
+        return this.timer;
+    }
+}
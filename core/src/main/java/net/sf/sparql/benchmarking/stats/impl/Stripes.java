@@ -0,0 +1,109 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.stats.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A fixed set of stripes used to record statistics from many threads without
+ * them contending on a single lock
+ * <p>
+ * Each thread is mapped to one of the stripes based upon its ID, callers
+ * synchronize on the stripe returned by {@link #get()} when recording which
+ * is almost always uncontended. Readers iterate over all the stripes and merge
+ * them, synchronizing on each in turn, so reads are more expensive than
+ * writes. This is the right trade off for statistics which are recorded for
+ * every operation but only read when reporting.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ * @param <T>
+ *            Stripe type
+ */
+public abstract class Stripes<T> implements Iterable<T> {
+
+    /**
+     * Number of stripes, a power of two so that a mask may be used to select
+     * a stripe
+     */
+    private static final int STRIPES = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private final List<T> stripes;
+
+    /**
+     * Creates new stripes
+     */
+    @SuppressWarnings("unchecked")
+    public Stripes() {
+        Object[] ss = new Object[STRIPES];
+        for (int i = 0; i < ss.length; i++) {
+            ss[i] = this.create();
+        }
+        this.stripes = Collections.unmodifiableList(Arrays.asList((T[]) ss));
+    }
+
+    private static int stripeCount(int processors) {
+        int count = 2;
+        while (count < processors * 2 && count < 64) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    /**
+     * Creates a new stripe
+     * 
+     * @return Stripe
+     */
+    protected abstract T create();
+
+    /**
+     * Gets the stripe for the current thread
+     * 
+     * @return Stripe
+     */
+    public T get() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return this.stripes.get((h ^ (h >>> 16)) & (STRIPES - 1));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this.stripes.iterator();
+    }
+}
@@ -51,6 +51,19 @@ public class UpdateRun extends AbstractOperationRun {
         super(runtime, UNKNOWN);
     }
 
+    /**
+     * Creates run information for a successful run which made a known number
+     * of updates e.g. a batch of updates
+     * 
+     * @param runtime
+     *            Runtime
+     * @param updates
+     *            Number of updates made
+     */
+    public UpdateRun(long runtime, long updates) {
+        super(runtime, updates);
+    }
+
     /**
      * Create run information for a failed run
      * 
@@ -0,0 +1,297 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+package net.sf.sparql.benchmarking.stats.impl;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Rolling time window statistics
+ * <p>
+ * Runs are recorded into a fixed size ring of time buckets, each holding
+ * counts, totals and a latency histogram for the runs that completed within
+ * it. Buckets are recycled as time moves on so memory usage is bounded
+ * regardless of how long a test runs. Statistics for a window are calculated
+ * on demand by merging the most recent complete buckets.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class WindowedStats {
+
+    /**
+     * Default bucket size in milliseconds
+     */
+    public static final long DEFAULT_BUCKET_SIZE = 1000;
+
+    /**
+     * Default number of buckets, with the default bucket size this allows
+     * windows of up to a minute
+     */
+    public static final int DEFAULT_BUCKETS = 60;
+
+    /**
+     * Number of significant digits maintained by bucket histograms, this is
+     * less than is used for whole run statistics to keep buckets small
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final long bucketSize;
+    private final Bucket[] buckets;
+
+    /**
+     * Creates new windowed statistics with the default bucket size and number
+     * of buckets
+     */
+    public WindowedStats() {
+        this(DEFAULT_BUCKETS, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Creates new windowed statistics
+     * 
+     * @param buckets
+     *            Number of buckets, determines the largest window available
+     * @param bucketSize
+     *            Bucket size in milliseconds
+     */
+    public WindowedStats(int buckets, long bucketSize) {
+        if (buckets <= 0)
+            throw new IllegalArgumentException("Number of buckets must be greater than zero");
+        if (bucketSize <= 0)
+            throw new IllegalArgumentException("Bucket size must be greater than zero");
+        this.bucketSize = bucketSize;
+        this.buckets = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Gets the bucket size
+     * 
+     * @return Bucket size in milliseconds
+     */
+    public long getBucketSize() {
+        return this.bucketSize;
+    }
+
+    /**
+     * Gets the largest window that can be calculated
+     * 
+     * @return Largest window in milliseconds
+     */
+    public long getMaxWindow() {
+        return this.buckets.length * this.bucketSize;
+    }
+
+    /**
+     * Records a run
+     * 
+     * @param timestamp
+     *            Time at which the run completed in milliseconds since the
+     *            epoch
+     * @param runtime
+     *            Runtime in nanoseconds
+     * @param error
+     *            Whether the run was an error
+     */
+    public synchronized void record(long timestamp, long runtime, boolean error) {
+        long epoch = timestamp / this.bucketSize;
+        Bucket bucket = this.buckets[(int) (epoch % this.buckets.length)];
+        if (bucket.epoch != epoch) {
+            // Runs may be recorded slightly out of order, never let a late run
+            // recycle a bucket that is already in use by a later time
+            if (bucket.epoch > epoch)
+                return;
+            bucket.reset(epoch);
+        }
+        bucket.count++;
+        if (error)
+            bucket.errors++;
+        if (runtime >= 0) {
+            bucket.totalRuntime += runtime;
+            bucket.histogram.recordValue(runtime);
+        }
+    }
+
+    /**
+     * Calculates statistics for the given window
+     * <p>
+     * The window covers the complete buckets immediately preceding the bucket
+     * containing the given time, the current bucket is excluded since it is
+     * still being filled.
+     * </p>
+     * 
+     * @param now
+     *            Current time in milliseconds since the epoch
+     * @param window
+     *            Window size in milliseconds, rounded up to a whole number of
+     *            buckets and limited to {@link #getMaxWindow()}
+     * @return Window statistics
+     */
+    public synchronized Window getWindow(long now, long window) {
+        int n = (int) Math.min(this.buckets.length, Math.max(1, (window + this.bucketSize - 1) / this.bucketSize));
+        long current = now / this.bucketSize;
+        Window w = new Window(n * this.bucketSize);
+        for (long epoch = current - n; epoch < current; epoch++) {
+            if (epoch < 0)
+                continue;
+            Bucket bucket = this.buckets[(int) (epoch % this.buckets.length)];
+            if (bucket.epoch != epoch)
+                continue;
+            w.count += bucket.count;
+            w.errors += bucket.errors;
+            w.totalRuntime += bucket.totalRuntime;
+            w.histogram.add(bucket.histogram);
+        }
+        return w;
+    }
+
+    /**
+     * Clears all recorded runs
+     */
+    public synchronized void clear() {
+        for (Bucket bucket : this.buckets) {
+            bucket.reset(-1);
+        }
+    }
+
+    /**
+     * A time bucket
+     */
+    private static class Bucket {
+        long epoch = -1;
+        long count, errors, totalRuntime;
+        final Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            this.count = 0;
+            this.errors = 0;
+            this.totalRuntime = 0;
+            this.histogram.reset();
+        }
+    }
+
+    /**
+     * Statistics for a time window
+     */
+    public static class Window {
+        private final long size;
+        private long count, errors, totalRuntime;
+        private final Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+
+        private Window(long size) {
+            this.size = size;
+        }
+
+        /**
+         * Gets the window size
+         * 
+         * @return Window size in milliseconds
+         */
+        public long getSize() {
+            return this.size;
+        }
+
+        /**
+         * Gets the number of runs in the window
+         * 
+         * @return Number of runs
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Gets the number of errors in the window
+         * 
+         * @return Number of errors
+         */
+        public long getErrors() {
+            return this.errors;
+        }
+
+        /**
+         * Gets the proportion of runs in the window that were errors
+         * 
+         * @return Error rate between 0 and 1
+         */
+        public double getErrorRate() {
+            return this.count > 0 ? (double) this.errors / this.count : 0;
+        }
+
+        /**
+         * Gets the throughput over the window
+         * 
+         * @return Runs per second
+         */
+        public double getThroughput() {
+            return this.count * 1000d / this.size;
+        }
+
+        /**
+         * Gets the average runtime of runs in the window
+         * 
+         * @return Average runtime in nanoseconds
+         */
+        public long getAverageRuntime() {
+            long timed = this.histogram.getTotalCount();
+            return timed > 0 ? this.totalRuntime / timed : 0;
+        }
+
+        /**
+         * Gets the runtime at the given percentile
+         * 
+         * @param percentile
+         *            Percentile, expressed as a number between 0 and 100
+         * @return Runtime in nanoseconds, 0 if there were no runs
+         */
+        public long getPercentileRuntime(double percentile) {
+            if (this.histogram.getTotalCount() == 0)
+                return 0;
+            return this.histogram.getValueAtPercentile(percentile);
+        }
+
+        /**
+         * Gets the maximum runtime of runs in the window
+         * 
+         * @return Maximum runtime in nanoseconds, 0 if there were no runs
+         */
+        public long getMaximumRuntime() {
+            if (this.histogram.getTotalCount() == 0)
+                return 0;
+            return this.histogram.getMaxValue();
+        }
+    }
+}
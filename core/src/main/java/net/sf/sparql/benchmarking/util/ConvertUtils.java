@@ -52,6 +52,10 @@ public class ConvertUtils {
      * Nanoseconds per millisecond
      */
     public static final double NANOSECONDS_PER_MILLISECONDS = 1000000;
+    /**
+     * Nanoseconds per second
+     */
+    public static final double NANOSECONDS_PER_SECOND = 1000000000;
     /**
      * Milliseconds per second
      */
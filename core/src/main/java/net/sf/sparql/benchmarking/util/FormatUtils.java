@@ -55,6 +55,11 @@ public class FormatUtils {
     private FormatUtils() {
     }
 
+    /**
+     * The percentiles that are reported in summaries and results files
+     */
+    public static final double[] REPORTED_PERCENTILES = { 50, 90, 99, 99.9 };
+
     private static DateTimeFormatter instantFormatter;
 
     static {
@@ -165,6 +170,21 @@ public class FormatUtils {
         return String.format("%,f", value);
     }
 
+    /**
+     * Formats a percentile as a string e.g. {@code 99.9th}
+     * 
+     * @param percentile
+     *            Percentile
+     * @return Formatted percentile
+     */
+    public static String formatPercentile(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return String.format("%dth", (long) percentile);
+        } else {
+            return String.format("%sth", Double.toString(percentile));
+        }
+    }
+
     /**
      * Formats a string for CSV escaping it as a double quoted CSV string if
      * necessary
@@ -0,0 +1,647 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.util;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.ProxySelectorRoutePlanner;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.jena.riot.web.HttpOp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.stats.HttpPhase;
+
+/**
+ * A shared pool of keep-alive HTTP connections used by all remote operations
+ * <p>
+ * By default ARQ creates a new HTTP client, and thus a new connection, for
+ * every remote request. Under high concurrency this can exhaust ephemeral ports
+ * and means that TCP and TLS handshakes are included in the measured runtimes.
+ * Using a pool allows connections to be reused across operations so that the
+ * benchmarker measures the system under test rather than connection setup.
+ * </p>
+ * <p>
+ * The pool is made available to ARQ by calling {@link #install()} which sets
+ * it as the default HTTP client used by all remote query, update and graph
+ * store protocol requests.
+ * </p>
+ * <p>
+ * The pooled client is also instrumented so that operations can obtain a per
+ * phase breakdown of their HTTP timings via {@link HttpPhaseTimer}, when no
+ * timer is active on the calling thread the instrumentation records nothing.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class HttpClientPool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientPool.class);
+
+    /**
+     * Number of endpoints (query, update and graph store) that the total pool
+     * size is scaled by relative to the per route maximum
+     */
+    private static final int ROUTES = 3;
+    /**
+     * Interval in milliseconds at which pool usage is sampled
+     */
+    private static final long MONITOR_INTERVAL = 1000;
+
+    private final PoolingClientConnectionManager manager;
+    private final DefaultHttpClient client;
+    private final Thread monitor;
+    private final ActiveRequests active = new ActiveRequests();
+    private volatile boolean closed = false;
+    private volatile int peakLeased = 0, peakPending = 0;
+
+    /**
+     * Creates a new pool
+     * 
+     * @param maxPerRoute
+     *            Maximum connections per route i.e. per endpoint host
+     * @param keepAlive
+     *            Time in milliseconds to keep connections alive for if the
+     *            server does not specify, values <= 0 disable connection
+     *            reuse
+     * @param idleTimeout
+     *            Time in milliseconds after which idle connections are
+     *            evicted, values <= 0 disable eviction
+     * @param tcpNoDelay
+     *            Whether to set TCP_NODELAY i.e. disable Nagle's algorithm
+     */
+    public HttpClientPool(int maxPerRoute, final long keepAlive, final long idleTimeout, boolean tcpNoDelay) {
+        if (maxPerRoute <= 0)
+            throw new IllegalArgumentException("Maximum connections per route must be >= 1");
+
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, new TimedSocketFactory()));
+        schemes.register(new Scheme("https", 443, new TimedSecureSocketFactory(SSLSocketFactory
+                .getSystemSocketFactory())));
+        this.manager = new PoolingClientConnectionManager(schemes, new TimedDnsResolver()) {
+            @Override
+            public void releaseConnection(ManagedClientConnection conn, long keepalive, TimeUnit tunit) {
+                // Stop tracking the request before the connection can be reused
+                // so an abort can never affect another request
+                active.released(conn);
+                super.releaseConnection(conn, keepalive, tunit);
+            }
+        };
+        this.manager.setDefaultMaxPerRoute(maxPerRoute);
+        this.manager.setMaxTotal(maxPerRoute * ROUTES);
+
+        this.client = new DefaultHttpClient(this.manager) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor(active);
+            }
+        };
+        this.client.addResponseInterceptor(new HttpResponseInterceptor() {
+            @Override
+            public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+                HttpEntity entity = response.getEntity();
+                if (entity != null && HttpPhaseTimer.isActive())
+                    response.setEntity(new TimedEntity(entity));
+            }
+        });
+        HttpConnectionParams.setTcpNoDelay(this.client.getParams(), tcpNoDelay);
+        HttpConnectionParams.setStaleCheckingEnabled(this.client.getParams(), true);
+        this.client.setRoutePlanner(new ProxySelectorRoutePlanner(schemes, ProxySelector.getDefault()));
+        if (keepAlive > 0) {
+            this.client.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+                @Override
+                public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                    // Prefer the servers Keep-Alive header if present
+                    long duration = super.getKeepAliveDuration(response, context);
+                    return duration > 0 ? duration : keepAlive;
+                }
+            });
+        } else {
+            this.client.setReuseStrategy(new NoConnectionReuseStrategy());
+        }
+
+        // Background thread samples pool usage and evicts idle connections
+        this.monitor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long interval = idleTimeout > 0 ? Math.max(100, Math.min(MONITOR_INTERVAL, idleTimeout / 2))
+                        : MONITOR_INTERVAL;
+                while (!closed) {
+                    try {
+                        Thread.sleep(interval);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    sample();
+                    if (idleTimeout > 0) {
+                        manager.closeExpiredConnections();
+                        manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }, "HTTP Connection Monitor");
+        this.monitor.setDaemon(true);
+        this.monitor.start();
+    }
+
+    private void sample() {
+        PoolStats stats = this.manager.getTotalStats();
+        this.peakLeased = Math.max(this.peakLeased, stats.getLeased());
+        this.peakPending = Math.max(this.peakPending, stats.getPending());
+    }
+
+    /**
+     * Creates a new pool using the HTTP settings from the given options
+     * 
+     * @param options
+     *            Options
+     * @return HTTP client pool
+     */
+    public static HttpClientPool create(Options options) {
+        return new HttpClientPool(options.getHttpMaxConnectionsPerRoute(), options.getHttpKeepAlive(), options.getHttpIdleTimeout(),
+                options.getHttpTcpNoDelay());
+    }
+
+    /**
+     * Gets the pooled HTTP client
+     * 
+     * @return HTTP client
+     */
+    public HttpClient getClient() {
+        return this.client;
+    }
+
+    /**
+     * Installs the pool as the default HTTP client used by ARQ for all remote
+     * requests
+     */
+    public void install() {
+        HttpOp.setDefaultHttpClient(this.client);
+        // Authenticators are applied to the shared client
+        HttpOp.setUseDefaultClientWithAuthentication(true);
+    }
+
+    /**
+     * Gets statistics for the pool
+     * 
+     * @return Pool statistics
+     */
+    public PoolStats getStats() {
+        return this.manager.getTotalStats();
+    }
+
+    /**
+     * Gets the maximum number of connections per route
+     * 
+     * @return Maximum connections per route
+     */
+    public int getMaxPerRoute() {
+        return this.manager.getDefaultMaxPerRoute();
+    }
+
+    /**
+     * Gets the peak number of leased connections i.e. connections in use
+     * <p>
+     * Pool usage is sampled periodically so short lived peaks may be missed.
+     * </p>
+     * 
+     * @return Peak leased connections
+     */
+    public int getPeakLeased() {
+        this.sample();
+        return this.peakLeased;
+    }
+
+    /**
+     * Gets the peak number of pending requests i.e. requests waiting for a
+     * connection to become available
+     * <p>
+     * Pool usage is sampled periodically so short lived peaks may be missed.
+     * If this is non-zero then the maximum connections per route should be
+     * increased.
+     * </p>
+     * 
+     * @return Peak pending requests
+     */
+    public int getPeakPending() {
+        this.sample();
+        return this.peakPending;
+    }
+
+    /**
+     * Aborts the HTTP request currently in flight on the given thread (if any)
+     * by shutting down its connection
+     * <p>
+     * This allows a thread that is blocked on socket I/O to be woken up since
+     * blocking I/O does not respond to interrupts. A request is only
+     * considered in flight from when it starts being sent until its response
+     * has been fully consumed or released so this never affects a connection
+     * that has been returned to the pool.
+     * </p>
+     * 
+     * @param thread
+     *            Thread
+     * @return True if a connection was shut down, false otherwise
+     */
+    public boolean abort(Thread thread) {
+        ActiveRequest request = this.active.byThread.get(thread);
+        return request != null && request.abort();
+    }
+
+    /**
+     * Gets the number of HTTP requests currently in flight
+     * 
+     * @return Number of in flight requests
+     */
+    public int getActiveRequests() {
+        return this.active.byConnection.size();
+    }
+
+    /**
+     * Closes the pool releasing all connections, if the pool is installed as
+     * the default HTTP client it is uninstalled
+     */
+    @Override
+    public void close() {
+        if (this.closed)
+            return;
+        this.closed = true;
+        this.monitor.interrupt();
+        if (HttpOp.getDefaultHttpClient() == this.client)
+            HttpOp.setDefaultHttpClient(null);
+        try {
+            this.manager.shutdown();
+        } catch (Throwable e) {
+            logger.warn("Error shutting down HTTP connection pool - " + e.getMessage());
+        }
+    }
+
+    /**
+     * DNS resolver that records the time spent resolving host names
+     */
+    private static class TimedDnsResolver implements DnsResolver {
+
+        private final DnsResolver resolver = new SystemDefaultDnsResolver();
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return this.resolver.resolve(host);
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.DNS, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Socket factory that records the time spent establishing TCP connections
+     */
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+
+        private final SchemeSocketFactory factory = PlainSocketFactory.getSocketFactory();
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return this.factory.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket sock, InetSocketAddress remote, InetSocketAddress local, HttpParams params)
+                throws IOException, UnknownHostException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            try {
+                return this.factory.connectSocket(sock, remote, local, params);
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.CONNECT, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket sock) throws IllegalArgumentException {
+            return false;
+        }
+    }
+
+    /**
+     * Socket factory for secure connections which establishes a plain TCP
+     * connection and then layers TLS over it so that the time spent on the TCP
+     * connect and the TLS handshake can be recorded separately
+     */
+    private static class TimedSecureSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+
+        private final SSLSocketFactory factory;
+
+        public TimedSecureSocketFactory(SSLSocketFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Socket connectSocket(Socket sock, InetSocketAddress remote, InetSocketAddress local, HttpParams params)
+                throws IOException, UnknownHostException, ConnectTimeoutException {
+            Socket connected = super.connectSocket(sock, remote, local, params);
+            String host = remote instanceof HttpInetSocketAddress ? ((HttpInetSocketAddress) remote).getHttpHost()
+                    .getHostName() : remote.getHostName();
+            return this.createLayeredSocket(connected, host, remote.getPort(), params);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException,
+                UnknownHostException {
+            // Creating the layered socket performs the handshake as part of
+            // verifying the host name
+            long start = System.nanoTime();
+            try {
+                return this.factory.createLayeredSocket(socket, target, port, params);
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.TLS, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket sock) throws IllegalArgumentException {
+            return sock instanceof SSLSocket;
+        }
+    }
+
+    /**
+     * The HTTP requests currently in flight, indexed both by the connection
+     * they use and by the thread making them so that both releasing a
+     * connection and aborting a thread's request are direct lookups
+     * <p>
+     * Requests are made synchronously so a thread has at most one request in
+     * flight at a time, likewise a connection is only leased to one request at
+     * a time.
+     * </p>
+     */
+    private static class ActiveRequests {
+
+        private final ConcurrentMap<HttpClientConnection, ActiveRequest> byConnection =
+                new ConcurrentHashMap<HttpClientConnection, ActiveRequest>();
+        private final ConcurrentMap<Thread, ActiveRequest> byThread = new ConcurrentHashMap<Thread, ActiveRequest>();
+
+        /**
+         * Starts tracking a request being made on the current thread
+         * 
+         * @param conn
+         *            Connection
+         * @return Active request
+         */
+        public ActiveRequest start(HttpClientConnection conn) {
+            ActiveRequest request = new ActiveRequest(this, Thread.currentThread(), conn);
+            ActiveRequest previous = this.byConnection.put(conn, request);
+            if (previous != null)
+                previous.release();
+            previous = this.byThread.put(request.thread, request);
+            if (previous != null)
+                previous.release();
+            return request;
+        }
+
+        /**
+         * Stops tracking the request using the given connection (if any)
+         * 
+         * @param conn
+         *            Connection
+         */
+        public void released(HttpClientConnection conn) {
+            ActiveRequest request = this.byConnection.get(conn);
+            if (request != null)
+                request.release();
+        }
+    }
+
+    /**
+     * An in flight HTTP request, tracks the thread making the request and the
+     * connection it is using so that the request may be aborted
+     */
+    private static class ActiveRequest {
+
+        private final ActiveRequests active;
+        private final Thread thread;
+        private final HttpClientConnection conn;
+        private boolean released = false;
+
+        public ActiveRequest(ActiveRequests active, Thread thread, HttpClientConnection conn) {
+            this.active = active;
+            this.thread = thread;
+            this.conn = conn;
+        }
+
+        /**
+         * Marks the request as no longer in flight, called when its
+         * connection is released or the request fails
+         */
+        public synchronized void release() {
+            if (this.released)
+                return;
+            this.released = true;
+            this.active.byConnection.remove(this.conn, this);
+            this.active.byThread.remove(this.thread, this);
+        }
+
+        /**
+         * Aborts the request by shutting down its connection, has no effect if
+         * the request is no longer in flight
+         * 
+         * @return True if the connection was shut down, false otherwise
+         */
+        public synchronized boolean abort() {
+            if (this.released)
+                return false;
+            this.release();
+            try {
+                this.conn.shutdown();
+                return true;
+            } catch (IOException e) {
+                logger.debug("Error aborting HTTP connection - " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Request executor that records the time from starting to send a request
+     * until the response headers are received, it also tracks the requests in
+     * flight so that they may be aborted
+     * <p>
+     * A request remains tracked until its connection is released back to the
+     * pool, which happens once the response entity has been consumed or
+     * released, or immediately after execution if there is no entity. Failed
+     * requests stop being tracked as soon as they fail.
+     * </p>
+     */
+    private static class TimedRequestExecutor extends HttpRequestExecutor {
+
+        private final ActiveRequests active;
+
+        public TimedRequestExecutor(ActiveRequests active) {
+            this.active = active;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            ActiveRequest activeRequest = this.active.start(conn);
+
+            boolean executed = false;
+            try {
+                long start = System.nanoTime();
+                HttpResponse response = super.execute(request, conn, context);
+                if (HttpPhaseTimer.isActive())
+                    HttpPhaseTimer.recordRequest(System.nanoTime() - start);
+                executed = true;
+                return response;
+            } finally {
+                if (!executed)
+                    activeRequest.release();
+            }
+        }
+    }
+
+    /**
+     * Entity wrapper that records the time spent blocked reading the response
+     * body
+     */
+    private static class TimedEntity extends HttpEntityWrapper {
+
+        public TimedEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            InputStream input = super.getContent();
+            return input != null ? new TimedInputStream(input) : null;
+        }
+
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            InputStream input = this.getContent();
+            if (input == null)
+                return;
+            try {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            } finally {
+                input.close();
+            }
+        }
+    }
+
+    /**
+     * Input stream that records the time spent blocked in reads
+     */
+    private static class TimedInputStream extends FilterInputStream {
+
+        public TimedInputStream(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.DOWNLOAD, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.DOWNLOAD, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.skip(n);
+            } finally {
+                HttpPhaseTimer.record(HttpPhase.DOWNLOAD, System.nanoTime() - start);
+            }
+        }
+    }
+}
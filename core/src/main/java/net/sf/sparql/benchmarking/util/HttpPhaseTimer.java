@@ -0,0 +1,138 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.util;
+
+import net.sf.sparql.benchmarking.stats.HttpPhase;
+import net.sf.sparql.benchmarking.stats.HttpPhaseTimings;
+
+/**
+ * Collects HTTP phase timings for the operation running on the current thread
+ * <p>
+ * Operations call {@link #start()} before making their requests and
+ * {@link #stop(long)} once they complete, in between the instrumentation in
+ * {@link HttpClientPool} records the time spent in each phase via
+ * {@link #record(HttpPhase, long)}. When no timer is active on the current
+ * thread recording is a no-op.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class HttpPhaseTimer {
+
+    private static final ThreadLocal<HttpPhaseTimer> CURRENT = new ThreadLocal<HttpPhaseTimer>();
+
+    private final long[] timings = new long[HttpPhase.values().length];
+    private int requests = 0;
+
+    /**
+     * Private constructor, timers are managed via the static methods
+     */
+    private HttpPhaseTimer() {
+    }
+
+    /**
+     * Starts collecting phase timings on the current thread, any timings
+     * previously collected on this thread are discarded
+     */
+    public static void start() {
+        CURRENT.set(new HttpPhaseTimer());
+    }
+
+    /**
+     * Gets whether phase timings are being collected on the current thread
+     * 
+     * @return True if timings are being collected
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Records time spent in a phase on the current thread
+     * 
+     * @param phase
+     *            Phase
+     * @param duration
+     *            Duration in nanoseconds
+     */
+    public static void record(HttpPhase phase, long duration) {
+        HttpPhaseTimer timer = CURRENT.get();
+        if (timer == null)
+            return;
+        timer.timings[phase.ordinal()] += duration;
+    }
+
+    /**
+     * Records that a HTTP request was completed on the current thread, the
+     * duration given is recorded as the time to first byte
+     * 
+     * @param ttfb
+     *            Time to first byte in nanoseconds
+     */
+    public static void recordRequest(long ttfb) {
+        HttpPhaseTimer timer = CURRENT.get();
+        if (timer == null)
+            return;
+        timer.timings[HttpPhase.TTFB.ordinal()] += ttfb;
+        timer.requests++;
+    }
+
+    /**
+     * Stops collecting phase timings on the current thread
+     * <p>
+     * The {@link HttpPhase#PARSE} phase is calculated as the portion of the
+     * given runtime not accounted for by the other phases.
+     * </p>
+     * 
+     * @param runtime
+     *            Runtime of the operation in nanoseconds
+     * @return Phase timings or {@code null} if no timer was active or no HTTP
+     *         requests were made
+     */
+    public static HttpPhaseTimings stop(long runtime) {
+        HttpPhaseTimer timer = CURRENT.get();
+        if (timer == null)
+            return null;
+        CURRENT.remove();
+        if (timer.requests == 0)
+            return null;
+
+        long accounted = 0;
+        for (HttpPhase phase : HttpPhase.values()) {
+            accounted += timer.timings[phase.ordinal()];
+        }
+        timer.timings[HttpPhase.PARSE.ordinal()] = Math.max(0, runtime - accounted);
+        return new HttpPhaseTimings(timer.timings, timer.requests);
+    }
+}
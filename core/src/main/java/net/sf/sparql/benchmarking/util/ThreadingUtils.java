@@ -0,0 +1,132 @@
+/*
+Copyright 2011-2014 Cray Inc. All Rights Reserved
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are
+met:
+
+* Redistributions of source code must retain the above copyright
+  notice, this list of conditions and the following disclaimer.
+
+* Redistributions in binary form must reproduce the above copyright
+  notice, this list of conditions and the following disclaimer in the
+  documentation and/or other materials provided with the distribution.
+
+* Neither the name Cray Inc. nor the names of its contributors may be
+  used to endorse or promote products derived from this software
+  without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ 
+*/
+
+package net.sf.sparql.benchmarking.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.sparql.benchmarking.options.ThreadingMode;
+
+/**
+ * Helper methods for creating the threads used to run tests
+ * <p>
+ * Virtual threads are only available on Java 21 and higher, since this code
+ * targets older Java versions they are accessed reflectively and platform
+ * threads are used when they are unavailable.
+ * </p>
+ * 
+ * @author rvesse
+ * 
+ */
+public class ThreadingUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingUtils.class);
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+    private static final Method IS_VIRTUAL = findMethod(Thread.class, "isVirtual");
+
+    /**
+     * Private constructor prevents direct instantiation
+     */
+    private ThreadingUtils() {
+    }
+
+    private static Method findMethod(Class<?> cls, String name) {
+        try {
+            return cls.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets whether virtual threads are supported by the running JVM
+     * 
+     * @return True if supported, false otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Gets whether the given thread is a virtual thread
+     * 
+     * @param thread
+     *            Thread
+     * @return True if a virtual thread, false otherwise
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null)
+            return false;
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor for the given threading mode
+     * <p>
+     * If virtual threads are requested but are not supported by the running
+     * JVM then a warning is logged and an executor that uses platform threads
+     * is returned instead.
+     * </p>
+     * 
+     * @param mode
+     *            Threading mode
+     * @return Executor
+     */
+    public static ExecutorService createExecutor(ThreadingMode mode) {
+        if (mode == ThreadingMode.VIRTUAL) {
+            if (isVirtualThreadSupported()) {
+                try {
+                    return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+                } catch (Exception e) {
+                    logger.warn("Unable to create virtual thread executor, using platform threads instead - "
+                            + e.getMessage());
+                }
+            } else {
+                logger.warn("Virtual threads are not supported by this JVM (Java " + System.getProperty("java.version")
+                        + "), using platform threads instead");
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+}
@@ -0,0 +1,204 @@
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.options.ListenerBackpressure;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.options.OptionsImpl;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+
+public class TestAsyncProgressListener {
+
+    /**
+     * Listener that records events and optionally waits before handling the
+     * first event
+     */
+    private static class RecordingListener implements ProgressListener {
+        private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch gate;
+        private volatile Thread lastThread;
+
+        RecordingListener(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        private void record(String event) {
+            try {
+                this.gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.lastThread = Thread.currentThread();
+            this.events.add(event);
+        }
+
+        @Override
+        public <T extends Options> void start(Runner<T> runner, T options) {
+            this.events.add("start");
+        }
+
+        @Override
+        public <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+            this.events.add("finish");
+        }
+
+        @Override
+        public <T extends Options> void progress(Runner<T> runner, T options, String message) {
+            record(message);
+        }
+
+        @Override
+        public <T extends Options> void beforeOperation(Runner<T> runner, T options, Operation operation) {
+        }
+
+        @Override
+        public <T extends Options> void afterOperation(Runner<T> runner, T options, Operation operation,
+                OperationRun run) {
+            record(Long.toString(run.getRuntime()));
+        }
+
+        @Override
+        public <T extends Options> void beforeOperationMix(Runner<T> runner, T options, OperationMix mix) {
+        }
+
+        @Override
+        public <T extends Options> void afterOperationMix(Runner<T> runner, T options, OperationMix mix,
+                OperationMixRun run) {
+        }
+    }
+
+    private void afterOperations(AsyncProgressListener listener, Options options, int runs) {
+        for (int i = 1; i <= runs; i++) {
+            listener.afterOperation(null, options, null, new OperationRunImpl(i, 0));
+        }
+    }
+
+    @Test
+    public void async_listener_block_01() {
+        Options options = new OptionsImpl();
+        RecordingListener recorder = new RecordingListener(new CountDownLatch(0));
+        AsyncProgressListener listener = new AsyncProgressListener(recorder, 4, ListenerBackpressure.BLOCK);
+        listener.start(null, options);
+        afterOperations(listener, options, 100);
+        listener.progress(null, options, "done");
+        listener.finish(null, options, true);
+
+        // Everything is delivered in order on the consumer thread
+        Assert.assertEquals(103, recorder.events.size());
+        Assert.assertEquals("start", recorder.events.get(0));
+        for (int i = 1; i <= 100; i++) {
+            Assert.assertEquals(Integer.toString(i), recorder.events.get(i));
+        }
+        Assert.assertEquals("done", recorder.events.get(101));
+        Assert.assertEquals("finish", recorder.events.get(102));
+        Assert.assertNotEquals(Thread.currentThread(), recorder.lastThread);
+        Assert.assertEquals(0, listener.getDroppedEvents());
+        Assert.assertEquals(101, listener.getDeliveredEvents());
+    }
+
+    @Test
+    public void async_listener_drop_01() {
+        Options options = new OptionsImpl();
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingListener recorder = new RecordingListener(gate);
+        AsyncProgressListener listener = new AsyncProgressListener(recorder, 10, ListenerBackpressure.DROP);
+        listener.start(null, options);
+
+        // Listener is stalled so at most the buffer plus the event being
+        // delivered can be accepted, the rest are dropped without waiting
+        afterOperations(listener, options, 100);
+        Assert.assertTrue(listener.getDroppedEvents() >= 89);
+        gate.countDown();
+        listener.progress(null, options, "done");
+        listener.finish(null, options, true);
+
+        Assert.assertEquals(100, listener.getDroppedEvents() + listener.getDeliveredEvents() - 1);
+        Assert.assertEquals("done", recorder.events.get(recorder.events.size() - 2));
+    }
+
+    @Test
+    public void async_listener_sample_01() {
+        Options options = new OptionsImpl();
+        CountDownLatch gate = new CountDownLatch(1);
+        final RecordingListener recorder = new RecordingListener(gate);
+        AsyncProgressListener listener = new AsyncProgressListener(recorder, 10, ListenerBackpressure.SAMPLE, 5);
+        listener.start(null, options);
+
+        // Release the listener once the reporting thread starts waiting for a
+        // sampled event
+        final Thread reporter = Thread.currentThread();
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (reporter.getState() != Thread.State.TIMED_WAITING) {
+                    Thread.yield();
+                }
+                gate.countDown();
+            }
+        });
+        releaser.start();
+        afterOperations(listener, options, 100);
+        listener.finish(null, options, true);
+
+        Assert.assertTrue(listener.getDroppedEvents() > 0);
+        Assert.assertTrue(listener.getDeliveredEvents() > 11);
+        Assert.assertEquals(100, listener.getDroppedEvents() + listener.getDeliveredEvents());
+    }
+
+    @Test
+    public void async_listener_finish_race_01() throws InterruptedException {
+        final Options options = new OptionsImpl();
+        RecordingListener recorder = new RecordingListener(new CountDownLatch(0));
+        final AsyncProgressListener listener = new AsyncProgressListener(recorder, 4, ListenerBackpressure.BLOCK);
+        listener.start(null, options);
+
+        // Keep submitting while finishing, any event submitted concurrently
+        // with finishing must still be delivered
+        final int runs = 2000;
+        final CountDownLatch started = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    afterOperations(listener, options, runs);
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        started.await();
+        listener.finish(null, options, true);
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        Assert.assertEquals(0, listener.getDroppedEvents());
+        Assert.assertEquals(4 * runs, listener.getDeliveredEvents());
+        Assert.assertEquals(4 * runs + 2, recorder.events.size());
+    }
+
+    @Test
+    public void async_listener_unstarted() {
+        Options options = new OptionsImpl();
+        RecordingListener recorder = new RecordingListener(new CountDownLatch(0));
+        AsyncProgressListener listener = new AsyncProgressListener(recorder, 4, ListenerBackpressure.DROP);
+        afterOperations(listener, options, 10);
+
+        // Without a consumer events are delivered synchronously
+        Assert.assertEquals(10, recorder.events.size());
+        Assert.assertEquals(Thread.currentThread(), recorder.lastThread);
+    }
+}
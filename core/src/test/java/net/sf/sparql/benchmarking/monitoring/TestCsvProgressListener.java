@@ -0,0 +1,75 @@
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMixImpl;
+import net.sf.sparql.benchmarking.operations.util.DelayOperation;
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationMixRunImpl;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+
+public class TestCsvProgressListener {
+
+    private File tempFile() throws IOException {
+        File f = File.createTempFile("results", ".csv");
+        f.deleteOnExit();
+        return f;
+    }
+
+    private String read(File f) throws IOException {
+        return new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void csv_streaming_01() throws Exception {
+        File f = tempFile();
+        File raw = tempFile();
+        BenchmarkOptions options = new BenchmarkOptions();
+        Operation op = new DelayOperation("Delay", 1);
+        options.setOperationMix(new OperationMixImpl(Collections.singletonList(op)));
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        CsvProgressListener listener = new CsvProgressListener(f.getAbsolutePath(), true);
+        listener.setRawResultsFile(raw.getAbsolutePath());
+        listener.setSyncInterval(1);
+        listener.start(runner, options);
+        Assert.assertTrue(read(f).contains("Run,Total Response Time,Total Runtime"));
+
+        OperationRun run = new OperationRunImpl(2000000000L, 1000000000L, 5);
+        listener.afterOperation(runner, options, op, run);
+        Thread.sleep(5);
+        listener.afterOperationMix(runner, options, options.getOperationMix(),
+                new OperationMixRunImpl(Collections.singletonList(run), 0));
+
+        // Rows must be on disk before running finishes
+        Assert.assertTrue(read(f).contains("\n1,1.0,2.0,2.0,2.0\n"));
+        List<String> rows = Files.readAllLines(raw.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals(run.getTimestamp() + "," + run.getId() + "," + run.getThreadId() + ",2.0,1.0,5,"
+                + run.getErrorCategory(), rows.get(1));
+        Assert.assertFalse(read(f).contains("Operation Summary"));
+
+        listener.finish(runner, options, true);
+        String csv = read(f);
+        Assert.assertTrue(csv.contains("Operation Summary,\n"));
+        Assert.assertTrue(csv.contains("\nDelay,"));
+        Assert.assertTrue(csv.indexOf("Operation Mix Summary") > csv.indexOf("Operation Summary"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void csv_no_overwrite() throws Exception {
+        CsvProgressListener listener = new CsvProgressListener(tempFile().getAbsolutePath(), false);
+        listener.start(new BenchmarkRunner(), new BenchmarkOptions());
+    }
+}
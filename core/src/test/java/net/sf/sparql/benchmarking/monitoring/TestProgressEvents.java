@@ -0,0 +1,177 @@
+package net.sf.sparql.benchmarking.monitoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.monitoring.events.ArrivalCompletedEvent;
+import net.sf.sparql.benchmarking.monitoring.events.MessageEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationCompletedEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationOrderEvent;
+import net.sf.sparql.benchmarking.monitoring.events.OperationStartedEvent;
+import net.sf.sparql.benchmarking.monitoring.events.ProgressEvent;
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMix;
+import net.sf.sparql.benchmarking.operations.util.SleepOperation;
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.options.ProgressVerbosity;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationMixRun;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationMixRunImpl;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+import net.sf.sparql.benchmarking.util.FormatUtils;
+
+public class TestProgressEvents {
+
+    /**
+     * Listener that records the messages it receives
+     */
+    private static class MessageListener implements ProgressListener {
+        final List<String> messages = new ArrayList<String>();
+
+        @Override
+        public <T extends Options> void start(Runner<T> runner, T options) {
+        }
+
+        @Override
+        public <T extends Options> void finish(Runner<T> runner, T options, boolean ok) {
+        }
+
+        @Override
+        public <T extends Options> void progress(Runner<T> runner, T options, String message) {
+            this.messages.add(message);
+        }
+
+        @Override
+        public <T extends Options> void beforeOperation(Runner<T> runner, T options, Operation operation) {
+        }
+
+        @Override
+        public <T extends Options> void afterOperation(Runner<T> runner, T options, Operation operation,
+                OperationRun run) {
+        }
+
+        @Override
+        public <T extends Options> void beforeOperationMix(Runner<T> runner, T options, OperationMix mix) {
+        }
+
+        @Override
+        public <T extends Options> void afterOperationMix(Runner<T> runner, T options, OperationMix mix,
+                OperationMixRun run) {
+        }
+    }
+
+    /**
+     * Listener that records the events it receives
+     */
+    private static class EventListener extends MessageListener implements ProgressEventListener {
+        final List<ProgressEvent> events = new ArrayList<ProgressEvent>();
+
+        @Override
+        public <T extends Options> void progress(Runner<T> runner, T options, ProgressEvent event) {
+            this.events.add(event);
+        }
+    }
+
+    /**
+     * Event that counts how many times it is formatted
+     */
+    private static class CountingEvent extends ProgressEvent {
+        private int formatted = 0;
+
+        CountingEvent() {
+            super(ProgressVerbosity.OPERATION, false);
+        }
+
+        @Override
+        protected String format() {
+            this.formatted++;
+            return "counted";
+        }
+    }
+
+    @Test
+    public void progress_events_lazy_01() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        EventListener listener = new EventListener();
+        options.addListener(listener);
+        CountingEvent event = new CountingEvent();
+        new BenchmarkRunner().reportProgress(options, event);
+
+        // Event listeners receive the event without it being formatted
+        Assert.assertEquals(1, listener.events.size());
+        Assert.assertTrue(listener.messages.isEmpty());
+        Assert.assertEquals(0, event.formatted);
+    }
+
+    @Test
+    public void progress_events_lazy_02() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        MessageListener first = new MessageListener();
+        MessageListener second = new MessageListener();
+        options.addListener(first);
+        options.addListener(second);
+        CountingEvent event = new CountingEvent();
+        new BenchmarkRunner().reportProgress(options, event);
+
+        // Message is formatted once and shared by all listeners
+        Assert.assertEquals(Arrays.asList("counted\n"), first.messages);
+        Assert.assertEquals(Arrays.asList("counted\n"), second.messages);
+        Assert.assertEquals(1, event.formatted);
+    }
+
+    @Test
+    public void progress_events_verbosity_01() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setProgressVerbosity(ProgressVerbosity.SUMMARY);
+        MessageListener listener = new MessageListener();
+        options.addListener(listener);
+        BenchmarkRunner runner = new BenchmarkRunner();
+        CountingEvent event = new CountingEvent();
+        runner.reportProgress(options, event);
+        runner.reportProgress(options, new OperationOrderEvent(Arrays.asList(1, 0)));
+        runner.reportProgress(options, "Summary");
+
+        Assert.assertEquals(Arrays.asList("Summary\n"), listener.messages);
+        Assert.assertEquals(0, event.formatted);
+        Assert.assertEquals(ProgressVerbosity.SUMMARY, options.<BenchmarkOptions> copy().getProgressVerbosity());
+    }
+
+    @Test
+    public void progress_events_verbosity_02() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setProgressVerbosity(ProgressVerbosity.OPERATION_MIX);
+        MessageListener listener = new MessageListener();
+        options.addListener(listener);
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.reportProgress(options, new OperationStartedEvent(new SleepOperation(1)));
+        runner.reportProgress(options, new OperationOrderEvent(Arrays.asList(1, 0)));
+
+        Assert.assertEquals(Arrays.asList("Operation Order for this Run is 1, 0\n"), listener.messages);
+    }
+
+    @Test
+    public void progress_events_messages() {
+        Operation op = new SleepOperation(1);
+        Assert.assertEquals("Running Operation " + op.getName() + "...", new OperationStartedEvent(op).getMessage());
+        Assert.assertEquals("got 10 result(s) in 1.0s\n",
+                new OperationCompletedEvent(op, new OperationRunImpl(1000000000L, 10)).getMessage());
+        Assert.assertEquals("\n", new MessageEvent("\n", true).getMessage());
+        Assert.assertEquals("Done\n", new MessageEvent("Done", false).getMessage());
+
+        OperationMixRun run = new OperationMixRunImpl(Collections.<OperationRun> singletonList(new OperationRunImpl(
+                1000000000L, 10)), 0);
+        ArrivalCompletedEvent arrival = new ArrivalCompletedEvent(3, null, run, 500000000L);
+        Assert.assertEquals(500000000L, arrival.getLateness());
+        Assert.assertEquals(ProgressVerbosity.OPERATION_MIX, arrival.getVerbosity());
+        Assert.assertEquals("Operation Mix Run by Client 3 started " + FormatUtils.formatSeconds(500000000L)
+                + " late and took " + FormatUtils.formatSeconds(1000000000L) + "\n", arrival.getMessage());
+    }
+}
@@ -0,0 +1,113 @@
+package net.sf.sparql.benchmarking.monitoring.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+import net.sf.sparql.benchmarking.util.ErrorCategories;
+
+public class TestJournal {
+
+    private File tempFile() throws IOException {
+        File f = File.createTempFile("runs", ".journal");
+        f.deleteOnExit();
+        for (int i = 1; i <= 3; i++) {
+            JournalFormat.getSegmentFile(f, i).deleteOnExit();
+        }
+        return f;
+    }
+
+    private List<OperationRun> write(File f, int segmentRecords, int runs) throws IOException {
+        List<OperationRun> written = new ArrayList<OperationRun>();
+        JournalWriter writer = new JournalWriter(f, segmentRecords);
+        try {
+            for (int i = 0; i < runs; i++) {
+                OperationRun run = i % 5 == 4 ? new OperationRunImpl("Failed", ErrorCategories.EXECUTION, i * 1000L)
+                        : new OperationRunImpl(i * 1000L, i * 100L, i);
+                run.setId(i % 3);
+                run.setRunOrder(i);
+                writer.append(run);
+                written.add(run);
+            }
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals(runs, writer.getRecordCount());
+        return written;
+    }
+
+    @Test
+    public void journal_round_trip_01() throws IOException {
+        File f = tempFile();
+        List<OperationRun> written = write(f, 4, 10);
+        Assert.assertTrue(JournalFormat.getSegmentFile(f, 2).exists());
+        Assert.assertFalse(JournalFormat.getSegmentFile(f, 3).exists());
+        // Final segment is truncated to the records written
+        Assert.assertEquals(JournalFormat.HEADER_SIZE + 2 * JournalRecord.RECORD_SIZE,
+                JournalFormat.getSegmentFile(f, 2).length());
+
+        JournalReader reader = new JournalReader(f);
+        Assert.assertEquals(10, reader.getRecordCount());
+        int i = 0;
+        for (JournalRecord record : reader) {
+            OperationRun run = written.get(i);
+            Assert.assertEquals(run.getId(), record.getOperationId());
+            Assert.assertEquals(run.getRunOrder(), record.getRunOrder());
+            Assert.assertEquals(run.getRuntime(), record.getRuntime());
+            Assert.assertEquals(run.getResponseTime(), record.getResponseTime());
+            Assert.assertEquals(run.getResultCount(), record.getResultCount());
+            Assert.assertEquals(run.getErrorCategory(), record.getErrorCategory());
+            Assert.assertEquals(run.getThreadId(), record.getClientId());
+            Assert.assertEquals(run.getTimestamp(), record.getStartTime());
+            i++;
+        }
+        Assert.assertEquals(10, i);
+    }
+
+    @Test
+    public void journal_overwrite_01() throws IOException {
+        File f = tempFile();
+        write(f, 4, 10);
+        Assert.assertTrue(JournalFormat.getSegmentFile(f, 2).exists());
+
+        // A shorter journal written to the same file must not pick up the
+        // trailing segments of the previous journal
+        write(f, 4, 3);
+        Assert.assertFalse(JournalFormat.getSegmentFile(f, 1).exists());
+        Assert.assertFalse(JournalFormat.getSegmentFile(f, 2).exists());
+        Assert.assertEquals(3, new JournalReader(f).getRecordCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void journal_bad_file() throws IOException {
+        new JournalReader(tempFile());
+    }
+
+    @Test
+    public void journal_export_01() throws IOException {
+        File f = tempFile();
+        write(f, JournalWriter.DEFAULT_SEGMENT_RECORDS, 10);
+        JournalReader reader = new JournalReader(f);
+
+        StringWriter records = new StringWriter();
+        JournalExporter.exportRecords(reader, records);
+        Assert.assertEquals(11, records.toString().split("\n").length);
+
+        StringWriter histogram = new StringWriter();
+        JournalExporter.exportHistogram(reader, histogram);
+        String[] rows = histogram.toString().split("\n");
+        Assert.assertEquals(5, rows.length);
+        Assert.assertTrue(rows[4].startsWith("All,10,2,"));
+
+        StringWriter series = new StringWriter();
+        JournalExporter.exportTimeSeries(reader, series, 60000);
+        Assert.assertTrue(series.toString().contains(",10,2,"));
+    }
+}
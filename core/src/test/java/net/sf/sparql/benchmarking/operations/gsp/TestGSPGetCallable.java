@@ -0,0 +1,117 @@
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+
+public class TestGSPGetCallable {
+
+    private static final int TRIPLES = 1000;
+
+    private HttpServer server;
+    private String endpoint;
+
+    @Before
+    public void setup() throws IOException {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < TRIPLES; i++) {
+            Resource r = model.createResource("http://example.org/" + i);
+            r.addProperty(RDFS.label, "Resource " + i);
+        }
+        final Model data = model;
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/data", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                // Respond in the first requested format
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                Lang lang = RDFLanguages.contentTypeToLang(accept.split("[,;]")[0]);
+                boolean gzip = "gzip,deflate".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                OutputStream output = gzip ? new GZIPOutputStream(bytes) : bytes;
+                RDFDataMgr.write(output, data, lang);
+                output.close();
+
+                exchange.getResponseHeaders().add("Content-Type", lang.getContentType().getContentType());
+                if (gzip)
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, bytes.size());
+                exchange.getResponseBody().write(bytes.toByteArray());
+                exchange.close();
+            }
+        });
+        this.server.start();
+        this.endpoint = "http://localhost:" + this.server.getAddress().getPort() + "/data";
+    }
+
+    @After
+    public void teardown() {
+        this.server.stop(0);
+    }
+
+    private OperationRun get(BenchmarkOptions options) {
+        options.setGraphStoreEndpoint(this.endpoint);
+        OperationRun run = new GSPGetCallable<BenchmarkOptions>(new BenchmarkRunner(), options).call();
+        Assert.assertTrue(run.wasSuccessful());
+        Assert.assertTrue(run.getResponseTime() <= run.getRuntime());
+        Assert.assertTrue(run.getBytesReceived() > 0);
+        Assert.assertTrue(run.getBytesPerSecond() > 0);
+        return run;
+    }
+
+    @Test
+    public void gsp_get_01() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        Assert.assertEquals(TRIPLES, get(options).getResultCount());
+
+        // Raw scanning gives the same count
+        options.setRawResultCounting(true);
+        Assert.assertEquals(TRIPLES, get(options).getResultCount());
+    }
+
+    @Test
+    public void gsp_get_formats() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setGraphStoreFormat(WebContent.contentTypeRDFThrift);
+        Assert.assertEquals(TRIPLES, get(options).getResultCount());
+
+        options.setGraphStoreFormat(WebContent.contentTypeNTriples);
+        long uncompressed = get(options).getBytesReceived();
+        options.setAllowCompression(true);
+        OperationRun run = get(options);
+        Assert.assertEquals(TRIPLES, run.getResultCount());
+        Assert.assertTrue(run.getBytesReceived() < uncompressed);
+    }
+
+    @Test
+    public void gsp_get_no_count() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setNoCount(true);
+        Assert.assertEquals(OperationRun.UNKNOWN, get(options).getResultCount());
+    }
+}
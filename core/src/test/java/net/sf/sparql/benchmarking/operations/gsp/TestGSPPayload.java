@@ -0,0 +1,164 @@
+package net.sf.sparql.benchmarking.operations.gsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.options.Options;
+
+public class TestGSPPayload {
+
+    private Model createModel() {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < 100; i++) {
+            Resource r = model.createResource("http://example.org/" + i);
+            r.addProperty(RDFS.label, "Resource " + i);
+        }
+        return model;
+    }
+
+    private Model read(HttpEntity entity, Lang lang) throws IOException {
+        InputStream input = entity.getContent();
+        if (entity.getContentEncoding() != null && "gzip".equals(entity.getContentEncoding().getValue()))
+            input = new GZIPInputStream(input);
+        Model model = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(model, input, lang);
+        return model;
+    }
+
+    @Test
+    public void gsp_payload_01() throws IOException {
+        Model model = createModel();
+        GSPPayload payload = GSPPayload.create(model, WebContent.contentTypeNTriples, false);
+        Assert.assertEquals(100, payload.getTripleCount());
+        Assert.assertTrue(payload.isFormat(WebContent.contentTypeNTriples, false));
+        Assert.assertFalse(payload.isFormat(WebContent.contentTypeNTriples, true));
+        Assert.assertFalse(payload.isFormat(WebContent.contentTypeTurtle, false));
+
+        // Entities share the serialized bytes and may be sent repeatedly
+        HttpEntity entity = payload.createEntity();
+        Assert.assertTrue(entity.isRepeatable());
+        Assert.assertEquals(payload.getSize(), entity.getContentLength());
+        Assert.assertTrue(model.isIsomorphicWith(read(entity, Lang.NTRIPLES)));
+        Assert.assertTrue(model.isIsomorphicWith(read(payload.createEntity(), Lang.NTRIPLES)));
+    }
+
+    @Test
+    public void gsp_payload_compressed() throws IOException {
+        Model model = createModel();
+        GSPPayload payload = GSPPayload.create(model, WebContent.contentTypeTurtle, true);
+        HttpEntity entity = payload.createEntity();
+        Assert.assertEquals("gzip", entity.getContentEncoding().getValue());
+        Assert.assertTrue(model.isIsomorphicWith(read(entity, Lang.TURTLE)));
+    }
+
+    @Test
+    public void gsp_payload_thrift() throws IOException {
+        Model model = createModel();
+        GSPPayload payload = GSPPayload.create(model, WebContent.contentTypeRDFThrift, false);
+        HttpEntity entity = payload.createEntity();
+        Assert.assertEquals(WebContent.contentTypeRDFThrift, entity.getContentType().getValue());
+        Assert.assertTrue(model.isIsomorphicWith(read(entity, RDFLanguages.THRIFT)));
+    }
+
+    @Test
+    public void gsp_payload_cached() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        GSPPutOperation op = new GSPPutOperation("Put", createModel());
+        GSPPayload payload = op.getPayload(options);
+        Assert.assertSame(payload, op.getPayload(options));
+        Assert.assertEquals(Options.DEFAULT_GRAPH_STORE_FORMAT, payload.getContentType());
+
+        // Changing the format causes the data to be serialized again
+        options.setGraphStoreCompression(true);
+        GSPPayload compressed = op.getPayload(options);
+        Assert.assertNotSame(payload, compressed);
+        Assert.assertTrue(compressed.isCompressed());
+        Assert.assertTrue(options.<BenchmarkOptions> copy().getGraphStoreCompression());
+    }
+
+    private File createFile(Model model, String suffix, boolean compress) throws IOException {
+        File file = File.createTempFile("data", suffix);
+        file.deleteOnExit();
+        OutputStream output = new FileOutputStream(file);
+        if (compress)
+            output = new GZIPOutputStream(output);
+        try {
+            RDFDataMgr.write(output, model, Lang.NTRIPLES);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void gsp_payload_file_01() throws IOException {
+        Model model = createModel();
+        File file = createFile(model, ".nt", false);
+        GSPPayload payload = GSPPayload.create(file);
+        Assert.assertTrue(payload instanceof FileGSPPayload);
+        Assert.assertEquals(WebContent.contentTypeNTriples, payload.getContentType());
+        Assert.assertFalse(payload.isCompressed());
+        Assert.assertEquals(file.length(), payload.getSize());
+        // Triple count is unknown until validated
+        Assert.assertTrue(payload.getTripleCount() < 0);
+
+        // Streamed with chunked encoding exactly as it is on disk
+        HttpEntity entity = payload.createEntity();
+        Assert.assertTrue(entity.isChunked());
+        Assert.assertTrue(entity.isRepeatable());
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            entity.writeTo(output);
+            Assert.assertArrayEquals(Files.readAllBytes(file.toPath()), output.toByteArray());
+        }
+
+        Assert.assertEquals(100, ((FileGSPPayload) payload).validate());
+        Assert.assertEquals(100, payload.getTripleCount());
+    }
+
+    @Test
+    public void gsp_payload_file_compressed() throws IOException {
+        Model model = createModel();
+        GSPPayload payload = GSPPayload.create(createFile(model, ".nt.gz", true));
+        Assert.assertTrue(payload.isCompressed());
+        HttpEntity entity = payload.createEntity();
+        Assert.assertEquals("gzip", entity.getContentEncoding().getValue());
+        Assert.assertTrue(model.isIsomorphicWith(read(entity, Lang.NTRIPLES)));
+        Assert.assertEquals(100, ((FileGSPPayload) payload).validate());
+    }
+
+    @Test
+    public void gsp_payload_file_operation() throws IOException {
+        BenchmarkOptions options = new BenchmarkOptions();
+        GSPPayload payload = GSPPayload.create(createFile(createModel(), ".nt", false));
+        GSPPostOperation op = new GSPPostOperation("Post", payload, null);
+        // File payloads are sent as-is regardless of the configured format
+        options.setGraphStoreFormat(WebContent.contentTypeTurtle);
+        Assert.assertSame(payload, op.getPayload(options));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void gsp_payload_bad_format() {
+        new BenchmarkOptions().setGraphStoreFormat(WebContent.contentTypeNQuads);
+    }
+}
@@ -0,0 +1,62 @@
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Measures the per-invocation cost of binding a pre-compiled template against
+ * injecting parameters and re-parsing the query text, only run when the
+ * {@code benchmarks} profile is active
+ */
+public class ParameterizedTemplatesBenchmark {
+
+    private static final String SELECT = "PREFIX ex: <http://example.org/> SELECT * WHERE { ?s ex:name ?name ; ex:age ?age . FILTER(?age > 18) } LIMIT 10";
+
+    private static Binding parameters(String s) {
+        return BindingFactory.binding(Var.alloc("s"), NodeFactory.createURI(s));
+    }
+
+    private static Query inject(String sparqlString, Binding parameters) {
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(sparqlString);
+        Var v = parameters.vars().next();
+        pss.setParam(v.getName(), parameters.get(v));
+        return pss.asQuery();
+    }
+
+    @Test
+    public void query_invocation_cost() {
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(SELECT);
+        Assert.assertTrue(template.isCompiled());
+        int iterations = 5000;
+        Binding[] bindings = new Binding[100];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = parameters("http://example.org/" + i);
+        }
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                inject(SELECT, bindings[i % bindings.length]);
+            }
+            long injected = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                template.bind(bindings[i % bindings.length]);
+            }
+            long bound = (System.nanoTime() - start) / iterations;
+
+            // First round is warm up
+            if (round > 0) {
+                System.out.println("Parameter injection and parsing: " + injected + "ns per invocation");
+                System.out.println("Pre-compiled template binding: " + bound + "ns per invocation");
+            }
+        }
+    }
+}
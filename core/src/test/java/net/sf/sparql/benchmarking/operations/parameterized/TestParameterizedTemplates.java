@@ -0,0 +1,142 @@
+package net.sf.sparql.benchmarking.operations.parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParameterizedTemplates {
+
+    private static final String SELECT = "PREFIX ex: <http://example.org/> SELECT * WHERE { ?s ex:name ?name ; ex:age ?age . FILTER(?age > 18) } LIMIT 10";
+
+    private static Binding parameters(String s) {
+        return BindingFactory.binding(Var.alloc("s"), NodeFactory.createURI(s));
+    }
+
+    private static Query inject(String sparqlString, Binding parameters) {
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(sparqlString);
+        Var v = parameters.vars().next();
+        pss.setParam(v.getName(), parameters.get(v));
+        return pss.asQuery();
+    }
+
+    @Test
+    public void query_select_01() {
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(SELECT);
+        Assert.assertTrue(template.isCompiled());
+
+        Binding b = parameters("http://example.org/s");
+        Assert.assertEquals(inject(SELECT, b).toString(), template.bind(b).toString());
+    }
+
+    @Test
+    public void query_construct_01() {
+        String sparql = "CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }";
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(sparql);
+        Assert.assertTrue(template.isCompiled());
+
+        Binding b = parameters("http://example.org/s");
+        Query q = template.bind(b);
+        Assert.assertEquals(inject(sparql, b).toString(), q.toString());
+        Assert.assertEquals(b.get(Var.alloc("s")), q.getConstructTemplate().getTriples().get(0).getSubject());
+    }
+
+    @Test
+    public void query_describe_01() {
+        String sparql = "DESCRIBE ?s";
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(sparql);
+        Assert.assertFalse(template.isCompiled());
+
+        Binding b = parameters("http://example.org/s");
+        Assert.assertEquals(inject(sparql, b).toString(), template.bind(b).toString());
+    }
+
+    @Test
+    public void query_unchanged_template_01() {
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(SELECT);
+        template.bind(parameters("http://example.org/s"));
+        Assert.assertEquals(QueryFactory.create(SELECT).toString(), template.bind(BindingFactory.binding()).toString());
+    }
+
+    @Test
+    public void update_01() {
+        String sparql = "PREFIX ex: <http://example.org/> DELETE { ?s ex:age ?age } INSERT { ?s ex:age 1 } WHERE { ?s ex:age ?age }";
+        ParameterizedUpdateTemplate template = new ParameterizedUpdateTemplate(sparql);
+        Assert.assertTrue(template.isCompiled());
+
+        UpdateRequest update = template.bind(parameters("http://example.org/s"));
+        UpdateRequest expected = UpdateFactory.create(sparql.replace("?s", "<http://example.org/s>"));
+        Assert.assertEquals(expected.toString(), update.toString());
+    }
+
+    @Test
+    public void update_insert_data_01() {
+        String sparql = "INSERT DATA { ?s <http://example.org/p> 1 }";
+        ParameterizedUpdateTemplate template = new ParameterizedUpdateTemplate(sparql);
+        Assert.assertFalse(template.isCompiled());
+
+        UpdateRequest update = template.bind(parameters("http://example.org/s"));
+        Assert.assertEquals(UpdateFactory.create(sparql.replace("?s", "<http://example.org/s>")).toString(),
+                update.toString());
+    }
+
+    @Test
+    public void query_concurrent_01() throws Exception {
+        final ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(SELECT);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                final int id = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        for (int i = 0; i < 1000; i++) {
+                            Node expected = NodeFactory.createURI("http://example.org/" + id + "/" + i);
+                            Query q = template.bind(BindingFactory.binding(Var.alloc("s"), expected));
+                            if (!q.toString().contains(expected.getURI()))
+                                return false;
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void query_rebind_01() {
+        // A compiled template is bound repeatedly without being reparsed, each
+        // binding must yield an independent query
+        ParameterizedQueryTemplate template = new ParameterizedQueryTemplate(SELECT);
+        Assert.assertTrue(template.isCompiled());
+
+        Binding first = parameters("http://example.org/1");
+        Binding second = parameters("http://example.org/2");
+        Query q1 = template.bind(first);
+        Query q2 = template.bind(second);
+        Assert.assertNotSame(q1, q2);
+        Assert.assertEquals(inject(SELECT, first).toString(), q1.toString());
+        Assert.assertEquals(inject(SELECT, second).toString(), q2.toString());
+    }
+}
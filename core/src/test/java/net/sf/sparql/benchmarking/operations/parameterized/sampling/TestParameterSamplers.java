@@ -0,0 +1,177 @@
+package net.sf.sparql.benchmarking.operations.parameterized.sampling;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParameterSamplers {
+
+    private int[] histogram(ParameterSampler sampler, int draws) {
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.nextIndex()]++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void uniform_01() {
+        int[] counts = histogram(new UniformParameterSampler(10, 12345L), 100000);
+        for (int count : counts) {
+            Assert.assertEquals(10000, count, 500);
+        }
+    }
+
+    @Test
+    public void uniform_seeded_01() {
+        // Same seed gives same sequence
+        ParameterSampler a = new UniformParameterSampler(1000, 1L);
+        ParameterSampler b = new UniformParameterSampler(1000, 1L);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(a.nextIndex(), b.nextIndex());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void uniform_empty_01() {
+        new UniformParameterSampler(0).nextIndex();
+    }
+
+    @Test
+    public void zipfian_01() {
+        // With an exponent of 1 the first item is chosen with probability 1/H(n)
+        int n = 100;
+        double harmonic = 0;
+        for (int i = 1; i <= n; i++) {
+            harmonic += 1d / i;
+        }
+        int draws = 100000;
+        int[] counts = histogram(new ZipfianParameterSampler(n, 1, 12345L), draws);
+        Assert.assertEquals(draws / harmonic, counts[0], draws * 0.01);
+        Assert.assertEquals(draws / (2 * harmonic), counts[1], draws * 0.01);
+        Assert.assertTrue(counts[0] > counts[n - 1] * 20);
+    }
+
+    @Test
+    public void zipfian_02() {
+        // Exponent of 0 is uniform
+        int[] counts = histogram(new ZipfianParameterSampler(10, 0, 12345L), 100000);
+        for (int count : counts) {
+            Assert.assertEquals(10000, count, 500);
+        }
+    }
+
+    @Test
+    public void zipfian_03() {
+        // Compare the most popular parameter sets against the exact
+        // probabilities for a non-integer exponent
+        int n = 1000;
+        double exponent = 1.5;
+        double total = 0;
+        for (int i = 1; i <= n; i++) {
+            total += 1d / Math.pow(i, exponent);
+        }
+        int draws = 200000;
+        int[] counts = histogram(new ZipfianParameterSampler(n, exponent, 12345L), draws);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(draws / (Math.pow(i + 1, exponent) * total), counts[i], draws * 0.01);
+        }
+    }
+
+    @Test
+    public void zipfian_large_01() {
+        // No per parameter set state so very large sizes are cheap, with an
+        // exponent of 2 the first item is chosen with probability 6 / pi^2
+        ParameterSampler sampler = new ZipfianParameterSampler(Integer.MAX_VALUE, 2, 12345L);
+        int draws = 100000;
+        int first = 0;
+        for (int i = 0; i < draws; i++) {
+            int index = sampler.nextIndex();
+            Assert.assertTrue(index >= 0);
+            if (index == 0)
+                first++;
+        }
+        Assert.assertEquals(draws * 6 / (Math.PI * Math.PI), first, draws * 0.01);
+    }
+
+    @Test
+    public void zipfian_single_01() {
+        ParameterSampler sampler = new ZipfianParameterSampler(1, 1.2, 12345L);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(0, sampler.nextIndex());
+        }
+    }
+
+    @Test
+    public void hotspot_01() {
+        int draws = 100000;
+        int[] counts = histogram(new HotspotParameterSampler(100, 0.9, 0.1, 12345L), draws);
+        int hot = 0;
+        for (int i = 0; i < 10; i++) {
+            hot += counts[i];
+        }
+        Assert.assertEquals(draws * 0.9, hot, draws * 0.01);
+    }
+
+    @Test
+    public void sequential_01() {
+        ParameterSampler sampler = new SequentialParameterSampler(3);
+        for (int i = 0; i < 9; i++) {
+            Assert.assertEquals(i % 3, sampler.nextIndex());
+        }
+    }
+
+    @Test
+    public void shuffled_01() {
+        // Every pass uses every parameter exactly once
+        ParameterSampler sampler = new ShuffledParameterSampler(50, 12345L);
+        for (int pass = 0; pass < 3; pass++) {
+            Set<Integer> seen = new HashSet<Integer>();
+            for (int i = 0; i < 50; i++) {
+                Assert.assertTrue(seen.add(sampler.nextIndex()));
+            }
+        }
+    }
+
+    @Test
+    public void shuffled_seeded_01() {
+        ParameterSampler a = new ShuffledParameterSampler(50, 1L);
+        ParameterSampler b = new ShuffledParameterSampler(50, 1L);
+        for (int i = 0; i < 200; i++) {
+            Assert.assertEquals(a.nextIndex(), b.nextIndex());
+        }
+    }
+
+    @Test
+    public void parse_01() {
+        Assert.assertTrue(ParameterSamplers.parse(null, 10) instanceof UniformParameterSampler);
+        Assert.assertTrue(ParameterSamplers.parse("uniform@1", 10) instanceof UniformParameterSampler);
+        Assert.assertTrue(ParameterSamplers.parse("zipfian:1.2", 10) instanceof ZipfianParameterSampler);
+        Assert.assertTrue(ParameterSamplers.parse("Hotspot:0.8:0.2@42", 10) instanceof HotspotParameterSampler);
+        Assert.assertTrue(ParameterSamplers.parse("sequential", 10) instanceof SequentialParameterSampler);
+        Assert.assertTrue(ParameterSamplers.parse("shuffled@7", 10) instanceof ShuffledParameterSampler);
+        Assert.assertEquals(10, ParameterSamplers.parse("zipfian:1.2", 10).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_bad_01() {
+        ParameterSamplers.parse("zipfian", 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_bad_02() {
+        ParameterSamplers.parse("hotspot:0.9:1.5", 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_bad_03() {
+        ParameterSamplers.parse("gaussian", 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_bad_04() {
+        ParameterSamplers.parse("uniform@seed", 10);
+    }
+}
@@ -0,0 +1,96 @@
+package net.sf.sparql.benchmarking.operations.parameterized.sources;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestMappedTsvParameterSource {
+
+    private static final String TSV = "?s\t?o\n" + "<http://example.org/1>\t\"one\"\n"
+            + "<http://example.org/2>\t2\r\n" + "\n" + "<http://example.org/3>\t\n"
+            + "<http://example.org/4>\t\"four\"@en\n" + "<http://example.org/5>\t\"caf\u00e9\"";
+
+    private File write(String data) throws IOException {
+        File f = File.createTempFile("params", ".tsv");
+        f.deleteOnExit();
+        OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(data.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+        return f;
+    }
+
+    private List<Binding> expected(String data) {
+        // Jena's TSV parser does not permit blank lines
+        ResultSet rs = ResultSetFactory.fromTSV(new ByteArrayInputStream(data.replace("\n\n", "\n").getBytes(
+                StandardCharsets.UTF_8)));
+        List<Binding> bindings = new ArrayList<Binding>();
+        while (rs.hasNext()) {
+            bindings.add(rs.nextBinding());
+        }
+        return bindings;
+    }
+
+    private void check(ParameterSource source, List<Binding> expected) {
+        Assert.assertEquals(expected.size(), source.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), source.get(i));
+        }
+    }
+
+    @Test
+    public void mapped_tsv_01() throws IOException {
+        check(new MappedTsvParameterSource(write(TSV)), expected(TSV));
+    }
+
+    @Test
+    public void mapped_tsv_segments_01() throws IOException {
+        // Tiny segments force rows to be spread across many segments
+        check(new MappedTsvParameterSource(write(TSV), 40), expected(TSV));
+    }
+
+    @Test
+    public void mapped_tsv_header_only_01() throws IOException {
+        Assert.assertEquals(0, new MappedTsvParameterSource(write("?s\n")).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void mapped_tsv_bad_01() throws IOException {
+        new MappedTsvParameterSource(write("?s\t?o\n<http://example.org/1>\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapped_tsv_bad_02() throws IOException {
+        new MappedTsvParameterSource(write("s\to\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void mapped_tsv_bad_03() throws IOException {
+        // Line longer than segment
+        new MappedTsvParameterSource(write(TSV), 10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void mapped_tsv_bad_04() throws IOException {
+        new MappedTsvParameterSource(write(TSV)).get(5);
+    }
+
+    @Test
+    public void shared_sources_01() throws IOException {
+        File f = write(TSV);
+        Assert.assertSame(ParameterSources.getTsvSource(f), ParameterSources.getTsvSource(f));
+    }
+}
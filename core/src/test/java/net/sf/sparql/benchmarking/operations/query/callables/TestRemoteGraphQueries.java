@@ -0,0 +1,114 @@
+package net.sf.sparql.benchmarking.operations.query.callables;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+
+public class TestRemoteGraphQueries {
+
+    private static final int TRIPLES = 1000;
+
+    private HttpServer server;
+    private String endpoint;
+
+    @Before
+    public void setup() throws IOException {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < TRIPLES; i++) {
+            Resource r = model.createResource("http://example.org/" + i);
+            r.addProperty(RDFS.label, "Resource " + i);
+        }
+        final Model data = model;
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/sparql", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                // Respond in the first requested format
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                Lang lang = RDFLanguages.contentTypeToLang(accept.split("[,;]")[0]);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                RDFDataMgr.write(bytes, data, lang);
+
+                exchange.getResponseHeaders().add("Content-Type", lang.getContentType().getContentType());
+                exchange.sendResponseHeaders(200, bytes.size());
+                exchange.getResponseBody().write(bytes.toByteArray());
+                exchange.close();
+            }
+        });
+        this.server.start();
+        this.endpoint = "http://localhost:" + this.server.getAddress().getPort() + "/sparql";
+    }
+
+    @After
+    public void teardown() {
+        this.server.stop(0);
+    }
+
+    private OperationRun construct(BenchmarkOptions options) {
+        options.setQueryEndpoint(this.endpoint);
+        OperationRun run = new RemoteQueryCallable<BenchmarkOptions>(
+                QueryFactory.create("CONSTRUCT WHERE { ?s ?p ?o }"), new BenchmarkRunner(), options).call();
+        Assert.assertTrue(run.wasSuccessful());
+        Assert.assertTrue(run.getResponseTime() > 0);
+        Assert.assertTrue(run.getResponseTime() <= run.getRuntime());
+        return run;
+    }
+
+    @Test
+    public void remote_construct_01() {
+        // Default format is RDF/XML
+        BenchmarkOptions options = new BenchmarkOptions();
+        Assert.assertEquals(TRIPLES, construct(options).getResultCount());
+    }
+
+    @Test
+    public void remote_construct_formats() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setResultsGraphFormat(WebContent.contentTypeTurtle);
+        Assert.assertEquals(TRIPLES, construct(options).getResultCount());
+
+        options.setResultsGraphFormat(WebContent.contentTypeNTriples);
+        Assert.assertEquals(TRIPLES, construct(options).getResultCount());
+    }
+
+    @Test
+    public void remote_construct_local_limit() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setLocalLimit(10);
+        Assert.assertEquals(10, construct(options).getResultCount());
+
+        options.setResultsGraphFormat(WebContent.contentTypeNTriples);
+        Assert.assertEquals(10, construct(options).getResultCount());
+    }
+
+    @Test
+    public void remote_construct_no_count() {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setNoCount(true);
+        Assert.assertEquals(OperationRun.UNKNOWN, construct(options).getResultCount());
+    }
+}
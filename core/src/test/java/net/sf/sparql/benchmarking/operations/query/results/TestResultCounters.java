@@ -0,0 +1,169 @@
+package net.sf.sparql.benchmarking.operations.query.results;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.WebContent;
+import org.apache.jena.sparql.resultset.ResultsFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestResultCounters {
+
+    private long count(String contentType, boolean graph, byte[] data, boolean byteAtATime) {
+        ResultCounter counter = ResultCounters.create(contentType, graph);
+        Assert.assertNotNull(counter);
+        if (byteAtATime) {
+            for (int i = 0; i < data.length; i++) {
+                counter.scan(data, i, 1);
+            }
+        } else {
+            counter.scan(data, 0, data.length);
+        }
+        counter.finish();
+        return counter.getCount();
+    }
+
+    private void check(String contentType, boolean graph, byte[] data, long expected) {
+        Assert.assertEquals(expected, count(contentType, graph, data, false));
+        Assert.assertEquals(expected, count(contentType, graph, data, true));
+    }
+
+    private ResultSetRewindable createResults(int rows) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("?s\t?o\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append("<http://example.org/" + i + ">\t\"value\\t" + i + "\\n \\\"quoted\\\" [{<result>}],;.\"\n");
+        }
+        // Add an unbound value
+        builder.append("<http://example.org/unbound>\t\n");
+        ResultSet rset = ResultSetFactory.fromTSV(new java.io.ByteArrayInputStream(builder.toString().getBytes(
+                StandardCharsets.UTF_8)));
+        return ResultSetFactory.makeRewindable(rset);
+    }
+
+    private byte[] format(ResultSetRewindable rset, ResultsFormat format) {
+        rset.reset();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ResultSetFormatter.output(output, rset, format);
+        return output.toByteArray();
+    }
+
+    private Model createModel(int subjects) {
+        Model m = ModelFactory.createDefaultModel();
+        m.setNsPrefix("ex", "http://example.org/");
+        for (int i = 0; i < subjects; i++) {
+            Resource s = m.createResource("http://example.org/s" + i);
+            s.addProperty(m.createProperty("http://example.org/p"), "literal with . ; , [ ] ( ) # <> \"" + i);
+            s.addProperty(m.createProperty("http://example.org/p"), "multi\nline\nliteral " + i);
+            s.addLiteral(m.createProperty("http://example.org/number"), 1.5d * i);
+            s.addProperty(m.createProperty("http://example.org/q"), m.createResource().addProperty(
+                    m.createProperty("http://example.org/r"), "nested " + i));
+            s.addProperty(m.createProperty("http://example.org/list"), m.createList(new org.apache.jena.rdf.model.RDFNode[] {
+                    m.createTypedLiteral(i), m.createResource("http://example.org/item" + i) }));
+        }
+        return m;
+    }
+
+    private byte[] format(Model m, Lang lang) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RDFDataMgr.write(output, m, lang);
+        return output.toByteArray();
+    }
+
+    @Test
+    public void results_xml() {
+        ResultSetRewindable rset = createResults(100);
+        check(WebContent.contentTypeResultsXML, false, format(rset, ResultsFormat.FMT_RS_XML), rset.size());
+    }
+
+    @Test
+    public void results_json() {
+        ResultSetRewindable rset = createResults(100);
+        check(WebContent.contentTypeResultsJSON, false, format(rset, ResultsFormat.FMT_RS_JSON), rset.size());
+    }
+
+    @Test
+    public void results_tsv() {
+        ResultSetRewindable rset = createResults(100);
+        check(WebContent.contentTypeTextTSV, false, format(rset, ResultsFormat.FMT_RS_TSV), rset.size());
+    }
+
+    @Test
+    public void results_csv() {
+        ResultSetRewindable rset = createResults(100);
+        check(WebContent.contentTypeTextCSV + "; charset=utf-8", false, format(rset, ResultsFormat.FMT_RS_CSV),
+                rset.size());
+    }
+
+    @Test
+    public void results_empty() {
+        check(WebContent.contentTypeResultsXML, false, "<sparql><head/><results></results></sparql>".getBytes(), 0);
+        check(WebContent.contentTypeResultsJSON, false,
+                "{ \"head\": { \"vars\": [ \"bindings\" ] }, \"results\": { \"bindings\": [ ] } }".getBytes(), 0);
+    }
+
+    @Test
+    public void results_xml_cdata() {
+        // Markup within CDATA sections and comments is not counted
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE sparql>"
+                + "<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\"><head><variable name=\"o\"/></head>"
+                + "<!-- <result> --><results><result><binding name=\"o\">"
+                + "<literal><![CDATA[<result>]] ]> <!-- <result> -->]]></literal></binding></result>"
+                + "<!---<result>- --></results></sparql>";
+        check(WebContent.contentTypeResultsXML, false, xml.getBytes(StandardCharsets.UTF_8), 1);
+
+        // And the value can be parsed
+        ResultSet rset = ResultSetFactory.fromXML(new java.io.ByteArrayInputStream(xml
+                .getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals("<result>]] ]> <!-- <result> -->", rset.next().getLiteral("o").getLexicalForm());
+        Assert.assertFalse(rset.hasNext());
+    }
+
+    @Test
+    public void graph_ntriples() {
+        Model m = createModel(50);
+        check(WebContent.contentTypeNTriples, true, format(m, Lang.NTRIPLES), m.size());
+    }
+
+    @Test
+    public void graph_turtle() {
+        Model m = createModel(50);
+        check(WebContent.contentTypeTurtle, true, format(m, Lang.TURTLE), m.size());
+    }
+
+    @Test
+    public void graph_turtle_blocks() {
+        Model m = createModel(50);
+        check(WebContent.contentTypeTurtle, true, format(m, Lang.TTL), m.size());
+        check(WebContent.contentTypeTurtle, true, format(m, org.apache.jena.riot.RDFFormat.TURTLE_BLOCKS.getLang()),
+                m.size());
+    }
+
+    @Test
+    public void graph_turtle_handwritten() {
+        String ttl = "@prefix ex: <http://example.org/> .\n" + "PREFIX ex2: <http://example.org/2/>\n"
+                + "# A comment with a . in it\n"
+                + "ex:s ex:p ex:o1 , \"o2\"@en ; ex:q [ ex:r 1.5 ; ex:t ( 1 2 ) ] ;\n"
+                + "  ex:u \"\"\"long \"string\" with . and ; \"\"\"^^ex2:type ; .\n" + "ex:s2 a ex:T.\n"
+                + "[ ex:p ex:o ] .\n" + "ex:s3 ex:p ''.";
+        check(WebContent.contentTypeTurtle, true, ttl.getBytes(StandardCharsets.UTF_8), 13);
+    }
+
+    @Test
+    public void unsupported() {
+        Assert.assertNull(ResultCounters.create(WebContent.contentTypeRDFXML, true));
+        Assert.assertNull(ResultCounters.create(WebContent.contentTypeNTriples, false));
+        Assert.assertNull(ResultCounters.create(WebContent.contentTypeResultsXML, true));
+        Assert.assertNull(ResultCounters.create(null, false));
+    }
+}
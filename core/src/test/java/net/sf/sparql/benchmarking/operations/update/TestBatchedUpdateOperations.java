@@ -0,0 +1,183 @@
+package net.sf.sparql.benchmarking.operations.update;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.update.UpdateRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.operations.parameterized.BatchedParameterizedUpdateOperation;
+import net.sf.sparql.benchmarking.operations.parameterized.ParameterizedUpdateTemplate;
+import net.sf.sparql.benchmarking.operations.parameterized.sampling.SequentialParameterSampler;
+import net.sf.sparql.benchmarking.operations.parameterized.sources.ListParameterSource;
+
+public class TestBatchedUpdateOperations {
+
+    private File createChangeFile(int lines) throws IOException {
+        File file = File.createTempFile("changes", ".ru");
+        file.deleteOnExit();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("# Comment lines and blank lines are ignored");
+            for (int i = 0; i < lines; i++) {
+                writer.println("INSERT DATA { <http://example.org/" + i + "> <http://example.org/p> " + i + " }");
+                writer.println();
+            }
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void batched_change_file_01() throws IOException {
+        ChangeFileUpdateOperation op = new ChangeFileUpdateOperation("Changes", createChangeFile(25), 10, 0);
+        Assert.assertEquals(10, op.getUpdate().getOperations().size());
+        Assert.assertEquals(10, op.getUpdate().getOperations().size());
+        // Partial final batches are not produced, instead the file wraps
+        // around to the beginning
+        UpdateRequest batch = op.getUpdate();
+        Assert.assertEquals(10, batch.getOperations().size());
+        Assert.assertTrue(batch.toString().contains("<http://example.org/24>"));
+        Assert.assertTrue(batch.toString().contains("<http://example.org/4>"));
+    }
+
+    @Test
+    public void batched_change_file_length() throws IOException {
+        // Each line is well over 50 characters so a batch closes after 2
+        // statements
+        ChangeFileUpdateOperation op = new ChangeFileUpdateOperation("Changes", createChangeFile(25), 10, 100);
+        Assert.assertEquals(2, op.getUpdate().getOperations().size());
+    }
+
+    @Test
+    public void batched_change_file_02() throws IOException {
+        // Lines may end with a separator or a trailing comment
+        File file = File.createTempFile("changes", ".ru");
+        file.deleteOnExit();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("INSERT DATA { <http://example.org/0> <http://example.org/p> 0 } # Trailing comment");
+            writer.println("INSERT DATA { <http://example.org/1> <http://example.org/p> 1 } ;");
+            writer.println("INSERT DATA { <http://example.org/2> <http://example.org/p> 2 } ; # Both");
+            writer.println("INSERT DATA { <http://example.org/3> <http://example.org/p> 3 }");
+        } finally {
+            writer.close();
+        }
+
+        ChangeFileUpdateOperation op = new ChangeFileUpdateOperation("Changes", file, 4, 0);
+        UpdateRequest batch = op.getUpdate();
+        Assert.assertEquals(4, batch.getOperations().size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(batch.toString().contains("<http://example.org/" + i + ">"));
+        }
+    }
+
+    @Test
+    public void batched_change_file_statements() throws IOException {
+        // Batch size counts statements and lines are never split
+        File file = File.createTempFile("changes", ".ru");
+        file.deleteOnExit();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            int statement = 0;
+            for (int line = 1; line <= 4; line++) {
+                // Lines with 1, 2, 3 and 1 statements
+                for (int i = 0; i < (line == 4 ? 1 : line); i++, statement++) {
+                    writer.print("INSERT DATA { <http://example.org/" + statement + "> <http://example.org/p> 0 } ;");
+                }
+                writer.println();
+            }
+        } finally {
+            writer.close();
+        }
+
+        ChangeFileUpdateOperation op = new ChangeFileUpdateOperation("Changes", file, 2, 0);
+        // Second line doesn't fit in the first batch so is left for the next
+        Assert.assertEquals(1, op.getUpdate().getOperations().size());
+        UpdateRequest batch = op.getUpdate();
+        Assert.assertEquals(2, batch.getOperations().size());
+        Assert.assertTrue(batch.toString().contains("<http://example.org/1>"));
+        Assert.assertTrue(batch.toString().contains("<http://example.org/2>"));
+        // Third line has more statements than the batch size so is a batch on
+        // its own
+        Assert.assertEquals(3, op.getUpdate().getOperations().size());
+        batch = op.getUpdate();
+        Assert.assertEquals(2, batch.getOperations().size());
+        Assert.assertTrue(batch.toString().contains("<http://example.org/6>"));
+        Assert.assertTrue(batch.toString().contains("<http://example.org/0>"));
+    }
+
+    @Test(expected = IOException.class)
+    public void batched_change_file_empty() throws IOException {
+        new ChangeFileUpdateOperation("Changes", createChangeFile(0), 10, 0);
+    }
+
+    @Test
+    public void batched_param_update_01() {
+        List<Binding> params = new ArrayList<Binding>();
+        for (int i = 0; i < 100; i++) {
+            params.add(BindingFactory.binding(Var.alloc("s"), NodeFactory.createURI("urn:s" + i)));
+        }
+        BatchedParameterizedUpdateOperation op = new BatchedParameterizedUpdateOperation(
+                "PREFIX ex: <http://example.org/> INSERT DATA { ?s ex:p ex:o }", new ListParameterSource(params),
+                "Batch", new SequentialParameterSampler(params.size()), 25, 0);
+        UpdateRequest batch = op.getUpdate();
+        Assert.assertEquals(25, batch.getOperations().size());
+        Assert.assertTrue(batch.toString().contains("<urn:s0>"));
+        Assert.assertTrue(batch.toString().contains("<urn:s24>"));
+        Assert.assertFalse(batch.toString().contains("<urn:s25>"));
+    }
+
+    private List<Binding> createParameters(int count) {
+        List<Binding> params = new ArrayList<Binding>();
+        for (int i = 0; i < count; i++) {
+            params.add(BindingFactory.binding(Var.alloc("s"), NodeFactory.createURI("urn:s" + i)));
+        }
+        return params;
+    }
+
+    @Test
+    public void batched_param_update_statements() {
+        // Each binding of the template has two statements so batches hold
+        // as many bindings as fit entirely
+        List<Binding> params = createParameters(100);
+        String sparql = "PREFIX ex: <http://example.org/> INSERT DATA { ?s ex:p ex:o } ; DELETE DATA { ?s ex:q ex:o }";
+        BatchedParameterizedUpdateOperation op = new BatchedParameterizedUpdateOperation(sparql,
+                new ListParameterSource(params), "Batch", new SequentialParameterSampler(params.size()), 25, 0);
+        UpdateRequest batch = op.getUpdate();
+        Assert.assertEquals(24, batch.getOperations().size());
+        Assert.assertTrue(batch.toString().contains("<urn:s11>"));
+        Assert.assertFalse(batch.toString().contains("<urn:s12>"));
+
+        // At least one binding is always added
+        op = new BatchedParameterizedUpdateOperation(sparql, new ListParameterSource(params), "Batch",
+                new SequentialParameterSampler(params.size()), 1, 0);
+        Assert.assertEquals(2, op.getUpdate().getOperations().size());
+    }
+
+    @Test
+    public void batched_param_update_length() {
+        List<Binding> params = createParameters(10);
+        String sparql = "PREFIX ex: <http://example.org/> INSERT DATA { ?s ex:p ex:o . ?s ex:q $s }";
+        ParameterizedSparqlString pss = new ParameterizedSparqlString(sparql);
+        pss.setParam("s", params.get(0).get(Var.alloc("s")));
+        long length = pss.toString().length();
+        Assert.assertEquals(length, new ParameterizedUpdateTemplate(sparql).getBoundLength(params.get(0)));
+
+        // Batch closes once the bound length reaches the maximum
+        BatchedParameterizedUpdateOperation op = new BatchedParameterizedUpdateOperation(sparql,
+                new ListParameterSource(params), "Batch", new SequentialParameterSampler(params.size()), 100,
+                3 * length);
+        Assert.assertEquals(3, op.getUpdate().getOperations().size());
+    }
+}
@@ -0,0 +1,105 @@
+package net.sf.sparql.benchmarking.operations.update;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.jena.riot.WebContent;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import net.sf.sparql.benchmarking.operations.update.nvp.FixedNvpUpdateOperation;
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+
+public class TestPreparedUpdate {
+
+    private static final String UPDATE = "INSERT DATA { <http://example.org/s> <http://example.org/p> \"caf\u00e9\" }";
+
+    private HttpServer server;
+    private String endpoint;
+    private String lastContentType, lastQuery, lastBody;
+
+    @Before
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/update", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                lastContentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                lastQuery = exchange.getRequestURI().getRawQuery();
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                InputStream input = exchange.getRequestBody();
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+                lastBody = new String(body.toByteArray(), StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+        this.server.start();
+        this.endpoint = "http://localhost:" + this.server.getAddress().getPort() + "/update";
+    }
+
+    @After
+    public void teardown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void prepared_update_01() throws IOException {
+        FixedUpdateOperation op = new FixedUpdateOperation("Update", UPDATE);
+        PreparedUpdate prepared = op.getPreparedUpdate();
+        Assert.assertSame(op.getUpdate(), prepared.getUpdate());
+        Assert.assertEquals(op.getUpdate().toString(), prepared.getUpdateString());
+
+        HttpEntity entity = prepared.createEntity();
+        Assert.assertTrue(entity.isRepeatable());
+        Assert.assertEquals(prepared.getSize(), entity.getContentLength());
+        Assert.assertTrue(entity.getContentType().getValue().startsWith(WebContent.contentTypeSPARQLUpdate));
+        Assert.assertEquals(prepared.getUpdateString(), EntityUtils.toString(entity, "UTF-8"));
+    }
+
+    @Test
+    public void prepared_update_remote() throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setUpdateEndpoint(this.endpoint);
+        FixedUpdateOperation op = new FixedUpdateOperation("Update", UPDATE);
+        for (int i = 0; i < 2; i++) {
+            OperationRun run = op.createCallable(new BenchmarkRunner(), options).call();
+            Assert.assertTrue(run.wasSuccessful());
+            Assert.assertEquals(op.getPreparedUpdate().getUpdateString(), this.lastBody);
+            Assert.assertTrue(this.lastContentType.startsWith(WebContent.contentTypeSPARQLUpdate));
+        }
+    }
+
+    @Test
+    public void prepared_update_remote_nvps() throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setUpdateEndpoint(this.endpoint);
+        Map<String, List<String>> nvps = Collections.singletonMap("timeout", Arrays.asList("10"));
+        FixedNvpUpdateOperation op = new FixedNvpUpdateOperation("Update", UPDATE, nvps);
+        OperationRun run = op.createCallable(new BenchmarkRunner(), options).call();
+        Assert.assertTrue(run.wasSuccessful());
+        Assert.assertEquals("timeout=10", this.lastQuery);
+        Assert.assertEquals(op.getPreparedUpdate().getUpdateString(), this.lastBody);
+    }
+}
@@ -0,0 +1,27 @@
+package net.sf.sparql.benchmarking.operations.util;
+
+import net.sf.sparql.benchmarking.operations.AbstractOperationCallable;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+
+public class DelayCallable<T extends Options> extends AbstractOperationCallable<T> {
+
+    private final long delay;
+
+    public DelayCallable(long delay, Runner<T> runner, T options) {
+        super(runner, options);
+        this.delay = delay;
+    }
+
+    @Override
+    public OperationRun call() throws Exception {
+        // Stands in for waiting on I/O
+        long start = System.nanoTime();
+        Thread.sleep(this.delay);
+        long runtime = System.nanoTime() - start;
+        return new OperationRunImpl(runtime, runtime, 1);
+    }
+
+}
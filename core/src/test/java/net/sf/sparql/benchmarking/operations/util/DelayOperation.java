@@ -0,0 +1,44 @@
+package net.sf.sparql.benchmarking.operations.util;
+
+import net.sf.sparql.benchmarking.operations.AbstractOperation;
+import net.sf.sparql.benchmarking.operations.OperationCallable;
+import net.sf.sparql.benchmarking.options.Options;
+import net.sf.sparql.benchmarking.runners.Runner;
+import net.sf.sparql.benchmarking.stats.OperationRun;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+
+public class DelayOperation extends AbstractOperation {
+
+    private final long delay;
+
+    public DelayOperation(String name, long delay) {
+        super(name);
+        this.delay = delay;
+    }
+
+    @Override
+    public <T extends Options> boolean canRun(Runner<T> runner, T options) {
+        return true;
+    }
+
+    @Override
+    public <T extends Options> OperationCallable<T> createCallable(Runner<T> runner, T options) {
+        return new DelayCallable<T>(this.delay, runner, options);
+    }
+
+    @Override
+    public OperationRun createErrorInformation(String message, int category, long runtime) {
+        return new OperationRunImpl(message, category, runtime);
+    }
+
+    @Override
+    public String getType() {
+        return "Delay";
+    }
+
+    @Override
+    public String getContentString() {
+        return "Delay " + this.delay + "ms";
+    }
+
+}
@@ -0,0 +1,74 @@
+package net.sf.sparql.benchmarking.parallel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParallelClientCoordinator {
+
+    @Test
+    public void coordinator_start_01() throws InterruptedException {
+        final int clients = 50;
+        final ParallelClientCoordinator coordinator = new ParallelClientCoordinator(clients);
+        final AtomicInteger started = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        coordinator.clientRunning();
+                        started.incrementAndGet();
+                        coordinator.clientFinished();
+                    }
+                });
+            }
+
+            // No client may start before the coordinator is started
+            coordinator.awaitRunning();
+            Thread.sleep(50);
+            Assert.assertEquals(0, started.get());
+            Assert.assertFalse(coordinator.isStarted());
+
+            coordinator.start();
+            coordinator.awaitFinished();
+            Assert.assertTrue(coordinator.isFinished());
+            Assert.assertEquals(clients, started.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void coordinator_empty() throws InterruptedException {
+        ParallelClientCoordinator coordinator = new ParallelClientCoordinator(0);
+        coordinator.start();
+        coordinator.awaitFinished();
+        Assert.assertTrue(coordinator.isFinished());
+    }
+
+    @Test(timeout = 5000)
+    public void coordinator_halt_01() throws InterruptedException {
+        // Halting must release a manager waiting for clients that never
+        // arrive
+        final ParallelClientCoordinator coordinator = new ParallelClientCoordinator(10);
+        Thread halter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                coordinator.halt();
+            }
+        });
+        halter.start();
+        coordinator.start();
+        coordinator.awaitFinished();
+        Assert.assertTrue(coordinator.isHalted());
+    }
+}
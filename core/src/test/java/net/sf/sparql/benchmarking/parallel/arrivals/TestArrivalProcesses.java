@@ -0,0 +1,67 @@
+package net.sf.sparql.benchmarking.parallel.arrivals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestArrivalProcesses {
+
+    @Test
+    public void fixed_rate_01() {
+        ArrivalProcess process = new FixedRateArrivalProcess(10);
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), process.nextInterval(0));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), process.nextInterval(TimeUnit.SECONDS.toNanos(5)));
+        Assert.assertEquals(10, process.getRate(0), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fixed_rate_bad_01() {
+        new FixedRateArrivalProcess(0);
+    }
+
+    @Test
+    public void poisson_01() {
+        // Mean interval should converge on 1/rate
+        ArrivalProcess process = new PoissonArrivalProcess(100, 12345);
+        long total = 0;
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            total += process.nextInterval(total);
+        }
+        double mean = (double) total / n;
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), mean, TimeUnit.MILLISECONDS.toNanos(10) * 0.02);
+    }
+
+    @Test
+    public void poisson_02() {
+        // Same seed gives same schedule
+        ArrivalProcess a = new PoissonArrivalProcess(50, 1);
+        ArrivalProcess b = new PoissonArrivalProcess(50, 1);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(a.nextInterval(0), b.nextInterval(0));
+        }
+    }
+
+    @Test
+    public void schedule_01() {
+        ArrivalProcess process = ScheduledArrivalProcess.parse("10:1, 20:5,30:20", false, 0);
+        Assert.assertEquals(1, process.getRate(0), 0);
+        Assert.assertEquals(1, process.getRate(TimeUnit.SECONDS.toNanos(9)), 0);
+        Assert.assertEquals(5, process.getRate(TimeUnit.SECONDS.toNanos(10)), 0);
+        Assert.assertEquals(20, process.getRate(TimeUnit.SECONDS.toNanos(45)), 0);
+        // Final rate continues after the schedule ends
+        Assert.assertEquals(20, process.getRate(TimeUnit.SECONDS.toNanos(600)), 0);
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(200), process.nextInterval(TimeUnit.SECONDS.toNanos(15)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void schedule_bad_01() {
+        ScheduledArrivalProcess.parse("10", false, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void schedule_bad_02() {
+        ScheduledArrivalProcess.parse("10:0", false, 0);
+    }
+}
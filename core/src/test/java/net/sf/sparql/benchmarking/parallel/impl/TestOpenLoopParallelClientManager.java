@@ -0,0 +1,63 @@
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMixImpl;
+import net.sf.sparql.benchmarking.operations.util.DelayOperation;
+import net.sf.sparql.benchmarking.options.OpenLoopOptions;
+import net.sf.sparql.benchmarking.parallel.arrivals.FixedRateArrivalProcess;
+import net.sf.sparql.benchmarking.runners.OpenLoopRunner;
+
+public class TestOpenLoopParallelClientManager {
+
+    private OpenLoopParallelClientManager run(OpenLoopOptions options) throws Exception {
+        options.setTimeout(60);
+        OpenLoopParallelClientManager manager = new OpenLoopParallelClientManager(new OpenLoopRunner(), options);
+        manager.call();
+        options.getExecutor().shutdown();
+        Assert.assertTrue(manager.hasFinished());
+        Assert.assertEquals(0, manager.getBacklog());
+        Assert.assertEquals(manager.getScheduledRuns(), manager.getCompletedRuns() + manager.getDroppedRuns());
+        Assert.assertTrue(manager.getMaxBacklog() <= options.getMaxBacklog());
+        return manager;
+    }
+
+    @Test
+    public void open_loop_01() throws Exception {
+        // Clients easily keep up so nothing is dropped
+        OpenLoopOptions options = new OpenLoopOptions();
+        options.setParallelThreads(2);
+        options.setMaxRuns(20);
+        options.setArrivalProcess(new FixedRateArrivalProcess(200));
+        Operation op = new DelayOperation("Delay", 1);
+        options.setOperationMix(new OperationMixImpl(Collections.singletonList(op)));
+
+        OpenLoopParallelClientManager manager = this.run(options);
+        Assert.assertEquals(20, manager.getScheduledRuns());
+        Assert.assertEquals(20, manager.getCompletedRuns());
+        Assert.assertEquals(0, manager.getDroppedRuns());
+    }
+
+    @Test
+    public void open_loop_bounded_backlog_01() throws Exception {
+        // A single slow client falls behind so arrivals beyond the backlog
+        // are dropped rather than queued
+        OpenLoopOptions options = new OpenLoopOptions();
+        options.setParallelThreads(1);
+        options.setMaxRuns(50);
+        options.setMaxBacklog(2);
+        options.setArrivalProcess(new FixedRateArrivalProcess(500));
+        Operation op = new DelayOperation("Delay", 20);
+        options.setOperationMix(new OperationMixImpl(Collections.singletonList(op)));
+
+        OpenLoopParallelClientManager manager = this.run(options);
+        Assert.assertEquals(50, manager.getScheduledRuns());
+        Assert.assertTrue(manager.getDroppedRuns() > 0);
+        Assert.assertEquals(2, manager.getMaxBacklog());
+        Assert.assertEquals(manager.getCompletedRuns(), manager.getServiceTimes().getCount());
+    }
+}
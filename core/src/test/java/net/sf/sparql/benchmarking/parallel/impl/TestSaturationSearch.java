@@ -0,0 +1,198 @@
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMixImpl;
+import net.sf.sparql.benchmarking.operations.util.DelayOperation;
+import net.sf.sparql.benchmarking.options.StressOptions;
+import net.sf.sparql.benchmarking.runners.StressRunner;
+
+public class TestSaturationSearch {
+
+    /**
+     * Search manager whose load steps yield known results rather than running
+     * any clients
+     */
+    private static class StubSearchManager extends SaturationSearchParallelClientManager {
+
+        private final Map<Integer, Long> throughputs;
+        private final Map<Integer, Long> latencies;
+        private final List<Integer> threads = new ArrayList<Integer>();
+
+        /**
+         * Creates a new stub
+         * 
+         * @param options
+         *            Options
+         * @param throughputs
+         *            Runs per second by number of clients, the throughput of
+         *            the highest number of clients less than or equal to a
+         *            step is used for that step
+         * @param latencies
+         *            99th percentile latency in milliseconds by number of
+         *            clients, used the same way as throughputs
+         */
+        public StubSearchManager(StressOptions options, Map<Integer, Long> throughputs, Map<Integer, Long> latencies) {
+            super(new StressRunner(), options);
+            this.throughputs = throughputs;
+            this.latencies = latencies;
+        }
+
+        private static long lookup(Map<Integer, Long> values, int threads) {
+            int best = -1;
+            for (int t : values.keySet()) {
+                if (t <= threads && t > best)
+                    best = t;
+            }
+            return best == -1 ? 0 : values.get(best);
+        }
+
+        @Override
+        protected LoadStepResult runClients(int threads) {
+            Assert.assertEquals(threads, this.getOptions().getParallelThreads());
+            this.threads.add(threads);
+            long p99 = TimeUnit.MILLISECONDS.toNanos(lookup(this.latencies, threads));
+            // Each step runs for one second so runs is the throughput
+            return new LoadStepResult(threads, lookup(this.throughputs, threads), TimeUnit.SECONDS.toNanos(1), p99,
+                    p99, true);
+        }
+    }
+
+    private static Map<Integer, Long> values(long... pairs) {
+        Map<Integer, Long> values = new HashMap<Integer, Long>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            values.put((int) pairs[i], pairs[i + 1]);
+        }
+        return values;
+    }
+
+    private static Map<Integer, Long> linear(int maxThreads, long perThread) {
+        Map<Integer, Long> values = new HashMap<Integer, Long>();
+        for (int i = 1; i <= maxThreads; i++) {
+            values.put(i, i * perThread);
+        }
+        return values;
+    }
+
+    private StubSearchManager search(StressOptions options, Map<Integer, Long> throughputs,
+            Map<Integer, Long> latencies) throws Exception {
+        int originalThreads = options.getParallelThreads();
+        StubSearchManager manager = new StubSearchManager(options, throughputs, latencies);
+        manager.call();
+
+        // Configured threads are restored once the search finishes
+        Assert.assertEquals(originalThreads, options.getParallelThreads());
+        Assert.assertEquals(manager.threads.size(), manager.getSteps().size());
+        return manager;
+    }
+
+    @Test
+    public void saturation_search_ramp_01() throws Exception {
+        // Throughput scales linearly up to 16 clients then stays flat
+        StressOptions options = new StressOptions();
+        StubSearchManager manager = search(options, linear(16, 10), values(1, 10));
+
+        Assert.assertEquals(Integer.valueOf(options.getParallelThreads()), manager.threads.get(0));
+        Assert.assertEquals(16, manager.getSaturationPoint().getThreads());
+        Assert.assertEquals(160, manager.getMaxSustainableThroughput().getRuns());
+        // Ramps up to the first step that did not scale then searches
+        // between that and the last good step
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8, 16, 32, 24, 20, 18, 17), manager.threads);
+    }
+
+    @Test
+    public void saturation_search_ramp_max_threads() throws Exception {
+        // Search stops at the maximum threads if throughput is still scaling
+        StressOptions options = new StressOptions();
+        options.setMaxThreads(6);
+        StubSearchManager manager = search(options, linear(16, 10), values(1, 10));
+
+        Assert.assertEquals(6, manager.getSaturationPoint().getThreads());
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 6), manager.threads);
+    }
+
+    @Test
+    public void saturation_search_binary_01() throws Exception {
+        // Latency grows with clients so beyond 40 clients the SLO is broken,
+        // the binary search must find exactly 40
+        StressOptions options = new StressOptions();
+        options.setLatencySlo(40);
+        StubSearchManager manager = search(options, linear(128, 10), linear(128, 1));
+
+        Assert.assertEquals(40, manager.getSaturationPoint().getThreads());
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8, 16, 32, 64, 48, 40, 44, 42, 41), manager.threads);
+        for (LoadStepResult step : manager.getSteps()) {
+            Assert.assertEquals(step.getThreads() <= 40, step.isWithinSlo());
+        }
+        Assert.assertEquals(400, manager.getMaxSustainableThroughput().getRuns());
+    }
+
+    @Test
+    public void saturation_search_improvement_threshold_01() throws Exception {
+        // Doubling from 2 to 4 clients only gives 43.75% more throughput
+        Map<Integer, Long> throughputs = values(1, 100, 2, 160, 3, 210, 4, 230);
+
+        // With the default 5% minimum gain that is still scaling
+        StressOptions options = new StressOptions();
+        StubSearchManager manager = search(options, throughputs, values(1, 10));
+        Assert.assertEquals(4, manager.getSaturationPoint().getThreads());
+
+        // Requiring 50% more throughput when doubling the clients means 4
+        // clients is not an improvement, while 3 clients needs only 25% more
+        // since the load only increased by half
+        options = new StressOptions();
+        options.setMinThroughputGain(0.5);
+        manager = search(options, throughputs, values(1, 10));
+        Assert.assertEquals(3, manager.getSaturationPoint().getThreads());
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 3), manager.threads);
+    }
+
+    @Test
+    public void saturation_search_slo_01() throws Exception {
+        // If the very first step breaks the SLO there is no saturation point
+        // and no search
+        StressOptions options = new StressOptions();
+        options.setLatencySlo(5);
+        StubSearchManager manager = search(options, linear(16, 10), values(1, 10));
+
+        Assert.assertNull(manager.getSaturationPoint());
+        Assert.assertNull(manager.getMaxSustainableThroughput());
+        Assert.assertEquals(1, manager.getSteps().size());
+        Assert.assertFalse(manager.getSteps().get(0).isWithinSlo());
+    }
+
+    @Test
+    public void saturation_search_clients_01() throws Exception {
+        // Run real clients for a couple of short steps
+        StressOptions options = new StressOptions();
+        options.setParallelThreads(1);
+        options.setMaxThreads(2);
+        options.setStepDuration(1);
+        options.setMaxDelay(0);
+        options.setTimeout(60);
+        Operation op = new DelayOperation("Delay", 10);
+        options.setOperationMix(new OperationMixImpl(Collections.singletonList(op)));
+
+        SaturationSearchParallelClientManager manager = new SaturationSearchParallelClientManager(
+                new StressRunner(), options);
+        manager.call();
+        options.getExecutor().shutdown();
+
+        Assert.assertEquals(1, options.getParallelThreads());
+        Assert.assertFalse(manager.getSteps().isEmpty());
+        for (LoadStepResult step : manager.getSteps()) {
+            Assert.assertTrue(step.getRuns() > 0);
+            Assert.assertTrue(step.getP99ResponseTime() >= TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.options.ThreadingMode;
+import net.sf.sparql.benchmarking.util.ThreadingUtils;
+
+public class TestThreadingModes {
+
+    @Test
+    public void threading_mode_fallback() {
+        BenchmarkOptions options = ThreadingModesHelper.createOptions(ThreadingMode.VIRTUAL, 1, 1);
+        // Always get a usable executor regardless of JVM support
+        Assert.assertNotNull(options.getExecutor());
+        Assert.assertEquals(ThreadingMode.VIRTUAL, options.<BenchmarkOptions> copy().getThreadingMode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void threading_mode_fixed_once_used() {
+        BenchmarkOptions options = ThreadingModesHelper.createOptions(ThreadingMode.PLATFORM, 1, 1);
+        options.getExecutor();
+        options.setThreadingMode(ThreadingMode.VIRTUAL);
+    }
+
+    @Test
+    public void threading_mode_virtual_01() throws Exception {
+        Assume.assumeTrue(ThreadingUtils.isVirtualThreadSupported());
+        BenchmarkOptions options = ThreadingModesHelper.createOptions(ThreadingMode.VIRTUAL, 1, 1);
+        Thread[] thread = new Thread[1];
+        options.getExecutor().submit(() -> thread[0] = Thread.currentThread()).get();
+        Assert.assertTrue(ThreadingUtils.isVirtual(thread[0]));
+        ThreadingModesHelper.run(options);
+    }
+}
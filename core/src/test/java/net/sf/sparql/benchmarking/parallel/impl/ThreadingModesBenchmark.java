@@ -0,0 +1,37 @@
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.options.ThreadingMode;
+import net.sf.sparql.benchmarking.util.ThreadingUtils;
+
+/**
+ * Measures the harness overhead of the threading modes for large numbers of
+ * clients, only run when the {@code benchmarks} profile is active
+ */
+public class ThreadingModesBenchmark {
+
+    @Test
+    public void threading_mode_overhead() throws Exception {
+        // Each operation waits for 10ms so any time beyond that is
+        // attributable to the harness including starting the clients
+        int runsPerClient = 10;
+        for (int clients : new int[] { 1000, 10000 }) {
+            // Only compare at 10k clients when virtual threads are available
+            // since starting 10k platform threads is slow on some systems
+            if (clients > 1000 && !ThreadingUtils.isVirtualThreadSupported())
+                continue;
+            for (ThreadingMode mode : ThreadingMode.values()) {
+                if (mode == ThreadingMode.VIRTUAL && !ThreadingUtils.isVirtualThreadSupported())
+                    continue;
+                BenchmarkOptions options = ThreadingModesHelper.createOptions(mode, clients, runsPerClient);
+                long elapsed = ThreadingModesHelper.run(options);
+                long ideal = runsPerClient * ThreadingModesHelper.DELAY * 1000000L;
+                System.out.println(mode + " threads, " + clients + " clients: " + (elapsed / 1000000)
+                        + "ms elapsed, " + ((elapsed - ideal) / 1000000) + "ms harness overhead, "
+                        + (clients * runsPerClient * 1000000000L / elapsed) + " operations/second");
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package net.sf.sparql.benchmarking.parallel.impl;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+
+import net.sf.sparql.benchmarking.operations.Operation;
+import net.sf.sparql.benchmarking.operations.OperationMixImpl;
+import net.sf.sparql.benchmarking.operations.util.DelayOperation;
+import net.sf.sparql.benchmarking.options.BenchmarkOptions;
+import net.sf.sparql.benchmarking.options.ThreadingMode;
+import net.sf.sparql.benchmarking.runners.BenchmarkRunner;
+
+/**
+ * Helpers shared by the threading mode tests and benchmarks
+ */
+final class ThreadingModesHelper {
+
+    /**
+     * Delay in milliseconds of each operation
+     */
+    static final long DELAY = 10;
+
+    private ThreadingModesHelper() {
+    }
+
+    /**
+     * Creates options where each client runs a single operation which waits
+     * for {@link #DELAY} milliseconds
+     * 
+     * @param mode
+     *            Threading mode
+     * @param clients
+     *            Number of parallel clients
+     * @param runsPerClient
+     *            Number of runs per client
+     * @return Options
+     */
+    static BenchmarkOptions createOptions(ThreadingMode mode, int clients, int runsPerClient) {
+        BenchmarkOptions options = new BenchmarkOptions();
+        options.setThreadingMode(mode);
+        options.setParallelThreads(clients);
+        options.setRuns(clients * runsPerClient);
+        options.setMaxDelay(0);
+        options.setTimeout(60);
+        Operation op = new DelayOperation("Delay", DELAY);
+        options.setOperationMix(new OperationMixImpl(Collections.singletonList(op)));
+        return options;
+    }
+
+    /**
+     * Runs the parallel clients checking that every run completed
+     * 
+     * @param options
+     *            Options
+     * @return Elapsed time in nanoseconds
+     * @throws Exception
+     *             Thrown if running the clients fails
+     */
+    static long run(BenchmarkOptions options) throws Exception {
+        BenchmarkParallelClientManager<BenchmarkOptions> manager = new BenchmarkParallelClientManager<BenchmarkOptions>(
+                new BenchmarkRunner(), options);
+        long start = System.nanoTime();
+        manager.call();
+        long elapsed = System.nanoTime() - start;
+        options.getExecutor().shutdown();
+        Assert.assertTrue(manager.hasFinished());
+        Assert.assertEquals(options.getRuns(), options.getOperationMix().getOperation(0).getStats().getRunCount());
+        return elapsed;
+    }
+}
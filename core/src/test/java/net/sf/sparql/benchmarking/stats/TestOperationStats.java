@@ -0,0 +1,218 @@
+package net.sf.sparql.benchmarking.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.sparql.benchmarking.parallel.ParallelTimer;
+import net.sf.sparql.benchmarking.stats.impl.OperationRunImpl;
+import net.sf.sparql.benchmarking.stats.impl.OperationStatsImpl;
+import net.sf.sparql.benchmarking.stats.impl.StreamingOperationStatsImpl;
+import net.sf.sparql.benchmarking.util.ErrorCategories;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestOperationStats {
+
+    private void assertApproximately(long expected, long actual) {
+        // HDR histograms are only accurate to 3 significant digits
+        Assert.assertTrue("Expected ~" + expected + " but got " + actual,
+                Math.abs(expected - actual) <= Math.max(1, expected / 1000));
+    }
+
+    private OperationStats createStats(int runs) {
+        return populate(new OperationStatsImpl(), runs);
+    }
+
+    private OperationStats populate(OperationStats stats, int runs) {
+        for (int i = 1; i <= runs; i++) {
+            stats.add(new OperationRunImpl(i * 1000L, i * 100L, 0));
+        }
+        return stats;
+    }
+
+    @Test
+    public void percentiles_empty() {
+        OperationStats stats = new OperationStatsImpl();
+        Assert.assertEquals(0, stats.getPercentileRuntime(50));
+        Assert.assertEquals(0, stats.getPercentileResponseTime(99.9));
+    }
+
+    @Test
+    public void percentiles_01() {
+        OperationStats stats = createStats(1000);
+        assertApproximately(500000, stats.getPercentileRuntime(50));
+        assertApproximately(900000, stats.getPercentileRuntime(90));
+        assertApproximately(990000, stats.getPercentileRuntime(99));
+        assertApproximately(999000, stats.getPercentileRuntime(99.9));
+        assertApproximately(1000000, stats.getPercentileRuntime(100));
+    }
+
+    @Test
+    public void percentiles_02() {
+        OperationStats stats = createStats(1000);
+        assertApproximately(50000, stats.getPercentileResponseTime(50));
+        assertApproximately(99000, stats.getPercentileResponseTime(99));
+        assertApproximately(100000, stats.getPercentileResponseTime(100));
+    }
+
+    @Test
+    public void percentiles_trimmed() {
+        OperationStats stats = createStats(100);
+        stats.trim(10);
+        Assert.assertEquals(80, stats.getRunCount());
+        assertApproximately(90000, stats.getPercentileRuntime(100));
+        assertApproximately(11000, stats.getPercentileRuntime(0));
+    }
+
+    @Test
+    public void percentiles_cleared() {
+        OperationStats stats = createStats(100);
+        stats.clear();
+        Assert.assertEquals(0, stats.getPercentileRuntime(50));
+    }
+
+    @Test
+    public void streaming_01() {
+        OperationStats expected = createStats(1000);
+        OperationStats actual = populate(new StreamingOperationStatsImpl(), 1000);
+
+        Assert.assertEquals(expected.getRunCount(), actual.getRunCount());
+        Assert.assertFalse(actual.getRuns().hasNext());
+        Assert.assertEquals(expected.getTotalRuntime(), actual.getTotalRuntime());
+        Assert.assertEquals(expected.getTotalResponseTime(), actual.getTotalResponseTime());
+        Assert.assertEquals(expected.getAverageRuntime(), actual.getAverageRuntime());
+        Assert.assertEquals(expected.getMinimumRuntime(), actual.getMinimumRuntime());
+        Assert.assertEquals(expected.getMaximumRuntime(), actual.getMaximumRuntime());
+        Assert.assertEquals(expected.getVariance(), actual.getVariance(), expected.getVariance() / 1e9);
+        Assert.assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 1e-3);
+        Assert.assertEquals(expected.getGeometricAverageRuntime(), actual.getGeometricAverageRuntime(), 1e-3);
+        Assert.assertEquals(expected.getPercentileRuntime(99), actual.getPercentileRuntime(99));
+    }
+
+    @Test
+    public void streaming_errors() {
+        OperationStats expected = new OperationStatsImpl();
+        OperationStats actual = new StreamingOperationStatsImpl();
+        for (OperationStats stats : new OperationStats[] { expected, actual }) {
+            stats.add(new OperationRunImpl(1000L, 0));
+            stats.add(new OperationRunImpl("Timeout", ErrorCategories.TIMEOUT, 2000L));
+            stats.add(new OperationRunImpl("Timeout", ErrorCategories.TIMEOUT, 3000L));
+            stats.add(new OperationRunImpl("Failed", ErrorCategories.EXECUTION, 4000L));
+        }
+
+        Assert.assertEquals(3, actual.getTotalErrors());
+        Assert.assertEquals(expected.getTotalErrors(), actual.getTotalErrors());
+        Assert.assertEquals(expected.getCategorizedErrorCounts(), actual.getCategorizedErrorCounts());
+        Assert.assertEquals(Long.valueOf(2), actual.getCategorizedErrorCounts().get(ErrorCategories.TIMEOUT));
+        Assert.assertEquals(1, actual.getCategorizedErrors().get(ErrorCategories.TIMEOUT).size());
+
+        // Only the successful run counts towards the successful runtime
+        Assert.assertEquals(10000L, actual.getTotalRuntime());
+        Assert.assertEquals(1000L, actual.getTotalSuccessfulRuntime());
+        Assert.assertEquals(expected.getTotalSuccessfulRuntime(), actual.getTotalSuccessfulRuntime());
+    }
+
+    private void addPhaseTimedRuns(OperationStats stats) {
+        long[] timings = new long[HttpPhase.values().length];
+        for (int i = 1; i <= 10; i++) {
+            for (HttpPhase phase : HttpPhase.values()) {
+                timings[phase.ordinal()] = i * (phase.ordinal() + 1);
+            }
+            OperationRunImpl run = new OperationRunImpl(i * 1000L, 0);
+            run.setHttpPhaseTimings(new HttpPhaseTimings(timings, 1));
+            stats.add(run);
+        }
+        // Runs without phase timings are excluded from the phase averages
+        stats.add(new OperationRunImpl(5000L, 0));
+    }
+
+    @Test
+    public void phase_timings_01() {
+        OperationStats stats = new OperationStatsImpl();
+        addPhaseTimedRuns(stats);
+        Assert.assertEquals(11, stats.getRunCount());
+        Assert.assertEquals(10, stats.getPhaseTimedRunCount());
+        Assert.assertEquals(55, stats.getTotalPhaseTime(HttpPhase.DNS));
+        Assert.assertEquals(5, stats.getAveragePhaseTime(HttpPhase.DNS));
+        Assert.assertEquals(330, stats.getTotalPhaseTime(HttpPhase.PARSE));
+        Assert.assertEquals(33, stats.getAveragePhaseTime(HttpPhase.PARSE));
+    }
+
+    @Test
+    public void phase_timings_streaming() {
+        OperationStats expected = new OperationStatsImpl();
+        OperationStats actual = new StreamingOperationStatsImpl();
+        addPhaseTimedRuns(expected);
+        addPhaseTimedRuns(actual);
+        Assert.assertEquals(expected.getPhaseTimedRunCount(), actual.getPhaseTimedRunCount());
+        for (HttpPhase phase : HttpPhase.values()) {
+            Assert.assertEquals(expected.getTotalPhaseTime(phase), actual.getTotalPhaseTime(phase));
+            Assert.assertEquals(expected.getAveragePhaseTime(phase), actual.getAveragePhaseTime(phase));
+        }
+        actual.clear();
+        Assert.assertEquals(0, actual.getPhaseTimedRunCount());
+        Assert.assertEquals(0, actual.getAveragePhaseTime(HttpPhase.TTFB));
+    }
+
+    private void addConcurrently(final OperationStats stats, int threads, final int runs) throws InterruptedException {
+        List<Thread> ts = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            ts.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= runs; i++) {
+                        stats.getTimer().start();
+                        stats.add(new OperationRunImpl(i * 1000L, i * 100L, 0));
+                        stats.getTimer().stop();
+                    }
+                }
+            }));
+        }
+        for (Thread t : ts) {
+            t.start();
+        }
+        for (Thread t : ts) {
+            t.join();
+        }
+    }
+
+    @Test
+    public void concurrent_01() throws InterruptedException {
+        OperationStats stats = new OperationStatsImpl();
+        addConcurrently(stats, 8, 10000);
+        Assert.assertEquals(80000, stats.getRunCount());
+        Assert.assertEquals(8 * 50005000L * 1000L, stats.getTotalRuntime());
+        Assert.assertEquals(1000, stats.getMinimumRuntime());
+        Assert.assertEquals(10000000, stats.getMaximumRuntime());
+    }
+
+    @Test
+    public void concurrent_streaming() throws InterruptedException {
+        OperationStats expected = new OperationStatsImpl();
+        OperationStats actual = new StreamingOperationStatsImpl();
+        addConcurrently(expected, 8, 10000);
+        addConcurrently(actual, 8, 10000);
+
+        Assert.assertEquals(80000, actual.getRunCount());
+        Assert.assertEquals(expected.getTotalRuntime(), actual.getTotalRuntime());
+        Assert.assertEquals(expected.getTotalResponseTime(), actual.getTotalResponseTime());
+        Assert.assertEquals(expected.getMinimumRuntime(), actual.getMinimumRuntime());
+        Assert.assertEquals(expected.getMaximumRuntime(), actual.getMaximumRuntime());
+        Assert.assertEquals(expected.getVariance(), actual.getVariance(), expected.getVariance() / 1e9);
+        Assert.assertEquals(expected.getGeometricAverageRuntime(), actual.getGeometricAverageRuntime(), 1e-3);
+    }
+
+    @Test
+    public void parallel_timer_01() throws InterruptedException {
+        OperationStats stats = new OperationStatsImpl();
+        addConcurrently(stats, 8, 1000);
+        ParallelTimer timer = stats.getTimer();
+        // All starts must have been matched by stops
+        Assert.assertEquals(0, timer.getActiveThreads());
+        long runtime = timer.getActualRuntime();
+        Assert.assertTrue(runtime > 0);
+        timer.stop();
+        Assert.assertEquals(runtime, timer.getActualRuntime());
+    }
+}
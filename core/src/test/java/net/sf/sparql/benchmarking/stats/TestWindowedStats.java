@@ -0,0 +1,56 @@
+package net.sf.sparql.benchmarking.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.sparql.benchmarking.stats.impl.WindowedStats;
+
+public class TestWindowedStats {
+
+    @Test
+    public void windowed_stats_01() {
+        WindowedStats stats = new WindowedStats(60, 1000);
+        // 10 runs per second for 10 seconds, every 5th run is an error
+        for (int s = 0; s < 10; s++) {
+            for (int i = 1; i <= 10; i++) {
+                stats.record(100000 + s * 1000 + i * 10, i * 1000000L, i % 5 == 0);
+            }
+        }
+
+        // Current bucket is incomplete so is excluded
+        WindowedStats.Window w = stats.getWindow(110500, 1000);
+        Assert.assertEquals(10, w.getCount());
+        Assert.assertEquals(10, w.getThroughput(), 0.001);
+        Assert.assertEquals(2, w.getErrors());
+        Assert.assertEquals(0.2, w.getErrorRate(), 0.001);
+        Assert.assertEquals(5500000, w.getAverageRuntime());
+        Assert.assertEquals(10000000, w.getMaximumRuntime(), 100000);
+
+        w = stats.getWindow(110500, 10000);
+        Assert.assertEquals(100, w.getCount());
+        Assert.assertEquals(10, w.getThroughput(), 0.001);
+
+        // Larger windows include empty buckets
+        w = stats.getWindow(110500, 60000);
+        Assert.assertEquals(100, w.getCount());
+        Assert.assertEquals(100 / 60d, w.getThroughput(), 0.001);
+    }
+
+    @Test
+    public void windowed_stats_bounded() {
+        WindowedStats stats = new WindowedStats(10, 1000);
+        for (long t = 0; t < 100000; t += 100) {
+            stats.record(t, 1000, false);
+        }
+        // Only the most recent buckets are retained
+        Assert.assertEquals(100, stats.getWindow(100000, 60000).getCount());
+        Assert.assertEquals(10000, stats.getWindow(100000, 60000).getSize());
+        Assert.assertEquals(0, stats.getWindow(200000, 10000).getCount());
+
+        // Late runs for recycled buckets are discarded
+        stats.record(0, 1000, false);
+        Assert.assertEquals(100, stats.getWindow(100000, 10000).getCount());
+        stats.clear();
+        Assert.assertEquals(0, stats.getWindow(100000, 10000).getCount());
+    }
+}
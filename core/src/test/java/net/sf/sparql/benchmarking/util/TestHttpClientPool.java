@@ -0,0 +1,126 @@
+package net.sf.sparql.benchmarking.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class TestHttpClientPool {
+
+    private HttpServer server;
+    private String endpoint;
+    private HttpClientPool pool;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/fast", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] data = "ok".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, data.length);
+                exchange.getResponseBody().write(data);
+                exchange.close();
+            }
+        });
+        this.server.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                // Send the headers and then stall sending the body
+                exchange.sendResponseHeaders(200, 0);
+                exchange.getResponseBody().write('a');
+                exchange.getResponseBody().flush();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+                exchange.close();
+            }
+        });
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+        this.endpoint = "http://localhost:" + this.server.getAddress().getPort();
+        this.pool = new HttpClientPool(2, 5000, 0, true);
+    }
+
+    @After
+    public void teardown() {
+        this.release.countDown();
+        this.pool.close();
+        this.server.stop(0);
+    }
+
+    @Test
+    public void pool_active_released_01() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            HttpResponse response = this.pool.getClient().execute(new HttpGet(this.endpoint + "/fast"));
+            Assert.assertEquals(1, this.pool.getActiveRequests());
+            Assert.assertEquals("ok", EntityUtils.toString(response.getEntity()));
+            Assert.assertEquals(0, this.pool.getActiveRequests());
+        }
+
+        // Nothing in flight so nothing to abort
+        Assert.assertFalse(this.pool.abort(Thread.currentThread()));
+    }
+
+    @Test
+    public void pool_active_failed_01() {
+        try {
+            this.pool.getClient().execute(new HttpGet("http://localhost:1/fast"));
+            Assert.fail("Expected connection failure");
+        } catch (IOException e) {
+            // Expected
+        }
+        Assert.assertEquals(0, this.pool.getActiveRequests());
+    }
+
+    @Test(timeout = 5000)
+    public void pool_abort_01() throws Exception {
+        final Thread requester = Thread.currentThread();
+        HttpResponse response = this.pool.getClient().execute(new HttpGet(this.endpoint + "/slow"));
+        Assert.assertEquals(1, this.pool.getActiveRequests());
+
+        Thread aborter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                pool.abort(requester);
+            }
+        });
+        aborter.start();
+
+        // Blocked reading the body until the request is aborted
+        InputStream input = response.getEntity().getContent();
+        try {
+            while (input.read() != -1) {
+                // Keep reading
+            }
+        } catch (IOException e) {
+            // Expected since the connection was shut down
+        } finally {
+            input.close();
+        }
+        aborter.join();
+        Assert.assertEquals(0, this.pool.getActiveRequests());
+    }
+}